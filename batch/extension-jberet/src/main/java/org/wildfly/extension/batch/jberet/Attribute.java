@@ -32,6 +32,8 @@ public enum Attribute {
 
     UNKNOWN(null),
     DATA_SOURCE("data-source"),
+    MAX_AGE("max-age"),
+    MAX_EXECUTIONS("max-executions"),
     NAME("name"),
     VALUE("value");
 
@@ -17,12 +17,15 @@
 package org.wildfly.extension.batch.jberet;
 
 import org.jboss.as.controller.ModelVersion;
+import org.jboss.as.controller.PathElement;
 import org.jboss.as.controller.transform.ExtensionTransformerRegistration;
 import org.jboss.as.controller.transform.SubsystemTransformerRegistration;
 import org.jboss.as.controller.transform.description.ChainedTransformationDescriptionBuilder;
 import org.jboss.as.controller.transform.description.DiscardAttributeChecker;
 import org.jboss.as.controller.transform.description.RejectAttributeChecker;
+import org.jboss.as.controller.transform.description.ResourceTransformationDescriptionBuilder;
 import org.jboss.as.controller.transform.description.TransformationDescriptionBuilder;
+import org.wildfly.extension.batch.jberet.job.repository.InMemoryJobRepositoryDefinition;
 
 /**
  * @author <a href="mailto:jperkins@redhat.com">James R. Perkins</a>
@@ -39,11 +42,16 @@ public class BatchSubsystemExtensionTransformerRegistration implements Extension
     public void registerTransformers(final SubsystemTransformerRegistration subsystemRegistration) {
         final ChainedTransformationDescriptionBuilder chainedBuilder = TransformationDescriptionBuilder.Factory.createChainedSubystemInstance(subsystemRegistration.getCurrentSubsystemVersion());
 
-        chainedBuilder.createBuilder(subsystemRegistration.getCurrentSubsystemVersion(), VERSION_1_1_0)
-                .getAttributeBuilder()
+        final ResourceTransformationDescriptionBuilder builder = chainedBuilder.createBuilder(subsystemRegistration.getCurrentSubsystemVersion(), VERSION_1_1_0);
+        builder.getAttributeBuilder()
                 .setDiscard(DiscardAttributeChecker.UNDEFINED, BatchSubsystemDefinition.SECURITY_DOMAIN)
                 .addRejectCheck(RejectAttributeChecker.DEFINED, BatchSubsystemDefinition.SECURITY_DOMAIN)
                 .end();
+        builder.addChildResource(PathElement.pathElement(InMemoryJobRepositoryDefinition.NAME))
+                .getAttributeBuilder()
+                .setDiscard(DiscardAttributeChecker.UNDEFINED, InMemoryJobRepositoryDefinition.MAX_EXECUTIONS, InMemoryJobRepositoryDefinition.MAX_AGE)
+                .addRejectCheck(RejectAttributeChecker.DEFINED, InMemoryJobRepositoryDefinition.MAX_EXECUTIONS, InMemoryJobRepositoryDefinition.MAX_AGE)
+                .end();
 
         chainedBuilder.buildAndRegister(subsystemRegistration, new ModelVersion[]{VERSION_1_1_0});
     }
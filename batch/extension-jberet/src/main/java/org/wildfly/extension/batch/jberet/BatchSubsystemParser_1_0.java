@@ -54,12 +54,14 @@ public class BatchSubsystemParser_1_0 implements XMLStreamConstants, XMLElementR
     public static final BatchSubsystemParser_1_0 INSTANCE = new BatchSubsystemParser_1_0();
 
     private final Map<Element, SimpleAttributeDefinition> attributeElements;
+    private final Map<Attribute, SimpleAttributeDefinition> inMemoryAttributes;
 
     public BatchSubsystemParser_1_0() {
-        this(Collections.emptyMap());
+        this(Collections.emptyMap(), Collections.emptyMap());
     }
 
-    BatchSubsystemParser_1_0(final Map<Element, SimpleAttributeDefinition> additionalElements) {
+    BatchSubsystemParser_1_0(final Map<Element, SimpleAttributeDefinition> additionalElements, final Map<Attribute, SimpleAttributeDefinition> inMemoryAttributes) {
+        this.inMemoryAttributes = inMemoryAttributes;
         attributeElements = new HashMap<>(additionalElements);
         attributeElements.put(Element.DEFAULT_JOB_REPOSITORY, BatchSubsystemDefinition.DEFAULT_JOB_REPOSITORY);
         attributeElements.put(Element.DEFAULT_THREAD_POOL, BatchSubsystemDefinition.DEFAULT_THREAD_POOL);
@@ -126,7 +128,15 @@ public class BatchSubsystemParser_1_0 implements XMLStreamConstants, XMLElementR
             final String localName = reader.getLocalName();
             final Element element = Element.forName(localName);
             if (element == Element.IN_MEMORY) {
-                ops.add(Util.createAddOperation(subsystemAddress.append(InMemoryJobRepositoryDefinition.NAME, name)));
+                final ModelNode op = Util.createAddOperation(subsystemAddress.append(InMemoryJobRepositoryDefinition.NAME, name));
+                for (int i = 0; i < reader.getAttributeCount(); i++) {
+                    final SimpleAttributeDefinition attribute = inMemoryAttributes.get(Attribute.forName(reader.getAttributeLocalName(i)));
+                    if (attribute == null) {
+                        throw ParseUtils.unexpectedAttribute(reader, i);
+                    }
+                    attribute.parseAndSetParameter(reader.getAttributeValue(i), op, reader);
+                }
+                ops.add(op);
                 ParseUtils.requireNoContent(reader);
             } else if (element == Element.JDBC) {
                 final Map<Attribute, String> attributes = AttributeParsers.readRequiredAttributes(reader, EnumSet.of(Attribute.DATA_SOURCE));
@@ -17,11 +17,15 @@
 package org.wildfly.extension.batch.jberet;
 
 import java.util.Collections;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import javax.xml.stream.XMLStreamConstants;
 
+import org.jboss.as.controller.SimpleAttributeDefinition;
 import org.jboss.dmr.ModelNode;
 import org.jboss.staxmapper.XMLElementReader;
+import org.wildfly.extension.batch.jberet.job.repository.InMemoryJobRepositoryDefinition;
 
 /**
  * @author <a href="mailto:jperkins@redhat.com">James R. Perkins</a>
@@ -31,6 +35,13 @@ class BatchSubsystemParser_2_0 extends BatchSubsystemParser_1_0 implements XMLSt
     public static final BatchSubsystemParser_2_0 INSTANCE = new BatchSubsystemParser_2_0();
 
     public BatchSubsystemParser_2_0() {
-        super(Collections.singletonMap(Element.SECURITY_DOMAIN, BatchSubsystemDefinition.SECURITY_DOMAIN));
+        super(Collections.singletonMap(Element.SECURITY_DOMAIN, BatchSubsystemDefinition.SECURITY_DOMAIN), createInMemoryAttributes());
+    }
+
+    private static Map<Attribute, SimpleAttributeDefinition> createInMemoryAttributes() {
+        final Map<Attribute, SimpleAttributeDefinition> result = new EnumMap<>(Attribute.class);
+        result.put(Attribute.MAX_EXECUTIONS, InMemoryJobRepositoryDefinition.MAX_EXECUTIONS);
+        result.put(Attribute.MAX_AGE, InMemoryJobRepositoryDefinition.MAX_AGE);
+        return result;
     }
 }
\ No newline at end of file
@@ -57,6 +57,8 @@ public class BatchSubsystemWriter implements XMLElementWriter<SubsystemMarshalli
                 writer.writeStartElement(Element.JOB_REPOSITORY.getLocalName());
                 writeNameAttribute(writer, property.getName());
                 writer.writeEmptyElement(Element.IN_MEMORY.getLocalName());
+                InMemoryJobRepositoryDefinition.MAX_EXECUTIONS.marshallAsAttribute(property.getValue(), writer);
+                InMemoryJobRepositoryDefinition.MAX_AGE.marshallAsAttribute(property.getValue(), writer);
                 writer.writeEndElement(); // end job-repository
             }
         }
@@ -28,6 +28,7 @@ import javax.batch.operations.JobSecurityException;
 import javax.batch.operations.JobStartException;
 import javax.batch.operations.NoSuchJobException;
 
+import org.jboss.as.controller.OperationFailedException;
 import org.jboss.as.controller.PathElement;
 import org.jboss.as.server.deployment.DeploymentUnitProcessingException;
 import org.jboss.logging.BasicLogger;
@@ -215,4 +216,25 @@ public interface BatchLogger extends BasicLogger {
      */
     @Message(id = 20, value = "Permission denied. User %s does not have %s permissions.")
     JobSecurityException unauthorized(String user, Permission permission);
+
+    /**
+     * Creates an exception indicating the value of an operation parameter is not a valid date and time.
+     *
+     * @param name   the name of the parameter
+     * @param value  the invalid value
+     * @param format the expected format
+     *
+     * @return an {@link OperationFailedException} for the error
+     */
+    @Message(id = 21, value = "The value '%2$s' of parameter %1$s is not a date and time in the format %3$s")
+    OperationFailedException invalidDateTime(String name, String value, String format);
+
+    /**
+     * Logs a warning indicating the in-memory job repository could not be purged.
+     *
+     * @param cause the cause of the error
+     */
+    @LogMessage(level = Level.WARN)
+    @Message(id = 22, value = "Failed to purge the in-memory job repository.")
+    void failedToPurgeJobRepository(@Cause Throwable cause);
 }
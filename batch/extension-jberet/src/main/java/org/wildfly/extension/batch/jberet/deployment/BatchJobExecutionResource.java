@@ -24,10 +24,15 @@ package org.wildfly.extension.batch.jberet.deployment;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.function.Supplier;
+import javax.batch.operations.NoSuchJobException;
+import javax.batch.operations.NoSuchJobExecutionException;
+import javax.batch.runtime.BatchStatus;
 import javax.batch.runtime.JobExecution;
 import javax.batch.runtime.JobInstance;
 
@@ -38,19 +43,40 @@ import org.jboss.as.controller.registry.PlaceholderResource.PlaceholderResourceE
 import org.jboss.as.controller.registry.Resource;
 import org.jboss.dmr.ModelNode;
 import org.wildfly.extension.batch.jberet._private.BatchLogger;
+import org.wildfly.security.manager.WildFlySecurityManager;
 
 /**
  * Represents a dynamic resource for batch {@link javax.batch.runtime.JobExecution job executions}.
+ * <p>
+ * Only the executions of the most recent job instances are listed as children, see {@link #LISTING_LIMIT}. Any other
+ * execution of the job can still be addressed directly, as executions are looked up by their id on demand.
+ * </p>
  *
  * @author <a href="mailto:jperkins@redhat.com">James R. Perkins</a>
  */
 public class BatchJobExecutionResource implements Resource {
 
+    /**
+     * The number of job instances read from the job repository at a time.
+     */
+    static final int PAGE_SIZE = 100;
+
+    /**
+     * The maximum number of job instances, most recent first, whose executions are listed as children.
+     */
+    static final int LISTING_LIMIT = Integer.parseInt(WildFlySecurityManager.getPropertyPrivileged("org.wildfly.batch.jberet.execution.listing-limit", "1000"));
+
     private final Resource delegate;
     private final WildFlyJobOperator jobOperator;
     private final String jobName;
     // Should be guarded by it's instance
     private final Set<String> children = new LinkedHashSet<>();
+    // The execution names of the listed job instances, most recent first, guarded by the children
+    private Map<Long, List<String>> instances = new LinkedHashMap<>();
+    // The listed job instances which may still get new executions, guarded by the children
+    private final Map<Long, JobInstance> activeInstances = new LinkedHashMap<>();
+    // The number of job instances in the job repository as of the last refresh, guarded by the children
+    private int instanceCount;
 
     BatchJobExecutionResource(final WildFlyJobOperator jobOperator, final String jobName) {
         this(Factory.create(true), jobOperator, jobName);
@@ -110,7 +136,8 @@ public class BatchJobExecutionResource implements Resource {
     @Override
     public boolean hasChildren(final String childType) {
         if (BatchJobExecutionResourceDefinition.EXECUTION.equals(childType)) {
-            return !getChildrenNames(BatchJobExecutionResourceDefinition.EXECUTION).isEmpty();
+            // Every job instance has at least one execution
+            return jobOperator.allowMissingJob(() -> jobOperator.getJobInstanceCount(jobName), 0) > 0;
         }
         return delegate.hasChildren(childType);
     }
@@ -205,29 +232,111 @@ public class BatchJobExecutionResource implements Resource {
             if (children.contains(executionName)) {
                 return true;
             }
-            // Load a cache of the names
-            refreshChildren();
-            return children.contains(executionName);
+        }
+        // Look up the execution itself rather than loading the names of every execution of the job
+        final long executionId;
+        try {
+            executionId = Long.parseLong(executionName);
+        } catch (NumberFormatException e) {
+            return false;
+        }
+        try {
+            return jobName.equals(jobOperator.getJobInstance(executionId).getJobName());
+        } catch (NoSuchJobExecutionException | NoSuchJobException e) {
+            return false;
         }
     }
 
     /**
      * Note the access to the {@link #children} is <strong>not</strong> guarded here and needs to be externally
      * guarded.
+     * <p>
+     * Job instances are returned by the job operator most recent first. They are read a page at a time until an
+     * instance which is already known is found, after which only the executions of known instances which may have been
+     * restarted are read again. If the number of job instances in the repository shows that known instances were
+     * removed, for example by a purge of the job repository, the known instances are discarded and read again.
+     * </p>
      */
     private void refreshChildren() {
-        final List<JobExecution> executions = new ArrayList<>();
-        // Casting to (Supplier<List<JobInstance>>) is done here on purpose as a workaround for a bug in 1.8.0_45
-        final List<JobInstance> instances = jobOperator.allowMissingJob((Supplier<List<JobInstance>>)() -> jobOperator.getJobInstances(jobName, 0, jobOperator.getJobInstanceCount(jobName))
-                , Collections.emptyList());
-        for (JobInstance instance : instances) {
-            executions.addAll(jobOperator.getJobExecutions(instance));
+        // Counted before the instances are read, so that an instance removed in between is detected by the next refresh
+        final int instanceCount = jobOperator.allowMissingJob(() -> jobOperator.getJobInstanceCount(jobName), 0);
+        List<JobInstance> newInstances = getNewInstances();
+        if (!instances.isEmpty() && instanceCount != this.instanceCount + newInstances.size()) {
+            instances = new LinkedHashMap<>();
+            activeInstances.clear();
+            newInstances = getNewInstances();
         }
-        for (JobExecution execution : executions) {
-            final String name = Long.toString(execution.getExecutionId());
-            if (!children.contains(name)) {
-                children.add(name);
+        this.instanceCount = instanceCount;
+
+        final Map<Long, List<String>> refreshed = new LinkedHashMap<>();
+        for (JobInstance instance : newInstances) {
+            refreshed.put(instance.getInstanceId(), getExecutionNames(instance));
+        }
+        for (Map.Entry<Long, List<String>> entry : instances.entrySet()) {
+            if (refreshed.size() >= LISTING_LIMIT) {
+                break;
             }
+            final Long instanceId = entry.getKey();
+            List<String> names = entry.getValue();
+            final JobInstance activeInstance = activeInstances.get(instanceId);
+            if (activeInstance != null) {
+                names = getExecutionNames(activeInstance);
+            }
+            refreshed.put(instanceId, names);
+        }
+        activeInstances.keySet().retainAll(refreshed.keySet());
+        instances = refreshed;
+
+        children.clear();
+        for (List<String> names : instances.values()) {
+            children.addAll(names);
+        }
+    }
+
+    /**
+     * Returns the job instances, most recent first, which are not known yet.
+     */
+    private List<JobInstance> getNewInstances() {
+        final List<JobInstance> newInstances = new ArrayList<>();
+        int start = 0;
+        boolean done = false;
+        while (!done && start < LISTING_LIMIT) {
+            final int first = start;
+            final int count = Math.min(PAGE_SIZE, LISTING_LIMIT - start);
+            // Casting to (Supplier<List<JobInstance>>) is done here on purpose as a workaround for a bug in 1.8.0_45
+            final List<JobInstance> page = jobOperator.allowMissingJob((Supplier<List<JobInstance>>) () -> jobOperator.getJobInstances(jobName, first, count)
+                    , Collections.emptyList());
+            for (JobInstance instance : page) {
+                if (instances.containsKey(instance.getInstanceId())) {
+                    done = true;
+                    break;
+                }
+                newInstances.add(instance);
+            }
+            done |= page.size() < count;
+            start += page.size();
+        }
+        return newInstances;
+    }
+
+    /**
+     * Returns the names of the executions of the job instance, most recent first, and records whether the instance may
+     * still get new executions.
+     */
+    private List<String> getExecutionNames(final JobInstance instance) {
+        final List<JobExecution> executions = new ArrayList<>(jobOperator.getJobExecutions(instance));
+        executions.sort((e1, e2) -> Long.compare(e2.getExecutionId(), e1.getExecutionId()));
+        final List<String> names = new ArrayList<>(executions.size());
+        for (JobExecution execution : executions) {
+            names.add(Long.toString(execution.getExecutionId()));
+        }
+        // A completed or abandoned instance can not be restarted
+        final BatchStatus status = executions.isEmpty() ? null : executions.get(0).getBatchStatus();
+        if (status == BatchStatus.COMPLETED || status == BatchStatus.ABANDONED) {
+            activeInstances.remove(instance.getInstanceId());
+        } else {
+            activeInstances.put(instance.getInstanceId(), instance);
         }
+        return names;
     }
 }
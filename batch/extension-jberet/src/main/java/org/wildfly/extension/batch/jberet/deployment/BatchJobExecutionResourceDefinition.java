@@ -112,7 +112,13 @@ public class BatchJobExecutionResourceDefinition extends SimpleResourceDefinitio
         resourceRegistration.registerReadOnlyAttribute(INSTANCE_ID, new JobOperationReadOnlyStepHandler() {
             @Override
             protected void updateModel(final OperationContext context, final ModelNode model, final WildFlyJobOperator jobOperator, final String jobName) throws OperationFailedException {
-                final JobInstance jobInstance = jobOperator.getJobInstance(Long.parseLong(context.getCurrentAddressValue()));
+                final JobInstance jobInstance;
+                try {
+                    jobInstance = jobOperator.getJobInstance(Long.parseLong(context.getCurrentAddressValue()));
+                } catch (NoSuchJobExecutionException e) {
+                    // The execution was removed from the job repository since it was listed
+                    return;
+                }
                 model.set(jobInstance.getInstanceId());
             }
         });
@@ -197,7 +203,17 @@ public class BatchJobExecutionResourceDefinition extends SimpleResourceDefinitio
     abstract static class JobExecutionOperationStepHandler extends JobOperationReadOnlyStepHandler {
         @Override
         protected void updateModel(final OperationContext context, final ModelNode model, final WildFlyJobOperator jobOperator, final String jobName) throws OperationFailedException {
-            final JobExecution jobExecution = jobOperator.getJobExecution(Long.parseLong(context.getCurrentAddressValue()));
+            updateModel(model, jobOperator, Long.parseLong(context.getCurrentAddressValue()));
+        }
+
+        void updateModel(final ModelNode model, final WildFlyJobOperator jobOperator, final long executionId) throws OperationFailedException {
+            final JobExecution jobExecution;
+            try {
+                jobExecution = jobOperator.getJobExecution(executionId);
+            } catch (NoSuchJobExecutionException e) {
+                // The execution was removed from the job repository since it was listed, so the attribute is undefined
+                return;
+            }
             updateModel(model, jobExecution);
         }
 
@@ -22,17 +22,42 @@
 
 package org.wildfly.extension.batch.jberet.deployment;
 
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.format.ResolverStyle;
+import java.time.temporal.ChronoField;
+import java.time.temporal.TemporalAccessor;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.function.Supplier;
+import javax.batch.operations.NoSuchJobExecutionException;
+import javax.batch.runtime.BatchStatus;
+import javax.batch.runtime.JobExecution;
+import javax.batch.runtime.JobInstance;
+
 import org.jboss.as.controller.OperationContext;
 import org.jboss.as.controller.OperationFailedException;
 import org.jboss.as.controller.PathElement;
 import org.jboss.as.controller.SimpleAttributeDefinition;
 import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
 import org.jboss.as.controller.SimpleListAttributeDefinition;
+import org.jboss.as.controller.SimpleOperationDefinition;
+import org.jboss.as.controller.SimpleOperationDefinitionBuilder;
 import org.jboss.as.controller.SimpleResourceDefinition;
+import org.jboss.as.controller.descriptions.ResourceDescriptionResolver;
+import org.jboss.as.controller.operations.validation.EnumValidator;
+import org.jboss.as.controller.operations.validation.IntRangeValidator;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.dmr.ModelNode;
 import org.jboss.dmr.ModelType;
 import org.wildfly.extension.batch.jberet.BatchResourceDescriptionResolver;
+import org.wildfly.extension.batch.jberet._private.BatchLogger;
 
 /**
  * A definition representing a job resource.
@@ -58,10 +83,43 @@ public class BatchJobResourceDefinition extends SimpleResourceDefinition {
             .setStorageRuntime()
             .build();
 
+    // ISO 8601, with optional time, seconds, milliseconds and UTC offset in either the basic or the extended format
+    private static final String DATE_TIME_PATTERN = "yyyy-MM-dd['T'HH:mm[:ss][.SSS]][XXX][XX]";
+    private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern(DATE_TIME_PATTERN.replace("yyyy", "uuuu"))
+            .withResolverStyle(ResolverStyle.STRICT);
+
+    private static final ResourceDescriptionResolver DEFAULT_RESOLVER = BatchResourceDescriptionResolver.getResourceDescriptionResolver("deployment", "job");
+
+    private static final SimpleAttributeDefinition BATCH_STATUS = SimpleAttributeDefinitionBuilder.create("batch-status", ModelType.STRING, true)
+            .setValidator(new EnumValidator<>(BatchStatus.class, true, false))
+            .build();
+
+    private static final SimpleAttributeDefinition CREATED_AFTER = SimpleAttributeDefinitionBuilder.create("created-after", ModelType.STRING, true)
+            .build();
+
+    private static final SimpleAttributeDefinition CREATED_BEFORE = SimpleAttributeDefinitionBuilder.create("created-before", ModelType.STRING, true)
+            .build();
+
+    private static final SimpleAttributeDefinition AFTER_EXECUTION_ID = SimpleAttributeDefinitionBuilder.create("after-execution-id", ModelType.LONG, true)
+            .build();
+
+    private static final SimpleAttributeDefinition MAX_RESULTS = SimpleAttributeDefinitionBuilder.create("max-results", ModelType.INT, true)
+            .setDefaultValue(new ModelNode(BatchJobExecutionResource.PAGE_SIZE))
+            .setValidator(new IntRangeValidator(1, true))
+            .build();
+
+    private static final SimpleOperationDefinition QUERY_EXECUTIONS = new SimpleOperationDefinitionBuilder("query-executions", DEFAULT_RESOLVER)
+            .setParameters(BATCH_STATUS, CREATED_AFTER, CREATED_BEFORE, AFTER_EXECUTION_ID, MAX_RESULTS)
+            .setReplyType(ModelType.LIST)
+            .setReplyValueType(ModelType.LONG)
+            .setReadOnly()
+            .setRuntimeOnly()
+            .build();
+
     public static final BatchJobResourceDefinition INSTANCE = new BatchJobResourceDefinition();
 
     private BatchJobResourceDefinition() {
-        super(new Parameters(PathElement.pathElement(JOB), BatchResourceDescriptionResolver.getResourceDescriptionResolver("deployment", "job")).setRuntime());
+        super(new Parameters(PathElement.pathElement(JOB), DEFAULT_RESOLVER).setRuntime());
     }
 
     @Override
@@ -89,4 +147,133 @@ public class BatchJobResourceDefinition extends SimpleResourceDefinition {
         });
     }
 
+    @Override
+    public void registerOperations(final ManagementResourceRegistration resourceRegistration) {
+        super.registerOperations(resourceRegistration);
+
+        resourceRegistration.registerOperationHandler(QUERY_EXECUTIONS, new JobOperationStepHandler(false) {
+            @Override
+            protected void execute(final OperationContext context, final ModelNode operation, final WildFlyJobOperator jobOperator) throws OperationFailedException {
+                final ModelNode status = resolveValue(context, operation, BATCH_STATUS);
+                final BatchStatus batchStatus = status.isDefined() ? BatchStatus.valueOf(status.asString()) : null;
+                final Date createdAfter = resolveDate(context, operation, CREATED_AFTER);
+                final Date createdBefore = resolveDate(context, operation, CREATED_BEFORE);
+                final ModelNode after = resolveValue(context, operation, AFTER_EXECUTION_ID);
+                final int maxResults = resolveValue(context, operation, MAX_RESULTS).asInt();
+
+                final List<Long> executionIds;
+                try {
+                    executionIds = queryExecutions(jobOperator, context.getCurrentAddressValue(), batchStatus, createdAfter, createdBefore,
+                            after.isDefined() ? after.asLong() : null, maxResults);
+                } catch (NoSuchJobExecutionException e) {
+                    throw createOperationFailure(e);
+                }
+                final ModelNode result = context.getResult().setEmptyList();
+                for (Long executionId : executionIds) {
+                    result.add(executionId);
+                }
+            }
+        });
+    }
+
+    /**
+     * Returns the ids of the matching executions of a job. Executions are ordered by job instance, most recent first,
+     * then by execution, most recent first.
+     * <p>
+     * Pages are positioned by the id of the last execution of the previous page rather than by an offset, so that job
+     * instances created or purged between two queries do not cause executions to be skipped or returned twice.
+     * </p>
+     *
+     * @param jobOperator      the job operator
+     * @param jobName          the name of the job
+     * @param batchStatus      the status of the executions, or {@code null} for any status
+     * @param createdAfter     the time at or after which the executions were created, or {@code null}
+     * @param createdBefore    the time before which the executions were created, or {@code null}
+     * @param afterExecutionId the id of the execution the returned executions follow, or {@code null} for the first page
+     * @param maxResults       the maximum number of execution ids to return
+     *
+     * @return the matching execution ids
+     *
+     * @throws NoSuchJobExecutionException if there is no execution for {@code afterExecutionId}
+     */
+    static List<Long> queryExecutions(final WildFlyJobOperator jobOperator, final String jobName, final BatchStatus batchStatus,
+                                      final Date createdAfter, final Date createdBefore, final Long afterExecutionId, final int maxResults) {
+        final long afterInstanceId = (afterExecutionId != null) ? jobOperator.getJobInstance(afterExecutionId).getInstanceId() : Long.MAX_VALUE;
+        final List<Long> result = new ArrayList<>();
+        int start = 0;
+        // Read the job instances, most recent first, a page at a time until enough executions have matched
+        while (result.size() < maxResults) {
+            final int first = start;
+            final List<JobInstance> page = jobOperator.allowMissingJob((Supplier<List<JobInstance>>) () -> jobOperator.getJobInstances(jobName, first, BatchJobExecutionResource.PAGE_SIZE), new ArrayList<>());
+            for (JobInstance instance : page) {
+                if (result.size() == maxResults) {
+                    break;
+                }
+                // Instances are compared by id, not by position, so newer instances are skipped wherever they are
+                if (instance.getInstanceId() > afterInstanceId) {
+                    continue;
+                }
+                final List<JobExecution> executions = new ArrayList<>(jobOperator.getJobExecutions(instance));
+                executions.sort((e1, e2) -> Long.compare(e2.getExecutionId(), e1.getExecutionId()));
+                for (JobExecution execution : executions) {
+                    if (result.size() == maxResults) {
+                        break;
+                    }
+                    if (instance.getInstanceId() == afterInstanceId && execution.getExecutionId() >= afterExecutionId) {
+                        continue;
+                    }
+                    if (matches(execution, batchStatus, createdAfter, createdBefore)) {
+                        result.add(execution.getExecutionId());
+                    }
+                }
+            }
+            if (page.size() < BatchJobExecutionResource.PAGE_SIZE) {
+                break;
+            }
+            start += page.size();
+        }
+        return result;
+    }
+
+    /**
+     * Parses an ISO 8601 date, optionally followed by a time, with or without seconds and milliseconds, and optionally
+     * followed by a UTC offset, e.g. {@code 2017-01-31}, {@code 2017-01-31T13:45}, {@code 2017-01-31T13:45:30Z} or the
+     * {@link BatchJobExecutionResourceDefinition#ISO_8601_FORMAT format} of the execution times. A missing time is the
+     * start of the day, and a missing offset is the time zone of the server.
+     *
+     * @param value the value to parse
+     *
+     * @return the date
+     *
+     * @throws DateTimeParseException if the value is not a date and time in the accepted format
+     */
+    static Date parseDateTime(final String value) {
+        final TemporalAccessor parsed = DATE_TIME_FORMATTER.parse(value.trim());
+        final LocalTime time = parsed.isSupported(ChronoField.HOUR_OF_DAY) ? LocalTime.from(parsed) : LocalTime.MIDNIGHT;
+        final ZoneId zone = parsed.isSupported(ChronoField.OFFSET_SECONDS) ? ZoneOffset.from(parsed) : ZoneId.systemDefault();
+        return Date.from(ZonedDateTime.of(LocalDate.from(parsed), time, zone).toInstant());
+    }
+
+    private static boolean matches(final JobExecution execution, final BatchStatus batchStatus, final Date createdAfter, final Date createdBefore) {
+        if (batchStatus != null && batchStatus != execution.getBatchStatus()) {
+            return false;
+        }
+        final Date createTime = execution.getCreateTime();
+        if (createdAfter != null && (createTime == null || createTime.before(createdAfter))) {
+            return false;
+        }
+        return createdBefore == null || (createTime != null && createTime.before(createdBefore));
+    }
+
+    private static Date resolveDate(final OperationContext context, final ModelNode operation, final SimpleAttributeDefinition attribute) throws OperationFailedException {
+        final ModelNode value = JobOperationStepHandler.resolveValue(context, operation, attribute);
+        if (!value.isDefined()) {
+            return null;
+        }
+        try {
+            return parseDateTime(value.asString());
+        } catch (DateTimeParseException e) {
+            throw BatchLogger.LOGGER.invalidDateTime(attribute.getName(), value.asString(), DATE_TIME_PATTERN);
+        }
+    }
 }
@@ -65,6 +65,7 @@ import org.jboss.msc.service.StopContext;
 import org.jboss.msc.value.InjectedValue;
 import org.wildfly.extension.batch.jberet.BatchConfiguration;
 import org.wildfly.extension.batch.jberet._private.BatchLogger;
+import org.wildfly.extension.batch.jberet.thread.pool.JobTaskPolicy;
 import org.wildfly.security.auth.server.SecurityDomain;
 import org.wildfly.security.auth.server.SecurityIdentity;
 import org.wildfly.security.manager.WildFlySecurityManager;
@@ -222,7 +223,9 @@ public class JobOperatorService extends AbstractJobOperator implements WildFlyJo
                 jobXml = jobXMLName + ".xml";
             }
             if (resolver.isValidJobXmlName(jobXml)) {
-                return super.start(jobXml, jobParameters, getBatchEnvironment().getCurrentUserName());
+                final String userName = getBatchEnvironment().getCurrentUserName();
+                return JobTaskPolicy.of(deploymentName, resolver.resolveJobName(jobXml, classLoader), jobParameters)
+                        .submit(() -> super.start(jobXml, jobParameters, userName));
             }
             throw BatchLogger.LOGGER.couldNotFindJobXml(jobXMLName);
         } finally {
@@ -238,7 +241,9 @@ public class JobOperatorService extends AbstractJobOperator implements WildFlyJo
             WildFlySecurityManager.setCurrentContextClassLoaderPrivileged(classLoader);
             final JobInstance instance = super.getJobInstance(executionId);
             validateJob(instance.getJobName());
-            return super.restart(executionId, restartParameters, getBatchEnvironment().getCurrentUserName());
+            final String userName = getBatchEnvironment().getCurrentUserName();
+            return JobTaskPolicy.of(deploymentName, instance.getJobName(), restartParameters)
+                    .submit(() -> super.restart(executionId, restartParameters, userName));
         } finally {
             WildFlySecurityManager.setCurrentContextClassLoaderPrivileged(current);
         }
@@ -28,9 +28,16 @@ import org.jboss.as.controller.OperationContext;
 import org.jboss.as.controller.OperationFailedException;
 import org.jboss.as.controller.PathElement;
 import org.jboss.as.controller.ReloadRequiredRemoveStepHandler;
+import org.jboss.as.controller.ReloadRequiredWriteAttributeHandler;
+import org.jboss.as.controller.SimpleAttributeDefinition;
+import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
 import org.jboss.as.controller.SimpleResourceDefinition;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
+import org.jboss.as.controller.operations.validation.IntRangeValidator;
+import org.jboss.as.controller.operations.validation.LongRangeValidator;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
 import org.wildfly.extension.batch.jberet.BatchResourceDescriptionResolver;
 import org.wildfly.extension.batch.jberet._private.Capabilities;
 
@@ -44,11 +51,38 @@ public class InMemoryJobRepositoryDefinition extends SimpleResourceDefinition {
     public static final String NAME = "in-memory-job-repository";
     static final PathElement PATH = PathElement.pathElement(NAME);
 
+    /**
+     * The maximum number of job executions retained per job, undefined for no limit.
+     */
+    public static final SimpleAttributeDefinition MAX_EXECUTIONS = SimpleAttributeDefinitionBuilder.create("max-executions", ModelType.INT, true)
+            .setAllowExpression(true)
+            .setValidator(new IntRangeValidator(1, true, true))
+            .setRestartAllServices()
+            .build();
+
+    /**
+     * The time, in minutes, after which finished job executions are removed, undefined for no limit.
+     */
+    public static final SimpleAttributeDefinition MAX_AGE = SimpleAttributeDefinitionBuilder.create("max-age", ModelType.LONG, true)
+            .setAllowExpression(true)
+            .setMeasurementUnit(MeasurementUnit.MINUTES)
+            .setValidator(new LongRangeValidator(1, true, true))
+            .setRestartAllServices()
+            .build();
+
     public InMemoryJobRepositoryDefinition() {
         super(PATH, BatchResourceDescriptionResolver.getResourceDescriptionResolver(NAME), new InMemoryAddHandler(),
                 ReloadRequiredRemoveStepHandler.INSTANCE);
     }
 
+    @Override
+    public void registerAttributes(final ManagementResourceRegistration resourceRegistration) {
+        super.registerAttributes(resourceRegistration);
+        final ReloadRequiredWriteAttributeHandler handler = new ReloadRequiredWriteAttributeHandler(MAX_EXECUTIONS, MAX_AGE);
+        resourceRegistration.registerReadWriteAttribute(MAX_EXECUTIONS, null, handler);
+        resourceRegistration.registerReadWriteAttribute(MAX_AGE, null, handler);
+    }
+
     @Override
     public void registerCapabilities(ManagementResourceRegistration resourceRegistration) {
         resourceRegistration.registerCapability(Capabilities.JOB_REPOSITORY_CAPABILITY);
@@ -56,15 +90,20 @@ public class InMemoryJobRepositoryDefinition extends SimpleResourceDefinition {
 
     private static class InMemoryAddHandler extends AbstractAddStepHandler {
         InMemoryAddHandler() {
-            super(Capabilities.JOB_REPOSITORY_CAPABILITY);
+            super(Capabilities.JOB_REPOSITORY_CAPABILITY, MAX_EXECUTIONS, MAX_AGE);
         }
 
         @Override
         protected void performRuntime(final OperationContext context, final ModelNode operation, final ModelNode model) throws OperationFailedException {
             super.performRuntime(context, operation, model);
             final String name = context.getCurrentAddressValue();
+            final ModelNode maxExecutions = MAX_EXECUTIONS.resolveModelAttribute(context, model);
+            final ModelNode maxAge = MAX_AGE.resolveModelAttribute(context, model);
+            final InMemoryJobRepositoryService service = new InMemoryJobRepositoryService(
+                    maxExecutions.isDefined() ? maxExecutions.asInt() : null,
+                    maxAge.isDefined() ? maxAge.asLong() : null);
             context.getServiceTarget().addService(context.getCapabilityServiceName(Capabilities.JOB_REPOSITORY_CAPABILITY.getName(), name, JobRepository.class),
-                    new InMemoryJobRepositoryService()).install();
+                    service).install();
         }
     }
 }
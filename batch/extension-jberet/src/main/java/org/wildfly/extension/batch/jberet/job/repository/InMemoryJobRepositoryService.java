@@ -22,29 +22,87 @@
 
 package org.wildfly.extension.batch.jberet.job.repository;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import javax.batch.runtime.BatchStatus;
+import javax.batch.runtime.JobExecution;
+import javax.batch.runtime.JobInstance;
+import javax.batch.runtime.StepExecution;
+import javax.batch.runtime.context.JobContext;
+import javax.batch.runtime.context.StepContext;
+
 import org.jberet.repository.InMemoryRepository;
+import org.jberet.repository.JobExecutionSelector;
 import org.jberet.repository.JobRepository;
+import org.jberet.runtime.AbstractStepExecution;
+import org.jberet.runtime.JobExecutionImpl;
 import org.jboss.msc.service.Service;
 import org.jboss.msc.service.StartContext;
 import org.jboss.msc.service.StartException;
 import org.jboss.msc.service.StopContext;
+import org.jboss.threads.JBossThreadFactory;
+import org.wildfly.extension.batch.jberet._private.BatchLogger;
 
 /**
  * A service which provides an in-memory job repository.
+ * <p>
+ * If a maximum number of executions per job or a maximum age is configured, finished job instances beyond those limits
+ * are periodically removed from the repository, and the checkpoint data of the steps of completed or abandoned
+ * executions, which is only needed to restart a job, is released as soon as the execution ends. Without any limit the
+ * repository retains everything, as it always did.
+ * </p>
  *
  * @author <a href="mailto:jperkins@redhat.com">James R. Perkins</a>
  */
 public class InMemoryJobRepositoryService extends JobRepositoryService implements Service<JobRepository> {
 
+    private static final long PURGE_INTERVAL = TimeUnit.MINUTES.toMillis(1);
+
+    private final Integer maxExecutions;
+    private final Long maxAge;
     private volatile InMemoryRepository repository;
+    private volatile ScheduledExecutorService purgeExecutor;
+
+    public InMemoryJobRepositoryService() {
+        this(null, null);
+    }
+
+    /**
+     * Creates a new in-memory job repository service.
+     *
+     * @param maxExecutions the maximum number of executions retained per job or {@code null} for no limit
+     * @param maxAge        the number of minutes after which finished executions are removed or {@code null} for no
+     *                      limit
+     */
+    public InMemoryJobRepositoryService(final Integer maxExecutions, final Long maxAge) {
+        this.maxExecutions = maxExecutions;
+        this.maxAge = maxAge;
+    }
 
     @Override
     public void startJobRepository(final StartContext context) throws StartException {
         repository = new InMemoryRepository();
+        if (isRetentionLimited()) {
+            final ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, new JBossThreadFactory(new ThreadGroup("Batch-InMemoryJobRepository-Purge"), Boolean.TRUE, null, "%G - %t", null, null));
+            executor.scheduleWithFixedDelay(this::purge, PURGE_INTERVAL, PURGE_INTERVAL, TimeUnit.MILLISECONDS);
+            purgeExecutor = executor;
+        }
     }
 
     @Override
     public void stopJobRepository(final StopContext context) {
+        final ScheduledExecutorService executor = purgeExecutor;
+        if (executor != null) {
+            executor.shutdownNow();
+            purgeExecutor = null;
+        }
         repository = null;
     }
 
@@ -52,4 +110,139 @@ public class InMemoryJobRepositoryService extends JobRepositoryService implement
     protected JobRepository getDelegate() {
         return repository;
     }
+
+    @Override
+    public void updateJobExecution(final JobExecutionImpl jobExecution, final boolean fullUpdate, final boolean saveJobParameters) {
+        super.updateJobExecution(jobExecution, fullUpdate, saveJobParameters);
+        if (!isRetentionLimited()) {
+            return;
+        }
+        final BatchStatus status = jobExecution.getBatchStatus();
+        if (status == BatchStatus.COMPLETED || status == BatchStatus.ABANDONED) {
+            // The execution can no longer be restarted, so the checkpoints of its steps are not needed anymore
+            for (StepExecution stepExecution : jobExecution.getStepExecutions()) {
+                if (stepExecution instanceof AbstractStepExecution) {
+                    ((AbstractStepExecution) stepExecution).setReaderCheckpointInfo(null);
+                    ((AbstractStepExecution) stepExecution).setWriterCheckpointInfo(null);
+                }
+            }
+        }
+    }
+
+    private boolean isRetentionLimited() {
+        return maxExecutions != null || maxAge != null;
+    }
+
+    /**
+     * Removes the job instances, and their executions, which are beyond the retention limits. Only instances whose
+     * executions have all finished are removed. The most recent instances are retained first.
+     */
+    void purge() {
+        purge(System.currentTimeMillis());
+    }
+
+    /**
+     * Removes the job instances beyond the retention limits at the given time.
+     *
+     * @param now the current time in milliseconds
+     */
+    void purge(final long now) {
+        final InMemoryRepository repository = this.repository;
+        if (repository == null) {
+            return;
+        }
+        try {
+            final long oldest = (maxAge == null) ? Long.MIN_VALUE : now - TimeUnit.MINUTES.toMillis(maxAge);
+            final Set<Long> executionIds = new HashSet<>();
+            final List<Long> instanceIds = new ArrayList<>();
+            for (String jobName : repository.getJobNames()) {
+                final List<JobInstance> instances = new ArrayList<>(repository.getJobInstances(jobName));
+                instances.sort((i1, i2) -> Long.compare(i2.getInstanceId(), i1.getInstanceId()));
+                int retained = 0;
+                for (JobInstance instance : instances) {
+                    final List<JobExecution> executions = repository.getJobExecutions(instance);
+                    if (isFinished(executions) && (isExpired(executions, oldest) || (maxExecutions != null && retained + executions.size() > maxExecutions))) {
+                        instanceIds.add(instance.getInstanceId());
+                        for (JobExecution execution : executions) {
+                            executionIds.add(execution.getExecutionId());
+                        }
+                    } else {
+                        retained += executions.size();
+                    }
+                }
+            }
+            if (!instanceIds.isEmpty()) {
+                repository.removeJobExecutions(new JobExecutionIdSelector(executionIds));
+                for (Long instanceId : instanceIds) {
+                    repository.removeJobInstance(instanceId);
+                }
+                BatchLogger.LOGGER.debugf("Purged %d job instances and %d job executions from the in-memory job repository", instanceIds.size(), executionIds.size());
+            }
+        } catch (RuntimeException e) {
+            BatchLogger.LOGGER.failedToPurgeJobRepository(e);
+        }
+    }
+
+    private static boolean isFinished(final List<JobExecution> executions) {
+        for (JobExecution execution : executions) {
+            switch (execution.getBatchStatus()) {
+                case COMPLETED:
+                case FAILED:
+                case STOPPED:
+                case ABANDONED:
+                    break;
+                default:
+                    return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isExpired(final List<JobExecution> executions, final long oldest) {
+        for (JobExecution execution : executions) {
+            final Date endTime = (execution.getEndTime() != null) ? execution.getEndTime() : execution.getLastUpdatedTime();
+            if (endTime == null || endTime.getTime() >= oldest) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Selects the job executions with the given ids.
+     */
+    private static class JobExecutionIdSelector implements JobExecutionSelector {
+        private final Set<Long> executionIds;
+        private JobContext jobContext;
+        private StepContext stepContext;
+
+        JobExecutionIdSelector(final Set<Long> executionIds) {
+            this.executionIds = executionIds;
+        }
+
+        @Override
+        public boolean select(final JobExecution jobExecution, final Collection<Long> allJobExecutionIds) {
+            return executionIds.contains(jobExecution.getExecutionId());
+        }
+
+        @Override
+        public JobContext getJobContext() {
+            return jobContext;
+        }
+
+        @Override
+        public void setJobContext(final JobContext jobContext) {
+            this.jobContext = jobContext;
+        }
+
+        @Override
+        public StepContext getStepContext() {
+            return stepContext;
+        }
+
+        @Override
+        public void setStepContext(final StepContext stepContext) {
+            this.stepContext = stepContext;
+        }
+    }
 }
@@ -29,11 +29,17 @@ import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import org.jberet.spi.JobExecutor;
+import org.jboss.as.controller.AbstractRuntimeOnlyHandler;
+import org.jboss.as.controller.ObjectListAttributeDefinition;
+import org.jboss.as.controller.ObjectTypeAttributeDefinition;
 import org.jboss.as.controller.OperationContext;
 import org.jboss.as.controller.OperationFailedException;
 import org.jboss.as.controller.PathElement;
 import org.jboss.as.controller.ReadResourceNameOperationStepHandler;
+import org.jboss.as.controller.SimpleAttributeDefinition;
+import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
 import org.jboss.as.controller.SimpleResourceDefinition;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
 import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
 import org.jboss.as.controller.descriptions.ResourceDescriptionResolver;
 import org.jboss.as.controller.descriptions.StandardResourceDescriptionResolver;
@@ -48,7 +54,9 @@ import org.jboss.as.threads.UnboundedQueueThreadPoolMetricsHandler;
 import org.jboss.as.threads.UnboundedQueueThreadPoolRemove;
 import org.jboss.as.threads.UnboundedQueueThreadPoolWriteAttributeHandler;
 import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
 import org.jboss.msc.service.ServiceBuilder;
+import org.jboss.msc.service.ServiceController;
 import org.jboss.msc.service.ServiceName;
 import org.jboss.msc.service.ServiceTarget;
 import org.wildfly.extension.batch.jberet.BatchResourceDescriptionResolver;
@@ -65,6 +73,44 @@ public class BatchThreadPoolResourceDefinition extends SimpleResourceDefinition
     public static final String NAME = "thread-pool";
     static final PathElement PATH = PathElement.pathElement(NAME);
 
+    private static final SimpleAttributeDefinition JOB_NAME = SimpleAttributeDefinitionBuilder.create("job-name", ModelType.STRING)
+            .setStorageRuntime()
+            .build();
+
+    private static final SimpleAttributeDefinition PRIORITY = SimpleAttributeDefinitionBuilder.create("priority", ModelType.INT)
+            .setStorageRuntime()
+            .build();
+
+    private static final SimpleAttributeDefinition MAX_CONCURRENCY = SimpleAttributeDefinitionBuilder.create("max-concurrency", ModelType.INT)
+            .setStorageRuntime()
+            .build();
+
+    private static final SimpleAttributeDefinition RUNNING_TASKS = SimpleAttributeDefinitionBuilder.create("running-tasks", ModelType.INT)
+            .setStorageRuntime()
+            .build();
+
+    private static final SimpleAttributeDefinition QUEUED_TASKS = SimpleAttributeDefinitionBuilder.create("queued-tasks", ModelType.INT)
+            .setStorageRuntime()
+            .build();
+
+    private static final SimpleAttributeDefinition COMPLETED_TASKS = SimpleAttributeDefinitionBuilder.create("completed-tasks", ModelType.LONG)
+            .setStorageRuntime()
+            .build();
+
+    private static final SimpleAttributeDefinition AVERAGE_WAIT_TIME = SimpleAttributeDefinitionBuilder.create("average-wait-time", ModelType.LONG)
+            .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
+            .setStorageRuntime()
+            .build();
+
+    private static final ObjectTypeAttributeDefinition ACTIVE_JOB = ObjectTypeAttributeDefinition.Builder.of("active-job",
+            JOB_NAME, PRIORITY, MAX_CONCURRENCY, RUNNING_TASKS, QUEUED_TASKS, COMPLETED_TASKS, AVERAGE_WAIT_TIME)
+            .setStorageRuntime()
+            .build();
+
+    static final ObjectListAttributeDefinition ACTIVE_JOBS = ObjectListAttributeDefinition.Builder.of("active-jobs", ACTIVE_JOB)
+            .setStorageRuntime()
+            .build();
+
     private final boolean registerRuntimeOnly;
 
     public BatchThreadPoolResourceDefinition(final boolean registerRuntimeOnly) {
@@ -79,6 +125,7 @@ public class BatchThreadPoolResourceDefinition extends SimpleResourceDefinition
         new UnboundedQueueThreadPoolWriteAttributeHandler(BatchServiceNames.BASE_BATCH_THREAD_POOL_NAME).registerAttributes(resourceRegistration);
         if (registerRuntimeOnly) {
             new UnboundedQueueThreadPoolMetricsHandler(BatchServiceNames.BASE_BATCH_THREAD_POOL_NAME).registerAttributes(resourceRegistration);
+            resourceRegistration.registerMetric(ACTIVE_JOBS, ActiveJobsMetricHandler.INSTANCE);
         }
     }
 
@@ -124,6 +171,30 @@ public class BatchThreadPoolResourceDefinition extends SimpleResourceDefinition
         }
     }
 
+    private static class ActiveJobsMetricHandler extends AbstractRuntimeOnlyHandler {
+        static final ActiveJobsMetricHandler INSTANCE = new ActiveJobsMetricHandler();
+
+        @Override
+        protected void executeRuntimeStep(final OperationContext context, final ModelNode operation) throws OperationFailedException {
+            final ServiceController<?> controller = context.getServiceRegistry(false)
+                    .getService(context.getCapabilityServiceName(Capabilities.THREAD_POOL_CAPABILITY.getName(), context.getCurrentAddressValue(), JobExecutor.class));
+            final ModelNode result = context.getResult().setEmptyList();
+            final Object jobExecutor = (controller == null || controller.getState() != ServiceController.State.UP) ? null : controller.getValue();
+            if (jobExecutor instanceof WildFlyJobExecutor) {
+                for (FairJobTaskExecutor.JobStatistics statistics : ((WildFlyJobExecutor) jobExecutor).getActiveJobs()) {
+                    final ModelNode job = result.add();
+                    job.get(JOB_NAME.getName()).set(statistics.getName());
+                    job.get(PRIORITY.getName()).set(statistics.getPriority());
+                    job.get(MAX_CONCURRENCY.getName()).set(statistics.getMaxConcurrency());
+                    job.get(RUNNING_TASKS.getName()).set(statistics.getRunningTasks());
+                    job.get(QUEUED_TASKS.getName()).set(statistics.getQueuedTasks());
+                    job.get(COMPLETED_TASKS.getName()).set(statistics.getCompletedTasks());
+                    job.get(AVERAGE_WAIT_TIME.getName()).set(statistics.getAverageWaitTime());
+                }
+            }
+        }
+    }
+
     private static class BatchThreadFactoryResolver extends ThreadFactoryResolver.SimpleResolver {
         static final BatchThreadFactoryResolver INSTANCE = new BatchThreadFactoryResolver();
 
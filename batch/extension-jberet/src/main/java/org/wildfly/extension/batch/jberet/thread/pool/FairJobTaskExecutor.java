@@ -0,0 +1,361 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.batch.jberet.thread.pool;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+
+import org.jboss.as.threads.ManagedJBossThreadPoolExecutorService;
+
+/**
+ * An executor which shares the batch thread pool fairly between the active jobs.
+ * <p>
+ * A task submitted while a job is started or restarted, see {@link JobTaskPolicy}, runs the job itself and is passed
+ * straight to the thread pool. The tasks a running job submits, i.e. its partitions and split flows, are queued per job
+ * and handed to the thread pool using stride scheduling: the job with the lowest pass runs next, and each task handed
+ * to the thread pool advances the pass of its job by an amount inversely proportional to the priority of the job. No
+ * more queued tasks are handed to the thread pool than it has threads which are not running jobs, and no job runs more
+ * tasks at a time than its maximum concurrency.
+ * </p>
+ * <p>
+ * A task which submits tasks itself, i.e. a split flow running partitioned steps, waits for them to complete. From
+ * then on it no longer counts against the maximum concurrency of its job, otherwise the tasks it waits for could never
+ * run. It still occupies a thread, so it is not counted among the threads available for queued tasks.
+ * </p>
+ */
+class FairJobTaskExecutor implements Executor {
+
+    // The pass advances by at least STRIDE / JobTaskPolicy.MAX_PRIORITY per task
+    private static final long STRIDE = 1L << 20;
+
+    // The job the task run by the current thread belongs to
+    private static final ThreadLocal<JobTasks> CURRENT = new ThreadLocal<>();
+    // The queued task run by the current thread, if it is not running a job
+    private static final ThreadLocal<DispatchedTask> CURRENT_TASK = new ThreadLocal<>();
+
+    private final Executor delegate;
+    private final IntSupplier maxThreads;
+    // The following fields are guarded by this
+    private final Map<String, JobTasks> jobs = new LinkedHashMap<>();
+    private int runningJobs;
+    private int runningTasks;
+    private int waitingTasks;
+    private long pass;
+
+    FairJobTaskExecutor(final ManagedJBossThreadPoolExecutorService delegate) {
+        this(delegate, delegate::getMaxThreads);
+    }
+
+    FairJobTaskExecutor(final Executor delegate, final IntSupplier maxThreads) {
+        this.delegate = delegate;
+        this.maxThreads = maxThreads;
+    }
+
+    @Override
+    public void execute(final Runnable task) {
+        final JobTasks current = CURRENT.get();
+        if (current != null) {
+            final DispatchedTask parent = CURRENT_TASK.get();
+            synchronized (this) {
+                if (parent != null && !parent.waiting) {
+                    // The task will wait for the tasks it submits, so it releases its share of the job's concurrency
+                    parent.waiting = true;
+                    runningTasks--;
+                    waitingTasks++;
+                    current.running--;
+                    current.waiting++;
+                }
+                current.enqueue(task, pass);
+            }
+            dispatch();
+            return;
+        }
+        final JobTaskPolicy policy = JobTaskPolicy.submitting();
+        final JobTasks job;
+        synchronized (this) {
+            job = (policy == null) ? null : jobs.computeIfAbsent(policy.getName(), JobTasks::new);
+            if (job != null) {
+                job.update(policy);
+                job.references++;
+            }
+            runningJobs++;
+        }
+        try {
+            delegate.execute(() -> {
+                try {
+                    run(job, null, task);
+                } finally {
+                    jobCompleted(job);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            jobCompleted(job);
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the statistics of the jobs which currently have tasks running or queued.
+     *
+     * @return the statistics of the active jobs
+     */
+    synchronized List<JobStatistics> getActiveJobs() {
+        final List<JobStatistics> result = new ArrayList<>(jobs.size());
+        for (JobTasks job : jobs.values()) {
+            result.add(new JobStatistics(job));
+        }
+        return result;
+    }
+
+    private static void run(final JobTasks job, final DispatchedTask dispatched, final Runnable task) {
+        final JobTasks previous = CURRENT.get();
+        final DispatchedTask previousTask = CURRENT_TASK.get();
+        CURRENT.set(job);
+        CURRENT_TASK.set(dispatched);
+        try {
+            task.run();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+            if (previousTask == null) {
+                CURRENT_TASK.remove();
+            } else {
+                CURRENT_TASK.set(previousTask);
+            }
+        }
+    }
+
+    private void jobCompleted(final JobTasks job) {
+        synchronized (this) {
+            runningJobs--;
+            if (job != null) {
+                job.references--;
+                removeIfIdle(job);
+            }
+        }
+        dispatch();
+    }
+
+    private void taskCompleted(final DispatchedTask task) {
+        final JobTasks job = task.job;
+        synchronized (this) {
+            if (task.waiting) {
+                waitingTasks--;
+                job.waiting--;
+            } else {
+                runningTasks--;
+                job.running--;
+            }
+            job.completed++;
+            removeIfIdle(job);
+        }
+        dispatch();
+    }
+
+    /**
+     * Hands queued tasks to the thread pool for as long as it has threads available for them.
+     */
+    private void dispatch() {
+        final List<DispatchedTask> dispatched = new ArrayList<>();
+        synchronized (this) {
+            final int limit = Math.max(1, maxThreads.getAsInt() - runningJobs - waitingTasks);
+            while (runningTasks < limit) {
+                JobTasks next = null;
+                for (JobTasks job : jobs.values()) {
+                    if (job.isRunnable() && (next == null || job.pass < next.pass)) {
+                        next = job;
+                    }
+                }
+                if (next == null) {
+                    break;
+                }
+                dispatched.add(new DispatchedTask(next, next.poll()));
+                pass = next.pass;
+                next.pass += STRIDE / next.priority;
+                runningTasks++;
+            }
+        }
+        RejectedExecutionException rejected = null;
+        for (DispatchedTask task : dispatched) {
+            try {
+                delegate.execute(task);
+            } catch (RejectedExecutionException e) {
+                // The thread pool is shutting down
+                taskCompleted(task);
+                rejected = e;
+            }
+        }
+        if (rejected != null) {
+            throw rejected;
+        }
+    }
+
+    private void removeIfIdle(final JobTasks job) {
+        if (job.references == 0 && job.running == 0 && job.waiting == 0 && job.queue.isEmpty()) {
+            jobs.remove(job.name);
+        }
+    }
+
+    private class DispatchedTask implements Runnable {
+        final JobTasks job;
+        private final Runnable task;
+        // whether the task waits for the tasks it submitted, guarded by the executor
+        boolean waiting;
+
+        DispatchedTask(final JobTasks job, final Runnable task) {
+            this.job = job;
+            this.task = task;
+        }
+
+        @Override
+        public void run() {
+            try {
+                FairJobTaskExecutor.run(job, this, task);
+            } finally {
+                taskCompleted(this);
+            }
+        }
+    }
+
+    /**
+     * The queued tasks of a job. Guarded by the executor.
+     */
+    private static class JobTasks {
+        final String name;
+        final Deque<QueuedTask> queue = new ArrayDeque<>();
+        int priority = 1;
+        int maxConcurrency;
+        // the number of running tasks which started the job
+        int references;
+        int running;
+        // the number of running tasks which wait for the tasks they submitted
+        int waiting;
+        long completed;
+        long dispatched;
+        long totalWaitTime;
+        long pass;
+
+        JobTasks(final String name) {
+            this.name = name;
+        }
+
+        void update(final JobTaskPolicy policy) {
+            priority = policy.getPriority();
+            maxConcurrency = policy.getMaxConcurrency();
+        }
+
+        void enqueue(final Runnable task, final long currentPass) {
+            if (queue.isEmpty() && running == 0 && waiting == 0) {
+                // A job which was idle does not get credit for the time it did not use the thread pool
+                pass = Math.max(pass, currentPass);
+            }
+            queue.add(new QueuedTask(task));
+        }
+
+        boolean isRunnable() {
+            return !queue.isEmpty() && (maxConcurrency == 0 || running < maxConcurrency);
+        }
+
+        Runnable poll() {
+            final QueuedTask task = queue.poll();
+            totalWaitTime += System.nanoTime() - task.queued;
+            dispatched++;
+            running++;
+            return task.task;
+        }
+    }
+
+    private static class QueuedTask {
+        final Runnable task;
+        final long queued = System.nanoTime();
+
+        QueuedTask(final Runnable task) {
+            this.task = task;
+        }
+    }
+
+    /**
+     * A snapshot of the statistics of an active job.
+     */
+    static class JobStatistics {
+        private final String name;
+        private final int priority;
+        private final int maxConcurrency;
+        private final int runningTasks;
+        private final int queuedTasks;
+        private final long completedTasks;
+        private final long averageWaitTime;
+
+        JobStatistics(final JobTasks job) {
+            name = job.name;
+            priority = job.priority;
+            maxConcurrency = job.maxConcurrency;
+            runningTasks = job.running + job.waiting;
+            queuedTasks = job.queue.size();
+            completedTasks = job.completed;
+            averageWaitTime = (job.dispatched == 0) ? 0 : TimeUnit.NANOSECONDS.toMillis(job.totalWaitTime / job.dispatched);
+        }
+
+        String getName() {
+            return name;
+        }
+
+        int getPriority() {
+            return priority;
+        }
+
+        int getMaxConcurrency() {
+            return maxConcurrency;
+        }
+
+        int getRunningTasks() {
+            return runningTasks;
+        }
+
+        int getQueuedTasks() {
+            return queuedTasks;
+        }
+
+        long getCompletedTasks() {
+            return completedTasks;
+        }
+
+        /**
+         * @return the average time, in milliseconds, the tasks of the job were queued before running
+         */
+        long getAverageWaitTime() {
+            return averageWaitTime;
+        }
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.batch.jberet.thread.pool;
+
+import java.util.Properties;
+import java.util.function.Supplier;
+
+/**
+ * Describes how the tasks of a batch job are scheduled on the batch thread pool. The policy is associated with the
+ * thread starting or restarting the job, so that the job executor can attribute the tasks of the job to it.
+ * <p>
+ * The priority and the maximum concurrency are read from the {@value #PRIORITY} and {@value #MAX_CONCURRENCY} job
+ * parameters. Jobs which are started with no such parameters have a priority of {@code 1} and no concurrency limit.
+ * </p>
+ */
+public final class JobTaskPolicy {
+
+    /**
+     * The job parameter defining the share of the thread pool given to the job, relative to other active jobs. Values
+     * above {@value #MAX_PRIORITY} are treated as {@value #MAX_PRIORITY}.
+     */
+    public static final String PRIORITY = "org.wildfly.batch.priority";
+
+    /**
+     * The highest priority of a job.
+     */
+    public static final int MAX_PRIORITY = 1 << 10;
+
+    /**
+     * The job parameter defining the maximum number of partition and split flow tasks of the job run at a time.
+     */
+    public static final String MAX_CONCURRENCY = "org.wildfly.batch.max-concurrency";
+
+    private static final ThreadLocal<JobTaskPolicy> SUBMITTING = new ThreadLocal<>();
+
+    private final String name;
+    private final int priority;
+    private final int maxConcurrency;
+
+    private JobTaskPolicy(final String name, final int priority, final int maxConcurrency) {
+        this.name = name;
+        this.priority = priority;
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    /**
+     * Creates the policy of a job.
+     *
+     * @param deploymentName the name of the deployment the job belongs to
+     * @param jobName        the name of the job
+     * @param parameters     the job parameters, may be {@code null}
+     *
+     * @return the policy of the job
+     */
+    public static JobTaskPolicy of(final String deploymentName, final String jobName, final Properties parameters) {
+        return new JobTaskPolicy(deploymentName + "/" + jobName, Math.min(getIntParameter(parameters, PRIORITY, 1, 1), MAX_PRIORITY), getIntParameter(parameters, MAX_CONCURRENCY, 0, 0));
+    }
+
+    /**
+     * Runs the action, typically starting or restarting a job, associating this policy with the tasks it submits.
+     *
+     * @param action the action to run
+     * @param <T>    the result type
+     *
+     * @return the result of the action
+     */
+    public <T> T submit(final Supplier<T> action) {
+        final JobTaskPolicy previous = SUBMITTING.get();
+        SUBMITTING.set(this);
+        try {
+            return action.get();
+        } finally {
+            if (previous == null) {
+                SUBMITTING.remove();
+            } else {
+                SUBMITTING.set(previous);
+            }
+        }
+    }
+
+    /**
+     * Returns the policy associated with the current thread.
+     *
+     * @return the policy or {@code null} if the current thread is not submitting a job
+     */
+    static JobTaskPolicy submitting() {
+        return SUBMITTING.get();
+    }
+
+    String getName() {
+        return name;
+    }
+
+    int getPriority() {
+        return priority;
+    }
+
+    /**
+     * @return the maximum number of tasks run at a time, {@code 0} for no limit
+     */
+    int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    private static int getIntParameter(final Properties parameters, final String name, final int defaultValue, final int minimum) {
+        final String value = (parameters == null) ? null : parameters.getProperty(name);
+        if (value != null) {
+            try {
+                final int result = Integer.parseInt(value.trim());
+                if (result >= minimum) {
+                    return result;
+                }
+            } catch (NumberFormatException ignore) {
+            }
+        }
+        return defaultValue;
+    }
+}
@@ -22,22 +22,41 @@
 
 package org.wildfly.extension.batch.jberet.thread.pool;
 
+import java.util.List;
+
 import org.jberet.spi.JobExecutor;
 import org.jboss.as.threads.ManagedJBossThreadPoolExecutorService;
 
 /**
+ * A job executor which shares the thread pool fairly between the active jobs, see {@link FairJobTaskExecutor}.
+ *
  * @author <a href="mailto:jperkins@redhat.com">James R. Perkins</a>
  */
 class WildFlyJobExecutor extends JobExecutor {
     private final ManagedJBossThreadPoolExecutorService delegate;
+    private final FairJobTaskExecutor executor;
 
     public WildFlyJobExecutor(final ManagedJBossThreadPoolExecutorService delegate) {
-        super(delegate);
+        this(delegate, new FairJobTaskExecutor(delegate));
+    }
+
+    private WildFlyJobExecutor(final ManagedJBossThreadPoolExecutorService delegate, final FairJobTaskExecutor executor) {
+        super(executor);
         this.delegate = delegate;
+        this.executor = executor;
     }
 
     @Override
     protected int getMaximumPoolSize() {
         return delegate.getMaxThreads();
     }
+
+    /**
+     * Returns the statistics of the jobs which currently have tasks running or queued.
+     *
+     * @return the statistics of the active jobs
+     */
+    List<FairJobTaskExecutor.JobStatistics> getActiveJobs() {
+        return executor.getActiveJobs();
+    }
 }
@@ -33,6 +33,7 @@ import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.regex.Pattern;
+import javax.xml.stream.XMLStreamException;
 
 import org.jboss.as.subsystem.test.AdditionalInitialization;
 import org.junit.Assert;
@@ -91,6 +92,20 @@ public class JBeretSubsystemParsingTestCase extends AbstractBatchTestCase {
         standardSubsystemTest("/security-domain-subsystem.xml");
     }
 
+    @Test
+    public void testInMemoryRetentionSubsystem() throws Exception {
+        standardSubsystemTest("/in-memory-retention-subsystem.xml");
+    }
+
+    @Test
+    public void testInMemoryRetentionRejectedBy1_0() throws Exception {
+        try {
+            parse(readResource("/invalid-in-memory-retention_1_0.xml"));
+            Assert.fail("The max-executions attribute should not be accepted by the 1.0 namespace");
+        } catch (XMLStreamException expected) {
+        }
+    }
+
     @Test
     public void testLegacySubsystems() throws Exception {
         // Get a list of all the logging_x_x.xml files
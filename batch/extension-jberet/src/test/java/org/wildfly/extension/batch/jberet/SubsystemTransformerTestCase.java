@@ -24,6 +24,7 @@ import java.util.List;
 
 import org.jboss.as.controller.ModelVersion;
 import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.PathElement;
 import org.jboss.as.model.test.FailedOperationTransformationConfig;
 import org.jboss.as.model.test.ModelTestControllerVersion;
 import org.jboss.as.model.test.ModelTestUtils;
@@ -33,6 +34,7 @@ import org.jboss.as.subsystem.test.KernelServicesBuilder;
 import org.jboss.dmr.ModelNode;
 import org.junit.Assert;
 import org.junit.Test;
+import org.wildfly.extension.batch.jberet.job.repository.InMemoryJobRepositoryDefinition;
 
 /**
  * @author <a href="mailto:jperkins@redhat.com">James R. Perkins</a>
@@ -93,11 +95,13 @@ public class SubsystemTransformerTestCase extends AbstractBatchTestCase {
         Assert.assertTrue("main services did not boot", mainServices.isSuccessfulBoot());
         Assert.assertTrue(legacyServices.isSuccessfulBoot());
 
-        final List<ModelNode> ops = builder.parseXmlResource("/default-subsystem.xml");
+        final List<ModelNode> ops = builder.parseXmlResource("/in-memory-retention-subsystem.xml");
         ModelTestUtils.checkFailedTransformedBootOperations(mainServices, legacyVersion, ops,
                 new FailedOperationTransformationConfig()
                         .addFailedAttribute(PathAddress.pathAddress(BatchSubsystemDefinition.SUBSYSTEM_PATH),
                                 new FailedOperationTransformationConfig.NewAttributesConfig(BatchSubsystemDefinition.SECURITY_DOMAIN))
+                        .addFailedAttribute(PathAddress.pathAddress(BatchSubsystemDefinition.SUBSYSTEM_PATH, PathElement.pathElement(InMemoryJobRepositoryDefinition.NAME, "in-memory")),
+                                new FailedOperationTransformationConfig.NewAttributesConfig(InMemoryJobRepositoryDefinition.MAX_EXECUTIONS, InMemoryJobRepositoryDefinition.MAX_AGE))
         );
     }
 }
@@ -0,0 +1,409 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.batch.jberet.deployment;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TimeZone;
+import javax.batch.operations.NoSuchJobExecutionException;
+import javax.batch.runtime.BatchStatus;
+import javax.batch.runtime.JobExecution;
+import javax.batch.runtime.JobInstance;
+import javax.batch.runtime.StepExecution;
+
+import org.jboss.as.controller.PathElement;
+import org.jboss.dmr.ModelNode;
+import org.junit.Test;
+
+/**
+ * Tests the paging of job executions by {@link BatchJobResourceDefinition#queryExecutions} and the listing of the
+ * executions by {@link BatchJobExecutionResource}.
+ */
+public class JobExecutionPagingTestCase {
+
+    private static final String JOB_NAME = "test-job";
+
+    private final TestJobOperator jobOperator = new TestJobOperator();
+
+    @Test
+    public void queryPages() {
+        // 3 instances with 2 executions each, ordered by instance then execution, most recent first: 6, 5, 4, 3, 2, 1
+        for (int i = 0; i < 3; i++) {
+            final TestJobInstance instance = jobOperator.createInstance();
+            jobOperator.createExecution(instance, BatchStatus.FAILED, new Date(1000L * i));
+            jobOperator.createExecution(instance, BatchStatus.COMPLETED, new Date(1000L * i + 500L));
+        }
+
+        assertEquals(Arrays.asList(6L, 5L), query(null, 2));
+        assertEquals(Arrays.asList(4L, 3L), query(5L, 2));
+
+        // A new instance must neither shift the following page nor be returned by it
+        final TestJobInstance newInstance = jobOperator.createInstance();
+        jobOperator.createExecution(newInstance, BatchStatus.STARTED, new Date());
+        assertEquals(Arrays.asList(2L, 1L), query(3L, 2));
+        assertEquals(Collections.emptyList(), query(1L, 2));
+
+        // The first page starts from the most recent instance
+        assertEquals(Arrays.asList(7L, 6L, 5L), query(null, 3));
+    }
+
+    @Test
+    public void queryPagesAcrossRepositoryPages() {
+        final int instances = BatchJobExecutionResource.PAGE_SIZE + 10;
+        for (int i = 0; i < instances; i++) {
+            jobOperator.createExecution(jobOperator.createInstance(), BatchStatus.COMPLETED, new Date(i));
+        }
+
+        final List<Long> all = new ArrayList<>();
+        Long after = null;
+        List<Long> page;
+        do {
+            page = query(after, 7);
+            all.addAll(page);
+            after = page.isEmpty() ? null : page.get(page.size() - 1);
+        } while (page.size() == 7);
+
+        assertEquals(instances, all.size());
+        for (int i = 0; i < instances; i++) {
+            assertEquals(Long.valueOf(instances - i), all.get(i));
+        }
+    }
+
+    @Test
+    public void queryFilters() {
+        final TestJobInstance instance = jobOperator.createInstance();
+        jobOperator.createExecution(instance, BatchStatus.FAILED, new Date(1000L));
+        jobOperator.createExecution(instance, BatchStatus.FAILED, new Date(2000L));
+        jobOperator.createExecution(instance, BatchStatus.COMPLETED, new Date(3000L));
+
+        assertEquals(Arrays.asList(2L, 1L), BatchJobResourceDefinition.queryExecutions(jobOperator, JOB_NAME, BatchStatus.FAILED, null, null, null, 10));
+        assertEquals(Arrays.asList(3L, 2L), BatchJobResourceDefinition.queryExecutions(jobOperator, JOB_NAME, null, new Date(2000L), null, null, 10));
+        assertEquals(Collections.singletonList(1L), BatchJobResourceDefinition.queryExecutions(jobOperator, JOB_NAME, null, null, new Date(2000L), null, 10));
+        assertEquals(Collections.singletonList(1L), BatchJobResourceDefinition.queryExecutions(jobOperator, JOB_NAME, BatchStatus.FAILED, null, null, 2L, 10));
+        assertEquals(Collections.emptyList(), BatchJobResourceDefinition.queryExecutions(jobOperator, "unknown-job", null, null, null, null, 10));
+    }
+
+    @Test(expected = NoSuchJobExecutionException.class)
+    public void queryAfterUnknownExecution() {
+        query(42L, 10);
+    }
+
+    @Test
+    public void parseDateTime() {
+        final TimeZone defaultTimeZone = TimeZone.getDefault();
+        TimeZone.setDefault(TimeZone.getTimeZone("UTC"));
+        try {
+            assertEquals(Instant.parse("2017-01-31T00:00:00Z"), BatchJobResourceDefinition.parseDateTime("2017-01-31").toInstant());
+            assertEquals(Instant.parse("2017-01-31T13:45:00Z"), BatchJobResourceDefinition.parseDateTime("2017-01-31T13:45").toInstant());
+            assertEquals(Instant.parse("2017-01-31T13:45:30Z"), BatchJobResourceDefinition.parseDateTime("2017-01-31T13:45:30").toInstant());
+            assertEquals(Instant.parse("2017-01-31T13:45:30Z"), BatchJobResourceDefinition.parseDateTime("2017-01-31T13:45:30Z").toInstant());
+            assertEquals(Instant.parse("2017-01-31T12:45:30Z"), BatchJobResourceDefinition.parseDateTime("2017-01-31T13:45:30+01:00").toInstant());
+            // The format of the execution times
+            assertEquals(Instant.parse("2017-01-31T12:45:30.123Z"), BatchJobResourceDefinition.parseDateTime("2017-01-31T13:45:30.123+0100").toInstant());
+        } finally {
+            TimeZone.setDefault(defaultTimeZone);
+        }
+    }
+
+    @Test(expected = DateTimeParseException.class)
+    public void parseInvalidDateTime() {
+        BatchJobResourceDefinition.parseDateTime("2017-13-01");
+    }
+
+    @Test
+    public void listing() {
+        final TestJobInstance completed = jobOperator.createInstance();
+        jobOperator.createExecution(completed, BatchStatus.COMPLETED, new Date());
+        final TestJobInstance failed = jobOperator.createInstance();
+        jobOperator.createExecution(failed, BatchStatus.FAILED, new Date());
+
+        final BatchJobExecutionResource resource = new BatchJobExecutionResource(jobOperator, JOB_NAME);
+        assertEquals(Arrays.asList("2", "1"), children(resource));
+
+        // A restart of a failed instance and a new instance are both found
+        jobOperator.createExecution(failed, BatchStatus.COMPLETED, new Date());
+        final TestJobInstance started = jobOperator.createInstance();
+        jobOperator.createExecution(started, BatchStatus.STARTED, new Date());
+        assertEquals(Arrays.asList("4", "3", "2", "1"), children(resource));
+
+        // Executions which are not listed can still be addressed
+        assertTrue(resource.hasChild(PathElement.pathElement(BatchJobExecutionResourceDefinition.EXECUTION, "1")));
+        assertFalse(resource.hasChild(PathElement.pathElement(BatchJobExecutionResourceDefinition.EXECUTION, "5")));
+        assertFalse(resource.hasChild(PathElement.pathElement(BatchJobExecutionResourceDefinition.EXECUTION, "invalid")));
+    }
+
+    @Test
+    public void purgedExecutions() throws Exception {
+        final TestJobInstance first = jobOperator.createInstance();
+        jobOperator.createExecution(first, BatchStatus.COMPLETED, new Date());
+        final TestJobInstance second = jobOperator.createInstance();
+        jobOperator.createExecution(second, BatchStatus.COMPLETED, new Date());
+        final TestJobInstance third = jobOperator.createInstance();
+        jobOperator.createExecution(third, BatchStatus.COMPLETED, new Date());
+
+        final BatchJobExecutionResource resource = new BatchJobExecutionResource(jobOperator, JOB_NAME);
+        assertEquals(Arrays.asList("3", "2", "1"), children(resource));
+
+        // Purge the oldest instance, while a new instance keeps the number of instances unchanged
+        jobOperator.removeInstance(first);
+        jobOperator.createExecution(jobOperator.createInstance(), BatchStatus.COMPLETED, new Date());
+        assertEquals(Arrays.asList("4", "3", "2"), children(resource));
+
+        jobOperator.removeInstance(second);
+        assertEquals(Arrays.asList("4", "3"), children(resource));
+        assertFalse(resource.hasChild(PathElement.pathElement(BatchJobExecutionResourceDefinition.EXECUTION, "2")));
+
+        // Reading an execution which was purged after it was listed leaves its attributes undefined
+        final ModelNode model = new ModelNode();
+        new BatchJobExecutionResourceDefinition.JobExecutionOperationStepHandler() {
+            @Override
+            protected void updateModel(final ModelNode model, final JobExecution jobExecution) {
+                model.set(jobExecution.getBatchStatus().toString());
+            }
+        }.updateModel(model, jobOperator, 1L);
+        assertFalse(model.isDefined());
+    }
+
+    private List<Long> query(final Long afterExecutionId, final int maxResults) {
+        return BatchJobResourceDefinition.queryExecutions(jobOperator, JOB_NAME, null, null, null, afterExecutionId, maxResults);
+    }
+
+    private static List<String> children(final BatchJobExecutionResource resource) {
+        return new ArrayList<>(resource.getChildrenNames(BatchJobExecutionResourceDefinition.EXECUTION));
+    }
+
+    /**
+     * An in-memory job operator for a single job, which returns job instances most recent first.
+     */
+    private static class TestJobOperator implements WildFlyJobOperator {
+        private final Map<Long, TestJobInstance> instances = new LinkedHashMap<>();
+        private final Map<Long, TestJobExecution> executions = new LinkedHashMap<>();
+        private long lastInstanceId;
+        private long lastExecutionId;
+
+        TestJobInstance createInstance() {
+            final TestJobInstance instance = new TestJobInstance(++lastInstanceId);
+            instances.put(instance.getInstanceId(), instance);
+            return instance;
+        }
+
+        void removeInstance(final TestJobInstance instance) {
+            instances.remove(instance.getInstanceId());
+            for (JobExecution execution : instance.executions) {
+                executions.remove(execution.getExecutionId());
+            }
+        }
+
+        void createExecution(final TestJobInstance instance, final BatchStatus batchStatus, final Date createTime) {
+            final TestJobExecution execution = new TestJobExecution(++lastExecutionId, batchStatus, createTime);
+            executions.put(execution.getExecutionId(), execution);
+            instance.executions.add(execution);
+        }
+
+        @Override
+        public Collection<String> getJobXmlNames() {
+            return Collections.singleton(JOB_NAME + ".xml");
+        }
+
+        @Override
+        public Collection<String> getJobXmlNames(final String jobName) {
+            return getJobXmlNames();
+        }
+
+        @Override
+        public Set<String> getAllJobNames() {
+            return getJobNames();
+        }
+
+        @Override
+        public Set<String> getJobNames() {
+            return Collections.singleton(JOB_NAME);
+        }
+
+        @Override
+        public int getJobInstanceCount(final String jobName) {
+            return JOB_NAME.equals(jobName) ? instances.size() : 0;
+        }
+
+        @Override
+        public List<JobInstance> getJobInstances(final String jobName, final int start, final int count) {
+            if (!JOB_NAME.equals(jobName)) {
+                return Collections.emptyList();
+            }
+            final List<JobInstance> result = new ArrayList<>(instances.values());
+            Collections.reverse(result);
+            return result.subList(Math.min(start, result.size()), Math.min(start + count, result.size()));
+        }
+
+        @Override
+        public List<Long> getRunningExecutions(final String jobName) {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public Properties getParameters(final long executionId) {
+            return getJobExecution(executionId).getJobParameters();
+        }
+
+        @Override
+        public long start(final String jobXMLName, final Properties jobParameters) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public long restart(final long executionId, final Properties restartParameters) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void stop(final long executionId) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void abandon(final long executionId) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public JobInstance getJobInstance(final long executionId) {
+            for (TestJobInstance instance : instances.values()) {
+                for (JobExecution execution : instance.executions) {
+                    if (execution.getExecutionId() == executionId) {
+                        return instance;
+                    }
+                }
+            }
+            throw new NoSuchJobExecutionException();
+        }
+
+        @Override
+        public List<JobExecution> getJobExecutions(final JobInstance instance) {
+            return new ArrayList<>(instances.get(instance.getInstanceId()).executions);
+        }
+
+        @Override
+        public JobExecution getJobExecution(final long executionId) {
+            final JobExecution execution = executions.get(executionId);
+            if (execution == null) {
+                throw new NoSuchJobExecutionException();
+            }
+            return execution;
+        }
+
+        @Override
+        public List<StepExecution> getStepExecutions(final long jobExecutionId) {
+            return Collections.emptyList();
+        }
+    }
+
+    private static class TestJobInstance implements JobInstance {
+        private final long instanceId;
+        final List<JobExecution> executions = new ArrayList<>();
+
+        TestJobInstance(final long instanceId) {
+            this.instanceId = instanceId;
+        }
+
+        @Override
+        public long getInstanceId() {
+            return instanceId;
+        }
+
+        @Override
+        public String getJobName() {
+            return JOB_NAME;
+        }
+    }
+
+    private static class TestJobExecution implements JobExecution {
+        private final long executionId;
+        private final BatchStatus batchStatus;
+        private final Date createTime;
+
+        TestJobExecution(final long executionId, final BatchStatus batchStatus, final Date createTime) {
+            this.executionId = executionId;
+            this.batchStatus = batchStatus;
+            this.createTime = createTime;
+        }
+
+        @Override
+        public long getExecutionId() {
+            return executionId;
+        }
+
+        @Override
+        public String getJobName() {
+            return JOB_NAME;
+        }
+
+        @Override
+        public BatchStatus getBatchStatus() {
+            return batchStatus;
+        }
+
+        @Override
+        public Date getStartTime() {
+            return createTime;
+        }
+
+        @Override
+        public Date getEndTime() {
+            return null;
+        }
+
+        @Override
+        public String getExitStatus() {
+            return batchStatus.name();
+        }
+
+        @Override
+        public Date getCreateTime() {
+            return createTime;
+        }
+
+        @Override
+        public Date getLastUpdatedTime() {
+            return createTime;
+        }
+
+        @Override
+        public Properties getJobParameters() {
+            return new Properties();
+        }
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.batch.jberet.job.repository;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import javax.batch.runtime.BatchStatus;
+import javax.batch.runtime.JobInstance;
+
+import org.jberet.job.model.Job;
+import org.jberet.runtime.JobExecutionImpl;
+import org.jberet.runtime.JobInstanceImpl;
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * Tests the retention limits of the {@link InMemoryJobRepositoryService}.
+ */
+public class InMemoryJobRepositoryServiceTestCase {
+
+    private static final String JOB_NAME = "test-job";
+
+    private final Job job = new Job(JOB_NAME);
+    private InMemoryJobRepositoryService service;
+
+    @After
+    public void stop() {
+        if (service != null) {
+            service.stop(null);
+        }
+    }
+
+    @Test
+    public void unlimited() throws Exception {
+        start(null, null);
+        createInstance(BatchStatus.COMPLETED);
+        createInstance(BatchStatus.FAILED);
+
+        service.purge(System.currentTimeMillis() + TimeUnit.DAYS.toMillis(365));
+        assertEquals(2, service.getJobInstanceCount(JOB_NAME));
+    }
+
+    @Test
+    public void maxExecutions() throws Exception {
+        start(2, null);
+        createInstance(BatchStatus.COMPLETED);
+        createInstance(BatchStatus.FAILED);
+        final long newer = createInstance(BatchStatus.COMPLETED);
+        // Unfinished instances are never removed, but count against the limit
+        final long newest = createInstance(BatchStatus.STARTED);
+
+        service.purge();
+        assertEquals(ids(newest, newer), instanceIds());
+
+        // The retained instances are within the limit
+        service.purge();
+        assertEquals(ids(newest, newer), instanceIds());
+    }
+
+    @Test
+    public void maxAge() throws Exception {
+        start(null, 60L);
+        final long finished = createInstance(BatchStatus.COMPLETED);
+        final long running = createInstance(BatchStatus.STARTED);
+
+        service.purge();
+        assertEquals(ids(running, finished), instanceIds());
+
+        service.purge(System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(61));
+        assertEquals(ids(running), instanceIds());
+    }
+
+    private void start(final Integer maxExecutions, final Long maxAge) throws Exception {
+        service = new InMemoryJobRepositoryService(maxExecutions, maxAge);
+        service.start(null);
+    }
+
+    private long createInstance(final BatchStatus status) {
+        final JobInstanceImpl instance = service.createJobInstance(job, "test-app", getClass().getClassLoader());
+        final JobExecutionImpl execution = service.createJobExecution(instance, null);
+        execution.setBatchStatus(status);
+        service.updateJobExecution(execution, false, false);
+        return instance.getInstanceId();
+    }
+
+    private List<Long> instanceIds() {
+        final List<Long> result = new ArrayList<>();
+        for (JobInstance instance : service.getJobInstances(JOB_NAME)) {
+            result.add(instance.getInstanceId());
+        }
+        result.sort((id1, id2) -> Long.compare(id2, id1));
+        return result;
+    }
+
+    private static List<Long> ids(final Long... ids) {
+        return Arrays.asList(ids);
+    }
+}
@@ -0,0 +1,200 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.batch.jberet.thread.pool;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+/**
+ * Tests the scheduling of the tasks of jobs by {@link FairJobTaskExecutor}.
+ */
+public class FairJobTaskExecutorTestCase {
+
+    /**
+     * A thread pool which runs the tasks handed to it on the test thread, in the order they were handed over.
+     */
+    private final Deque<Runnable> pool = new ArrayDeque<>();
+    private final List<String> runs = Collections.synchronizedList(new ArrayList<>());
+
+    @Test
+    public void fairness() {
+        final FairJobTaskExecutor executor = new FairJobTaskExecutor(pool::add, () -> 2);
+        startJob(executor, "a", 1, 10);
+        startJob(executor, "b", 1, 10);
+        runPool();
+
+        assertEquals(20, runs.size());
+        // Jobs of the same priority take turns
+        assertEquals(5, count(runs.subList(0, 10), "a"));
+        assertEquals(5, count(runs.subList(0, 10), "b"));
+    }
+
+    @Test
+    public void priority() {
+        final FairJobTaskExecutor executor = new FairJobTaskExecutor(pool::add, () -> 2);
+        startJob(executor, "a", 1, 12);
+        startJob(executor, "b", 3, 12);
+        runPool();
+
+        assertEquals(24, runs.size());
+        // A job with 3 times the priority gets 3 times the share of the thread pool
+        assertEquals(2, count(runs.subList(0, 8), "a"));
+        assertEquals(6, count(runs.subList(0, 8), "b"));
+    }
+
+    @Test
+    public void maximumPriority() {
+        assertEquals(JobTaskPolicy.MAX_PRIORITY, policy("a", Integer.MAX_VALUE, 0).getPriority());
+
+        final FairJobTaskExecutor executor = new FairJobTaskExecutor(pool::add, () -> 2);
+        startJob(executor, "a", Integer.MAX_VALUE, 2 * JobTaskPolicy.MAX_PRIORITY);
+        startJob(executor, "b", 1, 10);
+        runPool();
+
+        // The job with the lower priority still makes progress while the other job has queued tasks
+        final int first = runs.indexOf("b");
+        assertTrue(String.valueOf(first), first >= 0 && first <= JobTaskPolicy.MAX_PRIORITY + 2);
+    }
+
+    @Test
+    public void maxConcurrency() {
+        final FairJobTaskExecutor executor = new FairJobTaskExecutor(pool::add, () -> 10);
+        startJob(executor, "a", 1, 5, 2);
+        runJobs();
+
+        // Only 2 of the 5 tasks of the job were handed to the thread pool
+        assertEquals(2, pool.size());
+        assertEquals(1, executor.getActiveJobs().size());
+        assertEquals(2, executor.getActiveJobs().get(0).getRunningTasks());
+        assertEquals(3, executor.getActiveJobs().get(0).getQueuedTasks());
+        runPool();
+        assertEquals(5, runs.size());
+        assertTrue(executor.getActiveJobs().isEmpty());
+    }
+
+    @Test(timeout = 10000)
+    public void splitOfPartitionedSteps() throws Exception {
+        final int maxThreads = 4;
+        final ExecutorService threads = Executors.newFixedThreadPool(maxThreads);
+        try {
+            final FairJobTaskExecutor executor = new FairJobTaskExecutor(threads, () -> maxThreads);
+            final AtomicInteger partitions = new AtomicInteger();
+            final CountDownLatch jobCompleted = new CountDownLatch(1);
+            // The job runs a split of 2 flows, each running a step of 3 partitions, and at most 1 of its tasks at a time
+            policy("job", 1, 1).submit(() -> {
+                executor.execute(() -> {
+                    await(submitAll(executor, 2, () -> await(submitAll(executor, 3, partitions::incrementAndGet))));
+                    jobCompleted.countDown();
+                });
+                return null;
+            });
+            assertTrue(jobCompleted.await(5, TimeUnit.SECONDS));
+            assertEquals(6, partitions.get());
+        } finally {
+            threads.shutdownNow();
+        }
+    }
+
+    private static CountDownLatch submitAll(final FairJobTaskExecutor executor, final int count, final Runnable task) {
+        final CountDownLatch completed = new CountDownLatch(count);
+        for (int i = 0; i < count; i++) {
+            executor.execute(() -> {
+                try {
+                    task.run();
+                } finally {
+                    completed.countDown();
+                }
+            });
+        }
+        return completed;
+    }
+
+    private static void await(final CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void startJob(final FairJobTaskExecutor executor, final String name, final int priority, final int tasks) {
+        startJob(executor, name, priority, tasks, 0);
+    }
+
+    /**
+     * Starts a job which submits the given number of tasks, each recording the name of the job when it runs.
+     */
+    private void startJob(final FairJobTaskExecutor executor, final String name, final int priority, final int tasks, final int maxConcurrency) {
+        policy(name, priority, maxConcurrency).submit(() -> {
+            executor.execute(() -> {
+                for (int i = 0; i < tasks; i++) {
+                    executor.execute(() -> runs.add(name));
+                }
+            });
+            return null;
+        });
+    }
+
+    /**
+     * Runs the tasks which started the jobs, which are the only tasks handed to the thread pool so far.
+     */
+    private void runJobs() {
+        final List<Runnable> jobs = new ArrayList<>(pool);
+        pool.clear();
+        jobs.forEach(Runnable::run);
+    }
+
+    private void runPool() {
+        runJobs();
+        while (!pool.isEmpty()) {
+            pool.poll().run();
+        }
+    }
+
+    private static JobTaskPolicy policy(final String name, final int priority, final int maxConcurrency) {
+        final Properties parameters = new Properties();
+        parameters.setProperty(JobTaskPolicy.PRIORITY, Integer.toString(priority));
+        parameters.setProperty(JobTaskPolicy.MAX_CONCURRENCY, Integer.toString(maxConcurrency));
+        return JobTaskPolicy.of("test.war", name, parameters);
+    }
+
+    private static int count(final List<String> runs, final String name) {
+        return Collections.frequency(runs, name);
+    }
+}
@@ -23,6 +23,8 @@
 package org.wildfly.clustering.registry;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 
 import org.wildfly.clustering.group.Group;
 import org.wildfly.clustering.group.Node;
@@ -86,10 +88,31 @@ public interface Registry<K, V> extends AutoCloseable {
     /**
      * Returns all registry entries in this group.
      *
-     * @return a map for entries
+     * @return an unmodifiable map for entries
      */
     Map<K, V> getEntries();
 
+    /**
+     * Returns the version of the entries returned by {@link #getEntries()}.
+     * The version increases whenever the registry entries change.
+     *
+     * @return the version of the current registry entries
+     */
+    default long getVersion() {
+        return 0L;
+    }
+
+    /**
+     * Returns a stage that completes with the registry entries once their version exceeds the specified version.
+     * The stage is never completed by the thread that changed the registry, and completes exceptionally if this registry is closed first.
+     *
+     * @param version a version previously returned by {@link #getVersion()}
+     * @return a stage completed with the changed registry entries
+     */
+    default CompletionStage<Map<K, V>> whenChanged(long version) {
+        return (version < this.getVersion()) ? CompletableFuture.completedFuture(this.getEntries()) : new CompletableFuture<>();
+    }
+
     /**
      * Returns the registry entry for the specified node.
      *
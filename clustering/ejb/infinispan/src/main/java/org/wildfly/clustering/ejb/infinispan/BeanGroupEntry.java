@@ -61,4 +61,11 @@ public interface BeanGroupEntry<I, T> {
      * @return the total usage count
      */
     int totalUsage();
+
+    /**
+     * Records the digest of the marshalled beans of this group, as they are about to be replicated.
+     * @param digest a digest of the marshalled beans
+     * @return true, if the digest differs from the one previously recorded, false otherwise
+     */
+    boolean updateDigest(byte[] digest);
 }
@@ -21,34 +21,40 @@
  */
 package org.wildfly.clustering.ejb.infinispan;
 
+import java.util.ArrayList;
+import java.util.Collection;
+
 import org.wildfly.clustering.dispatcher.Command;
 import org.wildfly.clustering.ee.Batch;
 import org.wildfly.clustering.ejb.infinispan.logging.InfinispanEjbLogger;
 
 /**
- * Command that evicts a bean.
+ * Command that evicts a batch of bean groups.
+ * Each group is evicted within its own batch, so that the failure to evict one group does not prevent the eviction of the others.
  * @author Paul Ferraro
  */
 public class BeanGroupEvictionCommand<I> implements Command<Void, BeanGroupEvictionContext<I>> {
-    private static final long serialVersionUID = -6593293772761100784L;
+    private static final long serialVersionUID = -166202650431905203L;
 
-    private final I id;
+    private final Collection<I> ids;
 
-    public BeanGroupEvictionCommand(I id) {
-        this.id = id;
+    public BeanGroupEvictionCommand(Collection<I> ids) {
+        this.ids = new ArrayList<>(ids);
     }
 
     @Override
     public Void execute(BeanGroupEvictionContext<I> context) throws Exception {
-        InfinispanEjbLogger.ROOT_LOGGER.tracef("Evicting stateful session bean %s", this.id);
-        try (Batch batch = context.getBatcher().createBatch()) {
-            try {
-                context.getEvictor().evict(this.id);
-                return null;
-            } catch (Exception e) {
-                batch.discard();
-                throw e;
+        for (I id : this.ids) {
+            InfinispanEjbLogger.ROOT_LOGGER.tracef("Evicting stateful session bean %s", id);
+            try (Batch batch = context.getBatcher().createBatch()) {
+                try {
+                    context.getEvictor().evict(id);
+                } catch (Exception e) {
+                    batch.discard();
+                    InfinispanEjbLogger.ROOT_LOGGER.failedToPassivateBean(e, id);
+                }
             }
         }
+        return null;
     }
 }
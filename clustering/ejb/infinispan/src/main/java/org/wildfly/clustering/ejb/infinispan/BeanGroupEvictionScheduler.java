@@ -21,9 +21,20 @@
  */
 package org.wildfly.clustering.ejb.infinispan;
 
-import java.util.Iterator;
-import java.util.LinkedHashSet;
-import java.util.Set;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 
 import org.wildfly.clustering.dispatcher.CommandDispatcher;
 import org.wildfly.clustering.dispatcher.CommandDispatcherFactory;
@@ -31,29 +42,49 @@ import org.wildfly.clustering.ee.Batcher;
 import org.wildfly.clustering.ee.infinispan.Evictor;
 import org.wildfly.clustering.ee.infinispan.TransactionBatch;
 import org.wildfly.clustering.ejb.infinispan.logging.InfinispanEjbLogger;
+import org.wildfly.clustering.group.Node;
 import org.wildfly.clustering.infinispan.spi.distribution.Locality;
 
 /**
  * Schedules a bean for eviction.
+ * Bean groups are queued, without locking, in the order in which they were scheduled.
+ * Whenever the queue exceeds its maximum size, the excess bean groups are drained by a single eviction task
+ * and evicted via one command per owner, rather than one cluster-wide command per bean group.
  *
  * @author Paul Ferraro
  *
- * @param <G> the group identifier type
- * @param <I> the bean identifier type
- * @param <T> the bean type
+ * @param <I> the bean group identifier type
  */
 public class BeanGroupEvictionScheduler<I> implements Scheduler<I>, BeanGroupEvictionContext<I> {
 
-    private final Set<I> evictionQueue = new LinkedHashSet<>();
+    // Maps a scheduled group to its entry in the eviction order
+    private final Map<I, EvictionEntry<I>> evictionQueue = new ConcurrentHashMap<>();
+    // Entries of cancelled groups remain in this queue until they are either drained or purged
+    private final Queue<EvictionEntry<I>> evictionOrder = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final AtomicInteger cancelled = new AtomicInteger();
+    private final AtomicBoolean evicting = new AtomicBoolean();
+    private final AtomicBoolean purging = new AtomicBoolean();
     private final Batcher<TransactionBatch> batcher;
     private final Evictor<I> evictor;
     private final CommandDispatcher<BeanGroupEvictionContext<I>> dispatcher;
     private final PassivationConfiguration<?> config;
+    private final Function<I, Collection<Node>> ownerLocator;
+    private final BeanGroupEvictionStatistics statistics;
 
     public BeanGroupEvictionScheduler(String name, Batcher<TransactionBatch> batcher, Evictor<I> evictor, CommandDispatcherFactory dispatcherFactory, PassivationConfiguration<?> config) {
+        this(name, batcher, evictor, dispatcherFactory, config, id -> null, new BeanGroupEvictionStatistics());
+    }
+
+    /**
+     * @param ownerLocator locates the owners of a bean group, returning null if the bean group should be evicted from every member of the cluster
+     */
+    BeanGroupEvictionScheduler(String name, Batcher<TransactionBatch> batcher, Evictor<I> evictor, CommandDispatcherFactory dispatcherFactory, PassivationConfiguration<?> config, Function<I, Collection<Node>> ownerLocator, BeanGroupEvictionStatistics statistics) {
         this.batcher = batcher;
         this.evictor = evictor;
         this.config = config;
+        this.ownerLocator = ownerLocator;
+        this.statistics = statistics;
         this.dispatcher = dispatcherFactory.<BeanGroupEvictionContext<I>>createCommandDispatcher(name, this);
     }
 
@@ -69,48 +100,142 @@ public class BeanGroupEvictionScheduler<I> implements Scheduler<I>, BeanGroupEvi
 
     @Override
     public void cancel(I id) {
-        synchronized (this.evictionQueue) {
-            this.evictionQueue.remove(id);
+        EvictionEntry<I> entry = this.evictionQueue.remove(id);
+        if (entry != null) {
+            this.cancelled(entry);
         }
     }
 
     @Override
     public void cancel(Locality locality) {
-        synchronized (this.evictionQueue) {
-            Iterator<I> groups = this.evictionQueue.iterator();
-            while (groups.hasNext()) {
-                if (Thread.currentThread().isInterrupted()) break;
-                I id = groups.next();
-                if (!locality.isLocal(id)) {
-                    groups.remove();
-                }
+        for (Map.Entry<I, EvictionEntry<I>> entry : this.evictionQueue.entrySet()) {
+            if (Thread.currentThread().isInterrupted()) break;
+            I id = entry.getKey();
+            if (!locality.isLocal(id) && this.evictionQueue.remove(id, entry.getValue())) {
+                this.cancelled(entry.getValue());
+            }
+        }
+    }
+
+    private void cancelled(EvictionEntry<I> entry) {
+        this.size.decrementAndGet();
+        // Purge entries of cancelled groups once they outnumber the scheduled groups
+        if ((this.cancelled.incrementAndGet() > Math.max(this.size.get(), 16)) && this.purging.compareAndSet(false, true)) {
+            try {
+                this.evictionOrder.removeIf(order -> {
+                    if (this.evictionQueue.get(order.getId()) != order) {
+                        this.cancelled.decrementAndGet();
+                        return true;
+                    }
+                    return false;
+                });
+            } finally {
+                this.purging.set(false);
             }
         }
     }
 
     @Override
     public void schedule(I id) {
-        synchronized (this.evictionQueue) {
-            this.evictionQueue.add(id);
-            // Trigger eviction of oldest bean if necessary
-            if (this.evictionQueue.size() > this.config.getConfiguration().getMaxSize()) {
-                Iterator<I> groups = this.evictionQueue.iterator();
-                I group = groups.next();
+        EvictionEntry<I> entry = new EvictionEntry<>(id);
+        if (this.evictionQueue.putIfAbsent(id, entry) == null) {
+            this.evictionOrder.add(entry);
+            // Trigger eviction of oldest beans if necessary, unless an eviction is already pending
+            if ((this.size.incrementAndGet() > this.config.getConfiguration().getMaxSize()) && this.evicting.compareAndSet(false, true)) {
                 try {
-                    this.dispatcher.submitOnCluster(new BeanGroupEvictionCommand<>(group));
-                    groups.remove();
-                } catch (Exception e) {
-                    InfinispanEjbLogger.ROOT_LOGGER.failedToPassivateBean(e, group);
+                    this.config.getExecutor().execute(this::evict);
+                } catch (RejectedExecutionException e) {
+                    this.evicting.set(false);
                 }
             }
         }
     }
 
+    private void evict() {
+        // Allow eviction of groups scheduled after this point to trigger a subsequent eviction
+        this.evicting.set(false);
+        long start = System.nanoTime();
+        int maxSize = this.config.getConfiguration().getMaxSize();
+        List<I> groups = new LinkedList<>();
+        while (this.size.get() > maxSize) {
+            EvictionEntry<I> entry = this.evictionOrder.poll();
+            if (entry == null) break;
+            if (this.evictionQueue.remove(entry.getId(), entry)) {
+                this.size.decrementAndGet();
+                groups.add(entry.getId());
+            } else {
+                this.cancelled.decrementAndGet();
+            }
+        }
+        if (groups.isEmpty()) return;
+
+        Map<Node, List<I>> ownedGroups = new HashMap<>();
+        List<I> unownedGroups = new LinkedList<>();
+        for (I group : groups) {
+            Collection<Node> owners = this.ownerLocator.apply(group);
+            if (owners != null) {
+                for (Node owner : owners) {
+                    ownedGroups.computeIfAbsent(owner, key -> new LinkedList<>()).add(group);
+                }
+            } else {
+                unownedGroups.add(group);
+            }
+        }
+
+        Map<Future<Void>, List<I>> futures = new HashMap<>();
+        for (Map.Entry<Node, List<I>> entry : ownedGroups.entrySet()) {
+            try {
+                futures.put(this.dispatcher.submitOnNode(new BeanGroupEvictionCommand<>(entry.getValue()), entry.getKey()), entry.getValue());
+            } catch (Exception e) {
+                this.failed(e, entry.getValue());
+            }
+        }
+        if (!unownedGroups.isEmpty()) {
+            try {
+                for (Future<Void> future : this.dispatcher.submitOnCluster(new BeanGroupEvictionCommand<>(unownedGroups)).values()) {
+                    futures.put(future, unownedGroups);
+                }
+            } catch (Exception e) {
+                this.failed(e, unownedGroups);
+            }
+        }
+        for (Map.Entry<Future<Void>, List<I>> entry : futures.entrySet()) {
+            try {
+                entry.getKey().get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException e) {
+                this.failed(e.getCause(), entry.getValue());
+            }
+        }
+        this.statistics.evicted(groups.size(), System.nanoTime() - start);
+    }
+
+    private void failed(Throwable cause, List<I> groups) {
+        for (I group : groups) {
+            InfinispanEjbLogger.ROOT_LOGGER.failedToPassivateBean(cause, group);
+        }
+    }
+
     @Override
     public void close() {
-        synchronized (this.evictionQueue) {
-            this.evictionQueue.clear();
-        }
+        this.evictionQueue.clear();
+        this.evictionOrder.clear();
+        this.size.set(0);
+        this.cancelled.set(0);
         this.dispatcher.close();
     }
+
+    private static class EvictionEntry<I> {
+        private final I id;
+
+        EvictionEntry(I id) {
+            this.id = id;
+        }
+
+        I getId() {
+            return this.id;
+        }
+    }
 }
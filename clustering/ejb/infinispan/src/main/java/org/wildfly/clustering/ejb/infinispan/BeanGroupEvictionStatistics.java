@@ -0,0 +1,78 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.clustering.ejb.infinispan;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Passivation statistics of a {@link BeanGroupEvictionScheduler}.
+ */
+class BeanGroupEvictionStatistics {
+
+    private final LongAdder evictedGroups = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAccumulator maxBatchSize = new LongAccumulator(Math::max, 0);
+    private final LongAdder totalTime = new LongAdder();
+    private final LongAccumulator maxTime = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Records the eviction of a batch of bean groups.
+     * @param size the number of bean groups in the batch
+     * @param nanos the time taken to evict the batch on all of its owners
+     */
+    void evicted(int size, long nanos) {
+        this.evictedGroups.add(size);
+        this.batches.increment();
+        this.maxBatchSize.accumulate(size);
+        this.totalTime.add(nanos);
+        this.maxTime.accumulate(nanos);
+    }
+
+    public long getEvictedGroupCount() {
+        return this.evictedGroups.sum();
+    }
+
+    public long getEvictionBatchCount() {
+        return this.batches.sum();
+    }
+
+    public long getMaxEvictionBatchSize() {
+        return this.maxBatchSize.get();
+    }
+
+    /**
+     * @return the average time, in milliseconds, taken to evict a batch of bean groups
+     */
+    public long getAverageEvictionTime() {
+        long batches = this.batches.sum();
+        return (batches > 0) ? TimeUnit.NANOSECONDS.toMillis(this.totalTime.sum() / batches) : 0;
+    }
+
+    /**
+     * @return the maximum time, in milliseconds, taken to evict a batch of bean groups
+     */
+    public long getMaxEvictionTime() {
+        return TimeUnit.NANOSECONDS.toMillis(this.maxTime.get());
+    }
+}
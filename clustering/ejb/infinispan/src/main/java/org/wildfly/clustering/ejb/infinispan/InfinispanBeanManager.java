@@ -22,6 +22,7 @@
 package org.wildfly.clustering.ejb.infinispan;
 
 import java.security.PrivilegedAction;
+import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -33,6 +34,7 @@ import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import org.infinispan.Cache;
@@ -108,6 +110,7 @@ public class InfinispanBeanManager<I, T> implements BeanManager<I, T, Transactio
     private final ExpirationConfiguration<T> expiration;
     private final PassivationConfiguration<T> passivation;
     private final AtomicInteger passiveCount = new AtomicInteger();
+    private final BeanGroupEvictionStatistics evictionStatistics = new BeanGroupEvictionStatistics();
     private final Batcher<TransactionBatch> batcher;
     private final Invoker invoker = new RetryingInvoker(0, 10, 100);
     private final BeanFilter<I> filter;
@@ -160,7 +163,7 @@ public class InfinispanBeanManager<I, T> implements BeanManager<I, T, Transactio
             }
         };
         Scheduler<I> beanScheduler = (timeout != null) && (timeout.getValue() >= 0) ? new BeanExpirationScheduler<>(this.batcher, new ExpiredBeanRemover<>(this.beanFactory), this.expiration) : noopScheduler;
-        Scheduler<I> groupScheduler = (this.passivation.getConfiguration().getMaxSize() >= 0) ? new BeanGroupEvictionScheduler<>(this.beanName + ".eviction", this.batcher, this.groupFactory, this.dispatcherFactory, this.passivation) : noopScheduler;
+        Scheduler<I> groupScheduler = (this.passivation.getConfiguration().getMaxSize() >= 0) ? new BeanGroupEvictionScheduler<>(this.beanName + ".eviction", this.batcher, this.groupFactory, this.dispatcherFactory, this.passivation, this::locateOwners, this.evictionStatistics) : noopScheduler;
         this.schedulerContext = new SchedulerContext<I>() {
             @Override
             public void close() {
@@ -252,6 +255,15 @@ public class InfinispanBeanManager<I, T> implements BeanManager<I, T, Transactio
         return (address != null) ? this.nodeFactory.createNode(address) : this.registry.getGroup().getLocalNode();
     }
 
+    /**
+     * Locates the owners of the specified bean group.
+     * @return the owners of the bean group, or null if the cache is not distributed
+     */
+    private Collection<Node> locateOwners(I groupId) {
+        DistributionManager dist = this.cache.getAdvancedCache().getDistributionManager();
+        return (dist != null) ? dist.locate(this.groupFactory.createKey(groupId)).stream().map(this.nodeFactory::createNode).collect(Collectors.toList()) : null;
+    }
+
     @Override
     public Bean<I, T> createBean(I id, I groupId, T bean) {
         InfinispanEjbLogger.ROOT_LOGGER.tracef("Creating bean %s associated with group %s", id, groupId);
@@ -301,6 +313,31 @@ public class InfinispanBeanManager<I, T> implements BeanManager<I, T, Transactio
         return this.passiveCount.get();
     }
 
+    @Override
+    public long getEvictedGroupCount() {
+        return this.evictionStatistics.getEvictedGroupCount();
+    }
+
+    @Override
+    public long getEvictionBatchCount() {
+        return this.evictionStatistics.getEvictionBatchCount();
+    }
+
+    @Override
+    public long getMaxEvictionBatchSize() {
+        return this.evictionStatistics.getMaxEvictionBatchSize();
+    }
+
+    @Override
+    public long getAverageEvictionTime() {
+        return this.evictionStatistics.getAverageEvictionTime();
+    }
+
+    @Override
+    public long getMaxEvictionTime() {
+        return this.evictionStatistics.getMaxEvictionTime();
+    }
+
     @CacheEntryPassivated
     public void passivated(CacheEntryPassivatedEvent<BeanKey<I>, BeanEntry<I>> event) {
         if (event.isPre()) {
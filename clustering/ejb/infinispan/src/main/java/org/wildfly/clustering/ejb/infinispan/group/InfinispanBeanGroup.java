@@ -22,6 +22,8 @@
 package org.wildfly.clustering.ejb.infinispan.group;
 
 import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Map;
 import java.util.Set;
 
@@ -32,9 +34,14 @@ import org.wildfly.clustering.ejb.infinispan.BeanGroup;
 import org.wildfly.clustering.ejb.infinispan.BeanGroupEntry;
 import org.wildfly.clustering.ejb.infinispan.logging.InfinispanEjbLogger;
 import org.wildfly.clustering.marshalling.jboss.MarshallingContext;
+import org.wildfly.clustering.marshalling.jboss.SimpleMarshalledValue;
+import org.wildfly.clustering.marshalling.spi.MarshalledValue;
 
 /**
  * A {@link org.wildfly.clustering.ejb.infinispan.BeanGroup} implementation backed by an infinispan cache.
+ * The beans of a group are marshalled together, so that objects shared by several beans remain shared once the group is deserialized.
+ * The group is only replicated on {@link #close()} if one of its beans was used or passivation callbacks were invoked,
+ * and if the marshalled form of its beans differs from the form last replicated from this node.
  *
  * @author Paul Ferraro
  *
@@ -48,6 +55,7 @@ public class InfinispanBeanGroup<I, T> implements BeanGroup<I, T> {
     private final MarshallingContext context;
     private final Mutator mutator;
     private final Remover<I> remover;
+    private volatile boolean modified = false;
 
     public InfinispanBeanGroup(I id, BeanGroupEntry<I, T> entry, MarshallingContext context, Mutator mutator, Remover<I> remover) {
         this.id = id;
@@ -79,6 +87,7 @@ public class InfinispanBeanGroup<I, T> implements BeanGroup<I, T> {
     public T getBean(I id, PassivationListener<T> listener) {
         T bean = this.beans().get(id);
         if (bean != null) {
+            this.modified = true;
             int usage = this.entry.incrementUsage(id);
             if ((usage == 0) && (listener != null)) {
                 listener.postActivate(bean);
@@ -89,12 +98,17 @@ public class InfinispanBeanGroup<I, T> implements BeanGroup<I, T> {
 
     @Override
     public T removeBean(I id) {
-        return this.beans().remove(id);
+        T bean = this.beans().remove(id);
+        if (bean != null) {
+            this.modified = true;
+        }
+        return bean;
     }
 
     @Override
     public void addBean(I id, T bean) {
         this.beans().put(id, bean);
+        this.modified = true;
         this.entry.incrementUsage(id);
     }
 
@@ -116,18 +130,38 @@ public class InfinispanBeanGroup<I, T> implements BeanGroup<I, T> {
     @Override
     public void close() {
         if (!this.beans().isEmpty()) {
-            this.mutator.mutate();
+            if (this.modified) {
+                this.modified = false;
+                if (this.isMarshalledFormChanged()) {
+                    this.mutator.mutate();
+                }
+            }
         } else {
             this.remover.remove(this.id);
         }
     }
 
+    private boolean isMarshalledFormChanged() {
+        MarshalledValue<Map<I, T>, MarshallingContext> value = this.entry.getBeans();
+        if (!(value instanceof SimpleMarshalledValue)) {
+            return true;
+        }
+        try {
+            byte[] bytes = ((SimpleMarshalledValue<?>) value).getBytes();
+            return (bytes == null) || this.entry.updateDigest(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (IOException | NoSuchAlgorithmException e) {
+            // Replicate anyway, so that any marshalling failure is reported by the cache
+            return true;
+        }
+    }
+
     @Override
     public void prePassivate(I id, PassivationListener<T> listener) {
         if (listener != null) {
             T bean = this.beans().get(id);
             if (bean != null) {
                 listener.prePassivate(bean);
+                this.modified = true;
             }
         }
     }
@@ -138,6 +172,7 @@ public class InfinispanBeanGroup<I, T> implements BeanGroup<I, T> {
             T bean = this.beans().get(id);
             if (bean != null) {
                 listener.postActivate(bean);
+                this.modified = true;
             }
         }
     }
@@ -21,6 +21,7 @@
  */
 package org.wildfly.clustering.ejb.infinispan.group;
 
+import java.util.Arrays;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
@@ -42,6 +43,8 @@ public class InfinispanBeanGroupEntry<I, T> implements BeanGroupEntry<I, T> {
 
     private final MarshalledValue<Map<I, T>, MarshallingContext> beans;
     private final ConcurrentMap<I, AtomicInteger> usage = new ConcurrentHashMap<>();
+    // Not replicated, so a replica always replicates its first change
+    private volatile byte[] digest;
 
     public InfinispanBeanGroupEntry(MarshalledValue<Map<I, T>, MarshallingContext> beans) {
         this.beans = beans;
@@ -67,4 +70,13 @@ public class InfinispanBeanGroupEntry<I, T> implements BeanGroupEntry<I, T> {
     public int totalUsage() {
         return this.usage.values().stream().mapToInt((AtomicInteger usage) -> usage.get()).sum();
     }
+
+    @Override
+    public synchronized boolean updateDigest(byte[] digest) {
+        if (Arrays.equals(this.digest, digest)) {
+            return false;
+        }
+        this.digest = digest;
+        return true;
+    }
 }
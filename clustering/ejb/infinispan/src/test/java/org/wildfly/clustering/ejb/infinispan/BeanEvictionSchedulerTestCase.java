@@ -21,14 +21,25 @@
  */
 package org.wildfly.clustering.ejb.infinispan;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.same;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
 import org.junit.Test;
 import org.mockito.ArgumentCaptor;
 import org.wildfly.clustering.dispatcher.Command;
@@ -39,6 +50,7 @@ import org.wildfly.clustering.ee.infinispan.Evictor;
 import org.wildfly.clustering.ee.infinispan.TransactionBatch;
 import org.wildfly.clustering.ejb.Bean;
 import org.wildfly.clustering.ejb.BeanPassivationConfiguration;
+import org.wildfly.clustering.group.Node;
 
 public class BeanEvictionSchedulerTestCase {
     @SuppressWarnings({"rawtypes", "unchecked"})
@@ -61,6 +73,7 @@ public class BeanEvictionSchedulerTestCase {
         when(dispatcherFactory.createCommandDispatcher(same(name), (BeanGroupEvictionContext<String>) capturedContext.capture())).thenReturn(dispatcher);
         when(config.getConfiguration()).thenReturn(passivationConfig);
         when(passivationConfig.getMaxSize()).thenReturn(1);
+        when(config.getExecutor()).thenReturn(Runnable::run);
 
         try (Scheduler<String> scheduler = new BeanGroupEvictionScheduler<>(name, batcher, evictor, dispatcherFactory, config)) {
             BeanGroupEvictionContext<String> context = capturedContext.getValue();
@@ -86,4 +99,123 @@ public class BeanEvictionSchedulerTestCase {
 
         verify(dispatcher).close();
     }
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    @Test
+    public void batchByOwner() throws Exception {
+        String name = "bean";
+        Node owner1 = mock(Node.class);
+        Node owner2 = mock(Node.class);
+        Map<String, List<Node>> owners = new HashMap<>();
+        owners.put("a", Collections.singletonList(owner1));
+        owners.put("b", Arrays.asList(owner1, owner2));
+        owners.put("c", Collections.singletonList(owner2));
+        owners.put("d", Collections.singletonList(owner1));
+        CommandDispatcherFactory dispatcherFactory = mock(CommandDispatcherFactory.class);
+        CommandDispatcher<BeanGroupEvictionContext<String>> dispatcher = mock(CommandDispatcher.class);
+        Batcher<TransactionBatch> batcher = mock(Batcher.class);
+        TransactionBatch batch = mock(TransactionBatch.class);
+        Evictor<String> evictor = mock(Evictor.class);
+        PassivationConfiguration<Bean<String, Object>> config = mock(PassivationConfiguration.class);
+        BeanPassivationConfiguration passivationConfig = mock(BeanPassivationConfiguration.class);
+        List<Runnable> tasks = new LinkedList<>();
+        ArgumentCaptor<Command> capturedCommand = ArgumentCaptor.forClass(Command.class);
+        ArgumentCaptor<Node> capturedNode = ArgumentCaptor.forClass(Node.class);
+        BeanGroupEvictionStatistics statistics = new BeanGroupEvictionStatistics();
+
+        when(dispatcherFactory.createCommandDispatcher(same(name), (BeanGroupEvictionContext<String>) any(BeanGroupEvictionContext.class))).thenReturn(dispatcher);
+        when(dispatcher.submitOnNode(any(Command.class), any(Node.class))).thenReturn(CompletableFuture.completedFuture(null));
+        when(config.getConfiguration()).thenReturn(passivationConfig);
+        when(passivationConfig.getMaxSize()).thenReturn(1);
+        when(config.getExecutor()).thenReturn(tasks::add);
+        when(batcher.createBatch()).thenReturn(batch);
+
+        try (BeanGroupEvictionScheduler<String> scheduler = new BeanGroupEvictionScheduler<>(name, batcher, evictor, dispatcherFactory, config, owners::get, statistics)) {
+            scheduler.schedule("a");
+            scheduler.schedule("b");
+            scheduler.schedule("c");
+            scheduler.schedule("d");
+            scheduler.schedule("e");
+
+            // A single eviction task is pending, regardless of how many groups exceed the maximum size
+            assertEquals(1, tasks.size());
+            verifyZeroInteractions(dispatcher);
+
+            // Cancelled groups are not evicted
+            scheduler.cancel("d");
+
+            tasks.remove(0).run();
+
+            verify(dispatcher, times(2)).submitOnNode(capturedCommand.capture(), capturedNode.capture());
+            verify(dispatcher, never()).submitOnCluster(any(Command.class));
+
+            Map<Node, Command> commands = new HashMap<>();
+            for (int i = 0; i < 2; ++i) {
+                commands.put(capturedNode.getAllValues().get(i), capturedCommand.getAllValues().get(i));
+            }
+
+            commands.get(owner1).execute(scheduler);
+
+            verify(evictor).evict("a");
+            verify(evictor).evict("b");
+            verify(evictor, never()).evict("c");
+
+            commands.get(owner2).execute(scheduler);
+
+            verify(evictor, times(2)).evict("b");
+            verify(evictor).evict("c");
+            verify(evictor, never()).evict("d");
+            verify(evictor, never()).evict("e");
+            verify(batch, times(4)).close();
+
+            assertEquals(3, statistics.getEvictedGroupCount());
+            assertEquals(1, statistics.getEvictionBatchCount());
+            assertEquals(3, statistics.getMaxEvictionBatchSize());
+        }
+    }
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    @Test
+    public void batchOnCluster() throws Exception {
+        String name = "bean";
+        CommandDispatcherFactory dispatcherFactory = mock(CommandDispatcherFactory.class);
+        CommandDispatcher<BeanGroupEvictionContext<String>> dispatcher = mock(CommandDispatcher.class);
+        Batcher<TransactionBatch> batcher = mock(Batcher.class);
+        TransactionBatch batch = mock(TransactionBatch.class);
+        Evictor<String> evictor = mock(Evictor.class);
+        PassivationConfiguration<Bean<String, Object>> config = mock(PassivationConfiguration.class);
+        BeanPassivationConfiguration passivationConfig = mock(BeanPassivationConfiguration.class);
+        List<Runnable> tasks = new LinkedList<>();
+        ArgumentCaptor<Command> capturedCommand = ArgumentCaptor.forClass(Command.class);
+
+        when(dispatcherFactory.createCommandDispatcher(same(name), (BeanGroupEvictionContext<String>) any(BeanGroupEvictionContext.class))).thenReturn(dispatcher);
+        when(dispatcher.submitOnCluster(any(Command.class))).thenReturn(Collections.singletonMap(mock(Node.class), CompletableFuture.completedFuture(null)));
+        when(config.getConfiguration()).thenReturn(passivationConfig);
+        when(passivationConfig.getMaxSize()).thenReturn(1);
+        when(config.getExecutor()).thenReturn(tasks::add);
+        when(batcher.createBatch()).thenReturn(batch);
+
+        try (BeanGroupEvictionScheduler<String> scheduler = new BeanGroupEvictionScheduler<>(name, batcher, evictor, dispatcherFactory, config)) {
+            scheduler.schedule("a");
+            scheduler.schedule("b");
+            scheduler.schedule("c");
+
+            assertEquals(1, tasks.size());
+
+            tasks.remove(0).run();
+
+            // Groups without known owners are evicted via a single cluster-wide command
+            verify(dispatcher).submitOnCluster(capturedCommand.capture());
+            verify(dispatcher, never()).submitOnNode(any(Command.class), any(Node.class));
+
+            capturedCommand.getValue().execute(scheduler);
+
+            verify(evictor).evict("a");
+            verify(evictor).evict("b");
+            verify(evictor, never()).evict("c");
+            verify(batch, times(2)).close();
+        }
+
+        verify(dispatcher).close();
+    }
 }
@@ -28,10 +28,18 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
+import org.jboss.marshalling.MarshallingConfiguration;
 import org.junit.Assert;
 import org.junit.Test;
 import org.wildfly.clustering.ee.Mutator;
@@ -40,6 +48,9 @@ import org.wildfly.clustering.ejb.PassivationListener;
 import org.wildfly.clustering.ejb.infinispan.BeanGroup;
 import org.wildfly.clustering.ejb.infinispan.BeanGroupEntry;
 import org.wildfly.clustering.marshalling.jboss.MarshallingContext;
+import org.wildfly.clustering.marshalling.jboss.SimpleMarshalledValueFactory;
+import org.wildfly.clustering.marshalling.jboss.SimpleMarshallingConfigurationRepository;
+import org.wildfly.clustering.marshalling.jboss.SimpleMarshallingContextFactory;
 import org.wildfly.clustering.marshalling.spi.MarshalledValue;
 
 public class InfinispanBeanGroupTestCase {
@@ -224,9 +235,76 @@ public class InfinispanBeanGroupTestCase {
 
         when(value.get(this.context)).thenReturn(Collections.singletonMap("id", new Object()));
 
+        // Nothing used since the group was created
+        this.group.close();
+
+        verify(this.mutator, never()).mutate();
+        verify(this.remover, never()).remove(this.id);
+
+        this.group.getBean("id", null);
         this.group.close();
 
         verify(this.mutator).mutate();
         verify(this.remover, never()).remove(this.id);
+
+        reset(this.mutator);
+
+        // Nothing used since the group was last closed
+        this.group.close();
+
+        verify(this.mutator, never()).mutate();
+    }
+
+    @Test
+    public void unchangedState() {
+        MarshallingContext context = new SimpleMarshallingContextFactory().createMarshallingContext(new SimpleMarshallingConfigurationRepository(new MarshallingConfiguration()), this.getClass().getClassLoader());
+        InfinispanBeanGroupEntry<String, List<Object>> entry = new InfinispanBeanGroupEntry<>(new SimpleMarshalledValueFactory(context).createMarshalledValue(new ConcurrentHashMap<>()));
+        BeanGroup<String, List<Object>> group = new InfinispanBeanGroup<>("group", entry, context, this.mutator, this.remover);
+        group.addBean("bean", new ArrayList<>(Collections.singletonList("state")));
+        group.close();
+
+        verify(this.mutator).mutate();
+
+        reset(this.mutator);
+
+        // Bean used, but its state left untouched
+        group.getBean("bean", null);
+        group.close();
+
+        verify(this.mutator, never()).mutate();
+
+        group.getBean("bean", null).add("changed");
+        group.close();
+
+        verify(this.mutator).mutate();
+    }
+
+    @Test
+    public void sharedReferences() throws ClassNotFoundException, IOException {
+        MarshallingContext context = new SimpleMarshallingContextFactory().createMarshallingContext(new SimpleMarshallingConfigurationRepository(new MarshallingConfiguration()), this.getClass().getClassLoader());
+        InfinispanBeanGroupEntry<String, List<Object>> entry = new InfinispanBeanGroupEntry<>(new SimpleMarshalledValueFactory(context).createMarshalledValue(new ConcurrentHashMap<>()));
+        BeanGroup<String, List<Object>> group = new InfinispanBeanGroup<>("group", entry, context, this.mutator, this.remover);
+        Object shared = new ArrayList<>(Collections.singletonList("shared"));
+        group.addBean("bean1", new ArrayList<>(Collections.singletonList(shared)));
+        group.addBean("bean2", new ArrayList<>(Collections.singletonList(shared)));
+
+        // Replicate the group entry
+        InfinispanBeanGroupEntryExternalizer<String, List<Object>> externalizer = new InfinispanBeanGroupEntryExternalizer<>();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream output = new ObjectOutputStream(bytes)) {
+            externalizer.writeObject(output, entry);
+        }
+        InfinispanBeanGroupEntry<String, List<Object>> replica;
+        try (ObjectInputStream input = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            replica = externalizer.readObject(input);
+        }
+
+        BeanGroup<String, List<Object>> replicaGroup = new InfinispanBeanGroup<>("group", replica, context, this.mutator, this.remover);
+        Object shared1 = replicaGroup.getBean("bean1", null).get(0);
+        Object shared2 = replicaGroup.getBean("bean2", null).get(0);
+
+        Assert.assertNotSame(shared, shared1);
+        Assert.assertEquals(shared, shared1);
+        Assert.assertSame(shared1, shared2);
     }
 }
@@ -25,4 +25,39 @@ public interface BeanManagerStatistics {
     int getActiveCount();
 
     int getPassiveCount();
+
+    /**
+     * @return the number of bean groups evicted by passivation
+     */
+    default long getEvictedGroupCount() {
+        return 0;
+    }
+
+    /**
+     * @return the number of batches in which bean groups were evicted
+     */
+    default long getEvictionBatchCount() {
+        return 0;
+    }
+
+    /**
+     * @return the largest number of bean groups evicted in a single batch
+     */
+    default long getMaxEvictionBatchSize() {
+        return 0;
+    }
+
+    /**
+     * @return the average time, in milliseconds, taken to evict a batch of bean groups
+     */
+    default long getAverageEvictionTime() {
+        return 0;
+    }
+
+    /**
+     * @return the maximum time, in milliseconds, taken to evict a batch of bean groups
+     */
+    default long getMaxEvictionTime() {
+        return 0;
+    }
 }
@@ -129,4 +129,7 @@ public interface InfinispanLogger extends BasicLogger {
 
     @Message(id = 28, value = "Executor configuration '%s' was deprecated and will only be used to support legacy slaves in the domain.")
     String executorIgnored(String executorName);
+
+    @Message(id = 29, value = "Memory eviction of %d bytes requires BINARY storage")
+    OperationFailedException memoryEvictionRequiresBinaryStorage(long size);
 }
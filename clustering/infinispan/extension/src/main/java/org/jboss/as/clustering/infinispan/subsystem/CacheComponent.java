@@ -39,6 +39,7 @@ public enum CacheComponent implements ResourceServiceNameFactory {
     EVICTION(EvictionResourceDefinition.PATH),
     EXPIRATION(ExpirationResourceDefinition.PATH),
     LOCKING(LockingResourceDefinition.PATH),
+    MEMORY(MemoryResourceDefinition.PATH),
     PERSISTENCE() {
         @Override
         public ServiceName getServiceName(PathAddress cacheAddress) {
@@ -65,6 +65,7 @@ public class CacheConfigurationBuilder extends CapabilityServiceNameProvider imp
     private final ValueDependency<EvictionConfiguration> eviction;
     private final ValueDependency<ExpirationConfiguration> expiration;
     private final ValueDependency<LockingConfiguration> locking;
+    private final ValueDependency<MemoryConfiguration> memory;
     private final ValueDependency<PersistenceConfiguration> persistence;
     private final ValueDependency<TransactionConfiguration> transaction;
     private final ValueDependency<Module> module;
@@ -81,6 +82,7 @@ public class CacheConfigurationBuilder extends CapabilityServiceNameProvider imp
         this.eviction = new InjectedValueDependency<>(CacheComponent.EVICTION.getServiceName(address), EvictionConfiguration.class);
         this.expiration = new InjectedValueDependency<>(CacheComponent.EXPIRATION.getServiceName(address), ExpirationConfiguration.class);
         this.locking = new InjectedValueDependency<>(CacheComponent.LOCKING.getServiceName(address), LockingConfiguration.class);
+        this.memory = new InjectedValueDependency<>(CacheComponent.MEMORY.getServiceName(address), MemoryConfiguration.class);
         this.persistence = new InjectedValueDependency<>(CacheComponent.PERSISTENCE.getServiceName(address), PersistenceConfiguration.class);
         this.transaction = new InjectedValueDependency<>(CacheComponent.TRANSACTION.getServiceName(address), TransactionConfiguration.class);
         this.module = new InjectedValueDependency<>(CacheComponent.MODULE.getServiceName(address), Module.class);
@@ -89,7 +91,7 @@ public class CacheConfigurationBuilder extends CapabilityServiceNameProvider imp
     @Override
     public ServiceBuilder<Configuration> build(ServiceTarget target) {
         ServiceBuilder<Configuration> builder = this.builder.build(target).setInitialMode(ServiceController.Mode.PASSIVE);
-        Stream.of(this.eviction, this.expiration, this.locking, this.persistence, this.transaction, this.module).forEach(dependency -> dependency.register(builder));
+        Stream.of(this.eviction, this.expiration, this.locking, this.memory, this.persistence, this.transaction, this.module).forEach(dependency -> dependency.register(builder));
         return builder;
     }
 
@@ -117,6 +119,12 @@ public class CacheConfigurationBuilder extends CapabilityServiceNameProvider imp
         builder.eviction().read(this.eviction.getValue());
         builder.expiration().read(this.expiration.getValue());
         builder.locking().read(this.locking.getValue());
+        MemoryConfiguration memory = this.memory.getValue();
+        builder.storeAsBinary().read(memory.storeAsBinary());
+        // A memory bound supersedes any count based eviction
+        if (memory.eviction() != null) {
+            builder.eviction().read(memory.eviction());
+        }
         builder.persistence().read(this.persistence.getValue());
         builder.transaction().read(this.transaction.getValue());
         builder.jmxStatistics().read(this.statistics);
@@ -109,6 +109,12 @@ public enum CacheMetric implements Metric<Cache<?, ?>> {
             return new ModelNode((interceptor != null) ? interceptor.getNumberOfEntries() : 0);
         }
     },
+    NUMBER_OF_ENTRIES_IN_MEMORY(MetricKeys.NUMBER_OF_ENTRIES_IN_MEMORY, ModelType.INT) {
+        @Override
+        public ModelNode execute(Cache<?, ?> cache) {
+            return new ModelNode(cache.getAdvancedCache().getDataContainer().size());
+        }
+    },
     PASSIVATIONS(MetricKeys.PASSIVATIONS, ModelType.LONG) {
         @Override
         public ModelNode execute(Cache<?, ?> cache) {
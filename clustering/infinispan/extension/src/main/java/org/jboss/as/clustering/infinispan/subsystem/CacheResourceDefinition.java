@@ -183,9 +183,11 @@ public class CacheResourceDefinition extends ChildResourceDefinition<ManagementR
         LockingResourceDefinition.buildTransformation(version, builder);
         EvictionResourceDefinition.buildTransformation(version, builder);
         ExpirationResourceDefinition.buildTransformation(version, builder);
+        MemoryResourceDefinition.buildTransformation(version, builder);
         TransactionResourceDefinition.buildTransformation(version, builder);
 
         FileStoreResourceDefinition.buildTransformation(version, builder);
+        SoftIndexFileStoreResourceDefinition.buildTransformation(version, builder);
         BinaryKeyedJDBCStoreResourceDefinition.buildTransformation(version, builder);
         MixedKeyedJDBCStoreResourceDefinition.buildTransformation(version, builder);
         StringKeyedJDBCStoreResourceDefinition.buildTransformation(version, builder);
@@ -204,7 +206,7 @@ public class CacheResourceDefinition extends ChildResourceDefinition<ManagementR
             .addAttributes(DeprecatedAttribute.class)
             .addCapabilities(Capability.class)
             .addCapabilities(CLUSTERING_CAPABILITIES.values())
-            .addRequiredChildren(EvictionResourceDefinition.PATH, ExpirationResourceDefinition.PATH, LockingResourceDefinition.PATH, TransactionResourceDefinition.PATH)
+            .addRequiredChildren(EvictionResourceDefinition.PATH, ExpirationResourceDefinition.PATH, LockingResourceDefinition.PATH, MemoryResourceDefinition.PATH, TransactionResourceDefinition.PATH)
             .addRequiredSingletonChildren(NoStoreResourceDefinition.PATH)
         );
         this.handler = handler;
@@ -215,12 +217,14 @@ public class CacheResourceDefinition extends ChildResourceDefinition<ManagementR
 
             new EvictionResourceDefinition().register(registration);
             new ExpirationResourceDefinition().register(registration);
+            new MemoryResourceDefinition().register(registration);
             new LockingResourceDefinition().register(registration);
             new TransactionResourceDefinition().register(registration);
 
             new NoStoreResourceDefinition().register(registration);
             new CustomStoreResourceDefinition().register(registration);
             new FileStoreResourceDefinition().register(registration);
+            new SoftIndexFileStoreResourceDefinition().register(registration);
             new BinaryKeyedJDBCStoreResourceDefinition().register(registration);
             new MixedKeyedJDBCStoreResourceDefinition().register(registration);
             new StringKeyedJDBCStoreResourceDefinition().register(registration);
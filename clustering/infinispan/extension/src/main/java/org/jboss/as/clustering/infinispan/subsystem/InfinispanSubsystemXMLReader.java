@@ -567,6 +567,13 @@ public class InfinispanSubsystemXMLReader implements XMLElementReader<List<Model
                 this.parseExpiration(reader, cacheAddress, operations);
                 break;
             }
+            case MEMORY: {
+                if (this.schema.since(InfinispanSchema.VERSION_4_0)) {
+                    this.parseMemory(reader, cacheAddress, operations);
+                    break;
+                }
+                throw ParseUtils.unexpectedElement(reader);
+            }
             case LOCKING: {
                 this.parseLocking(reader, cacheAddress, operations);
                 break;
@@ -583,6 +590,13 @@ public class InfinispanSubsystemXMLReader implements XMLElementReader<List<Model
                 this.parseFileStore(reader, cacheAddress, operations);
                 break;
             }
+            case SOFT_INDEX_FILE_STORE: {
+                if (this.schema.since(InfinispanSchema.VERSION_4_0)) {
+                    this.parseSoftIndexFileStore(reader, cacheAddress, operations);
+                    break;
+                }
+                throw ParseUtils.unexpectedElement(reader);
+            }
             case REMOTE_STORE: {
                 this.parseRemoteStore(reader, cacheAddress, operations);
                 break;
@@ -932,6 +946,31 @@ public class InfinispanSubsystemXMLReader implements XMLElementReader<List<Model
         ParseUtils.requireNoContent(reader);
     }
 
+    private void parseMemory(XMLExtendedStreamReader reader, PathAddress cacheAddress, Map<PathAddress, ModelNode> operations) throws XMLStreamException {
+
+        PathAddress address = cacheAddress.append(MemoryResourceDefinition.PATH);
+        ModelNode operation = Util.createAddOperation(address);
+        operations.put(address, operation);
+
+        for (int i = 0; i < reader.getAttributeCount(); i++) {
+            XMLAttribute attribute = XMLAttribute.forName(reader.getAttributeLocalName(i));
+            switch (attribute) {
+                case STORAGE: {
+                    readAttribute(reader, i, operation, MemoryResourceDefinition.Attribute.STORAGE);
+                    break;
+                }
+                case SIZE: {
+                    readAttribute(reader, i, operation, MemoryResourceDefinition.Attribute.SIZE);
+                    break;
+                }
+                default: {
+                    throw ParseUtils.unexpectedAttribute(reader, i);
+                }
+            }
+        }
+        ParseUtils.requireNoContent(reader);
+    }
+
     private void parseExpiration(XMLExtendedStreamReader reader, PathAddress cacheAddress, Map<PathAddress, ModelNode> operations) throws XMLStreamException {
 
         PathAddress address = cacheAddress.append(ExpirationResourceDefinition.PATH);
@@ -1057,6 +1096,46 @@ public class InfinispanSubsystemXMLReader implements XMLElementReader<List<Model
         }
     }
 
+    private void parseSoftIndexFileStore(XMLExtendedStreamReader reader, PathAddress cacheAddress, Map<PathAddress, ModelNode> operations) throws XMLStreamException {
+
+        PathAddress address = cacheAddress.append(SoftIndexFileStoreResourceDefinition.PATH);
+        PathAddress operationKey = cacheAddress.append(StoreResourceDefinition.WILDCARD_PATH);
+        if (operations.containsKey(operationKey)) {
+            throw ParseUtils.unexpectedElement(reader);
+        }
+        ModelNode operation = Util.createAddOperation(address);
+        operations.put(operationKey, operation);
+
+        for (int i = 0; i < reader.getAttributeCount(); i++) {
+            XMLAttribute attribute = XMLAttribute.forName(reader.getAttributeLocalName(i));
+            switch (attribute) {
+                case RELATIVE_TO: {
+                    readAttribute(reader, i, operation, SoftIndexFileStoreResourceDefinition.Attribute.RELATIVE_TO);
+                    break;
+                }
+                case PATH: {
+                    readAttribute(reader, i, operation, SoftIndexFileStoreResourceDefinition.Attribute.RELATIVE_PATH);
+                    break;
+                }
+                case SEGMENT_SIZE: {
+                    readAttribute(reader, i, operation, SoftIndexFileStoreResourceDefinition.Attribute.SEGMENT_SIZE);
+                    break;
+                }
+                case COMPACTION_THRESHOLD: {
+                    readAttribute(reader, i, operation, SoftIndexFileStoreResourceDefinition.Attribute.COMPACTION_THRESHOLD);
+                    break;
+                }
+                default: {
+                    this.parseStoreAttribute(reader, i, operation);
+                }
+            }
+        }
+
+        while (reader.hasNext() && (reader.nextTag() != XMLStreamConstants.END_ELEMENT)) {
+            this.parseStoreElement(reader, address, operations);
+        }
+    }
+
     private void parseRemoteStore(XMLExtendedStreamReader reader, PathAddress cacheAddress, Map<PathAddress, ModelNode> operations) throws XMLStreamException {
 
         PathAddress address = cacheAddress.append(RemoteStoreResourceDefinition.PATH);
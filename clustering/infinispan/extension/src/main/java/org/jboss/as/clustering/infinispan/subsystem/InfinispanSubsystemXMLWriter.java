@@ -199,6 +199,16 @@ public class InfinispanSubsystemXMLWriter implements XMLElementWriter<SubsystemM
             }
         }
 
+        if (cache.hasDefined(MemoryResourceDefinition.PATH.getKeyValuePair())) {
+            ModelNode memory = cache.get(MemoryResourceDefinition.PATH.getKeyValuePair());
+            Set<MemoryResourceDefinition.Attribute> attributes = EnumSet.allOf(MemoryResourceDefinition.Attribute.class);
+            if (hasDefined(memory, attributes)) {
+                writer.writeStartElement(XMLElement.MEMORY.getLocalName());
+                writeAttributes(writer, memory, attributes);
+                writer.writeEndElement();
+            }
+        }
+
         Set<StoreResourceDefinition.Attribute> storeAttributes = EnumSet.complementOf(EnumSet.of(StoreResourceDefinition.Attribute.PROPERTIES));
 
         if (cache.hasDefined(CustomStoreResourceDefinition.PATH.getKeyValuePair())) {
@@ -220,6 +230,15 @@ public class InfinispanSubsystemXMLWriter implements XMLElementWriter<SubsystemM
             writer.writeEndElement();
         }
 
+        if (cache.hasDefined(SoftIndexFileStoreResourceDefinition.PATH.getKeyValuePair())) {
+            ModelNode store = cache.get(SoftIndexFileStoreResourceDefinition.PATH.getKeyValuePair());
+            writer.writeStartElement(XMLElement.SOFT_INDEX_FILE_STORE.getLocalName());
+            writeAttributes(writer, store, SoftIndexFileStoreResourceDefinition.Attribute.class);
+            writeAttributes(writer, store, storeAttributes);
+            writeStoreElements(writer, store);
+            writer.writeEndElement();
+        }
+
         if (cache.hasDefined(BinaryKeyedJDBCStoreResourceDefinition.PATH.getKeyValuePair())) {
             ModelNode store = cache.get(BinaryKeyedJDBCStoreResourceDefinition.PATH.getKeyValuePair());
             writer.writeStartElement(XMLElement.BINARY_KEYED_JDBC_STORE.getLocalName());
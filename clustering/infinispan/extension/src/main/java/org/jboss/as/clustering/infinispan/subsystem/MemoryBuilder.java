@@ -0,0 +1,73 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.clustering.infinispan.subsystem;
+
+import static org.jboss.as.clustering.infinispan.InfinispanLogger.ROOT_LOGGER;
+import static org.jboss.as.clustering.infinispan.subsystem.MemoryResourceDefinition.Attribute.SIZE;
+import static org.jboss.as.clustering.infinispan.subsystem.MemoryResourceDefinition.Attribute.STORAGE;
+
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.eviction.EvictionStrategy;
+import org.infinispan.eviction.EvictionType;
+import org.jboss.as.clustering.controller.ResourceServiceBuilder;
+import org.jboss.as.clustering.dmr.ModelNodes;
+import org.jboss.as.clustering.infinispan.subsystem.MemoryResourceDefinition.StorageType;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.dmr.ModelNode;
+import org.wildfly.clustering.service.Builder;
+
+/**
+ * Builds the memory configuration of a cache.
+ */
+public class MemoryBuilder extends ComponentBuilder<MemoryConfiguration> implements ResourceServiceBuilder<MemoryConfiguration> {
+
+    private final ConfigurationBuilder builder = new ConfigurationBuilder();
+
+    private volatile long size;
+
+    MemoryBuilder(PathAddress cacheAddress) {
+        super(CacheComponent.MEMORY, cacheAddress);
+    }
+
+    @Override
+    public Builder<MemoryConfiguration> configure(OperationContext context, ModelNode model) throws OperationFailedException {
+        StorageType storage = ModelNodes.asEnum(STORAGE.resolveModelAttribute(context, model), StorageType.class);
+        this.size = SIZE.resolveModelAttribute(context, model).asLong();
+        this.builder.storeAsBinary().enabled(storage == StorageType.BINARY).storeKeysAsBinary(true).storeValuesAsBinary(true);
+        if (this.size > 0) {
+            // The size of an entry is only known once it is marshalled
+            if (storage != StorageType.BINARY) {
+                throw ROOT_LOGGER.memoryEvictionRequiresBinaryStorage(this.size);
+            }
+            this.builder.eviction().strategy(EvictionStrategy.LRU).type(EvictionType.MEMORY).size(this.size);
+        }
+        return this;
+    }
+
+    @Override
+    public MemoryConfiguration getValue() {
+        return new MemoryConfiguration(this.builder.storeAsBinary().create(), (this.size > 0) ? this.builder.eviction().create() : null);
+    }
+}
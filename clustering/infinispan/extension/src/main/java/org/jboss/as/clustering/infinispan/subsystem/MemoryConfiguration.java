@@ -0,0 +1,52 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.clustering.infinispan.subsystem;
+
+import org.infinispan.configuration.cache.EvictionConfiguration;
+import org.infinispan.configuration.cache.StoreAsBinaryConfiguration;
+
+/**
+ * The memory configuration of a cache, i.e. how its entries are stored in memory and, optionally, the number of bytes
+ * to which they are bounded.
+ */
+public class MemoryConfiguration {
+
+    private final StoreAsBinaryConfiguration storeAsBinary;
+    private final EvictionConfiguration eviction;
+
+    MemoryConfiguration(StoreAsBinaryConfiguration storeAsBinary, EvictionConfiguration eviction) {
+        this.storeAsBinary = storeAsBinary;
+        this.eviction = eviction;
+    }
+
+    public StoreAsBinaryConfiguration storeAsBinary() {
+        return this.storeAsBinary;
+    }
+
+    /**
+     * @return the memory based eviction configuration, or null, if memory is not bounded
+     */
+    public EvictionConfiguration eviction() {
+        return this.eviction;
+    }
+}
@@ -50,6 +50,7 @@ public class MetricKeys {
     public static final String HITS = "hits";
     public static final String MISSES = "misses";
     public static final String NUMBER_OF_ENTRIES = "number-of-entries";
+    public static final String NUMBER_OF_ENTRIES_IN_MEMORY = "number-of-entries-in-memory";
     public static final String READ_WRITE_RATIO = "read-write-ratio";
     public static final String REMOVE_HITS = "remove-hits";
     public static final String REMOVE_MISSES = "remove-misses";
@@ -68,6 +69,7 @@ public class MetricKeys {
     public static final String CACHE_LOADER_LOADS = "cache-loader-loads";
     public static final String CACHE_LOADER_MISSES = "cache-loader-misses";
     public static final String CACHE_LOADER_STORES = "cache-loader-stores";
+    public static final String SIZE_ON_DISK = "size-on-disk";
 
     public static final String JOIN_COMPLETE = "join-complete";
     public static final String STATE_TRANSFER_IN_PROGRESS = "state-transfer-in-progress";
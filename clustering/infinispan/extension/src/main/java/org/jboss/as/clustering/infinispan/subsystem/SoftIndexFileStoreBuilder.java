@@ -0,0 +1,93 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.clustering.infinispan.subsystem;
+
+import static org.jboss.as.clustering.infinispan.subsystem.SoftIndexFileStoreResourceDefinition.Attribute.COMPACTION_THRESHOLD;
+import static org.jboss.as.clustering.infinispan.subsystem.SoftIndexFileStoreResourceDefinition.Attribute.RELATIVE_PATH;
+import static org.jboss.as.clustering.infinispan.subsystem.SoftIndexFileStoreResourceDefinition.Attribute.RELATIVE_TO;
+import static org.jboss.as.clustering.infinispan.subsystem.SoftIndexFileStoreResourceDefinition.Attribute.SEGMENT_SIZE;
+
+import java.io.File;
+
+import org.infinispan.configuration.cache.PersistenceConfiguration;
+import org.infinispan.persistence.sifs.configuration.SoftIndexFileStoreConfiguration;
+import org.infinispan.persistence.sifs.configuration.SoftIndexFileStoreConfigurationBuilder;
+import org.jboss.as.clustering.controller.CommonRequirement;
+import org.jboss.as.clustering.dmr.ModelNodes;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.services.path.PathManager;
+import org.jboss.dmr.ModelNode;
+import org.jboss.msc.service.ServiceBuilder;
+import org.jboss.msc.service.ServiceTarget;
+import org.wildfly.clustering.service.Builder;
+import org.wildfly.clustering.service.InjectedValueDependency;
+import org.wildfly.clustering.service.ValueDependency;
+
+/**
+ * Builds the configuration of a soft-index file store.
+ * Each cache is given its own data and index directories, so that the size of a store on disk can be determined.
+ */
+public class SoftIndexFileStoreBuilder extends StoreBuilder<SoftIndexFileStoreConfiguration, SoftIndexFileStoreConfigurationBuilder> {
+
+    private final String containerName;
+    private final String cacheName;
+
+    private volatile ValueDependency<PathManager> pathManager;
+    private volatile String relativePath;
+    private volatile String relativeTo;
+    private volatile int segmentSize;
+    private volatile double compactionThreshold;
+
+    SoftIndexFileStoreBuilder(PathAddress address) {
+        super(address, SoftIndexFileStoreConfigurationBuilder.class);
+        PathAddress cacheAddress = address.getParent();
+        this.containerName = cacheAddress.getParent().getLastElement().getValue();
+        this.cacheName = cacheAddress.getLastElement().getValue();
+    }
+
+    @Override
+    public ServiceBuilder<PersistenceConfiguration> build(ServiceTarget target) {
+        return this.pathManager.register(super.build(target));
+    }
+
+    @Override
+    public Builder<PersistenceConfiguration> configure(OperationContext context, ModelNode model) throws OperationFailedException {
+        this.pathManager = new InjectedValueDependency<>(CommonRequirement.PATH_MANAGER.getServiceName(context), PathManager.class);
+        this.relativePath = ModelNodes.optionalString(RELATIVE_PATH.resolveModelAttribute(context, model)).orElse(InfinispanExtension.SUBSYSTEM_NAME + File.separatorChar + this.containerName);
+        this.relativeTo = RELATIVE_TO.resolveModelAttribute(context, model).asString();
+        this.segmentSize = SEGMENT_SIZE.resolveModelAttribute(context, model).asInt();
+        this.compactionThreshold = COMPACTION_THRESHOLD.resolveModelAttribute(context, model).asDouble();
+        return super.configure(context, model);
+    }
+
+    @Override
+    public void accept(SoftIndexFileStoreConfigurationBuilder builder) {
+        File location = new File(this.pathManager.getValue().resolveRelativePathEntry(this.relativePath, this.relativeTo), this.cacheName);
+        builder.dataLocation(new File(location, "data").getPath())
+                .indexLocation(new File(location, "index").getPath())
+                .maxFileSize(this.segmentSize)
+                .compactionThreshold(this.compactionThreshold);
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.clustering.infinispan.subsystem;
+
+import java.util.function.UnaryOperator;
+
+import org.jboss.as.clustering.controller.CapabilityReference;
+import org.jboss.as.clustering.controller.CommonUnaryRequirement;
+import org.jboss.as.clustering.controller.validation.DoubleRangeValidatorBuilder;
+import org.jboss.as.clustering.controller.validation.IntRangeValidatorBuilder;
+import org.jboss.as.controller.AttributeDefinition;
+import org.jboss.as.controller.ModelVersion;
+import org.jboss.as.controller.PathElement;
+import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
+import org.jboss.as.controller.registry.AttributeAccess;
+import org.jboss.as.controller.services.path.ResolvePathHandler;
+import org.jboss.as.controller.transform.description.ResourceTransformationDescriptionBuilder;
+import org.jboss.as.server.ServerEnvironment;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+
+/**
+ * Resource description for the addressable resource /subsystem=infinispan/cache-container=X/cache=Y/store=soft-index-file
+ * i.e. a log-structured, append-only file store whose index is maintained on disk.
+ */
+public class SoftIndexFileStoreResourceDefinition extends StoreResourceDefinition {
+
+    static final PathElement PATH = pathElement("soft-index-file");
+
+    enum Attribute implements org.jboss.as.clustering.controller.Attribute {
+        RELATIVE_PATH("path", ModelType.STRING, builder -> builder.setAllowExpression(true)),
+        RELATIVE_TO("relative-to", ModelType.STRING, builder -> builder.setDefaultValue(new ModelNode(ServerEnvironment.SERVER_DATA_DIR)).setCapabilityReference(new CapabilityReference(Capability.PERSISTENCE, CommonUnaryRequirement.PATH))),
+        SEGMENT_SIZE("segment-size", ModelType.INT, builder -> builder.setAllowExpression(true).setDefaultValue(new ModelNode(16 * 1024 * 1024)).setMeasurementUnit(MeasurementUnit.BYTES).setValidator(new IntRangeValidatorBuilder().min(1).configure(builder).build())),
+        COMPACTION_THRESHOLD("compaction-threshold", ModelType.DOUBLE, builder -> builder.setAllowExpression(true).setDefaultValue(new ModelNode(0.5)).setValidator(new DoubleRangeValidatorBuilder().lowerBoundExclusive(0).upperBound(1).configure(builder).build())),
+        ;
+        private final AttributeDefinition definition;
+
+        Attribute(String name, ModelType type, UnaryOperator<SimpleAttributeDefinitionBuilder> configurator) {
+            this.definition = configurator.apply(new SimpleAttributeDefinitionBuilder(name, type).setRequired(false).setFlags(AttributeAccess.Flag.RESTART_RESOURCE_SERVICES)).build();
+        }
+
+        @Override
+        public AttributeDefinition getDefinition() {
+            return this.definition;
+        }
+    }
+
+    static void buildTransformation(ModelVersion version, ResourceTransformationDescriptionBuilder parent) {
+        if (InfinispanModel.VERSION_4_2_0.requiresTransformation(version)) {
+            parent.rejectChildResource(PATH);
+        } else {
+            StoreResourceDefinition.buildTransformation(version, parent.addChildResource(PATH), PATH);
+        }
+    }
+
+    SoftIndexFileStoreResourceDefinition() {
+        super(PATH, null, new InfinispanResourceDescriptionResolver(PATH, WILDCARD_PATH),
+                descriptor -> descriptor.addAttributes(Attribute.class),
+                address -> new SoftIndexFileStoreBuilder(address), registration -> registration.getPathManager().ifPresent(pathManager -> {
+                    ResolvePathHandler pathHandler = ResolvePathHandler.Builder.of(pathManager)
+                            .setPathAttribute(Attribute.RELATIVE_PATH.getDefinition())
+                            .setRelativeToAttribute(Attribute.RELATIVE_TO.getDefinition())
+                            .build();
+                    registration.registerOperationHandler(pathHandler.getOperationDefinition(), pathHandler);
+                }));
+    }
+}
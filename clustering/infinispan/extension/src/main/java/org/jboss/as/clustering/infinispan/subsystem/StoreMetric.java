@@ -21,10 +21,26 @@
  */
 package org.jboss.as.clustering.infinispan.subsystem;
 
-import org.infinispan.interceptors.ActivationInterceptor;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.infinispan.Cache;
+import org.infinispan.configuration.cache.SingleFileStoreConfiguration;
+import org.infinispan.configuration.cache.StoreConfiguration;
+import org.infinispan.eviction.PassivationManager;
+import org.infinispan.interceptors.CacheLoaderInterceptor;
+import org.infinispan.interceptors.CacheWriterInterceptor;
+import org.infinispan.persistence.sifs.configuration.SoftIndexFileStoreConfiguration;
 import org.jboss.as.clustering.controller.Metric;
 import org.jboss.as.controller.AttributeDefinition;
 import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
 import org.jboss.dmr.ModelNode;
 import org.jboss.dmr.ModelType;
 
@@ -34,29 +50,87 @@ import org.jboss.dmr.ModelType;
  * @author Paul Ferraro
  */
 @SuppressWarnings("deprecation")
-public enum StoreMetric implements Metric<ActivationInterceptor> {
+public enum StoreMetric implements Metric<Cache<?, ?>> {
 
     CACHE_LOADER_LOADS(MetricKeys.CACHE_LOADER_LOADS, ModelType.LONG) {
         @Override
-        public ModelNode execute(ActivationInterceptor interceptor) {
-            return new ModelNode(interceptor.getCacheLoaderLoads());
+        public ModelNode execute(Cache<?, ?> cache) {
+            CacheLoaderInterceptor interceptor = CacheMetric.findInterceptor(cache, CacheLoaderInterceptor.class);
+            return new ModelNode((interceptor != null) ? interceptor.getCacheLoaderLoads() : 0);
         }
     },
     CACHE_LOADER_MISSES(MetricKeys.CACHE_LOADER_MISSES, ModelType.LONG) {
         @Override
-        public ModelNode execute(ActivationInterceptor interceptor) {
-            return new ModelNode(interceptor.getCacheLoaderMisses());
+        public ModelNode execute(Cache<?, ?> cache) {
+            CacheLoaderInterceptor interceptor = CacheMetric.findInterceptor(cache, CacheLoaderInterceptor.class);
+            return new ModelNode((interceptor != null) ? interceptor.getCacheLoaderMisses() : 0);
+        }
+    },
+    CACHE_LOADER_STORES(MetricKeys.CACHE_LOADER_STORES, ModelType.LONG) {
+        @Override
+        public ModelNode execute(Cache<?, ?> cache) {
+            // A passivating store is only written to on passivation
+            if (cache.getCacheConfiguration().persistence().passivation()) {
+                PassivationManager manager = cache.getAdvancedCache().getComponentRegistry().getComponent(PassivationManager.class);
+                return new ModelNode((manager != null) ? manager.getPassivations() : 0);
+            }
+            CacheWriterInterceptor interceptor = CacheMetric.findInterceptor(cache, CacheWriterInterceptor.class);
+            return new ModelNode((interceptor != null) ? interceptor.getWritesToTheStores() : 0);
+        }
+    },
+    SIZE_ON_DISK(MetricKeys.SIZE_ON_DISK, ModelType.LONG, MeasurementUnit.BYTES) {
+        @Override
+        public ModelNode execute(Cache<?, ?> cache) {
+            ModelNode result = new ModelNode();
+            for (StoreConfiguration store : cache.getCacheConfiguration().persistence().stores()) {
+                if (store instanceof SingleFileStoreConfiguration) {
+                    result.set(size(new File(((SingleFileStoreConfiguration) store).location(), cache.getName() + ".dat").toPath()));
+                } else if (store instanceof SoftIndexFileStoreConfiguration) {
+                    SoftIndexFileStoreConfiguration configuration = (SoftIndexFileStoreConfiguration) store;
+                    result.set(size(new File(configuration.dataLocation()).toPath()) + size(new File(configuration.indexLocation()).toPath()));
+                }
+            }
+            return result;
         }
     },
     ;
     private final AttributeDefinition definition;
 
     StoreMetric(String name, ModelType type) {
-        this.definition = new SimpleAttributeDefinitionBuilder(name, type, true).setStorageRuntime().build();
+        this(name, type, MeasurementUnit.NONE);
+    }
+
+    StoreMetric(String name, ModelType type, MeasurementUnit unit) {
+        this.definition = new SimpleAttributeDefinitionBuilder(name, type, true).setMeasurementUnit(unit).setStorageRuntime().build();
     }
 
     @Override
     public AttributeDefinition getDefinition() {
         return this.definition;
     }
-}
\ No newline at end of file
+
+    /**
+     * Returns the total size of the regular files at or beneath the specified path.
+     * Files removed while walking the tree, e.g. by compaction, are ignored.
+     */
+    static long size(Path path) {
+        LongAdder size = new LongAdder();
+        try {
+            Files.walkFileTree(path, new SimpleFileVisitor<Path>() {
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) {
+                    size.add(attributes.size());
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFileFailed(Path file, IOException exception) {
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (IOException e) {
+            // Not thrown, since failures are ignored by the visitor
+        }
+        return size.sum();
+    }
+}
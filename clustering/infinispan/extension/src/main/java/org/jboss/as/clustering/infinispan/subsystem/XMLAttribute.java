@@ -49,6 +49,7 @@ public enum XMLAttribute {
     CHUNK_SIZE(StateTransferResourceDefinition.Attribute.CHUNK_SIZE),
     CLASS(CustomStoreResourceDefinition.Attribute.CLASS),
     @Deprecated CLUSTER(JGroupsTransportResourceDefinition.DeprecatedAttribute.CLUSTER),
+    COMPACTION_THRESHOLD(SoftIndexFileStoreResourceDefinition.Attribute.COMPACTION_THRESHOLD),
     CONCURRENCY_LEVEL(LockingResourceDefinition.Attribute.CONCURRENCY),
     CONSISTENT_HASH_STRATEGY(DistributedCacheResourceDefinition.Attribute.CONSISTENT_HASH_STRATEGY),
     DATA_SOURCE(JDBCStoreResourceDefinition.Attribute.DATA_SOURCE),
@@ -101,15 +102,18 @@ public enum XMLAttribute {
     REMOTE_SITE(BackupForResourceDefinition.Attribute.SITE),
     REMOTE_TIMEOUT(ClusteredCacheResourceDefinition.Attribute.REMOTE_TIMEOUT),
     @Deprecated REPLICATION_QUEUE_EXECUTOR(CacheContainerResourceDefinition.ExecutorAttribute.REPLICATION_QUEUE),
+    SEGMENT_SIZE(SoftIndexFileStoreResourceDefinition.Attribute.SEGMENT_SIZE),
     SEGMENTS(DistributedCacheResourceDefinition.Attribute.SEGMENTS),
     SHARED(StoreResourceDefinition.Attribute.SHARED),
     @Deprecated SHUTDOWN_TIMEOUT(StoreWriteBehindResourceDefinition.DeprecatedAttribute.SHUTDOWN_TIMEOUT),
     SINGLETON(StoreResourceDefinition.Attribute.SINGLETON),
     SITE("site"),
+    SIZE(MemoryResourceDefinition.Attribute.SIZE),
     SOCKET_TIMEOUT(RemoteStoreResourceDefinition.Attribute.SOCKET_TIMEOUT),
     @Deprecated STACK(JGroupsTransportResourceDefinition.DeprecatedAttribute.STACK),
     @Deprecated START(CacheContainerResourceDefinition.DeprecatedAttribute.START),
     STATISTICS_ENABLED(CacheResourceDefinition.Attribute.STATISTICS_ENABLED),
+    STORAGE(MemoryResourceDefinition.Attribute.STORAGE),
     STOP_TIMEOUT(TransactionResourceDefinition.Attribute.STOP_TIMEOUT),
     STRATEGY(EvictionResourceDefinition.Attribute.STRATEGY),
     STRIPING(LockingResourceDefinition.Attribute.STRIPING),
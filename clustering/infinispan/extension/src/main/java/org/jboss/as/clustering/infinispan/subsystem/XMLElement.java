@@ -65,6 +65,7 @@ public enum XMLElement {
     @Deprecated INDEXING(CacheResourceDefinition.DeprecatedAttribute.INDEXING),
     LOCAL_CACHE(LocalCacheResourceDefinition.WILDCARD_PATH),
     LOCKING(LockingResourceDefinition.PATH),
+    MEMORY(MemoryResourceDefinition.PATH),
     PARTITION_HANDLING(PartitionHandlingResourceDefinition.PATH),
     PERSISTENCE_THREAD_POOL("persistence-thread-pool"),
     REMOTE_COMMAND_THREAD_POOL("remote-command-thread-pool"),
@@ -73,6 +74,7 @@ public enum XMLElement {
     REMOTE_SERVER("remote-server"),
     REMOTE_STORE("remote-store"),
     REPLICATED_CACHE(ReplicatedCacheResourceDefinition.WILDCARD_PATH),
+    SOFT_INDEX_FILE_STORE("soft-index-file-store"),
     STATE_TRANSFER(StateTransferResourceDefinition.PATH),
     STATE_TRANSFER_THREAD_POOL("state-transfer-thread-pool"),
     STORE(StoreResourceDefinition.WILDCARD_PATH),
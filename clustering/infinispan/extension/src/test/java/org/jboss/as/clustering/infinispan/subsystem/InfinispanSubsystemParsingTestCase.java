@@ -74,7 +74,7 @@ public class InfinispanSubsystemParsingTestCase extends ClusteringSubsystemTest
             { InfinispanSchema.VERSION_1_5, 37 },
             { InfinispanSchema.VERSION_2_0, 42 },
             { InfinispanSchema.VERSION_3_0, 42 },
-            { InfinispanSchema.VERSION_4_0, 51 },
+            { InfinispanSchema.VERSION_4_0, 54 },
         };
         return Arrays.asList(data);
     }
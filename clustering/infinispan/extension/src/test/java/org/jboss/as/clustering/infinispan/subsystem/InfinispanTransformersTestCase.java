@@ -421,6 +421,13 @@ public class InfinispanTransformersTestCase extends OperationTestCaseBase {
         PathAddress subsystemAddress = PathAddress.pathAddress(InfinispanSubsystemResourceDefinition.PATH);
         PathAddress containerAddress = subsystemAddress.append(CacheContainerResourceDefinition.WILDCARD_PATH);
 
+        if (InfinispanModel.VERSION_4_2_0.requiresTransformation(version)) {
+            config.addFailedAttribute(
+                    containerAddress.append(LocalCacheResourceDefinition.WILDCARD_PATH).append(MemoryResourceDefinition.PATH), FailedOperationTransformationConfig.REJECTED_RESOURCE);
+            config.addFailedAttribute(
+                    containerAddress.append(LocalCacheResourceDefinition.WILDCARD_PATH).append(SoftIndexFileStoreResourceDefinition.PATH), FailedOperationTransformationConfig.REJECTED_RESOURCE);
+        }
+
         if (InfinispanModel.VERSION_2_0_0.requiresTransformation(version)) {
             for (PathElement path : Arrays.asList(DistributedCacheResourceDefinition.WILDCARD_PATH, ReplicatedCacheResourceDefinition.WILDCARD_PATH)) {
                 PathAddress cacheAddress = containerAddress.append(path);
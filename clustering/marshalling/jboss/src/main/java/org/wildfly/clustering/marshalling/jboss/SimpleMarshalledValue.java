@@ -64,7 +64,12 @@ public class SimpleMarshalledValue<T> implements MarshalledValue<T, MarshallingC
         return this.object;
     }
 
-    byte[] getBytes() throws IOException {
+    /**
+     * Returns the serialized form of this value.
+     * @return a byte array, or null if this value has no object
+     * @throws IOException if the object could not be marshalled
+     */
+    public byte[] getBytes() throws IOException {
         byte[] bytes = this.bytes;
         if (bytes != null) return bytes;
         if (this.object == null) return null;
@@ -107,4 +107,16 @@ public interface ClusteringServerLogger extends BasicLogger {
     @LogMessage(level = WARN)
     @Message(id = 15, value = "Failed to restore local %s/%s registry entry following network partititon merge")
     void failedToRestoreLocalRegistryEntry(@Cause Throwable cause, String containerName, String cacheName);
+
+    @LogMessage(level = WARN)
+    @Message(id = 16, value = "Failed to elect the singleton provider of the %s service")
+    void singletonElectionFailed(@Cause Throwable cause, String service);
+
+    @LogMessage(level = WARN)
+    @Message(id = 17, value = "Failed to notify %s of the singleton elections of the %s services")
+    void singletonElectionNotificationFailed(@Cause Throwable cause, Node node, Collection<String> services);
+
+    @LogMessage(level = WARN)
+    @Message(id = 18, value = "Failed to notify the election listener of the %s service")
+    void singletonElectionListenerFailed(@Cause Throwable cause, String service);
 }
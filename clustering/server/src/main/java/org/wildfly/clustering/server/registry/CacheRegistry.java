@@ -30,12 +30,15 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
+import java.util.function.UnaryOperator;
 import java.util.stream.Collectors;
 
 import org.infinispan.Cache;
@@ -66,6 +69,7 @@ import org.wildfly.security.manager.WildFlySecurityManager;
 
 /**
  * Clustered {@link Registry} backed by an Infinispan cache.
+ * Reads are served from an immutable snapshot of the registry entries, maintained by the cache listeners of this registry.
  * @author Paul Ferraro
  * @param <K> key type
  * @param <V> value type
@@ -80,6 +84,7 @@ public class CacheRegistry<K, V> implements Registry<K, V>, KeyFilter<Object> {
     }
 
     private final ExecutorService topologyChangeExecutor = Executors.newSingleThreadExecutor(createThreadFactory(this.getClass()));
+    private final ExecutorService snapshotChangeExecutor = Executors.newSingleThreadExecutor(createThreadFactory(this.getClass()));
     private final Map<Registry.Listener<K, V>, ExecutorService> listeners = new ConcurrentHashMap<>();
     private final Cache<Node, Map.Entry<K, V>> cache;
     private final Batcher<? extends Batch> batcher;
@@ -88,6 +93,12 @@ public class CacheRegistry<K, V> implements Registry<K, V>, KeyFilter<Object> {
     private final Runnable closeTask;
     private final Map.Entry<K, V> entry;
 
+    // Only replaced while holding this
+    private volatile RegistrySnapshot<K, V> snapshot = new RegistrySnapshot<>();
+    private volatile CompletableFuture<RegistrySnapshot<K, V>> nextSnapshot = new CompletableFuture<>();
+    // Guarded by this
+    private boolean closed = false;
+
     public CacheRegistry(CacheRegistryConfiguration<K, V> config, Map.Entry<K, V> entry, Runnable closeTask) {
         this.cache = config.getCache();
         this.batcher = config.getBatcher();
@@ -96,7 +107,16 @@ public class CacheRegistry<K, V> implements Registry<K, V>, KeyFilter<Object> {
         this.closeTask = closeTask;
         this.entry = new AbstractMap.SimpleImmutableEntry<>(entry);
         this.populateRegistry();
+        this.updateSnapshot(snapshot -> snapshot.put(this.group.getLocalNode(), this.entry));
         this.cache.addListener(this, new CacheRegistryFilter());
+        // Entries changed by cache events received since the listener was added take precedence
+        Set<Node> nodes = this.group.getNodes().stream().collect(Collectors.toSet());
+        Map<Node, Map.Entry<K, V>> entries = new HashMap<>(this.cache.getAdvancedCache().getAll(nodes));
+        this.updateSnapshot(snapshot -> {
+            // Skip the entries of nodes that left since they were read, whose removal was already applied
+            entries.keySet().retainAll(this.group.getNodes());
+            return snapshot.putIfAbsent(entries);
+        });
     }
 
     private void populateRegistry() {
@@ -114,6 +134,14 @@ public class CacheRegistry<K, V> implements Registry<K, V>, KeyFilter<Object> {
     public void close() {
         this.cache.removeListener(this);
         this.shutdown(this.topologyChangeExecutor);
+        CompletableFuture<RegistrySnapshot<K, V>> future;
+        synchronized (this) {
+            this.closed = true;
+            future = this.nextSnapshot;
+        }
+        // Let the pending snapshot changes complete the stages returned before them
+        this.drain(this.snapshotChangeExecutor);
+        future.cancel(false);
         Node node = this.getGroup().getLocalNode();
         try (Batch batch = this.batcher.createBatch()) {
             // If this remove fails, the entry will be auto-removed on topology change by the new primary owner
@@ -148,13 +176,53 @@ public class CacheRegistry<K, V> implements Registry<K, V>, KeyFilter<Object> {
 
     @Override
     public Map<K, V> getEntries() {
-        Set<Node> nodes = this.group.getNodes().stream().collect(Collectors.toSet());
-        return this.cache.getAdvancedCache().getAll(nodes).values().stream().collect(Collectors.toMap(entry -> entry.getKey(), entry -> entry.getValue()));
+        return this.snapshot.getEntries();
     }
 
     @Override
     public Map.Entry<K, V> getEntry(Node node) {
-        return this.cache.get(node);
+        return this.snapshot.getEntry(node);
+    }
+
+    @Override
+    public long getVersion() {
+        return this.snapshot.getVersion();
+    }
+
+    @Override
+    public CompletionStage<Map<K, V>> whenChanged(long version) {
+        while (true) {
+            RegistrySnapshot<K, V> snapshot = this.snapshot;
+            if (snapshot.getVersion() > version) {
+                return CompletableFuture.completedFuture(snapshot.getEntries());
+            }
+            CompletableFuture<RegistrySnapshot<K, V>> future = this.nextSnapshot;
+            // The snapshot is published before the future is replaced, so an unchanged snapshot means the future is the one that follows it
+            if (this.snapshot == snapshot) {
+                return future.thenApply(RegistrySnapshot::getEntries);
+            }
+        }
+    }
+
+    private void updateSnapshot(UnaryOperator<RegistrySnapshot<K, V>> operator) {
+        RegistrySnapshot<K, V> snapshot;
+        CompletableFuture<RegistrySnapshot<K, V>> future;
+        synchronized (this) {
+            if (this.closed) return;
+            RegistrySnapshot<K, V> current = this.snapshot;
+            snapshot = operator.apply(current);
+            if (snapshot == current) return;
+            this.snapshot = snapshot;
+            future = this.nextSnapshot;
+            this.nextSnapshot = new CompletableFuture<>();
+        }
+        // Never complete waiters from the thread that changed the registry
+        try {
+            this.snapshotChangeExecutor.execute(() -> future.complete(snapshot));
+        } catch (RejectedExecutionException e) {
+            // Executor was shutdown
+            future.cancel(false);
+        }
     }
 
     @TopologyChanged
@@ -170,9 +238,14 @@ public class CacheRegistry<K, V> implements Registry<K, V>, KeyFilter<Object> {
         // Determine which nodes have left the cache view
         Set<Address> addresses = new HashSet<>(previousMembers);
         addresses.removeAll(members);
+        int topologyId = event.getNewTopologyId();
 
         try {
             this.topologyChangeExecutor.submit(() -> {
+                // Drop the entries of departed nodes without waiting for their primary owner to purge them.
+                // The current membership is used, as nodes may have joined since this topology.
+                this.updateSnapshot(snapshot -> snapshot.topology(topologyId).retain(this.group.getNodes()));
+
                 if (!addresses.isEmpty()) {
                     // We're only interested in the entries for which we are the primary owner
                     List<Node> nodes = addresses.stream().filter(address -> hash.locatePrimaryOwner(address).equals(localAddress)).map(address -> this.factory.createNode(address)).collect(Collectors.toList());
@@ -217,10 +290,13 @@ public class CacheRegistry<K, V> implements Registry<K, V>, KeyFilter<Object> {
     @CacheEntryCreated
     @CacheEntryModified
     public void event(CacheEntryEvent<Node, Map.Entry<K, V>> event) {
-        if (event.isOriginLocal() || event.isPre()) return;
-        if (!this.listeners.isEmpty()) {
-            Map.Entry<K, V> entry = event.getValue();
-            if (entry != null) {
+        if (event.isPre()) return;
+        Map.Entry<K, V> entry = event.getValue();
+        // Ignore late events of nodes that already left
+        if (entry != null && this.group.getNodes().contains(event.getKey())) {
+            this.updateSnapshot(snapshot -> snapshot.put(event.getKey(), entry));
+            // Listeners are only notified of remote changes
+            if (!event.isOriginLocal() && !this.listeners.isEmpty()) {
                 this.notifyListeners(event.getType(), entry);
             }
         }
@@ -228,7 +304,9 @@ public class CacheRegistry<K, V> implements Registry<K, V>, KeyFilter<Object> {
 
     @CacheEntryRemoved
     public void removed(CacheEntryRemovedEvent<Node, Map.Entry<K, V>> event) {
-        if (event.isOriginLocal() || event.isPre()) return;
+        if (event.isPre()) return;
+        this.updateSnapshot(snapshot -> snapshot.remove(Collections.singleton(event.getKey())));
+        if (event.isOriginLocal()) return;
         if (!this.listeners.isEmpty()) {
             Map.Entry<K, V> entry = event.getOldValue();
             // WFLY-4938 For some reason, the old value can be null
@@ -279,6 +357,19 @@ public class CacheRegistry<K, V> implements Registry<K, V>, KeyFilter<Object> {
     private void shutdown(ExecutorService executor) {
         PrivilegedAction<List<Runnable>> action = () -> executor.shutdownNow();
         WildFlySecurityManager.doUnchecked(action);
+        this.awaitTermination(executor);
+    }
+
+    private void drain(ExecutorService executor) {
+        PrivilegedAction<Void> action = () -> {
+            executor.shutdown();
+            return null;
+        };
+        WildFlySecurityManager.doUnchecked(action);
+        this.awaitTermination(executor);
+    }
+
+    private void awaitTermination(ExecutorService executor) {
         try {
             executor.awaitTermination(this.cache.getCacheConfiguration().transaction().cacheStopTimeout(), TimeUnit.MILLISECONDS);
         } catch (InterruptedException e) {
@@ -23,6 +23,8 @@ package org.wildfly.clustering.server.registry;
 
 import java.util.Collections;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 
 import org.wildfly.clustering.group.Group;
 import org.wildfly.clustering.group.Node;
@@ -38,6 +40,7 @@ public class LocalRegistry<K, V> implements Registry<K, V> {
 
     private final Group group;
     private final Runnable closeTask;
+    private final CompletableFuture<Void> closeFuture = new CompletableFuture<>();
     private volatile Map.Entry<K, V> entry;
 
     public LocalRegistry(Group group, Map.Entry<K, V> entry, Runnable closeTask) {
@@ -72,8 +75,15 @@ public class LocalRegistry<K, V> implements Registry<K, V> {
         return this.entry;
     }
 
+    @Override
+    public CompletionStage<Map<K, V>> whenChanged(long version) {
+        // Our entries only change when closed
+        return (version < this.getVersion()) ? CompletableFuture.completedFuture(this.getEntries()) : this.closeFuture.thenApply(result -> this.getEntries());
+    }
+
     @Override
     public void close() {
+        this.closeFuture.cancel(false);
         this.entry = null;
         this.closeTask.run();
     }
@@ -0,0 +1,133 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.clustering.server.registry;
+
+import java.util.AbstractMap;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import org.wildfly.clustering.group.Node;
+
+/**
+ * Immutable view of the entries of a {@link CacheRegistry}.
+ * The upper 32 bits of its version hold the topology id of the most recent cache topology, the lower bits count the changes since.
+ * @param <K> key type
+ * @param <V> value type
+ */
+class RegistrySnapshot<K, V> {
+
+    private final long version;
+    private final Map<Node, Map.Entry<K, V>> nodes;
+    private final Map<K, V> entries;
+
+    RegistrySnapshot() {
+        this(0L, Collections.emptyMap());
+    }
+
+    private RegistrySnapshot(long version, Map<Node, Map.Entry<K, V>> nodes) {
+        this.version = version;
+        this.nodes = nodes;
+        Map<K, V> entries = new HashMap<>();
+        for (Map.Entry<K, V> entry : nodes.values()) {
+            entries.put(entry.getKey(), entry.getValue());
+        }
+        this.entries = Collections.unmodifiableMap(entries);
+    }
+
+    long getVersion() {
+        return this.version;
+    }
+
+    Map<K, V> getEntries() {
+        return this.entries;
+    }
+
+    Map.Entry<K, V> getEntry(Node node) {
+        return this.nodes.get(node);
+    }
+
+    Collection<Node> getNodes() {
+        return this.nodes.keySet();
+    }
+
+    /**
+     * Returns a snapshot containing the specified entry for the specified node.
+     * @param node a node
+     * @param entry the registry entry of the node
+     * @return a new snapshot, or this snapshot if it already contains the specified entry
+     */
+    RegistrySnapshot<K, V> put(Node node, Map.Entry<K, V> entry) {
+        if (Objects.equals(this.nodes.get(node), entry)) return this;
+        Map<Node, Map.Entry<K, V>> nodes = new HashMap<>(this.nodes);
+        nodes.put(node, new AbstractMap.SimpleImmutableEntry<>(entry));
+        return new RegistrySnapshot<>(this.version + 1, Collections.unmodifiableMap(nodes));
+    }
+
+    /**
+     * Returns a snapshot containing the entries of the specified nodes that are not already present in this snapshot.
+     * @param entries registry entries per node
+     * @return a new snapshot, or this snapshot if it already contains an entry for each node
+     */
+    RegistrySnapshot<K, V> putIfAbsent(Map<Node, Map.Entry<K, V>> entries) {
+        Map<Node, Map.Entry<K, V>> nodes = new HashMap<>(this.nodes);
+        for (Map.Entry<Node, Map.Entry<K, V>> entry : entries.entrySet()) {
+            nodes.putIfAbsent(entry.getKey(), new AbstractMap.SimpleImmutableEntry<>(entry.getValue()));
+        }
+        return (nodes.size() != this.nodes.size()) ? new RegistrySnapshot<>(this.version + 1, Collections.unmodifiableMap(nodes)) : this;
+    }
+
+    /**
+     * Returns a snapshot without the entries of the specified nodes.
+     * @param nodes a collection of nodes
+     * @return a new snapshot, or this snapshot if it contains none of the specified nodes
+     */
+    RegistrySnapshot<K, V> remove(Collection<Node> nodes) {
+        Map<Node, Map.Entry<K, V>> remaining = new HashMap<>(this.nodes);
+        remaining.keySet().removeAll(nodes);
+        return (remaining.size() != this.nodes.size()) ? new RegistrySnapshot<>(this.version + 1, Collections.unmodifiableMap(remaining)) : this;
+    }
+
+    /**
+     * Returns a snapshot with only the entries of the specified nodes.
+     * @param nodes a collection of nodes
+     * @return a new snapshot, or this snapshot if it contains no other nodes
+     */
+    RegistrySnapshot<K, V> retain(Collection<Node> nodes) {
+        Map<Node, Map.Entry<K, V>> remaining = new HashMap<>(this.nodes);
+        remaining.keySet().retainAll(nodes);
+        return (remaining.size() != this.nodes.size()) ? new RegistrySnapshot<>(this.version + 1, Collections.unmodifiableMap(remaining)) : this;
+    }
+
+    /**
+     * Returns a snapshot for the specified cache topology, whose version is derived from the topology id.
+     * @param topologyId a cache topology id
+     * @return a new snapshot, or this snapshot if its version already reflects the specified topology
+     */
+    RegistrySnapshot<K, V> topology(int topologyId) {
+        long version = Integer.toUnsignedLong(topologyId) << 32;
+        return (version > this.version) ? new RegistrySnapshot<>(version, this.nodes) : this;
+    }
+}
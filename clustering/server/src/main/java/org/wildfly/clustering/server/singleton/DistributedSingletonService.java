@@ -22,6 +22,7 @@
 
 package org.wildfly.clustering.server.singleton;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
@@ -37,21 +38,21 @@ import org.jboss.msc.service.StartException;
 import org.jboss.msc.service.StopContext;
 import org.jboss.msc.value.Value;
 import org.wildfly.clustering.dispatcher.CommandDispatcher;
-import org.wildfly.clustering.dispatcher.CommandDispatcherException;
 import org.wildfly.clustering.dispatcher.CommandDispatcherFactory;
-import org.wildfly.clustering.group.Group;
 import org.wildfly.clustering.group.Node;
 import org.wildfly.clustering.provider.ServiceProviderRegistration;
 import org.wildfly.clustering.provider.ServiceProviderRegistry;
 import org.wildfly.clustering.server.logging.ClusteringServerLogger;
+import org.wildfly.clustering.singleton.SingletonElectionListener;
 import org.wildfly.clustering.singleton.SingletonElectionPolicy;
 import org.wildfly.clustering.singleton.SingletonService;
 
 /**
  * Decorates an MSC service ensuring that it is only started on one node in the cluster at any given time.
+ * Elections are run by a {@link SingletonElectionCoordinator} shared with the other singleton services of the same cache.
  * @author Paul Ferraro
  */
-public class DistributedSingletonService<T> implements SingletonService<T>, SingletonContext<T>, ServiceProviderRegistration.Listener, PrimaryProxyContext<T> {
+public class DistributedSingletonService<T> implements SingletonService<T>, SingletonElectionParticipant<T>, ServiceProviderRegistration.Listener, PrimaryProxyContext<T> {
 
     @SuppressWarnings("rawtypes")
     private final Value<ServiceProviderRegistry> registry;
@@ -60,6 +61,8 @@ public class DistributedSingletonService<T> implements SingletonService<T>, Sing
     private final Service<T> primaryService;
     private final Service<T> backupService;
     private final SingletonElectionPolicy electionPolicy;
+    private final SingletonElectionListener electionListener;
+    private final SingletonElectionCoordinator coordinator;
     private final int quorum;
 
     private final AtomicBoolean primary = new AtomicBoolean(false);
@@ -77,6 +80,8 @@ public class DistributedSingletonService<T> implements SingletonService<T>, Sing
         this.primaryService = context.getPrimaryService();
         this.backupService = context.getBackupService().orElse(new PrimaryProxyService<>(this));
         this.electionPolicy = context.getElectionPolicy();
+        this.electionListener = context.getElectionListener();
+        this.coordinator = context.getElectionCoordinator();
         this.quorum = context.getQuorum();
     }
 
@@ -86,6 +91,7 @@ public class DistributedSingletonService<T> implements SingletonService<T>, Sing
         this.primaryController = target.addService(this.serviceName.append("primary"), this.primaryService).setInitialMode(ServiceController.Mode.NEVER).install();
         this.backupController = target.addService(this.serviceName.append("backup"), this.backupService).setInitialMode(ServiceController.Mode.ACTIVE).install();
         this.dispatcher = this.dispatcherFactory.getValue().<SingletonContext<T>>createCommandDispatcher(this.serviceName, this);
+        this.coordinator.register(this.dispatcherFactory.getValue(), this);
         this.registration = this.registry.getValue().register(this.serviceName, this);
         this.started = true;
     }
@@ -94,6 +100,7 @@ public class DistributedSingletonService<T> implements SingletonService<T>, Sing
     public void stop(StopContext context) {
         this.started = false;
         this.registration.close();
+        this.coordinator.unregister(this.serviceName);
         this.dispatcher.close();
     }
 
@@ -104,45 +111,35 @@ public class DistributedSingletonService<T> implements SingletonService<T>, Sing
 
     @Override
     public void providersChanged(Set<Node> nodes) {
-        Group group = this.registry.getValue().getGroup();
-        List<Node> candidates = group.getNodes();
-        candidates.retainAll(nodes);
-
-        // Only run election on a single node
-        if (candidates.isEmpty() || candidates.get(0).equals(group.getLocalNode())) {
-            // First validate that quorum was met
-            int size = candidates.size();
-            boolean quorumMet = size >= this.quorum;
-
-            if ((this.quorum > 1) && (size == this.quorum)) {
-                // Log fragility of singleton availability
-                ClusteringServerLogger.ROOT_LOGGER.quorumJustReached(this.serviceName.getCanonicalName(), this.quorum);
-            }
+        this.coordinator.providersChanged(this.serviceName, nodes);
+    }
 
-            Node elected = quorumMet ? this.electionPolicy.elect(candidates) : null;
+    @Override
+    public Node elect(List<Node> candidates) {
+        // First validate that quorum was met
+        int size = candidates.size();
+        boolean quorumMet = size >= this.quorum;
+
+        if ((this.quorum > 1) && (size == this.quorum)) {
+            // Log fragility of singleton availability
+            ClusteringServerLogger.ROOT_LOGGER.quorumJustReached(this.serviceName.getCanonicalName(), this.quorum);
+        }
 
-            try {
-                if (elected != null) {
-                    ClusteringServerLogger.ROOT_LOGGER.elected(elected.getName(), this.serviceName.getCanonicalName());
-
-                    // Stop service on every node except elected node
-                    this.dispatcher.executeOnCluster(new StopCommand<>(), elected);
-                    // Start service on elected node
-                    this.dispatcher.executeOnNode(new StartCommand<>(), elected);
-                } else {
-                    if (quorumMet) {
-                        ClusteringServerLogger.ROOT_LOGGER.noPrimaryElected(this.serviceName.getCanonicalName());
-                    } else {
-                        ClusteringServerLogger.ROOT_LOGGER.quorumNotReached(this.serviceName.getCanonicalName(), this.quorum);
-                    }
-
-                    // Stop service on every node
-                    this.dispatcher.executeOnCluster(new StopCommand<>());
-                }
-            } catch (CommandDispatcherException e) {
-                throw new IllegalStateException(e);
-            }
+        Node elected = quorumMet ? this.electionPolicy.elect(candidates) : null;
+
+        if (elected != null) {
+            ClusteringServerLogger.ROOT_LOGGER.elected(elected.getName(), this.serviceName.getCanonicalName());
+        } else if (quorumMet) {
+            ClusteringServerLogger.ROOT_LOGGER.noPrimaryElected(this.serviceName.getCanonicalName());
+        } else {
+            ClusteringServerLogger.ROOT_LOGGER.quorumNotReached(this.serviceName.getCanonicalName(), this.quorum);
         }
+        return elected;
+    }
+
+    @Override
+    public void elected(List<Node> candidates, Node elected, Duration duration) {
+        this.electionListener.elected(candidates, elected, duration);
     }
 
     @Override
@@ -34,6 +34,7 @@ import org.wildfly.clustering.dispatcher.CommandDispatcherFactory;
 import org.wildfly.clustering.provider.ServiceProviderRegistry;
 import org.wildfly.clustering.server.logging.ClusteringServerLogger;
 import org.wildfly.clustering.service.ValueDependency;
+import org.wildfly.clustering.singleton.SingletonElectionListener;
 import org.wildfly.clustering.singleton.SingletonElectionPolicy;
 import org.wildfly.clustering.singleton.SingletonService;
 import org.wildfly.clustering.singleton.SingletonServiceBuilder;
@@ -51,13 +52,16 @@ public class DistributedSingletonServiceBuilder<T> implements SingletonServiceBu
     private final ServiceName serviceName;
     private final Service<T> primaryService;
     private final Optional<Service<T>> backupService;
+    private final SingletonElectionCoordinator coordinator;
 
     private volatile SingletonElectionPolicy electionPolicy = new SimpleSingletonElectionPolicy();
+    private volatile SingletonElectionListener electionListener = (candidates, elected, duration) -> {};
     private volatile int quorum = 1;
 
-    public DistributedSingletonServiceBuilder(DistributedSingletonServiceBuilderContext context, ServiceName serviceName, Service<T> primaryService, Service<T> backupService) {
+    public DistributedSingletonServiceBuilder(DistributedSingletonServiceBuilderContext context, SingletonElectionCoordinator coordinator, ServiceName serviceName, Service<T> primaryService, Service<T> backupService) {
         this.registry = context.getServiceProviderRegistryDependency();
         this.dispatcherFactory = context.getCommandDispatcherFactoryDependency();
+        this.coordinator = coordinator;
         this.serviceName = serviceName;
         this.primaryService = primaryService;
         this.backupService = Optional.ofNullable(backupService);
@@ -91,6 +95,12 @@ public class DistributedSingletonServiceBuilder<T> implements SingletonServiceBu
         return this;
     }
 
+    @Override
+    public SingletonServiceBuilder<T> electionListener(SingletonElectionListener electionListener) {
+        this.electionListener = electionListener;
+        return this;
+    }
+
     @SuppressWarnings("rawtypes")
     @Override
     public Value<ServiceProviderRegistry> getServiceProviderRegistry() {
@@ -117,6 +127,16 @@ public class DistributedSingletonServiceBuilder<T> implements SingletonServiceBu
         return this.electionPolicy;
     }
 
+    @Override
+    public SingletonElectionListener getElectionListener() {
+        return this.electionListener;
+    }
+
+    @Override
+    public SingletonElectionCoordinator getElectionCoordinator() {
+        return this.coordinator;
+    }
+
     @Override
     public int getQuorum() {
         return this.quorum;
@@ -24,13 +24,14 @@ package org.wildfly.clustering.server.singleton;
 
 import org.wildfly.clustering.dispatcher.CommandDispatcherFactory;
 import org.wildfly.clustering.provider.ServiceProviderRegistry;
+import org.wildfly.clustering.service.ServiceNameProvider;
 import org.wildfly.clustering.service.ValueDependency;
 
 /**
  * Context for building singleton services.
  * @author Paul Ferraro
  */
-public interface DistributedSingletonServiceBuilderContext {
+public interface DistributedSingletonServiceBuilderContext extends ServiceNameProvider {
     @SuppressWarnings("rawtypes")
     ValueDependency<ServiceProviderRegistry> getServiceProviderRegistryDependency();
     ValueDependency<CommandDispatcherFactory> getCommandDispatcherFactoryDependency();
@@ -33,9 +33,11 @@ import org.wildfly.clustering.singleton.SingletonServiceBuilderFactory;
 public class DistributedSingletonServiceBuilderFactory implements SingletonServiceBuilderFactory {
 
     private final DistributedSingletonServiceBuilderContext context;
+    private final SingletonElectionCoordinator coordinator;
 
     public DistributedSingletonServiceBuilderFactory(DistributedSingletonServiceBuilderContext context) {
         this.context = context;
+        this.coordinator = new SingletonElectionCoordinator(context.getServiceName());
     }
 
     @Override
@@ -45,6 +47,6 @@ public class DistributedSingletonServiceBuilderFactory implements SingletonServi
 
     @Override
     public <T> SingletonServiceBuilder<T> createSingletonServiceBuilder(ServiceName name, Service<T> primaryService, Service<T> backupService) {
-        return new DistributedSingletonServiceBuilder<>(this.context, name, primaryService, backupService);
+        return new DistributedSingletonServiceBuilder<>(this.context, this.coordinator, name, primaryService, backupService);
     }
 }
@@ -29,6 +29,7 @@ import org.jboss.msc.value.Value;
 import org.wildfly.clustering.dispatcher.CommandDispatcherFactory;
 import org.wildfly.clustering.provider.ServiceProviderRegistry;
 import org.wildfly.clustering.service.ServiceNameProvider;
+import org.wildfly.clustering.singleton.SingletonElectionListener;
 import org.wildfly.clustering.singleton.SingletonElectionPolicy;
 
 /**
@@ -41,5 +42,7 @@ public interface DistributedSingletonServiceContext<T> extends ServiceNameProvid
     Service<T> getPrimaryService();
     Optional<Service<T>> getBackupService();
     SingletonElectionPolicy getElectionPolicy();
+    SingletonElectionListener getElectionListener();
+    SingletonElectionCoordinator getElectionCoordinator();
     int getQuorum();
 }
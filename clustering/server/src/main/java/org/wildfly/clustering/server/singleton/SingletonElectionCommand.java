@@ -0,0 +1,66 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.clustering.server.singleton;
+
+import java.util.Collection;
+
+import org.jboss.msc.service.ServiceName;
+import org.wildfly.clustering.dispatcher.Command;
+
+/**
+ * Command to stop, then start, any number of singleton services following their elections.
+ */
+public class SingletonElectionCommand implements Command<Void, SingletonElectionContext> {
+    private static final long serialVersionUID = -6127358279539843046L;
+
+    private final Collection<ServiceName> stopped;
+    private final Collection<ServiceName> started;
+
+    /**
+     * Creates a new election command.
+     * @param stopped the names of the singleton services to stop, which must be serializable
+     * @param started the names of the singleton services to start, which must be serializable
+     */
+    public SingletonElectionCommand(Collection<ServiceName> stopped, Collection<ServiceName> started) {
+        this.stopped = stopped;
+        this.started = started;
+    }
+
+    @Override
+    public Void execute(SingletonElectionContext context) throws Exception {
+        // Services that are not running on this node are ignored
+        for (ServiceName name : this.stopped) {
+            SingletonContext<?> singleton = context.getSingletonContext(name);
+            if (singleton != null) {
+                singleton.stop();
+            }
+        }
+        for (ServiceName name : this.started) {
+            SingletonContext<?> singleton = context.getSingletonContext(name);
+            if (singleton != null) {
+                singleton.start();
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,304 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.clustering.server.singleton;
+
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.stream.Collectors;
+
+import org.jboss.msc.service.ServiceName;
+import org.jboss.threads.JBossThreadFactory;
+import org.wildfly.clustering.dispatcher.Command;
+import org.wildfly.clustering.dispatcher.CommandDispatcher;
+import org.wildfly.clustering.dispatcher.CommandDispatcherException;
+import org.wildfly.clustering.dispatcher.CommandDispatcherFactory;
+import org.wildfly.clustering.group.Group;
+import org.wildfly.clustering.group.Node;
+import org.wildfly.clustering.server.dispatcher.NoSuchService;
+import org.wildfly.clustering.server.logging.ClusteringServerLogger;
+import org.wildfly.clustering.service.concurrent.ClassLoaderThreadFactory;
+import org.wildfly.security.manager.WildFlySecurityManager;
+
+/**
+ * Runs the elections of the singleton services sharing a {@link CommandDispatcherFactory}.
+ * Elections triggered by a change of service providers are queued, then evaluated together against the same group membership.
+ * The resulting stop and start commands are coalesced into a single {@link SingletonElectionCommand} per member of the group,
+ * so a change of membership costs two messages per member, regardless of the number of singleton services.
+ * Members that do not answer to the command dispatcher of this coordinator, e.g. nodes running a previous version,
+ * are sent a {@link StopCommand} or {@link StartCommand} per service instead, via the command dispatcher of that service.
+ * Elections are run by a single thread, which waits for the stop and start commands to be acknowledged,
+ * so a singleton service that is slow to start delays the failover of the other singleton services sharing this coordinator.
+ * The wait for a remote member is bounded by the timeout of its command dispatcher.
+ */
+public class SingletonElectionCoordinator implements SingletonElectionContext {
+
+    private static ThreadFactory createThreadFactory(Class<?> targetClass) {
+        PrivilegedAction<ThreadFactory> action = () -> new JBossThreadFactory(new ThreadGroup(targetClass.getSimpleName()), Boolean.FALSE, null, "%G - %t", null, null);
+        return new ClassLoaderThreadFactory(WildFlySecurityManager.doUnchecked(action),
+                AccessController.doPrivileged((PrivilegedAction<ClassLoader>) () -> targetClass.getClassLoader()));
+    }
+
+    private final Object id;
+    private final Map<ServiceName, SingletonElectionParticipant<?>> participants = new ConcurrentHashMap<>();
+
+    // The following are guarded by this
+    private Map<ServiceName, Election> elections = new LinkedHashMap<>();
+    private Group group;
+    private CommandDispatcher<SingletonElectionContext> dispatcher;
+    private ExecutorService executor;
+
+    /**
+     * Creates a new election coordinator.
+     * @param id the identifier of the command dispatcher of this coordinator, common to all members of the group
+     */
+    public SingletonElectionCoordinator(Object id) {
+        this.id = id;
+    }
+
+    /**
+     * Registers a singleton service with this coordinator.
+     * The first registration creates the command dispatcher of this coordinator.
+     * @param factory the factory of the command dispatcher of this coordinator
+     * @param participant a singleton service
+     */
+    public synchronized void register(CommandDispatcherFactory factory, SingletonElectionParticipant<?> participant) {
+        if (this.participants.isEmpty()) {
+            this.group = factory.getGroup();
+            this.executor = Executors.newSingleThreadExecutor(createThreadFactory(this.getClass()));
+            this.dispatcher = factory.createCommandDispatcher(this.id, this);
+        }
+        this.participants.put(participant.getServiceName(), participant);
+    }
+
+    /**
+     * Unregisters a singleton service from this coordinator, discarding any pending election of that service.
+     * The last registration closes the command dispatcher of this coordinator.
+     * @param name the name of a singleton service
+     */
+    public synchronized void unregister(ServiceName name) {
+        this.elections.remove(name);
+        if ((this.participants.remove(name) != null) && this.participants.isEmpty()) {
+            this.dispatcher.close();
+            ExecutorService executor = this.executor;
+            PrivilegedAction<List<Runnable>> action = () -> executor.shutdownNow();
+            WildFlySecurityManager.doUnchecked(action);
+        }
+    }
+
+    @Override
+    public SingletonContext<?> getSingletonContext(ServiceName name) {
+        return this.participants.get(name);
+    }
+
+    /**
+     * Schedules an election of the specified singleton service following a change of its providers.
+     * An election still pending for the same service is superseded.
+     * @param name the name of a singleton service
+     * @param providers the nodes providing the singleton service
+     */
+    public synchronized void providersChanged(ServiceName name, Set<Node> providers) {
+        SingletonElectionParticipant<?> participant = this.participants.get(name);
+        if (participant == null) return;
+        boolean idle = this.elections.isEmpty();
+        Election pending = this.elections.get(name);
+        // Latency is measured from the earliest change that was not yet applied
+        long start = (pending != null) ? pending.getStartTime() : System.nanoTime();
+        this.elections.put(name, new Election(participant, providers, start));
+        if (idle) {
+            try {
+                this.executor.execute(this::elect);
+            } catch (RejectedExecutionException e) {
+                // Executor was shutdown
+            }
+        }
+    }
+
+    private void elect() {
+        Map<ServiceName, Election> elections;
+        Group group;
+        CommandDispatcher<SingletonElectionContext> dispatcher;
+        synchronized (this) {
+            elections = this.elections;
+            this.elections = new LinkedHashMap<>();
+            group = this.group;
+            dispatcher = this.dispatcher;
+        }
+        if (elections.isEmpty()) return;
+
+        List<Node> members = group.getNodes();
+        Node localNode = group.getLocalNode();
+        Map<Node, List<SingletonElectionParticipant<?>>> stopped = new HashMap<>();
+        Map<Node, List<SingletonElectionParticipant<?>>> started = new HashMap<>();
+        List<Runnable> notifications = new ArrayList<>(elections.size());
+
+        for (Map.Entry<ServiceName, Election> entry : elections.entrySet()) {
+            ServiceName name = entry.getKey();
+            Election election = entry.getValue();
+            SingletonElectionParticipant<?> participant = election.getParticipant();
+            List<Node> candidates = new ArrayList<>(members);
+            candidates.retainAll(election.getProviders());
+
+            // Only run election on a single node
+            if (candidates.isEmpty() || candidates.get(0).equals(localNode)) {
+                try {
+                    Node elected = participant.elect(candidates);
+                    // Stop service on every node except elected node, then start service on elected node
+                    for (Node member : members) {
+                        if (!member.equals(elected)) {
+                            stopped.computeIfAbsent(member, key -> new ArrayList<>()).add(participant);
+                        }
+                    }
+                    if (elected != null) {
+                        started.computeIfAbsent(elected, key -> new ArrayList<>()).add(participant);
+                    }
+                    notifications.add(() -> {
+                        try {
+                            participant.elected(candidates, elected, Duration.ofNanos(System.nanoTime() - election.getStartTime()));
+                        } catch (RuntimeException e) {
+                            ClusteringServerLogger.ROOT_LOGGER.singletonElectionListenerFailed(e, name.getCanonicalName());
+                        }
+                    });
+                } catch (RuntimeException e) {
+                    ClusteringServerLogger.ROOT_LOGGER.singletonElectionFailed(e, name.getCanonicalName());
+                }
+            }
+        }
+
+        // Services must be stopped on every node before they are started on their elected node
+        execute(dispatcher, stopped, false);
+        execute(dispatcher, started, true);
+
+        notifications.forEach(Runnable::run);
+    }
+
+    private static void execute(CommandDispatcher<SingletonElectionContext> dispatcher, Map<Node, List<SingletonElectionParticipant<?>>> services, boolean start) {
+        Map<Node, Future<?>> futures = new HashMap<>();
+        for (Map.Entry<Node, List<SingletonElectionParticipant<?>>> entry : services.entrySet()) {
+            Node node = entry.getKey();
+            List<ServiceName> names = entry.getValue().stream().map(SingletonElectionParticipant::getServiceName).collect(Collectors.toList());
+            Command<Void, SingletonElectionContext> command = start ? new SingletonElectionCommand(Collections.emptyList(), names) : new SingletonElectionCommand(names, Collections.emptyList());
+            try {
+                futures.put(node, dispatcher.submitOnNode(command, node));
+            } catch (CommandDispatcherException e) {
+                failed(e, node, entry.getValue());
+            }
+        }
+        Map<Node, List<SingletonElectionParticipant<?>>> unknown = new HashMap<>();
+        for (Map.Entry<Node, Future<?>> entry : futures.entrySet()) {
+            Node node = entry.getKey();
+            try {
+                Object result = entry.getValue().get();
+                // This node does not run this coordinator, e.g. it runs a previous version
+                if (result instanceof NoSuchService) {
+                    unknown.put(node, services.get(node));
+                }
+            } catch (ExecutionException e) {
+                failed(e.getCause(), node, services.get(node));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        if (!unknown.isEmpty()) {
+            executeLegacy(unknown, start);
+        }
+    }
+
+    private static void executeLegacy(Map<Node, List<SingletonElectionParticipant<?>>> services, boolean start) {
+        Map<Node, List<Future<Void>>> futures = new HashMap<>();
+        for (Map.Entry<Node, List<SingletonElectionParticipant<?>>> entry : services.entrySet()) {
+            Node node = entry.getKey();
+            List<Future<Void>> nodeFutures = new ArrayList<>(entry.getValue().size());
+            for (SingletonElectionParticipant<?> participant : entry.getValue()) {
+                try {
+                    nodeFutures.add(submit(participant, node, start));
+                } catch (CommandDispatcherException e) {
+                    failed(e, node, Collections.singletonList(participant));
+                }
+            }
+            futures.put(node, nodeFutures);
+        }
+        for (Map.Entry<Node, List<Future<Void>>> entry : futures.entrySet()) {
+            Node node = entry.getKey();
+            for (Future<Void> future : entry.getValue()) {
+                try {
+                    // A service that is not running on this node answers with NoSuchService, and is ignored
+                    future.get();
+                } catch (ExecutionException e) {
+                    failed(e.getCause(), node, services.get(node));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private static <T> Future<Void> submit(SingletonElectionParticipant<T> participant, Node node, boolean start) throws CommandDispatcherException {
+        Command<Void, SingletonContext<T>> command = start ? new StartCommand<>() : new StopCommand<>();
+        return participant.getCommandDispatcher().submitOnNode(command, node);
+    }
+
+    private static void failed(Throwable cause, Node node, List<SingletonElectionParticipant<?>> services) {
+        ClusteringServerLogger.ROOT_LOGGER.singletonElectionNotificationFailed(cause, node, services.stream().map(participant -> participant.getServiceName().getCanonicalName()).collect(Collectors.toList()));
+    }
+
+    private static class Election {
+        private final SingletonElectionParticipant<?> participant;
+        private final Set<Node> providers;
+        private final long startTime;
+
+        Election(SingletonElectionParticipant<?> participant, Set<Node> providers, long startTime) {
+            this.participant = participant;
+            this.providers = providers;
+            this.startTime = startTime;
+        }
+
+        SingletonElectionParticipant<?> getParticipant() {
+            return this.participant;
+        }
+
+        Set<Node> getProviders() {
+            return this.providers;
+        }
+
+        long getStartTime() {
+            return this.startTime;
+        }
+    }
+}
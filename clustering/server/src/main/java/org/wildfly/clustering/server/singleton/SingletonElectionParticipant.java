@@ -0,0 +1,52 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.clustering.server.singleton;
+
+import java.util.List;
+
+import org.jboss.msc.service.ServiceName;
+import org.wildfly.clustering.dispatcher.CommandDispatcher;
+import org.wildfly.clustering.group.Node;
+import org.wildfly.clustering.singleton.SingletonElectionListener;
+
+/**
+ * A singleton service whose elections are run by a {@link SingletonElectionCoordinator}.
+ * @param <T> type of the singleton service value
+ */
+public interface SingletonElectionParticipant<T> extends SingletonContext<T>, SingletonElectionListener {
+
+    ServiceName getServiceName();
+
+    /**
+     * Elects the primary provider of this singleton service from the specified candidates.
+     * @param candidates the members of the group providing this service, ordered by membership
+     * @return the elected node, or null if no node could be elected
+     */
+    Node elect(List<Node> candidates);
+
+    /**
+     * Returns the command dispatcher of this singleton service, used to stop and start this service on nodes that do not run a {@link SingletonElectionCoordinator}.
+     * @return a command dispatcher
+     */
+    CommandDispatcher<SingletonContext<T>> getCommandDispatcher();
+}
@@ -0,0 +1,216 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.clustering.server.registry;
+
+import static org.mockito.Mockito.*;
+
+import java.util.AbstractMap;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.infinispan.AdvancedCache;
+import org.infinispan.Cache;
+import org.infinispan.context.Flag;
+import org.infinispan.distribution.ch.ConsistentHash;
+import org.infinispan.notifications.cachelistener.event.CacheEntryEvent;
+import org.infinispan.notifications.cachelistener.event.Event;
+import org.infinispan.notifications.cachelistener.event.TopologyChangedEvent;
+import org.infinispan.remoting.transport.Address;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.wildfly.clustering.ee.Batch;
+import org.wildfly.clustering.ee.Batcher;
+import org.wildfly.clustering.group.Group;
+import org.wildfly.clustering.group.Node;
+import org.wildfly.clustering.group.NodeFactory;
+import org.wildfly.clustering.registry.Registry;
+import org.wildfly.clustering.server.group.LocalNode;
+
+/**
+ * Unit test for {@link CacheRegistry}.
+ */
+public class CacheRegistryTestCase {
+
+    private final Node localNode = new LocalNode("cluster", "node1");
+    private final Node remoteNode = new LocalNode("cluster", "node2");
+    private final Map.Entry<String, Integer> localEntry = new AbstractMap.SimpleImmutableEntry<>("a", 1);
+    private final Map.Entry<String, Integer> remoteEntry = new AbstractMap.SimpleImmutableEntry<>("b", 2);
+
+    private final Cache<Node, Map.Entry<String, Integer>> cache = mock(Cache.class, RETURNS_DEEP_STUBS);
+    private final AdvancedCache<Node, Map.Entry<String, Integer>> advancedCache = mock(AdvancedCache.class);
+    private final Batcher<Batch> batcher = mock(Batcher.class);
+    private final Group group = mock(Group.class);
+    private final NodeFactory<Address> factory = mock(NodeFactory.class);
+    private final Runnable closeTask = mock(Runnable.class);
+    private final CacheRegistryConfiguration<String, Integer> config = mock(CacheRegistryConfiguration.class);
+
+    private CacheRegistry<String, Integer> registry;
+
+    @Before
+    public void init() {
+        when(this.config.getCache()).thenReturn(this.cache);
+        doReturn(this.batcher).when(this.config).getBatcher();
+        when(this.config.getGroup()).thenReturn(this.group);
+        when(this.config.getNodeFactory()).thenReturn(this.factory);
+        when(this.batcher.createBatch()).thenReturn(mock(Batch.class));
+        when(this.cache.getAdvancedCache()).thenReturn(this.advancedCache);
+        when(this.cache.getCacheConfiguration().transaction().cacheStopTimeout()).thenReturn(TimeUnit.SECONDS.toMillis(10));
+        when(this.advancedCache.withFlags(Flag.IGNORE_RETURN_VALUES)).thenReturn(this.advancedCache);
+        when(this.advancedCache.withFlags(Flag.IGNORE_RETURN_VALUES, Flag.FAIL_SILENTLY)).thenReturn(this.advancedCache);
+        when(this.advancedCache.withFlags(Flag.FORCE_SYNCHRONOUS)).thenReturn(this.advancedCache);
+        when(this.group.getLocalNode()).thenReturn(this.localNode);
+    }
+
+    @After
+    public void destroy() {
+        if (this.registry != null) {
+            this.registry.close();
+        }
+    }
+
+    @Test
+    public void whenChanged() throws InterruptedException, ExecutionException, TimeoutException {
+        this.createRegistry(Collections.singletonMap(this.localNode, this.localEntry), this.localNode);
+        Registry.Listener<String, Integer> listener = mock(Registry.Listener.class);
+        this.registry.addListener(listener);
+
+        long version = this.registry.getVersion();
+        CompletionStage<Map<String, Integer>> stage = this.registry.whenChanged(version);
+        Assert.assertFalse(stage.toCompletableFuture().isDone());
+
+        when(this.group.getNodes()).thenReturn(Arrays.asList(this.localNode, this.remoteNode));
+        this.registry.event(this.createEvent(this.remoteNode, this.remoteEntry));
+
+        Map<String, Integer> expected = new HashMap<>();
+        expected.put("a", 1);
+        expected.put("b", 2);
+        Assert.assertEquals(expected, stage.toCompletableFuture().get(10, TimeUnit.SECONDS));
+        Assert.assertEquals(expected, this.registry.getEntries());
+        Assert.assertTrue(this.registry.getVersion() > version);
+        verify(listener, timeout(10000)).addedEntries(Collections.singletonMap("b", 2));
+    }
+
+    @Test
+    public void ignoreDepartedNodeEvent() {
+        this.createRegistry(Collections.singletonMap(this.localNode, this.localEntry), this.localNode);
+        Registry.Listener<String, Integer> listener = mock(Registry.Listener.class);
+        this.registry.addListener(listener);
+        long version = this.registry.getVersion();
+
+        // A late event of a node that already left the group
+        this.registry.event(this.createEvent(this.remoteNode, this.remoteEntry));
+
+        Assert.assertEquals(Collections.singletonMap("a", 1), this.registry.getEntries());
+        Assert.assertEquals(version, this.registry.getVersion());
+        verify(listener, never()).addedEntries(anyMapOf(String.class, Integer.class));
+    }
+
+    @Test
+    public void departedBeforeConstruction() {
+        Map<Node, Map.Entry<String, Integer>> entries = new HashMap<>();
+        entries.put(this.localNode, this.localEntry);
+        entries.put(this.remoteNode, this.remoteEntry);
+        when(this.advancedCache.getAll(anySetOf(Node.class))).thenReturn(entries);
+        // The remote node leaves after its entry was read
+        when(this.group.getNodes()).thenReturn(Arrays.asList(this.localNode, this.remoteNode), Collections.singletonList(this.localNode));
+
+        this.registry = new CacheRegistry<>(this.config, this.localEntry, this.closeTask);
+
+        Assert.assertEquals(Collections.singletonMap("a", 1), this.registry.getEntries());
+    }
+
+    @Test
+    public void topologyChanged() throws InterruptedException, ExecutionException, TimeoutException {
+        Map<Node, Map.Entry<String, Integer>> entries = new HashMap<>();
+        entries.put(this.localNode, this.localEntry);
+        entries.put(this.remoteNode, this.remoteEntry);
+        this.createRegistry(entries, this.localNode, this.remoteNode);
+        Assert.assertEquals(2, this.registry.getEntries().size());
+
+        Address localAddress = mock(Address.class);
+        Address remoteAddress = mock(Address.class);
+        ConsistentHash previousHash = mock(ConsistentHash.class);
+        ConsistentHash hash = mock(ConsistentHash.class);
+        TopologyChangedEvent<Node, Map.Entry<String, Integer>> event = mock(TopologyChangedEvent.class, RETURNS_DEEP_STUBS);
+        when(event.isPre()).thenReturn(false);
+        when(event.getConsistentHashAtStart()).thenReturn(previousHash);
+        when(event.getConsistentHashAtEnd()).thenReturn(hash);
+        when(event.getNewTopologyId()).thenReturn(2);
+        when(event.getCache().getCacheManager().getAddress()).thenReturn(localAddress);
+        when(previousHash.getMembers()).thenReturn(Arrays.asList(localAddress, remoteAddress));
+        when(hash.getMembers()).thenReturn(Collections.singletonList(localAddress));
+        // Another node purges the cache entry of the departed node
+        when(hash.locatePrimaryOwner(remoteAddress)).thenReturn(remoteAddress);
+
+        long version = this.registry.getVersion();
+        CompletionStage<Map<String, Integer>> stage = this.registry.whenChanged(version);
+        when(this.group.getNodes()).thenReturn(Collections.singletonList(this.localNode));
+        this.registry.topologyChanged(event);
+
+        Assert.assertEquals(Collections.singletonMap("a", 1), stage.toCompletableFuture().get(10, TimeUnit.SECONDS));
+        Assert.assertEquals((2L << 32) + 1, this.registry.getVersion());
+    }
+
+    @Test
+    public void close() {
+        this.createRegistry(Collections.singletonMap(this.localNode, this.localEntry), this.localNode);
+        CacheRegistry<String, Integer> registry = this.registry;
+        this.registry = null;
+        CompletableFuture<Map<String, Integer>> future = registry.whenChanged(registry.getVersion()).toCompletableFuture();
+
+        registry.close();
+
+        // Pending stages complete exceptionally, as do stages requested after close
+        Assert.assertTrue(future.isCompletedExceptionally());
+        Assert.assertTrue(registry.whenChanged(registry.getVersion()).toCompletableFuture().isCompletedExceptionally());
+        verify(this.advancedCache).remove(this.localNode);
+        verify(this.closeTask).run();
+    }
+
+    private void createRegistry(Map<Node, Map.Entry<String, Integer>> entries, Node... members) {
+        List<Node> nodes = Arrays.asList(members);
+        when(this.advancedCache.getAll(anySetOf(Node.class))).thenReturn(entries);
+        when(this.group.getNodes()).thenReturn(nodes);
+        this.registry = new CacheRegistry<>(this.config, this.localEntry, this.closeTask);
+    }
+
+    private CacheEntryEvent<Node, Map.Entry<String, Integer>> createEvent(Node node, Map.Entry<String, Integer> entry) {
+        CacheEntryEvent<Node, Map.Entry<String, Integer>> event = mock(CacheEntryEvent.class);
+        when(event.isPre()).thenReturn(false);
+        when(event.isOriginLocal()).thenReturn(false);
+        when(event.getKey()).thenReturn(node);
+        when(event.getValue()).thenReturn(entry);
+        when(event.getType()).thenReturn(Event.Type.CACHE_ENTRY_CREATED);
+        return event;
+    }
+}
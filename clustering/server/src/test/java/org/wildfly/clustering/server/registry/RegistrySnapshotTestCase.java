@@ -0,0 +1,117 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.clustering.server.registry;
+
+import java.util.AbstractMap;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.wildfly.clustering.group.Node;
+import org.wildfly.clustering.server.group.LocalNode;
+
+/**
+ * Unit test for {@link RegistrySnapshot}.
+ */
+public class RegistrySnapshotTestCase {
+
+    private final Node node1 = new LocalNode("cluster", "node1");
+    private final Node node2 = new LocalNode("cluster", "node2");
+
+    @Test
+    public void put() {
+        RegistrySnapshot<String, Integer> empty = new RegistrySnapshot<>();
+        RegistrySnapshot<String, Integer> snapshot = empty.put(this.node1, new AbstractMap.SimpleImmutableEntry<>("a", 1));
+
+        Assert.assertEquals(Collections.singletonMap("a", 1), snapshot.getEntries());
+        Assert.assertEquals("a", snapshot.getEntry(this.node1).getKey());
+        Assert.assertNull(snapshot.getEntry(this.node2));
+        Assert.assertEquals(empty.getVersion() + 1, snapshot.getVersion());
+        Assert.assertTrue(empty.getEntries().isEmpty());
+
+        // Putting an identical entry does not create a new version
+        Assert.assertSame(snapshot, snapshot.put(this.node1, new AbstractMap.SimpleImmutableEntry<>("a", 1)));
+
+        RegistrySnapshot<String, Integer> updated = snapshot.put(this.node1, new AbstractMap.SimpleImmutableEntry<>("a", 2));
+        Assert.assertEquals(Collections.singletonMap("a", 2), updated.getEntries());
+        Assert.assertEquals(snapshot.getVersion() + 1, updated.getVersion());
+    }
+
+    @Test
+    public void putIfAbsent() {
+        RegistrySnapshot<String, Integer> snapshot = new RegistrySnapshot<String, Integer>().put(this.node1, new AbstractMap.SimpleImmutableEntry<>("a", 2));
+        Map<Node, Map.Entry<String, Integer>> entries = new HashMap<>();
+        entries.put(this.node1, new AbstractMap.SimpleImmutableEntry<>("a", 1));
+        entries.put(this.node2, new AbstractMap.SimpleImmutableEntry<>("b", 1));
+
+        RegistrySnapshot<String, Integer> result = snapshot.putIfAbsent(entries);
+
+        Assert.assertEquals(2, result.getEntries().size());
+        Assert.assertEquals(Integer.valueOf(2), result.getEntries().get("a"));
+        Assert.assertEquals(Integer.valueOf(1), result.getEntries().get("b"));
+        Assert.assertSame(result, result.putIfAbsent(entries));
+    }
+
+    @Test
+    public void remove() {
+        RegistrySnapshot<String, Integer> snapshot = new RegistrySnapshot<String, Integer>()
+                .put(this.node1, new AbstractMap.SimpleImmutableEntry<>("a", 1))
+                .put(this.node2, new AbstractMap.SimpleImmutableEntry<>("b", 1));
+
+        RegistrySnapshot<String, Integer> result = snapshot.remove(Arrays.asList(this.node2));
+
+        Assert.assertEquals(Collections.singletonMap("a", 1), result.getEntries());
+        Assert.assertEquals(Collections.singleton(this.node1), result.getNodes());
+        Assert.assertSame(result, result.remove(Arrays.asList(this.node2)));
+    }
+
+    @Test
+    public void retain() {
+        RegistrySnapshot<String, Integer> snapshot = new RegistrySnapshot<String, Integer>()
+                .put(this.node1, new AbstractMap.SimpleImmutableEntry<>("a", 1))
+                .put(this.node2, new AbstractMap.SimpleImmutableEntry<>("b", 1));
+
+        RegistrySnapshot<String, Integer> result = snapshot.retain(Arrays.asList(this.node1));
+
+        Assert.assertEquals(Collections.singletonMap("a", 1), result.getEntries());
+        Assert.assertEquals(snapshot.getVersion() + 1, result.getVersion());
+        Assert.assertSame(result, result.retain(Arrays.asList(this.node1, this.node2)));
+    }
+
+    @Test
+    public void topology() {
+        RegistrySnapshot<String, Integer> snapshot = new RegistrySnapshot<String, Integer>().put(this.node1, new AbstractMap.SimpleImmutableEntry<>("a", 1));
+
+        RegistrySnapshot<String, Integer> result = snapshot.topology(5);
+
+        Assert.assertEquals(5L << 32, result.getVersion());
+        Assert.assertEquals(snapshot.getEntries(), result.getEntries());
+        Assert.assertSame(result, result.topology(5));
+        Assert.assertSame(result, result.topology(4));
+        // Later changes keep increasing the version
+        Assert.assertTrue(result.remove(Arrays.asList(this.node1)).getVersion() > result.getVersion());
+    }
+}
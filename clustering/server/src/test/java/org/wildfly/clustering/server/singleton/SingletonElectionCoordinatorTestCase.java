@@ -0,0 +1,327 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.clustering.server.singleton;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jboss.msc.service.ServiceName;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.wildfly.clustering.dispatcher.Command;
+import org.wildfly.clustering.dispatcher.CommandDispatcher;
+import org.wildfly.clustering.dispatcher.CommandDispatcherFactory;
+import org.wildfly.clustering.dispatcher.CommandResponse;
+import org.wildfly.clustering.group.Group;
+import org.wildfly.clustering.group.Node;
+import org.wildfly.clustering.server.dispatcher.NoSuchService;
+import org.wildfly.clustering.server.group.LocalNode;
+
+/**
+ * Unit test for {@link SingletonElectionCoordinator}.
+ */
+public class SingletonElectionCoordinatorTestCase {
+
+    private final Node localNode = new LocalNode("cluster", "node1");
+    private final Node remoteNode = new LocalNode("cluster", "node2");
+    private final SingletonElectionCoordinator coordinator = new SingletonElectionCoordinator(ServiceName.JBOSS.append("test"));
+    private final Map<ServiceName, Participant> remoteParticipants = new ConcurrentHashMap<>();
+    private final Map<Node, AtomicInteger> messages = new ConcurrentHashMap<>();
+    private final CommandDispatcherFactory factory = new TestCommandDispatcherFactory();
+
+    private final List<Node> members = Arrays.asList(this.localNode, this.remoteNode);
+    // Indicates whether the remote node runs a previous version, without an election coordinator
+    private volatile boolean legacy = false;
+
+    @Before
+    public void init() {
+        this.messages.put(this.localNode, new AtomicInteger());
+        this.messages.put(this.remoteNode, new AtomicInteger());
+    }
+
+    @After
+    public void destroy() {
+        this.coordinator.unregister(ServiceName.of("a"));
+        this.coordinator.unregister(ServiceName.of("b"));
+        this.coordinator.unregister(ServiceName.of("blocker"));
+    }
+
+    @Test
+    public void coalesce() throws InterruptedException {
+        Participant blocker = this.register("blocker", this.localNode);
+        Participant a = this.register("a", this.localNode);
+        Participant b = this.register("b", this.remoteNode);
+        CountDownLatch latch = new CountDownLatch(1);
+        blocker.latch = latch;
+
+        // Hold the first election until the next ones are queued, so that those are applied together
+        this.coordinator.providersChanged(blocker.getServiceName(), new HashSet<>(this.members));
+        Assert.assertTrue(blocker.entered.await(10, TimeUnit.SECONDS));
+        this.coordinator.providersChanged(a.getServiceName(), new HashSet<>(this.members));
+        this.coordinator.providersChanged(b.getServiceName(), new HashSet<>(this.members));
+        latch.countDown();
+
+        Assert.assertTrue(b.notified.await(10, TimeUnit.SECONDS));
+        Assert.assertTrue(a.notified.await(10, TimeUnit.SECONDS));
+
+        Assert.assertTrue(a.primary);
+        Assert.assertFalse(b.primary);
+        Assert.assertFalse(this.remoteParticipants.get(a.getServiceName()).primary);
+        Assert.assertTrue(this.remoteParticipants.get(b.getServiceName()).primary);
+        Assert.assertEquals(this.members, a.candidates);
+        Assert.assertEquals(this.remoteNode, b.result);
+        Assert.assertTrue(a.duration.compareTo(Duration.ZERO) > 0);
+
+        // One message per node for the blocker, then a stop and a start message per node for both remaining services
+        Assert.assertEquals(3, this.messages.get(this.localNode).get());
+        Assert.assertEquals(3, this.messages.get(this.remoteNode).get());
+    }
+
+    @Test
+    public void noElection() throws InterruptedException {
+        Participant a = this.register("a", null);
+        Participant b = this.register("b", this.localNode);
+
+        // Only the first candidate runs the election
+        this.coordinator.providersChanged(b.getServiceName(), Collections.singleton(this.remoteNode));
+        this.coordinator.providersChanged(a.getServiceName(), Collections.singleton(this.localNode));
+
+        Assert.assertTrue(a.notified.await(10, TimeUnit.SECONDS));
+
+        Assert.assertNull(a.result);
+        Assert.assertEquals(Collections.singletonList(this.localNode), a.candidates);
+        Assert.assertEquals(1, b.notified.getCount());
+        Assert.assertFalse(b.primary);
+        // Without an elected node, the service is only stopped
+        Assert.assertEquals(1, this.messages.get(this.localNode).get());
+        Assert.assertEquals(1, this.messages.get(this.remoteNode).get());
+    }
+
+    @Test
+    public void legacy() throws InterruptedException {
+        this.legacy = true;
+        Participant a = this.register("a", this.localNode);
+        Participant b = this.register("b", this.remoteNode);
+        // The remote node was the previous primary of a
+        this.remoteParticipants.get(a.getServiceName()).primary = true;
+
+        this.coordinator.providersChanged(a.getServiceName(), new HashSet<>(this.members));
+        this.coordinator.providersChanged(b.getServiceName(), new HashSet<>(this.members));
+
+        Assert.assertTrue(a.notified.await(10, TimeUnit.SECONDS));
+        Assert.assertTrue(b.notified.await(10, TimeUnit.SECONDS));
+
+        Assert.assertTrue(a.primary);
+        Assert.assertFalse(b.primary);
+        Assert.assertFalse(this.remoteParticipants.get(a.getServiceName()).primary);
+        Assert.assertTrue(this.remoteParticipants.get(b.getServiceName()).primary);
+    }
+
+    private Participant register(String name, Node elected) {
+        ServiceName serviceName = ServiceName.of(name);
+        Participant participant = new Participant(serviceName, elected);
+        Participant remoteParticipant = new Participant(serviceName, elected);
+        this.remoteParticipants.put(serviceName, remoteParticipant);
+        Map<Node, SingletonContext<Object>> contexts = new HashMap<>();
+        contexts.put(this.localNode, participant);
+        contexts.put(this.remoteNode, remoteParticipant);
+        participant.dispatcher = new TestCommandDispatcher<>(contexts);
+        this.coordinator.register(this.factory, participant);
+        return participant;
+    }
+
+    static class Participant implements SingletonElectionParticipant<Object> {
+        final CountDownLatch entered = new CountDownLatch(1);
+        final CountDownLatch notified = new CountDownLatch(1);
+        private final ServiceName name;
+        private final Node result;
+        volatile CountDownLatch latch;
+        volatile boolean primary = false;
+        volatile List<Node> candidates;
+        volatile Duration duration;
+        volatile CommandDispatcher<SingletonContext<Object>> dispatcher;
+
+        Participant(ServiceName name, Node result) {
+            this.name = name;
+            this.result = result;
+        }
+
+        @Override
+        public ServiceName getServiceName() {
+            return this.name;
+        }
+
+        @Override
+        public Node elect(List<Node> candidates) {
+            this.entered.countDown();
+            CountDownLatch latch = this.latch;
+            if (latch != null) {
+                try {
+                    latch.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            this.candidates = candidates;
+            return this.result;
+        }
+
+        @Override
+        public void elected(List<Node> candidates, Node elected, Duration duration) {
+            this.duration = duration;
+            this.notified.countDown();
+        }
+
+        @Override
+        public void start() {
+            this.primary = true;
+        }
+
+        @Override
+        public void stop() {
+            this.primary = false;
+        }
+
+        @Override
+        public Optional<Object> getLocalValue() {
+            return Optional.empty();
+        }
+
+        @Override
+        public CommandDispatcher<SingletonContext<Object>> getCommandDispatcher() {
+            return this.dispatcher;
+        }
+    }
+
+    private class TestCommandDispatcherFactory implements CommandDispatcherFactory, Group {
+
+        @Override
+        public Group getGroup() {
+            return this;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public <C> CommandDispatcher<C> createCommandDispatcher(Object id, C context) {
+            Map<Node, C> contexts = new HashMap<>();
+            contexts.put(SingletonElectionCoordinatorTestCase.this.localNode, context);
+            if (!SingletonElectionCoordinatorTestCase.this.legacy) {
+                contexts.put(SingletonElectionCoordinatorTestCase.this.remoteNode, (C) (SingletonElectionContext) SingletonElectionCoordinatorTestCase.this.remoteParticipants::get);
+            }
+            return new TestCommandDispatcher<>(contexts);
+        }
+
+        @Override
+        public Node getLocalNode() {
+            return SingletonElectionCoordinatorTestCase.this.localNode;
+        }
+
+        @Override
+        public List<Node> getNodes() {
+            return SingletonElectionCoordinatorTestCase.this.members;
+        }
+
+        @Override
+        public Node getCoordinatorNode() {
+            return SingletonElectionCoordinatorTestCase.this.members.get(0);
+        }
+
+        @Override
+        public boolean isCoordinator() {
+            return this.getCoordinatorNode().equals(this.getLocalNode());
+        }
+
+        @Override
+        public String getName() {
+            return "cluster";
+        }
+
+        @Override
+        public void addListener(Listener listener) {
+        }
+
+        @Override
+        public void removeListener(Listener listener) {
+        }
+    }
+
+    private class TestCommandDispatcher<C> implements CommandDispatcher<C> {
+        private final Map<Node, C> contexts;
+
+        TestCommandDispatcher(Map<Node, C> contexts) {
+            this.contexts = contexts;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public <R> Future<R> submitOnNode(Command<R, ? super C> command, Node node) {
+            SingletonElectionCoordinatorTestCase.this.messages.get(node).incrementAndGet();
+            CompletableFuture<R> future = new CompletableFuture<>();
+            C context = this.contexts.get(node);
+            if (context == null) {
+                // Mimics a node without this command dispatcher
+                future.complete((R) NoSuchService.INSTANCE);
+                return future;
+            }
+            try {
+                future.complete(command.execute(context));
+            } catch (Exception e) {
+                future.completeExceptionally(e);
+            }
+            return future;
+        }
+
+        @Override
+        public <R> CommandResponse<R> executeOnNode(Command<R, ? super C> command, Node node) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public <R> Map<Node, CommandResponse<R>> executeOnCluster(Command<R, ? super C> command, Node... excludedNodes) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public <R> Map<Node, Future<R>> submitOnCluster(Command<R, ? super C> command, Node... excludedNodes) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,41 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.clustering.singleton;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.wildfly.clustering.group.Node;
+
+/**
+ * Listener for the elections of a singleton service.
+ */
+public interface SingletonElectionListener {
+    /**
+     * Triggered once the result of an election run by this node was applied to the cluster.
+     * @param candidates the candidate nodes of the election
+     * @param elected the elected node, or null if no node was elected
+     * @param duration the time elapsed between the change of service providers that triggered the election and the start of the singleton service on the elected node
+     */
+    void elected(List<Node> candidates, Node elected, Duration duration);
+}
@@ -43,4 +43,14 @@ public interface SingletonServiceBuilder<T> extends Builder<T> {
      * @return a reference to this builder
      */
     SingletonServiceBuilder<T> electionPolicy(SingletonElectionPolicy policy);
+
+    /**
+     * Defines a listener for the elections of this singleton service.
+     * The listener is ignored by builders of singleton services that are never elected.
+     * @param listener an election listener
+     * @return a reference to this builder
+     */
+    default SingletonServiceBuilder<T> electionListener(SingletonElectionListener listener) {
+        return this;
+    }
 }
@@ -56,6 +56,7 @@ import org.wildfly.clustering.spi.ClusteringCacheRequirement;
 public class SingletonPolicyBuilder extends CapabilityServiceNameProvider implements ResourceServiceBuilder<SingletonPolicy>, SingletonPolicy {
 
     private final ValueDependency<SingletonElectionPolicy> policy;
+    private final SingletonPolicyStatistics statistics = new SingletonPolicyStatistics();
 
     private volatile ValueDependency<SingletonServiceBuilderFactory> factory;
     private volatile int quorum;
@@ -87,6 +88,7 @@ public class SingletonPolicyBuilder extends CapabilityServiceNameProvider implem
         return this.factory.getValue().createSingletonServiceBuilder(name, service)
                 .electionPolicy(this.policy.getValue())
                 .requireQuorum(this.quorum)
+                .electionListener(this.statistics)
                 ;
     }
 
@@ -95,9 +97,14 @@ public class SingletonPolicyBuilder extends CapabilityServiceNameProvider implem
         return this.factory.getValue().createSingletonServiceBuilder(name, primaryService, backupService)
                 .electionPolicy(this.policy.getValue())
                 .requireQuorum(this.quorum)
+                .electionListener(this.statistics)
                 ;
     }
 
+    SingletonPolicyStatistics getStatistics() {
+        return this.statistics;
+    }
+
     @Override
     public String toString() {
         return this.getServiceName().getSimpleName();
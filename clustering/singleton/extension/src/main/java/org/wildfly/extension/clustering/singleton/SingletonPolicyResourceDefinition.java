@@ -26,6 +26,7 @@ import org.jboss.as.clustering.controller.CapabilityProvider;
 import org.jboss.as.clustering.controller.CapabilityReference;
 import org.jboss.as.clustering.controller.ChildResourceDefinition;
 import org.jboss.as.clustering.controller.DefaultableCapabilityReference;
+import org.jboss.as.clustering.controller.MetricHandler;
 import org.jboss.as.clustering.controller.ResourceDescriptor;
 import org.jboss.as.clustering.controller.SimpleResourceRegistration;
 import org.jboss.as.clustering.controller.ResourceServiceHandler;
@@ -142,6 +143,10 @@ public class SingletonPolicyResourceDefinition extends ChildResourceDefinition<M
         ResourceServiceHandler handler = new SimpleResourceServiceHandler<>(address -> new SingletonPolicyBuilder(address));
         new SimpleResourceRegistration(descriptor, handler).register(registration);
 
+        if (registration.isRuntimeOnlyRegistrationValid()) {
+            new MetricHandler<>(new SingletonPolicyMetricExecutor(), SingletonPolicyMetric.class).register(registration);
+        }
+
         new RandomElectionPolicyResourceDefinition().register(registration);
         new SimpleElectionPolicyResourceDefinition().register(registration);
     }
@@ -0,0 +1,75 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.clustering.singleton;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.wildfly.clustering.group.Node;
+import org.wildfly.clustering.singleton.SingletonElectionListener;
+
+/**
+ * Records the latency of the elections of the singleton services created by a singleton policy.
+ */
+public class SingletonPolicyStatistics implements SingletonElectionListener {
+
+    private final LongAdder elections = new LongAdder();
+    private final LongAdder totalElectionTime = new LongAdder();
+    private final LongAccumulator maxElectionTime = new LongAccumulator(Math::max, 0L);
+
+    @Override
+    public void elected(List<Node> candidates, Node elected, Duration duration) {
+        long nanos = duration.toNanos();
+        this.elections.increment();
+        this.totalElectionTime.add(nanos);
+        this.maxElectionTime.accumulate(nanos);
+    }
+
+    /**
+     * Returns the number of elections run by this node.
+     * @return a number of elections
+     */
+    public long getElectionCount() {
+        return this.elections.sum();
+    }
+
+    /**
+     * Returns the average time taken by the elections run by this node.
+     * @return a duration in milliseconds
+     */
+    public long getAverageElectionTime() {
+        long count = this.elections.sum();
+        return (count > 0) ? TimeUnit.NANOSECONDS.toMillis(this.totalElectionTime.sum() / count) : 0L;
+    }
+
+    /**
+     * Returns the longest time taken by an election run by this node.
+     * @return a duration in milliseconds
+     */
+    public long getMaxElectionTime() {
+        return TimeUnit.NANOSECONDS.toMillis(this.maxElectionTime.get());
+    }
+}
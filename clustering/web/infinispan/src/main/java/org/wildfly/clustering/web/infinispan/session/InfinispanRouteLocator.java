@@ -21,10 +21,14 @@
  */
 package org.wildfly.clustering.web.infinispan.session;
 
+import java.util.HashMap;
 import java.util.Map;
 
 import org.infinispan.Cache;
 import org.infinispan.distribution.DistributionManager;
+import org.infinispan.distribution.ch.ConsistentHash;
+import org.infinispan.notifications.cachelistener.annotation.TopologyChanged;
+import org.infinispan.notifications.cachelistener.event.TopologyChangedEvent;
 import org.infinispan.remoting.transport.Address;
 import org.wildfly.clustering.group.Node;
 import org.wildfly.clustering.group.NodeFactory;
@@ -35,33 +39,115 @@ import org.wildfly.clustering.web.session.RouteLocator;
 /**
  * Uses Infinispan's {@link org.infinispan.distribution.DistributionManager} to determine the best node (i.e. the primary lock owner) to handle a given session.
  * The {@link Address} is then converted to a route using a {@link Registry}, which maps the route identifier per node.
+ * The route of each segment of the consistent hash is computed up front, and recomputed whenever the topology of the cache or the content of the registry changes,
+ * so that locating the route of a session only requires hashing its identifier.
  * @author Paul Ferraro
  */
-public class InfinispanRouteLocator implements RouteLocator {
+@org.infinispan.notifications.Listener(sync = false)
+public class InfinispanRouteLocator implements RouteLocator, Registry.Listener<String, Void>, AutoCloseable {
 
     private final NodeFactory<Address> factory;
     private final Registry<String, Void> registry;
     private final Cache<String, ?> cache;
+    private final boolean grouped;
+    private volatile RouteTable table;
 
     public InfinispanRouteLocator(InfinispanRouteLocatorConfiguration config) {
         this.cache = config.getCache();
         this.registry = config.getRegistry();
         this.factory = config.getNodeFactory();
+        this.grouped = this.cache.getCacheConfiguration().clustering().hash().groups().enabled();
+        this.registry.addListener(this);
+        this.cache.addListener(this);
+        this.refresh();
+    }
+
+    @Override
+    public void close() {
+        this.cache.removeListener(this);
+        this.registry.removeListener(this);
     }
 
     @Override
     public String locate(String sessionId) {
-        Map.Entry<String, Void> entry = null;
-        Address location = this.locatePrimaryOwner(sessionId);
-        if (location != null) {
-            Node node = this.factory.createNode(location);
-            entry = this.registry.getEntry(node);
+        return this.table.locate(sessionId);
+    }
+
+    @TopologyChanged
+    public void topologyChanged(TopologyChangedEvent<?, ?> event) {
+        if (event.isPre()) return;
+
+        this.refresh();
+    }
+
+    @Override
+    public void addedEntries(Map<String, Void> added) {
+        this.refresh();
+    }
+
+    @Override
+    public void updatedEntries(Map<String, Void> updated) {
+        this.refresh();
+    }
+
+    @Override
+    public void removedEntries(Map<String, Void> removed) {
+        this.refresh();
+    }
+
+    // Refreshes are serialized, and always read the current topology, so that a table computed from a stale topology never replaces a more recent one
+    private synchronized void refresh() {
+        DistributionManager dist = this.cache.getAdvancedCache().getDistributionManager();
+        if (dist == null) {
+            this.table = new RouteTable(this.locateRoute(this.cache.getCacheManager().getAddress()));
+            return;
         }
+        ConsistentHash hash = dist.getReadConsistentHash();
+        Map<Address, String> routes = new HashMap<>();
+        String[] segmentRoutes = new String[hash.getNumSegments()];
+        for (int segment = 0; segment < segmentRoutes.length; ++segment) {
+            Address owner = hash.locatePrimaryOwnerForSegment(segment);
+            if (owner != null) {
+                segmentRoutes[segment] = routes.computeIfAbsent(owner, this::locateRoute);
+            }
+        }
+        this.table = new RouteTable(hash, this.grouped, segmentRoutes);
+    }
+
+    private String locateRoute(Address address) {
+        Node node = this.factory.createNode(address);
+        Map.Entry<String, Void> entry = this.registry.getEntry(node);
         return (entry != null) ? entry.getKey() : null;
     }
 
-    private Address locatePrimaryOwner(String sessionId) {
-        DistributionManager dist = this.cache.getAdvancedCache().getDistributionManager();
-        return (dist != null) ? dist.getPrimaryLocation(new Key<>(sessionId)) : this.cache.getCacheManager().getAddress();
+    /**
+     * Immutable mapping of consistent hash segment to route.
+     */
+    static class RouteTable {
+        private final ConsistentHash hash;
+        private final boolean grouped;
+        private final String[] segmentRoutes;
+        private final String route;
+
+        RouteTable(String route) {
+            this.hash = null;
+            this.grouped = false;
+            this.segmentRoutes = null;
+            this.route = route;
+        }
+
+        RouteTable(ConsistentHash hash, boolean grouped, String[] segmentRoutes) {
+            this.hash = hash;
+            this.grouped = grouped;
+            this.segmentRoutes = segmentRoutes;
+            this.route = null;
+        }
+
+        String locate(String sessionId) {
+            if (this.hash == null) return this.route;
+            // If grouping is enabled, the segment of a session key is the segment of its group, i.e. of the session identifier itself
+            int segment = this.grouped ? this.hash.getSegment(sessionId) : this.hash.getSegment(new Key<>(sessionId));
+            return this.segmentRoutes[segment];
+        }
     }
 }
@@ -21,23 +21,26 @@
  */
 package org.wildfly.clustering.web.infinispan.session;
 
+import java.util.function.Supplier;
 import java.util.stream.Stream;
 
 import org.infinispan.Cache;
 import org.infinispan.remoting.transport.Address;
 import org.jboss.as.clustering.controller.CapabilityServiceBuilder;
+import org.jboss.as.clustering.function.Consumers;
+import org.jboss.as.clustering.function.Functions;
 import org.jboss.as.controller.capability.CapabilityServiceSupport;
+import org.jboss.msc.service.Service;
 import org.jboss.msc.service.ServiceBuilder;
 import org.jboss.msc.service.ServiceController;
 import org.jboss.msc.service.ServiceName;
 import org.jboss.msc.service.ServiceTarget;
-import org.jboss.msc.service.ValueService;
-import org.jboss.msc.value.Value;
 import org.wildfly.clustering.group.NodeFactory;
 import org.wildfly.clustering.infinispan.spi.InfinispanCacheRequirement;
 import org.wildfly.clustering.registry.Registry;
 import org.wildfly.clustering.service.Builder;
 import org.wildfly.clustering.service.InjectedValueDependency;
+import org.wildfly.clustering.service.SuppliedValueService;
 import org.wildfly.clustering.service.ValueDependency;
 import org.wildfly.clustering.spi.ClusteringCacheRequirement;
 import org.wildfly.clustering.web.session.RouteLocator;
@@ -79,8 +82,9 @@ public class InfinispanRouteLocatorBuilder implements CapabilityServiceBuilder<R
 
     @Override
     public ServiceBuilder<RouteLocator> build(ServiceTarget target) {
-        Value<RouteLocator> value = () -> new InfinispanRouteLocator(this);
-        ServiceBuilder<RouteLocator> builder = target.addService(this.getServiceName(), new ValueService<>(value));
+        Supplier<InfinispanRouteLocator> supplier = () -> new InfinispanRouteLocator(this);
+        Service<RouteLocator> service = new SuppliedValueService<>(Functions.identity(), supplier, Consumers.close());
+        ServiceBuilder<RouteLocator> builder = target.addService(this.getServiceName(), service);
         Stream.of(this.factory, this.registry, this.cache).forEach(dependency -> dependency.register(builder));
         return builder.setInitialMode(ServiceController.Mode.ON_DEMAND);
     }
@@ -0,0 +1,167 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.clustering.web.infinispan.session;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.AbstractMap;
+import java.util.Collections;
+
+import org.infinispan.AdvancedCache;
+import org.infinispan.Cache;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.distribution.DistributionManager;
+import org.infinispan.distribution.ch.ConsistentHash;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.notifications.cachelistener.event.TopologyChangedEvent;
+import org.infinispan.remoting.transport.Address;
+import org.junit.Test;
+import org.wildfly.clustering.group.Node;
+import org.wildfly.clustering.group.NodeFactory;
+import org.wildfly.clustering.infinispan.spi.distribution.Key;
+import org.wildfly.clustering.registry.Registry;
+
+/**
+ * Unit test for {@link InfinispanRouteLocator}.
+ */
+public class InfinispanRouteLocatorTestCase {
+
+    @SuppressWarnings("unchecked")
+    private final Cache<String, Object> cache = mock(Cache.class);
+    @SuppressWarnings("unchecked")
+    private final AdvancedCache<String, Object> advancedCache = mock(AdvancedCache.class);
+    @SuppressWarnings("unchecked")
+    private final Registry<String, Void> registry = mock(Registry.class);
+    @SuppressWarnings("unchecked")
+    private final NodeFactory<Address> factory = mock(NodeFactory.class);
+    private final InfinispanRouteLocatorConfiguration config = new InfinispanRouteLocatorConfiguration() {
+        @Override
+        public Cache<String, ?> getCache() {
+            return InfinispanRouteLocatorTestCase.this.cache;
+        }
+
+        @Override
+        public Registry<String, Void> getRegistry() {
+            return InfinispanRouteLocatorTestCase.this.registry;
+        }
+
+        @Override
+        public NodeFactory<Address> getNodeFactory() {
+            return InfinispanRouteLocatorTestCase.this.factory;
+        }
+    };
+
+    @Test
+    public void distributed() {
+        DistributionManager dist = mock(DistributionManager.class);
+        ConsistentHash hash = mock(ConsistentHash.class);
+        Address address1 = mock(Address.class);
+        Address address2 = mock(Address.class);
+        Node node1 = mock(Node.class);
+        Node node2 = mock(Node.class);
+
+        when(this.cache.getCacheConfiguration()).thenReturn(new ConfigurationBuilder().build());
+        when(this.cache.getAdvancedCache()).thenReturn(this.advancedCache);
+        when(this.advancedCache.getDistributionManager()).thenReturn(dist);
+        when(dist.getReadConsistentHash()).thenReturn(hash);
+        when(hash.getNumSegments()).thenReturn(2);
+        when(hash.locatePrimaryOwnerForSegment(0)).thenReturn(address1);
+        when(hash.locatePrimaryOwnerForSegment(1)).thenReturn(address2);
+        when(hash.getSegment(new Key<>("session1"))).thenReturn(0);
+        when(hash.getSegment(new Key<>("session2"))).thenReturn(1);
+        when(this.factory.createNode(address1)).thenReturn(node1);
+        when(this.factory.createNode(address2)).thenReturn(node2);
+        when(this.registry.getEntry(node1)).thenReturn(new AbstractMap.SimpleImmutableEntry<>("route1", null));
+        when(this.registry.getEntry(node2)).thenReturn(new AbstractMap.SimpleImmutableEntry<>("route2", null));
+
+        try (InfinispanRouteLocator locator = new InfinispanRouteLocator(this.config)) {
+            verify(this.registry).addListener(locator);
+            verify(this.cache).addListener(locator);
+
+            for (int i = 0; i < 10; ++i) {
+                assertEquals("route1", locator.locate("session1"));
+                assertEquals("route2", locator.locate("session2"));
+            }
+
+            // Routes are only resolved when the table is computed
+            verify(this.registry, times(1)).getEntry(node1);
+            verify(this.registry, times(1)).getEntry(node2);
+
+            // Segment 0 moves to the second node
+            when(hash.locatePrimaryOwnerForSegment(0)).thenReturn(address2);
+            TopologyChangedEvent<?, ?> event = mock(TopologyChangedEvent.class);
+            when(event.isPre()).thenReturn(true);
+            locator.topologyChanged(event);
+
+            assertEquals("route1", locator.locate("session1"));
+
+            when(event.isPre()).thenReturn(false);
+            locator.topologyChanged(event);
+
+            assertEquals("route2", locator.locate("session1"));
+            assertEquals("route2", locator.locate("session2"));
+
+            // The second node leaves the registry
+            when(this.registry.getEntry(node2)).thenReturn(null);
+            locator.removedEntries(Collections.singletonMap("route2", null));
+
+            assertNull(locator.locate("session1"));
+            assertNull(locator.locate("session2"));
+
+            // ... and rejoins with a new route
+            when(this.registry.getEntry(node2)).thenReturn(new AbstractMap.SimpleImmutableEntry<>("route3", null));
+            locator.addedEntries(Collections.singletonMap("route3", null));
+
+            assertEquals("route3", locator.locate("session1"));
+            assertEquals("route3", locator.locate("session2"));
+
+            locator.close();
+
+            verify(this.cache).removeListener(locator);
+            verify(this.registry).removeListener(locator);
+        }
+    }
+
+    @Test
+    public void local() {
+        EmbeddedCacheManager manager = mock(EmbeddedCacheManager.class);
+        Address address = mock(Address.class);
+        Node node = mock(Node.class);
+
+        when(this.cache.getCacheConfiguration()).thenReturn(new ConfigurationBuilder().build());
+        when(this.cache.getAdvancedCache()).thenReturn(this.advancedCache);
+        when(this.advancedCache.getDistributionManager()).thenReturn(null);
+        when(this.cache.getCacheManager()).thenReturn(manager);
+        when(manager.getAddress()).thenReturn(address);
+        when(this.factory.createNode(address)).thenReturn(node);
+        when(this.registry.getEntry(node)).thenReturn(new AbstractMap.SimpleImmutableEntry<>("route", null));
+
+        try (InfinispanRouteLocator locator = new InfinispanRouteLocator(this.config)) {
+            assertEquals("route", locator.locate("session"));
+        }
+    }
+}
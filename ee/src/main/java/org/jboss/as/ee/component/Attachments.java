@@ -23,6 +23,7 @@
 package org.jboss.as.ee.component;
 
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
 
 import org.jboss.as.ee.component.deployers.EEResourceReferenceProcessorRegistry;
 import org.jboss.as.ee.component.deployers.MessageDestinationInjectionSource;
@@ -87,4 +88,9 @@ public class Attachments {
 
     public static final AttachmentKey<StartupCountdown> STARTUP_COUNTDOWN = AttachmentKey.create(StartupCountdown.class);
     public static final AttachmentKey<ComponentRegistry> COMPONENT_REGISTRY = AttachmentKey.create(ComponentRegistry.class);
+
+    /**
+     * The server executor, attached if annotation information factories are evaluated concurrently.
+     */
+    public static final AttachmentKey<ExecutorService> ANNOTATION_PROCESSING_EXECUTOR = AttachmentKey.create(ExecutorService.class);
 }
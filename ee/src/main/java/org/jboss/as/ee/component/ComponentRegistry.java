@@ -50,6 +50,7 @@ public class ComponentRegistry {
 
     private final Map<Class<?>, ComponentManagedReferenceFactory> componentsByClass = new ConcurrentHashMap<Class<?>, ComponentManagedReferenceFactory>();
     private final ServiceRegistry serviceRegistry;
+    private final EEModuleDescription moduleDescription;
     private final InjectedValue<EEClassIntrospector> classIntrospectorInjectedValue = new InjectedValue<>();
 
     public static ServiceName serviceName(final DeploymentUnit deploymentUnit) {
@@ -57,7 +58,17 @@ public class ComponentRegistry {
     }
 
     public ComponentRegistry(final ServiceRegistry serviceRegistry) {
+        this(serviceRegistry, null);
+    }
+
+    /**
+     * @param serviceRegistry the service registry
+     * @param moduleDescription the description of the module, which describes the injection and lifecycle callbacks of
+     *                          classes that are not components, may be null
+     */
+    public ComponentRegistry(final ServiceRegistry serviceRegistry, final EEModuleDescription moduleDescription) {
         this.serviceRegistry = serviceRegistry;
+        this.moduleDescription = moduleDescription;
     }
 
     public void addComponent(final ComponentConfiguration componentConfiguration) {
@@ -78,6 +89,31 @@ public class ComponentRegistry {
         return factory;
     }
 
+    /**
+     * Indicates whether the deployment describes injection or lifecycle callbacks for instances of the specified class,
+     * either because a component is registered for it, or because the module describes the class or one of its
+     * superclasses, via annotations or deployment descriptors.
+     * <p/>
+     * Annotations of classes the module does not know of, such as classes generated at runtime, are not taken into account.
+     *
+     * @param componentClass a class
+     * @return true, if instances of the class may require injection or lifecycle callbacks, false otherwise
+     */
+    public boolean isDescribed(final Class<?> componentClass) {
+        if (componentsByClass.containsKey(componentClass)) {
+            return true;
+        }
+        if (moduleDescription != null) {
+            for (Class<?> clazz = componentClass; (clazz != null) && (clazz != Object.class); clazz = clazz.getSuperclass()) {
+                final String className = clazz.getName();
+                if ((moduleDescription.getClassDescription(className) != null) || !moduleDescription.getResourceInjections(className).isEmpty() || (moduleDescription.getInterceptorClassOverride(className) != null)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
     public ManagedReference createInstance(final Object instance) {
 
         final ComponentManagedReferenceFactory factory = componentsByClass.get(instance.getClass());
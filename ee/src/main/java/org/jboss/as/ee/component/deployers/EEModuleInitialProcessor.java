@@ -24,6 +24,8 @@ package org.jboss.as.ee.component.deployers;
 
 import org.jboss.as.ee.component.Attachments;
 import org.jboss.as.ee.component.EEModuleDescription;
+import org.jboss.as.ee.metadata.AbstractEEAnnotationProcessor;
+import org.jboss.as.server.Services;
 import org.jboss.as.server.deployment.DeploymentPhaseContext;
 import org.jboss.as.server.deployment.DeploymentUnit;
 import org.jboss.as.server.deployment.DeploymentUnitProcessingException;
@@ -60,6 +62,10 @@ public final class EEModuleInitialProcessor implements DeploymentUnitProcessor {
             appName = null;
         }
         deploymentUnit.putAttachment(Attachments.EE_MODULE_DESCRIPTION, new EEModuleDescription(appName, moduleName, earApplicationName, appClient));
+        if (AbstractEEAnnotationProcessor.isParallelProcessingEnabled()) {
+            // Annotation processing shares the managed executor of the server
+            phaseContext.addDeploymentDependency(Services.JBOSS_SERVER_EXECUTOR, Attachments.ANNOTATION_PROCESSING_EXECUTOR);
+        }
     }
 
     public void undeploy(final DeploymentUnit context) {
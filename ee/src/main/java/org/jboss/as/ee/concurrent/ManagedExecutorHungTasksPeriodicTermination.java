@@ -0,0 +1,112 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ee.concurrent;
+
+import java.util.Collection;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.glassfish.enterprise.concurrent.AbstractManagedThread;
+import org.jboss.as.ee.logging.EeLogger;
+import org.jboss.threads.JBossThreadFactory;
+
+/**
+ * Periodic termination of the hung tasks of managed executors, done by a single daemon thread shared by all executors.
+ * The thread only exists while at least one executor has periodic termination started.
+ */
+public final class ManagedExecutorHungTasksPeriodicTermination {
+
+    private static ScheduledThreadPoolExecutor timer;
+    private static int timerUsers;
+
+    private ManagedExecutorHungTasksPeriodicTermination() {
+    }
+
+    /**
+     * Schedules the periodic termination of an executor's hung tasks.
+     *
+     * @param executor the executor
+     * @param period the period, in milliseconds
+     * @return the future which should be passed to {@link #stopHungTaskPeriodicTermination(Future)} once the executor is shut down
+     */
+    public static synchronized Future<?> startHungTaskPeriodicTermination(final ManagedExecutorWithHungThreads executor, final long period) {
+        if (timer == null) {
+            timer = new ScheduledThreadPoolExecutor(1, new JBossThreadFactory(new ThreadGroup("EE-ManagedExecutorService-HungTaskTermination"), Boolean.TRUE, null, "%G - %t", null, null));
+            timer.setRemoveOnCancelPolicy(true);
+        }
+        final Future<?> future = timer.scheduleAtFixedRate(() -> {
+            try {
+                executor.terminateHungTasks();
+            } catch (Throwable t) {
+                EeLogger.ROOT_LOGGER.failedToTerminateHungTasks(executor.getName(), t);
+            }
+        }, period, period, TimeUnit.MILLISECONDS);
+        timerUsers++;
+        return future;
+    }
+
+    /**
+     * Stops the periodic termination of an executor's hung tasks, and shuts down the shared thread if no other executor
+     * uses it.
+     *
+     * @param future the future returned by {@link #startHungTaskPeriodicTermination(ManagedExecutorWithHungThreads, long)}
+     */
+    public static synchronized void stopHungTaskPeriodicTermination(final Future<?> future) {
+        future.cancel(true);
+        if (--timerUsers == 0) {
+            timer.shutdownNow();
+            timer = null;
+        }
+    }
+
+    /**
+     * @return {@code true} if the shared thread's executor exists, intended for tests
+     */
+    static synchronized boolean isTimerActive() {
+        return timer != null;
+    }
+
+    /**
+     * Interrupts the threads running hung tasks.
+     *
+     * @param executorName the name of the executor, for logging
+     * @param hungThreads the executor's threads running hung tasks, may be {@code null}
+     * @param statistics the executor's statistics
+     * @return the number of threads interrupted
+     */
+    static int terminateHungTasks(String executorName, Collection<AbstractManagedThread> hungThreads, ManagedExecutorStatistics statistics) {
+        if (hungThreads == null) {
+            return 0;
+        }
+        final long now = System.currentTimeMillis();
+        int terminated = 0;
+        for (AbstractManagedThread hungThread : hungThreads) {
+            EeLogger.ROOT_LOGGER.interruptingHungTask(hungThread.getTaskIdentityName(), executorName, hungThread.getTaskRunTime(now), hungThread.getName());
+            hungThread.interrupt();
+            statistics.hungTaskTerminated();
+            terminated++;
+        }
+        return terminated;
+    }
+}
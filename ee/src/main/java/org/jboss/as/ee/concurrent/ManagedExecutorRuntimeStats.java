@@ -0,0 +1,168 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ee.concurrent;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.glassfish.enterprise.concurrent.AbstractManagedThread;
+
+/**
+ * A point in time snapshot of the runtime statistics of a managed executor. Times are in microseconds.
+ */
+public final class ManagedExecutorRuntimeStats {
+
+    private final int threadCount;
+    private final int largestThreadCount;
+    private final int maxThreadCount;
+    private final int activeTaskCount;
+    private final int queueSize;
+    private final long taskCount;
+    private final long completedTaskCount;
+    private final List<String> hungTasks;
+    private final long hungTasksTerminatedCount;
+    private final long waitTimeAverage;
+    private final long waitTimeMax;
+    private final long waitTimeP99;
+    private final long executionTimeAverage;
+    private final long executionTimeMax;
+    private final long executionTimeP99;
+
+    ManagedExecutorRuntimeStats(ThreadPoolExecutor threadPoolExecutor, ManagedExecutorStatistics statistics, Collection<AbstractManagedThread> hungThreads) {
+        this.threadCount = threadPoolExecutor.getPoolSize();
+        this.largestThreadCount = threadPoolExecutor.getLargestPoolSize();
+        this.maxThreadCount = threadPoolExecutor.getMaximumPoolSize();
+        this.queueSize = threadPoolExecutor.getQueue().size();
+        this.activeTaskCount = statistics.getActiveTasks();
+        this.taskCount = statistics.getSubmittedTasks();
+        this.completedTaskCount = statistics.getCompletedTasks();
+        if (hungThreads == null || hungThreads.isEmpty()) {
+            this.hungTasks = Collections.emptyList();
+        } else {
+            final List<String> hungTasks = new ArrayList<>(hungThreads.size());
+            for (AbstractManagedThread hungThread : hungThreads) {
+                hungTasks.add(hungThread.getTaskIdentityName());
+            }
+            this.hungTasks = Collections.unmodifiableList(hungTasks);
+        }
+        this.hungTasksTerminatedCount = statistics.getTerminatedHungTasks();
+        final TaskTimeHistogram waitTime = statistics.getWaitTime();
+        this.waitTimeAverage = waitTime.getAverage();
+        this.waitTimeMax = waitTime.getMax();
+        this.waitTimeP99 = waitTime.getPercentile(0.99);
+        final TaskTimeHistogram executionTime = statistics.getExecutionTime();
+        this.executionTimeAverage = executionTime.getAverage();
+        this.executionTimeMax = executionTime.getMax();
+        this.executionTimeP99 = executionTime.getPercentile(0.99);
+    }
+
+    /**
+     * @return the current number of threads in the executor's pool
+     */
+    public int getThreadCount() {
+        return threadCount;
+    }
+
+    /**
+     * @return the largest number of threads that have simultaneously been in the executor's pool
+     */
+    public int getLargestThreadCount() {
+        return largestThreadCount;
+    }
+
+    /**
+     * @return the maximum number of threads allowed in the executor's pool
+     */
+    public int getMaxThreadCount() {
+        return maxThreadCount;
+    }
+
+    /**
+     * @return the number of tasks being executed
+     */
+    public int getActiveTaskCount() {
+        return activeTaskCount;
+    }
+
+    /**
+     * @return the number of tasks waiting in the executor's queue
+     */
+    public int getQueueSize() {
+        return queueSize;
+    }
+
+    /**
+     * @return the number of tasks submitted to the executor
+     */
+    public long getTaskCount() {
+        return taskCount;
+    }
+
+    /**
+     * @return the number of task executions completed, which includes each run of a periodic task
+     */
+    public long getCompletedTaskCount() {
+        return completedTaskCount;
+    }
+
+    /**
+     * @return the identity names of the tasks currently considered hung
+     */
+    public List<String> getHungTasks() {
+        return hungTasks;
+    }
+
+    /**
+     * @return the number of hung tasks whose threads were interrupted
+     */
+    public long getHungTasksTerminatedCount() {
+        return hungTasksTerminatedCount;
+    }
+
+    public long getWaitTimeAverage() {
+        return waitTimeAverage;
+    }
+
+    public long getWaitTimeMax() {
+        return waitTimeMax;
+    }
+
+    public long getWaitTimeP99() {
+        return waitTimeP99;
+    }
+
+    public long getExecutionTimeAverage() {
+        return executionTimeAverage;
+    }
+
+    public long getExecutionTimeMax() {
+        return executionTimeMax;
+    }
+
+    public long getExecutionTimeP99() {
+        return executionTimeP99;
+    }
+}
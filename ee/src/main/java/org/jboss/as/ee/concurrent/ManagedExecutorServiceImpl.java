@@ -28,6 +28,7 @@ import static org.jboss.as.ee.concurrent.SecurityIdentityUtils.doIdentityWrap;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.Callable;
 import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 
 import org.glassfish.enterprise.concurrent.ContextServiceImpl;
@@ -37,9 +38,10 @@ import org.wildfly.extension.requestcontroller.ControlPoint;
 /**
  * @author Stuart Douglas
  */
-public class ManagedExecutorServiceImpl extends org.glassfish.enterprise.concurrent.ManagedExecutorServiceImpl {
+public class ManagedExecutorServiceImpl extends org.glassfish.enterprise.concurrent.ManagedExecutorServiceImpl implements ManagedExecutorWithHungThreads {
 
     private final ControlPoint controlPoint;
+    private final ManagedExecutorStatistics statistics = new ManagedExecutorStatistics();
 
     public ManagedExecutorServiceImpl(String name, ManagedThreadFactoryImpl managedThreadFactory, long hungTaskThreshold, boolean longRunningTasks, int corePoolSize, int maxPoolSize, long keepAliveTime, TimeUnit keepAliveTimeUnit, long threadLifeTime, ContextServiceImpl contextService, RejectPolicy rejectPolicy, BlockingQueue<Runnable> queue, ControlPoint controlPoint) {
         super(name, managedThreadFactory, hungTaskThreshold, longRunningTasks, corePoolSize, maxPoolSize, keepAliveTime, keepAliveTimeUnit, threadLifeTime, contextService, rejectPolicy, queue);
@@ -53,21 +55,42 @@ public class ManagedExecutorServiceImpl extends org.glassfish.enterprise.concurr
 
     @Override
     public <T> Future<T> submit(Callable<T> task) {
-        return super.submit(doIdentityWrap(doWrap(task, controlPoint)));
+        final Future<T> future = super.submit(doIdentityWrap(doWrap(statistics.wrap(task, true), controlPoint)));
+        statistics.taskSubmitted();
+        return future;
     }
 
     @Override
     public <T> Future<T> submit(Runnable task, T result) {
-        return super.submit(doIdentityWrap(doWrap(task, controlPoint)), result);
+        final Future<T> future = super.submit(doIdentityWrap(doWrap(statistics.wrap(task, true), controlPoint)), result);
+        statistics.taskSubmitted();
+        return future;
     }
 
     @Override
     public Future<?> submit(Runnable task) {
-        return super.submit(doIdentityWrap(doWrap(task, controlPoint)));
+        final Future<?> future = super.submit(doIdentityWrap(doWrap(statistics.wrap(task, true), controlPoint)));
+        statistics.taskSubmitted();
+        return future;
     }
 
     @Override
     public void execute(Runnable command) {
-        super.execute(doIdentityWrap(doWrap(command, controlPoint)));
+        super.execute(doIdentityWrap(doWrap(statistics.wrap(command, true), controlPoint)));
+        statistics.taskSubmitted();
+    }
+
+    @Override
+    public ManagedExecutorRuntimeStats getRuntimeStats() {
+        return new ManagedExecutorRuntimeStats((ThreadPoolExecutor) getThreadPoolExecutor(), statistics, getHungThreads());
+    }
+
+    @Override
+    public int terminateHungTasks() {
+        return ManagedExecutorHungTasksPeriodicTermination.terminateHungTasks(getName(), getHungThreads(), statistics);
+    }
+
+    ManagedExecutorStatistics getStatistics() {
+        return statistics;
     }
 }
@@ -0,0 +1,266 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ee.concurrent;
+
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.enterprise.concurrent.ManagedExecutorService;
+import javax.enterprise.concurrent.ManagedTask;
+import javax.enterprise.concurrent.ManagedTaskListener;
+
+/**
+ * Records the task statistics of a managed executor, by wrapping each submitted task.
+ * <p/>
+ * The wrapping should be the innermost one, so that the wait time ends, and the execution time starts, as close as
+ * possible to the actual execution of the task. As with {@link ControlPointUtils}, tasks which are {@link ManagedTask}s
+ * remain so, with their listener notified of the original task.
+ * <p/>
+ * Each run of a periodic task is counted as a submission, and as a completion, so that the number of completed tasks
+ * never exceeds the number of submitted tasks.
+ */
+final class ManagedExecutorStatistics {
+
+    private final LongAdder submittedTasks = new LongAdder();
+    private final LongAdder completedTasks = new LongAdder();
+    private final LongAdder terminatedHungTasks = new LongAdder();
+    private final AtomicInteger activeTasks = new AtomicInteger();
+    private final TaskTimeHistogram waitTime = new TaskTimeHistogram();
+    private final TaskTimeHistogram executionTime = new TaskTimeHistogram();
+
+    /**
+     * @param runnable the task
+     * @param recordWaitTime if the time between submission and execution should be recorded, which is not the case for
+     *                       delayed or periodic tasks
+     */
+    Runnable wrap(Runnable runnable, boolean recordWaitTime) {
+        if (runnable == null) {
+            return null;
+        }
+        final RecordingRunnable recordingRunnable = new RecordingRunnable(runnable, recordWaitTime ? System.nanoTime() : -1L);
+        return runnable instanceof ManagedTask ? new RecordingManagedRunnable(recordingRunnable, (ManagedTask) runnable) : recordingRunnable;
+    }
+
+    /**
+     * @param callable the task
+     * @param recordWaitTime if the time between submission and execution should be recorded, which is not the case for
+     *                       delayed or periodic tasks
+     */
+    <T> Callable<T> wrap(Callable<T> callable, boolean recordWaitTime) {
+        if (callable == null) {
+            return null;
+        }
+        final RecordingCallable<T> recordingCallable = new RecordingCallable<>(callable, recordWaitTime ? System.nanoTime() : -1L);
+        return callable instanceof ManagedTask ? new RecordingManagedCallable<>(recordingCallable, (ManagedTask) callable) : recordingCallable;
+    }
+
+    /**
+     * Counts a task as submitted, which should only be done once the executor has accepted it, so that rejected tasks
+     * are not counted.
+     */
+    void taskSubmitted() {
+        submittedTasks.increment();
+    }
+
+    void hungTaskTerminated() {
+        terminatedHungTasks.increment();
+    }
+
+    long getSubmittedTasks() {
+        return submittedTasks.sum();
+    }
+
+    long getCompletedTasks() {
+        return completedTasks.sum();
+    }
+
+    long getTerminatedHungTasks() {
+        return terminatedHungTasks.sum();
+    }
+
+    int getActiveTasks() {
+        return activeTasks.get();
+    }
+
+    TaskTimeHistogram getWaitTime() {
+        return waitTime;
+    }
+
+    TaskTimeHistogram getExecutionTime() {
+        return executionTime;
+    }
+
+    private long taskStarting(long submitTime, boolean rerun) {
+        if (rerun) {
+            // a periodic task, which was only counted as submitted for its first run
+            submittedTasks.increment();
+        }
+        final long start = System.nanoTime();
+        if (submitTime != -1L) {
+            waitTime.record(start - submitTime);
+        }
+        activeTasks.incrementAndGet();
+        return start;
+    }
+
+    private void taskDone(long start) {
+        activeTasks.decrementAndGet();
+        executionTime.record(System.nanoTime() - start);
+        completedTasks.increment();
+    }
+
+    private class RecordingRunnable implements Runnable {
+
+        private final Runnable runnable;
+        private final long submitTime;
+        private volatile boolean ran;
+
+        RecordingRunnable(Runnable runnable, long submitTime) {
+            this.runnable = runnable;
+            this.submitTime = submitTime;
+        }
+
+        @Override
+        public void run() {
+            final long start = taskStarting(submitTime, ran);
+            ran = true;
+            try {
+                runnable.run();
+            } finally {
+                taskDone(start);
+            }
+        }
+    }
+
+    private class RecordingCallable<T> implements Callable<T> {
+
+        private final Callable<T> callable;
+        private final long submitTime;
+        private volatile boolean ran;
+
+        RecordingCallable(Callable<T> callable, long submitTime) {
+            this.callable = callable;
+            this.submitTime = submitTime;
+        }
+
+        @Override
+        public T call() throws Exception {
+            final long start = taskStarting(submitTime, ran);
+            ran = true;
+            try {
+                return callable.call();
+            } finally {
+                taskDone(start);
+            }
+        }
+    }
+
+    /**
+     * A managed task which records statistics.
+     */
+    static class RecordingManagedTask implements ManagedTask {
+
+        private final ManagedTask managedTask;
+        private final RecordingManagedTaskListener managedTaskListenerWrapper;
+
+        RecordingManagedTask(ManagedTask managedTask) {
+            this.managedTask = managedTask;
+            this.managedTaskListenerWrapper = managedTask.getManagedTaskListener() != null ? new RecordingManagedTaskListener(managedTask.getManagedTaskListener()) : null;
+        }
+
+        @Override
+        public Map<String, String> getExecutionProperties() {
+            return managedTask.getExecutionProperties();
+        }
+
+        @Override
+        public ManagedTaskListener getManagedTaskListener() {
+            return managedTaskListenerWrapper;
+        }
+    }
+
+    static class RecordingManagedRunnable extends RecordingManagedTask implements Runnable {
+
+        private final Runnable recordingTask;
+
+        RecordingManagedRunnable(Runnable recordingTask, ManagedTask managedTask) {
+            super(managedTask);
+            this.recordingTask = recordingTask;
+        }
+
+        @Override
+        public void run() {
+            recordingTask.run();
+        }
+    }
+
+    static class RecordingManagedCallable<T> extends RecordingManagedTask implements Callable<T> {
+
+        private final Callable<T> recordingTask;
+
+        RecordingManagedCallable(Callable<T> recordingTask, ManagedTask managedTask) {
+            super(managedTask);
+            this.recordingTask = recordingTask;
+        }
+
+        @Override
+        public T call() throws Exception {
+            return recordingTask.call();
+        }
+    }
+
+    /**
+     * A managed task listener which notifies the wrapped listener of the original task.
+     */
+    static class RecordingManagedTaskListener implements ManagedTaskListener {
+
+        private final ManagedTaskListener managedTaskListener;
+
+        RecordingManagedTaskListener(ManagedTaskListener managedTaskListener) {
+            this.managedTaskListener = managedTaskListener;
+        }
+
+        @Override
+        public void taskAborted(Future<?> future, ManagedExecutorService executor, Object task, Throwable exception) {
+            managedTaskListener.taskAborted(future, executor, ((RecordingManagedTask) task).managedTask, exception);
+        }
+
+        @Override
+        public void taskDone(Future<?> future, ManagedExecutorService executor, Object task, Throwable exception) {
+            managedTaskListener.taskDone(future, executor, ((RecordingManagedTask) task).managedTask, exception);
+        }
+
+        @Override
+        public void taskStarting(Future<?> future, ManagedExecutorService executor, Object task) {
+            managedTaskListener.taskStarting(future, executor, ((RecordingManagedTask) task).managedTask);
+        }
+
+        @Override
+        public void taskSubmitted(Future<?> future, ManagedExecutorService executor, Object task) {
+            managedTaskListener.taskSubmitted(future, executor, ((RecordingManagedTask) task).managedTask);
+        }
+    }
+}
@@ -32,6 +32,7 @@ import java.util.Date;
 import java.util.concurrent.Callable;
 import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 
 import static org.jboss.as.ee.concurrent.ControlPointUtils.doScheduledWrap;
@@ -42,9 +43,10 @@ import static org.jboss.as.ee.concurrent.ControlPointUtils.doWrap;
  *
  * @author Eduardo Martins
  */
-public class ManagedScheduledExecutorServiceImpl extends org.glassfish.enterprise.concurrent.ManagedScheduledExecutorServiceImpl {
+public class ManagedScheduledExecutorServiceImpl extends org.glassfish.enterprise.concurrent.ManagedScheduledExecutorServiceImpl implements ManagedExecutorWithHungThreads {
 
     private final ControlPoint controlPoint;
+    private final ManagedExecutorStatistics statistics = new ManagedExecutorStatistics();
 
     public ManagedScheduledExecutorServiceImpl(String name, ManagedThreadFactoryImpl managedThreadFactory, long hungTaskThreshold, boolean longRunningTasks, int corePoolSize, long keepAliveTime, TimeUnit keepAliveTimeUnit, long threadLifeTime, ContextServiceImpl contextService, RejectPolicy rejectPolicy, ControlPoint controlPoint) {
         super(name, managedThreadFactory, hungTaskThreshold, longRunningTasks, corePoolSize, keepAliveTime, keepAliveTimeUnit, threadLifeTime, contextService, rejectPolicy);
@@ -53,56 +55,83 @@ public class ManagedScheduledExecutorServiceImpl extends org.glassfish.enterpris
 
     @Override
     public void execute(Runnable command) {
-        super.execute(doIdentityWrap(doWrap(command, controlPoint)));
+        super.execute(doIdentityWrap(doWrap(statistics.wrap(command, true), controlPoint)));
+        statistics.taskSubmitted();
     }
 
     @Override
     public Future<?> submit(Runnable task) {
-        return super.submit(doIdentityWrap(doWrap(task, controlPoint)));
+        final Future<?> future = super.submit(doIdentityWrap(doWrap(statistics.wrap(task, true), controlPoint)));
+        statistics.taskSubmitted();
+        return future;
     }
 
     @Override
     public <T> Future<T> submit(Runnable task, T result) {
-        return super.submit(doIdentityWrap(doWrap(task, controlPoint)), result);
+        final Future<T> future = super.submit(doIdentityWrap(doWrap(statistics.wrap(task, true), controlPoint)), result);
+        statistics.taskSubmitted();
+        return future;
     }
 
     @Override
     public <T> Future<T> submit(Callable<T> task) {
-        return super.submit(doIdentityWrap(doWrap(task, controlPoint)));
+        final Future<T> future = super.submit(doIdentityWrap(doWrap(statistics.wrap(task, true), controlPoint)));
+        statistics.taskSubmitted();
+        return future;
     }
 
     @Override
     public ScheduledFuture<?> schedule(Runnable command, Trigger trigger) {
         final CancellableTrigger ctrigger = new CancellableTrigger(trigger);
-        ctrigger.future = super.schedule(doIdentityWrap(doScheduledWrap(command, controlPoint)), ctrigger);
+        ctrigger.future = super.schedule(doIdentityWrap(doScheduledWrap(statistics.wrap(command, false), controlPoint)), ctrigger);
+        statistics.taskSubmitted();
         return ctrigger.future;
     }
 
     @Override
     public <V> ScheduledFuture<V> schedule(Callable<V> callable, Trigger trigger) {
         final CancellableTrigger ctrigger = new CancellableTrigger(trigger);
-        ctrigger.future = super.schedule(doIdentityWrap(doScheduledWrap(callable, controlPoint)), ctrigger);
+        ctrigger.future = super.schedule(doIdentityWrap(doScheduledWrap(statistics.wrap(callable, false), controlPoint)), ctrigger);
+        statistics.taskSubmitted();
         return ctrigger.future;
     }
 
     @Override
     public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
-        return super.schedule(doIdentityWrap(doScheduledWrap(command, controlPoint)), delay, unit);
+        final ScheduledFuture<?> future = super.schedule(doIdentityWrap(doScheduledWrap(statistics.wrap(command, false), controlPoint)), delay, unit);
+        statistics.taskSubmitted();
+        return future;
     }
 
     @Override
     public <V> ScheduledFuture<V> schedule(Callable<V> callable, long delay, TimeUnit unit) {
-        return super.schedule(doIdentityWrap(doScheduledWrap(callable, controlPoint)), delay, unit);
+        final ScheduledFuture<V> future = super.schedule(doIdentityWrap(doScheduledWrap(statistics.wrap(callable, false), controlPoint)), delay, unit);
+        statistics.taskSubmitted();
+        return future;
     }
 
     @Override
     public ScheduledFuture<?> scheduleAtFixedRate(Runnable command, long initialDelay, long period, TimeUnit unit) {
-        return super.scheduleAtFixedRate(doIdentityWrap(doScheduledWrap(command, controlPoint)), initialDelay, period, unit);
+        final ScheduledFuture<?> future = super.scheduleAtFixedRate(doIdentityWrap(doScheduledWrap(statistics.wrap(command, false), controlPoint)), initialDelay, period, unit);
+        statistics.taskSubmitted();
+        return future;
     }
 
     @Override
     public ScheduledFuture<?> scheduleWithFixedDelay(Runnable command, long initialDelay, long delay, TimeUnit unit) {
-        return super.scheduleWithFixedDelay(doIdentityWrap(doScheduledWrap(command, controlPoint)), initialDelay, delay, unit);
+        final ScheduledFuture<?> future = super.scheduleWithFixedDelay(doIdentityWrap(doScheduledWrap(statistics.wrap(command, false), controlPoint)), initialDelay, delay, unit);
+        statistics.taskSubmitted();
+        return future;
+    }
+
+    @Override
+    public ManagedExecutorRuntimeStats getRuntimeStats() {
+        return new ManagedExecutorRuntimeStats((ThreadPoolExecutor) getThreadPoolExecutor(), statistics, getHungThreads());
+    }
+
+    @Override
+    public int terminateHungTasks() {
+        return ManagedExecutorHungTasksPeriodicTermination.terminateHungTasks(getName(), getHungThreads(), statistics);
     }
 
     /**
@@ -0,0 +1,91 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ee.concurrent;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock free histogram of task times, in microseconds, with power of two buckets.
+ * <p/>
+ * Bucket {@code i} counts the times {@code t} such that {@code 2^(i-1) <= t < 2^i}, bucket 0 counts times below one
+ * microsecond. Percentiles are therefore approximate, and reported as the upper bound of the bucket they fall in.
+ */
+final class TaskTimeHistogram {
+
+    private static final int BUCKETS = Long.SIZE;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder total = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0L);
+
+    void record(long nanos) {
+        final long micros = TimeUnit.NANOSECONDS.toMicros(Math.max(nanos, 0L));
+        buckets.incrementAndGet(Long.SIZE - Long.numberOfLeadingZeros(micros));
+        count.increment();
+        total.add(micros);
+        max.accumulate(micros);
+    }
+
+    long getCount() {
+        return count.sum();
+    }
+
+    long getAverage() {
+        final long count = this.count.sum();
+        return count == 0 ? 0 : total.sum() / count;
+    }
+
+    long getMax() {
+        return max.get();
+    }
+
+    /**
+     * @param fraction the percentile, as a fraction between 0 and 1
+     * @return the upper bound of the bucket which contains the percentile, or 0 if nothing was recorded
+     */
+    long getPercentile(double fraction) {
+        final long[] snapshot = new long[BUCKETS];
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = buckets.get(i);
+            count += snapshot[i];
+        }
+        if (count == 0) {
+            return 0;
+        }
+        final long rank = Math.max(1L, (long) Math.ceil(fraction * count));
+        final long max = getMax();
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return i == 0 ? 0 : Math.min((1L << i) - 1, max);
+            }
+        }
+        return max;
+    }
+}
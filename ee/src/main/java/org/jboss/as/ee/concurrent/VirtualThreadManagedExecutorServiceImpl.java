@@ -0,0 +1,210 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ee.concurrent;
+
+import static org.jboss.as.ee.concurrent.ControlPointUtils.doWrap;
+import static org.jboss.as.ee.concurrent.SecurityIdentityUtils.doIdentityWrap;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import javax.enterprise.concurrent.ManagedTask;
+import javax.enterprise.concurrent.ManagedTaskListener;
+
+import org.glassfish.enterprise.concurrent.ContextServiceImpl;
+import org.glassfish.enterprise.concurrent.ManagedThreadFactoryImpl;
+import org.wildfly.extension.requestcontroller.ControlPoint;
+
+/**
+ * A {@link ManagedExecutorServiceImpl} which runs each task on its own virtual thread, instead of on the bounded thread
+ * pool, so that tasks blocking on I/O do not exhaust the pool.
+ * <p/>
+ * Tasks are wrapped exactly as for the pooled executor: the control point accounts for them, the caller's security
+ * identity is propagated, and the context service's {@link org.jboss.as.ee.concurrent.handle.ContextHandleFactory}
+ * chain is applied through a contextual proxy. {@link ManagedTaskListener}s are notified of the task lifecycle.
+ *
+ * @see #createTaskExecutor(String)
+ */
+public class VirtualThreadManagedExecutorServiceImpl extends ManagedExecutorServiceImpl {
+
+    private final ContextServiceImpl contextService;
+    private final ControlPoint controlPoint;
+    private final ExecutorService taskExecutor;
+
+    public VirtualThreadManagedExecutorServiceImpl(String name, ManagedThreadFactoryImpl managedThreadFactory, long hungTaskThreshold, boolean longRunningTasks, ContextServiceImpl contextService, RejectPolicy rejectPolicy, ControlPoint controlPoint, ExecutorService taskExecutor) {
+        // all task submissions are overridden, so the superclass pool never runs a task; size it so it never holds a thread either
+        super(name, managedThreadFactory, hungTaskThreshold, longRunningTasks, 0, 1, 0L, TimeUnit.MILLISECONDS, 0L, contextService, rejectPolicy, new SynchronousQueue<>(), controlPoint);
+        this.contextService = contextService;
+        this.controlPoint = controlPoint;
+        this.taskExecutor = taskExecutor;
+    }
+
+    /**
+     * Creates an executor which starts a new virtual thread for each task.
+     *
+     * @param name the prefix of the virtual thread names
+     * @return the executor, or {@code null} if the JVM does not support virtual threads
+     */
+    public static ExecutorService createTaskExecutor(String name) {
+        try {
+            // resolved reflectively, virtual threads are not available on the platform this module is compiled against
+            final Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, name + "-", 0L);
+            final ThreadFactory threadFactory = (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+            return (ExecutorService) Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class).invoke(null, threadFactory);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public <T> Future<T> submit(Callable<T> task) {
+        final Callable<T> wrapped = doIdentityWrap(doWrap(getStatistics().wrap(task, true), controlPoint));
+        return dispatch(wrapped, wrapped);
+    }
+
+    @Override
+    public <T> Future<T> submit(Runnable task, T result) {
+        final Runnable wrapped = doIdentityWrap(doWrap(getStatistics().wrap(task, true), controlPoint));
+        return dispatch(Executors.callable(wrapped, result), wrapped);
+    }
+
+    @Override
+    public Future<?> submit(Runnable task) {
+        final Runnable wrapped = doIdentityWrap(doWrap(getStatistics().wrap(task, true), controlPoint));
+        return dispatch(Executors.callable(wrapped), wrapped);
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        final Runnable wrapped = doIdentityWrap(doWrap(getStatistics().wrap(command, true), controlPoint));
+        dispatch(Executors.callable(wrapped), wrapped);
+    }
+
+    @Override
+    public void shutdown() {
+        taskExecutor.shutdown();
+        super.shutdown();
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        taskExecutor.shutdownNow();
+        return super.shutdownNow();
+    }
+
+    /**
+     * @param callable the callable to run
+     * @param task the submitted (wrapped) task, which is what {@link ManagedTaskListener}s are notified about
+     */
+    private <T> Future<T> dispatch(Callable<T> callable, Object task) {
+        final ManagedTask managedTask = (task instanceof ManagedTask) ? (ManagedTask) task : null;
+        final ManagedTaskListener listener = (managedTask != null) ? managedTask.getManagedTaskListener() : null;
+        final ManagedTaskFuture<T> future = new ManagedTaskFuture<>(contextualize(callable, managedTask), task, listener);
+        if (listener != null) {
+            listener.taskSubmitted(future, getAdapter(), task);
+        }
+        try {
+            taskExecutor.execute(future);
+        } catch (RejectedExecutionException e) {
+            if (controlPoint != null) {
+                // the task will never run, so release the request begun when it was wrapped
+                controlPoint.requestComplete();
+            }
+            future.abort(e);
+            throw e;
+        }
+        getStatistics().taskSubmitted();
+        return future;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> Callable<T> contextualize(Callable<T> callable, ManagedTask managedTask) {
+        if (contextService == null) {
+            return callable;
+        }
+        if (managedTask != null) {
+            return contextService.createContextualProxy(callable, managedTask.getExecutionProperties(), Callable.class);
+        }
+        return contextService.createContextualProxy(callable, Callable.class);
+    }
+
+    /**
+     * The future of a task, which notifies the task's {@link ManagedTaskListener}, if any.
+     */
+    private class ManagedTaskFuture<T> extends FutureTask<T> {
+
+        private final Object task;
+        private final ManagedTaskListener listener;
+        private volatile Throwable failure;
+
+        ManagedTaskFuture(Callable<T> callable, Object task, ManagedTaskListener listener) {
+            super(callable);
+            this.task = task;
+            this.listener = listener;
+        }
+
+        @Override
+        public void run() {
+            if (listener != null && !isDone()) {
+                listener.taskStarting(this, getAdapter(), task);
+            }
+            super.run();
+        }
+
+        @Override
+        protected void setException(Throwable t) {
+            failure = t;
+            super.setException(t);
+        }
+
+        void abort(Throwable cause) {
+            failure = cause;
+            cancel(false);
+        }
+
+        @Override
+        protected void done() {
+            if (listener != null) {
+                Throwable exception = failure;
+                if (isCancelled()) {
+                    if (exception == null) {
+                        exception = new CancellationException();
+                    }
+                    listener.taskAborted(this, getAdapter(), task, exception);
+                }
+                listener.taskDone(this, getAdapter(), task, exception);
+            }
+        }
+    }
+}
@@ -26,7 +26,9 @@ import org.glassfish.enterprise.concurrent.AbstractManagedExecutorService;
 import org.glassfish.enterprise.concurrent.ContextServiceImpl;
 import org.glassfish.enterprise.concurrent.ManagedExecutorServiceAdapter;
 import org.glassfish.enterprise.concurrent.ManagedThreadFactoryImpl;
+import org.jboss.as.ee.concurrent.ManagedExecutorHungTasksPeriodicTermination;
 import org.jboss.as.ee.concurrent.ManagedExecutorServiceImpl;
+import org.jboss.as.ee.concurrent.VirtualThreadManagedExecutorServiceImpl;
 import org.jboss.as.ee.logging.EeLogger;
 import org.jboss.msc.inject.Injector;
 import org.jboss.msc.service.StartContext;
@@ -36,6 +38,8 @@ import org.jboss.msc.value.InjectedValue;
 import org.wildfly.extension.requestcontroller.ControlPoint;
 import org.wildfly.extension.requestcontroller.RequestController;
 
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -52,6 +56,8 @@ public class ManagedExecutorServiceService extends EEConcurrentAbstractService<M
     private final String name;
     private final InjectedValue<ManagedThreadFactoryImpl> managedThreadFactoryInjectedValue;
     private final long hungTaskThreshold;
+    private final long hungTaskTerminationPeriod;
+    private volatile Future<?> hungTasksPeriodicTerminationFuture;
     private final boolean longRunningTasks;
     private final int corePoolSize;
     private final int maxPoolSize;
@@ -61,6 +67,7 @@ public class ManagedExecutorServiceService extends EEConcurrentAbstractService<M
     private final int queueCapacity;
     private final InjectedValue<ContextServiceImpl> contextService = new InjectedValue<>();
     private final AbstractManagedExecutorService.RejectPolicy rejectPolicy;
+    private final boolean virtualThreads;
     private final InjectedValue<RequestController> requestController = new InjectedValue<>();
     private ControlPoint controlPoint;
 
@@ -68,6 +75,7 @@ public class ManagedExecutorServiceService extends EEConcurrentAbstractService<M
      * @param name
      * @param jndiName
      * @param hungTaskThreshold
+     * @param hungTaskTerminationPeriod
      * @param longRunningTasks
      * @param corePoolSize
      * @param maxPoolSize
@@ -76,13 +84,15 @@ public class ManagedExecutorServiceService extends EEConcurrentAbstractService<M
      * @param threadLifeTime
      * @param queueCapacity
      * @param rejectPolicy
+     * @param virtualThreads
      * @see ManagedExecutorServiceImpl#ManagedExecutorServiceImpl(String, org.glassfish.enterprise.concurrent.ManagedThreadFactoryImpl, long, boolean, int, int, long, java.util.concurrent.TimeUnit, long, int, org.glassfish.enterprise.concurrent.ContextServiceImpl, org.glassfish.enterprise.concurrent.AbstractManagedExecutorService.RejectPolicy, org.wildfly.extension.requestcontroller.ControlPoint)
      */
-    public ManagedExecutorServiceService(String name, String jndiName, long hungTaskThreshold, boolean longRunningTasks, int corePoolSize, int maxPoolSize, long keepAliveTime, TimeUnit keepAliveTimeUnit, long threadLifeTime, int queueCapacity, AbstractManagedExecutorService.RejectPolicy rejectPolicy) {
+    public ManagedExecutorServiceService(String name, String jndiName, long hungTaskThreshold, long hungTaskTerminationPeriod, boolean longRunningTasks, int corePoolSize, int maxPoolSize, long keepAliveTime, TimeUnit keepAliveTimeUnit, long threadLifeTime, int queueCapacity, AbstractManagedExecutorService.RejectPolicy rejectPolicy, boolean virtualThreads) {
         super(jndiName);
         this.name = name;
         this.managedThreadFactoryInjectedValue = new InjectedValue<>();
         this.hungTaskThreshold = hungTaskThreshold;
+        this.hungTaskTerminationPeriod = hungTaskTerminationPeriod;
         this.longRunningTasks = longRunningTasks;
         this.corePoolSize = corePoolSize;
         this.maxPoolSize = maxPoolSize;
@@ -91,6 +101,7 @@ public class ManagedExecutorServiceService extends EEConcurrentAbstractService<M
         this.threadLifeTime = threadLifeTime;
         this.queueCapacity = queueCapacity;
         this.rejectPolicy = rejectPolicy;
+        this.virtualThreads = virtualThreads;
     }
 
     @Override
@@ -105,12 +116,27 @@ public class ManagedExecutorServiceService extends EEConcurrentAbstractService<M
         if(requestController.getOptionalValue() != null) {
             controlPoint = requestController.getValue().getControlPoint(name, "managed-executor-service");
         }
-        executorService = new ManagedExecutorServiceImpl(name, managedThreadFactory, hungTaskThreshold, longRunningTasks, corePoolSize, maxPoolSize, keepAliveTime, keepAliveTimeUnit, threadLifeTime, queueCapacity, contextService.getOptionalValue(), rejectPolicy, controlPoint);
+        final ExecutorService taskExecutor = virtualThreads ? VirtualThreadManagedExecutorServiceImpl.createTaskExecutor("EE-ManagedExecutorService-" + name) : null;
+        if (virtualThreads && taskExecutor == null) {
+            EeLogger.ROOT_LOGGER.virtualThreadsNotSupported(name);
+        }
+        if (taskExecutor != null) {
+            executorService = new VirtualThreadManagedExecutorServiceImpl(name, managedThreadFactory, hungTaskThreshold, longRunningTasks, contextService.getOptionalValue(), rejectPolicy, controlPoint, taskExecutor);
+        } else {
+            executorService = new ManagedExecutorServiceImpl(name, managedThreadFactory, hungTaskThreshold, longRunningTasks, corePoolSize, maxPoolSize, keepAliveTime, keepAliveTimeUnit, threadLifeTime, queueCapacity, contextService.getOptionalValue(), rejectPolicy, controlPoint);
+        }
+        if (hungTaskThreshold > 0 && hungTaskTerminationPeriod > 0) {
+            hungTasksPeriodicTerminationFuture = ManagedExecutorHungTasksPeriodicTermination.startHungTaskPeriodicTermination(executorService, hungTaskTerminationPeriod);
+        }
 
     }
 
     @Override
     void stopValue(StopContext context) {
+        if (hungTasksPeriodicTerminationFuture != null) {
+            ManagedExecutorHungTasksPeriodicTermination.stopHungTaskPeriodicTermination(hungTasksPeriodicTerminationFuture);
+            hungTasksPeriodicTerminationFuture = null;
+        }
         if (executorService != null) {
             executorService.shutdownNow();
             if(managedThreadFactoryInjectedValue.getOptionalValue() == null) {
@@ -131,6 +157,13 @@ public class ManagedExecutorServiceService extends EEConcurrentAbstractService<M
         return executorService.getAdapter();
     }
 
+    /**
+     * @return the executor, or {@code null} if the service is not started
+     */
+    public ManagedExecutorServiceImpl getExecutorService() {
+        return executorService;
+    }
+
     public Injector<ManagedThreadFactoryImpl> getManagedThreadFactoryInjector() {
         return managedThreadFactoryInjectedValue;
     }
@@ -26,6 +26,7 @@ import org.glassfish.enterprise.concurrent.AbstractManagedExecutorService;
 import org.glassfish.enterprise.concurrent.ContextServiceImpl;
 import org.glassfish.enterprise.concurrent.ManagedScheduledExecutorServiceAdapter;
 import org.glassfish.enterprise.concurrent.ManagedThreadFactoryImpl;
+import org.jboss.as.ee.concurrent.ManagedExecutorHungTasksPeriodicTermination;
 import org.jboss.as.ee.concurrent.ManagedScheduledExecutorServiceImpl;
 import org.jboss.as.ee.logging.EeLogger;
 import org.jboss.msc.inject.Injector;
@@ -36,6 +37,7 @@ import org.jboss.msc.value.InjectedValue;
 import org.wildfly.extension.requestcontroller.ControlPoint;
 import org.wildfly.extension.requestcontroller.RequestController;
 
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -52,6 +54,8 @@ public class ManagedScheduledExecutorServiceService extends EEConcurrentAbstract
     private final String name;
     private final InjectedValue<ManagedThreadFactoryImpl> managedThreadFactoryInjectedValue;
     private final long hungTaskThreshold;
+    private final long hungTaskTerminationPeriod;
+    private volatile Future<?> hungTasksPeriodicTerminationFuture;
     private final boolean longRunningTasks;
     private final int corePoolSize;
     private final long keepAliveTime;
@@ -66,6 +70,7 @@ public class ManagedScheduledExecutorServiceService extends EEConcurrentAbstract
      * @param name
      * @param jndiName
      * @param hungTaskThreshold
+     * @param hungTaskTerminationPeriod
      * @param longRunningTasks
      * @param corePoolSize
      * @param keepAliveTime
@@ -74,11 +79,12 @@ public class ManagedScheduledExecutorServiceService extends EEConcurrentAbstract
      * @param rejectPolicy
      * @see ManagedScheduledExecutorServiceImpl#ManagedScheduledExecutorServiceImpl(String, org.glassfish.enterprise.concurrent.ManagedThreadFactoryImpl, long, boolean, int, long, java.util.concurrent.TimeUnit, long, org.glassfish.enterprise.concurrent.ContextServiceImpl, org.glassfish.enterprise.concurrent.AbstractManagedExecutorService.RejectPolicy, org.wildfly.extension.requestcontroller.ControlPoint)
      */
-    public ManagedScheduledExecutorServiceService(String name, String jndiName, long hungTaskThreshold, boolean longRunningTasks, int corePoolSize, long keepAliveTime, TimeUnit keepAliveTimeUnit, long threadLifeTime, AbstractManagedExecutorService.RejectPolicy rejectPolicy) {
+    public ManagedScheduledExecutorServiceService(String name, String jndiName, long hungTaskThreshold, long hungTaskTerminationPeriod, boolean longRunningTasks, int corePoolSize, long keepAliveTime, TimeUnit keepAliveTimeUnit, long threadLifeTime, AbstractManagedExecutorService.RejectPolicy rejectPolicy) {
         super(jndiName);
         this.name = name;
         this.managedThreadFactoryInjectedValue = new InjectedValue<>();
         this.hungTaskThreshold = hungTaskThreshold;
+        this.hungTaskTerminationPeriod = hungTaskTerminationPeriod;
         this.longRunningTasks = longRunningTasks;
         this.corePoolSize = corePoolSize;
         this.keepAliveTime = keepAliveTime;
@@ -100,10 +106,17 @@ public class ManagedScheduledExecutorServiceService extends EEConcurrentAbstract
             controlPoint = requestController.getValue().getControlPoint(name, "managed-scheduled-executor-service");
         }
         executorService = new ManagedScheduledExecutorServiceImpl(name, managedThreadFactory, hungTaskThreshold, longRunningTasks, corePoolSize, keepAliveTime, keepAliveTimeUnit, threadLifeTime, contextService.getOptionalValue(), rejectPolicy, controlPoint);
+        if (hungTaskThreshold > 0 && hungTaskTerminationPeriod > 0) {
+            hungTasksPeriodicTerminationFuture = ManagedExecutorHungTasksPeriodicTermination.startHungTaskPeriodicTermination(executorService, hungTaskTerminationPeriod);
+        }
     }
 
     @Override
     void stopValue(StopContext context) {
+        if (hungTasksPeriodicTerminationFuture != null) {
+            ManagedExecutorHungTasksPeriodicTermination.stopHungTaskPeriodicTermination(hungTasksPeriodicTerminationFuture);
+            hungTasksPeriodicTerminationFuture = null;
+        }
         if (executorService != null) {
             executorService.shutdownNow();
             if(managedThreadFactoryInjectedValue.getOptionalValue() == null) {
@@ -124,6 +137,13 @@ public class ManagedScheduledExecutorServiceService extends EEConcurrentAbstract
         return executorService.getAdapter();
     }
 
+    /**
+     * @return the executor, or {@code null} if the service is not started
+     */
+    public ManagedScheduledExecutorServiceImpl getExecutorService() {
+        return executorService;
+    }
+
     public Injector<ManagedThreadFactoryImpl> getManagedThreadFactoryInjector() {
         return managedThreadFactoryInjectedValue;
     }
@@ -1109,4 +1109,19 @@ public interface EeLogger extends BasicLogger {
     @Message(id = 114, value = "Class does not implement all of the provided interfaces")
     IllegalArgumentException classDoesNotImplementAllInterfaces();
 
+    @LogMessage(level = WARN)
+    @Message(id = 115, value = "Virtual threads are not supported by this JVM, managed executor service %s will use its thread pool")
+    void virtualThreadsNotSupported(String name);
+
+    @LogMessage(level = WARN)
+    @Message(id = 116, value = "Interrupting hung task %s of managed executor service %s, running for %d ms in thread %s")
+    void interruptingHungTask(String task, String executorName, long runTime, String threadName);
+
+    @LogMessage(level = ERROR)
+    @Message(id = 117, value = "Failed to terminate hung tasks of managed executor service %s")
+    void failedToTerminateHungTasks(String executorName, @Cause Throwable cause);
+
+    @Message(id = 118, value = "Unknown metric %s")
+    IllegalStateException unknownMetric(String metric);
+
 }
@@ -21,12 +21,18 @@
  */
 package org.jboss.as.ee.metadata;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 import org.jboss.as.ee.component.Attachments;
 import org.jboss.as.ee.component.EEModuleClassDescription;
 import org.jboss.as.ee.component.EEModuleDescription;
+import org.jboss.as.ee.logging.EeLogger;
 import org.jboss.as.ee.structure.EJBAnnotationPropertyReplacement;
 import org.jboss.as.server.deployment.DeploymentPhaseContext;
 import org.jboss.as.server.deployment.DeploymentUnit;
@@ -34,6 +40,7 @@ import org.jboss.as.server.deployment.DeploymentUnitProcessingException;
 import org.jboss.as.server.deployment.DeploymentUnitProcessor;
 import org.jboss.as.server.deployment.annotation.CompositeIndex;
 import org.jboss.metadata.property.PropertyReplacer;
+import org.wildfly.security.manager.WildFlySecurityManager;
 
 /**
  * Superclass for EE annotation processors that attach their information to the EEClassDescription via {@link ClassAnnotationInformation}
@@ -42,6 +49,26 @@ import org.jboss.metadata.property.PropertyReplacer;
  */
 public abstract class AbstractEEAnnotationProcessor implements DeploymentUnitProcessor {
 
+    /**
+     * System property that enables evaluating the annotation information factories of a deployment unit concurrently.
+     * The factories only read the (immutable) annotation index, so they can run in parallel; the results are always
+     * merged into the module description in factory order, so the outcome is identical to sequential processing.
+     * Deployment units, including the subdeployments of an ear, already run their deployment phases as independent services,
+     * so this only parallelizes the work within a single processor of a single deployment unit.
+     */
+    public static final String PARALLEL_PROCESSING_PROPERTY = "org.jboss.as.ee.annotation.parallel";
+
+    private static final boolean PARALLEL = Boolean.parseBoolean(WildFlySecurityManager.getPropertyPrivileged(PARALLEL_PROCESSING_PROPERTY, "false"));
+
+    /**
+     * Indicates whether annotation information factories are evaluated concurrently,
+     * using the executor attached to the deployment unit as {@link Attachments#ANNOTATION_PROCESSING_EXECUTOR}.
+     * @return true, if concurrent processing is enabled, false otherwise
+     */
+    public static boolean isParallelProcessingEnabled() {
+        return PARALLEL;
+    }
+
     public final void deploy(final DeploymentPhaseContext phaseContext) throws DeploymentUnitProcessingException {
         final DeploymentUnit deploymentUnit = phaseContext.getDeploymentUnit();
 
@@ -53,8 +80,9 @@ public abstract class AbstractEEAnnotationProcessor implements DeploymentUnitPro
         }
 
         final List<ClassAnnotationInformationFactory> factories = annotationInformationFactories();
-        for (final ClassAnnotationInformationFactory factory : factories) {
-            final Map<String, ClassAnnotationInformation<?, ?>> data = factory.createAnnotationInformation(index, propertyReplacer);
+        final ExecutorService executor = deploymentUnit.getAttachment(Attachments.ANNOTATION_PROCESSING_EXECUTOR);
+        final List<Map<String, ClassAnnotationInformation<?, ?>>> results = (executor != null && factories.size() > 1) ? createAnnotationInformationConcurrently(executor, deploymentUnit, factories, index, propertyReplacer) : createAnnotationInformation(deploymentUnit, factories, index, propertyReplacer);
+        for (Map<String, ClassAnnotationInformation<?, ?>> data : results) {
             for (Map.Entry<String, ClassAnnotationInformation<?, ?>> entry : data.entrySet()) {
                 EEModuleClassDescription clazz = eeModuleDescription.addOrGetLocalClassDescription(entry.getKey());
                 clazz.addAnnotationInformation(entry.getValue());
@@ -64,6 +92,63 @@ public abstract class AbstractEEAnnotationProcessor implements DeploymentUnitPro
         afterAnnotationsProcessed(phaseContext, deploymentUnit);
     }
 
+    private List<Map<String, ClassAnnotationInformation<?, ?>>> createAnnotationInformation(final DeploymentUnit deploymentUnit, final List<ClassAnnotationInformationFactory> factories, final CompositeIndex index, final PropertyReplacer propertyReplacer) {
+        final List<Map<String, ClassAnnotationInformation<?, ?>>> results = new ArrayList<>(factories.size());
+        for (final ClassAnnotationInformationFactory factory : factories) {
+            results.add(createAnnotationInformation(deploymentUnit, factory, index, propertyReplacer));
+        }
+        return results;
+    }
+
+    private List<Map<String, ClassAnnotationInformation<?, ?>>> createAnnotationInformationConcurrently(final ExecutorService executor, final DeploymentUnit deploymentUnit, final List<ClassAnnotationInformationFactory> factories, final CompositeIndex index, final PropertyReplacer propertyReplacer) throws DeploymentUnitProcessingException {
+        final List<Callable<Map<String, ClassAnnotationInformation<?, ?>>>> tasks = new ArrayList<>(factories.size());
+        for (final ClassAnnotationInformationFactory factory : factories) {
+            tasks.add(() -> createAnnotationInformation(deploymentUnit, factory, index, propertyReplacer));
+        }
+        return invokeAll(executor, tasks);
+    }
+
+    /**
+     * Runs the specified tasks on the specified executor and returns their results in task order.
+     */
+    static <T> List<T> invokeAll(final ExecutorService executor, final List<Callable<T>> tasks) throws DeploymentUnitProcessingException {
+        final List<Future<T>> futures = new ArrayList<>(tasks.size());
+        try {
+            for (Callable<T> task : tasks) {
+                futures.add(executor.submit(task));
+            }
+            // Join in submission order, so that the merge into the module description is deterministic
+            final List<T> results = new ArrayList<>(tasks.size());
+            for (Future<T> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DeploymentUnitProcessingException(e);
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new DeploymentUnitProcessingException(cause);
+        } finally {
+            for (Future<?> future : futures) {
+                future.cancel(false);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, ClassAnnotationInformation<?, ?>> createAnnotationInformation(final DeploymentUnit deploymentUnit, final ClassAnnotationInformationFactory factory, final CompositeIndex index, final PropertyReplacer propertyReplacer) {
+        final long start = System.nanoTime();
+        final Map<String, ClassAnnotationInformation<?, ?>> data = factory.createAnnotationInformation(index, propertyReplacer);
+        final long duration = System.nanoTime() - start;
+        AnnotationProcessingStatistics.record(factory.getClass().getName(), duration);
+        EeLogger.ROOT_LOGGER.debugf("%s processed %d classes of %s in %d us", factory.getClass().getSimpleName(), data.size(), deploymentUnit.getName(), duration / 1000);
+        return data;
+    }
+
     /**
      * Method that can be overridden to do any additional processing
      * @param phaseContext The phase context
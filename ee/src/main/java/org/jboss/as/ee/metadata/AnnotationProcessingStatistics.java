@@ -0,0 +1,93 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ee.metadata;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cumulative timings of the annotation information factories evaluated by {@link AbstractEEAnnotationProcessor}, per factory.
+ */
+public final class AnnotationProcessingStatistics {
+
+    private static final ConcurrentMap<String, ProcessorStatistics> PROCESSORS = new ConcurrentHashMap<>();
+
+    private AnnotationProcessingStatistics() {
+    }
+
+    static void record(String processor, long nanos) {
+        PROCESSORS.computeIfAbsent(processor, key -> new ProcessorStatistics()).record(nanos);
+    }
+
+    /**
+     * Returns the statistics of every annotation information factory evaluated so far, sorted by factory class name.
+     * @return a map of factory class name to statistics
+     */
+    public static Map<String, ProcessorStatistics> getProcessors() {
+        return Collections.unmodifiableMap(new TreeMap<>(PROCESSORS));
+    }
+
+    /**
+     * The timings of a single annotation information factory.
+     */
+    public static final class ProcessorStatistics {
+        private final LongAdder invocations = new LongAdder();
+        private final LongAdder totalTime = new LongAdder();
+        private final LongAccumulator maxTime = new LongAccumulator(Math::max, 0);
+
+        void record(long nanos) {
+            this.invocations.increment();
+            this.totalTime.add(nanos);
+            this.maxTime.accumulate(nanos);
+        }
+
+        /**
+         * @return the number of deployment units processed by this factory
+         */
+        public long getInvocationCount() {
+            return this.invocations.sum();
+        }
+
+        /**
+         * @param unit the time unit of the result
+         * @return the time spent by this factory, across all deployment units
+         */
+        public long getTotalTime(TimeUnit unit) {
+            return unit.convert(this.totalTime.sum(), TimeUnit.NANOSECONDS);
+        }
+
+        /**
+         * @param unit the time unit of the result
+         * @return the longest time spent by this factory on a single deployment unit
+         */
+        public long getMaxTime(TimeUnit unit) {
+            return unit.convert(this.maxTime.get(), TimeUnit.NANOSECONDS);
+        }
+    }
+}
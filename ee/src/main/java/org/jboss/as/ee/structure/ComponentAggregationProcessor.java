@@ -50,13 +50,13 @@ public final class ComponentAggregationProcessor implements DeploymentUnitProces
     public void deploy(final DeploymentPhaseContext phaseContext) throws DeploymentUnitProcessingException {
         DeploymentUnit deploymentUnit = phaseContext.getDeploymentUnit();
 
-        final ComponentRegistry componentRegistry = new ComponentRegistry(phaseContext.getServiceRegistry());
-
         final EEModuleDescription moduleDescription = deploymentUnit.getAttachment(EE_MODULE_DESCRIPTION);
         if(moduleDescription == null) {
             return;
         }
 
+        final ComponentRegistry componentRegistry = new ComponentRegistry(phaseContext.getServiceRegistry(), moduleDescription);
+
         phaseContext.getServiceTarget().addService(ComponentRegistry.serviceName(deploymentUnit), new ValueService<>(new ImmediateValue<Object>(componentRegistry)))
                 .addDependency(moduleDescription.getDefaultClassIntrospectorServiceName(), EEClassIntrospector.class, componentRegistry.getClassIntrospectorInjectedValue())
                 .install();
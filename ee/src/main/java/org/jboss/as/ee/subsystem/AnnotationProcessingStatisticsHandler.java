@@ -0,0 +1,89 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ee.subsystem;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.controller.AbstractRuntimeOnlyHandler;
+import org.jboss.as.controller.ObjectListAttributeDefinition;
+import org.jboss.as.controller.ObjectTypeAttributeDefinition;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.SimpleAttributeDefinition;
+import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.as.ee.metadata.AnnotationProcessingStatistics;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+
+/**
+ * Runtime handler for the per factory timings of EE annotation processing.
+ */
+class AnnotationProcessingStatisticsHandler extends AbstractRuntimeOnlyHandler {
+
+    static final AnnotationProcessingStatisticsHandler INSTANCE = new AnnotationProcessingStatisticsHandler();
+
+    static final SimpleAttributeDefinition PROCESSOR = new SimpleAttributeDefinitionBuilder("processor", ModelType.STRING)
+            .setStorageRuntime()
+            .build();
+    static final SimpleAttributeDefinition INVOCATION_COUNT = new SimpleAttributeDefinitionBuilder("invocation-count", ModelType.LONG)
+            .setStorageRuntime()
+            .build();
+    static final SimpleAttributeDefinition TOTAL_TIME = new SimpleAttributeDefinitionBuilder("total-time", ModelType.LONG)
+            .setMeasurementUnit(MeasurementUnit.MICROSECONDS)
+            .setStorageRuntime()
+            .build();
+    static final SimpleAttributeDefinition MAX_TIME = new SimpleAttributeDefinitionBuilder("max-time", ModelType.LONG)
+            .setMeasurementUnit(MeasurementUnit.MICROSECONDS)
+            .setStorageRuntime()
+            .build();
+
+    static final ObjectListAttributeDefinition ANNOTATION_PROCESSING_STATISTICS = new ObjectListAttributeDefinition.Builder("annotation-processing-statistics",
+            new ObjectTypeAttributeDefinition.Builder("annotation-processing-statistic", PROCESSOR, INVOCATION_COUNT, TOTAL_TIME, MAX_TIME).build())
+            .setRequired(false)
+            .setStorageRuntime()
+            .build();
+
+    private AnnotationProcessingStatisticsHandler() {
+    }
+
+    void registerMetrics(ManagementResourceRegistration resourceRegistration) {
+        resourceRegistration.registerMetric(ANNOTATION_PROCESSING_STATISTICS, this);
+    }
+
+    @Override
+    protected void executeRuntimeStep(OperationContext context, ModelNode operation) throws OperationFailedException {
+        final ModelNode result = context.getResult().setEmptyList();
+        for (Map.Entry<String, AnnotationProcessingStatistics.ProcessorStatistics> entry : AnnotationProcessingStatistics.getProcessors().entrySet()) {
+            final AnnotationProcessingStatistics.ProcessorStatistics statistics = entry.getValue();
+            final ModelNode processor = new ModelNode();
+            processor.get(PROCESSOR.getName()).set(entry.getKey());
+            processor.get(INVOCATION_COUNT.getName()).set(statistics.getInvocationCount());
+            processor.get(TOTAL_TIME.getName()).set(statistics.getTotalTime(TimeUnit.MICROSECONDS));
+            processor.get(MAX_TIME.getName()).set(statistics.getMaxTime(TimeUnit.MICROSECONDS));
+            result.add(processor);
+        }
+    }
+}
@@ -45,12 +45,14 @@ enum Attribute {
     PRIORITY(ManagedThreadFactoryResourceDefinition.PRIORITY),
     THREAD_FACTORY(ManagedExecutorServiceResourceDefinition.THREAD_FACTORY),
     HUNG_TASK_THRESHOLD(ManagedExecutorServiceResourceDefinition.HUNG_TASK_THRESHOLD),
+    HUNG_TASK_TERMINATION_PERIOD(ManagedExecutorServiceResourceDefinition.HUNG_TASK_TERMINATION_PERIOD),
     LONG_RUNNING_TASKS(ManagedExecutorServiceResourceDefinition.LONG_RUNNING_TASKS),
     CORE_THREADS(ManagedExecutorServiceResourceDefinition.CORE_THREADS),
     MAX_THREADS(ManagedExecutorServiceResourceDefinition.MAX_THREADS),
     KEEPALIVE_TIME(ManagedExecutorServiceResourceDefinition.KEEPALIVE_TIME),
     QUEUE_LENGTH(ManagedExecutorServiceResourceDefinition.QUEUE_LENGTH),
     REJECT_POLICY(ManagedExecutorServiceResourceDefinition.REJECT_POLICY),
+    VIRTUAL_THREADS(ManagedExecutorServiceResourceDefinition.VIRTUAL_THREADS),
 
     DATASOURCE(DefaultBindingsResourceDefinition.DATASOURCE),
     JMS_CONNECTION_FACTORY(DefaultBindingsResourceDefinition.JMS_CONNECTION_FACTORY),
@@ -423,6 +423,9 @@ class EESubsystemParser40 implements XMLStreamConstants, XMLElementReader<List<M
                 case HUNG_TASK_THRESHOLD:
                     ManagedExecutorServiceResourceDefinition.HUNG_TASK_THRESHOLD_AD.parseAndSetParameter(value, addOperation, reader);
                     break;
+                case HUNG_TASK_TERMINATION_PERIOD:
+                    ManagedExecutorServiceResourceDefinition.HUNG_TASK_TERMINATION_PERIOD_AD.parseAndSetParameter(value, addOperation, reader);
+                    break;
                 case LONG_RUNNING_TASKS:
                     ManagedExecutorServiceResourceDefinition.LONG_RUNNING_TASKS_AD.parseAndSetParameter(value, addOperation, reader);
                     break;
@@ -441,6 +444,9 @@ class EESubsystemParser40 implements XMLStreamConstants, XMLElementReader<List<M
                 case REJECT_POLICY:
                     ManagedExecutorServiceResourceDefinition.REJECT_POLICY_AD.parseAndSetParameter(value, addOperation, reader);
                     break;
+                case VIRTUAL_THREADS:
+                    ManagedExecutorServiceResourceDefinition.VIRTUAL_THREADS_AD.parseAndSetParameter(value, addOperation, reader);
+                    break;
                 default:
                     throw unexpectedAttribute(reader, i);
             }
@@ -500,6 +506,9 @@ class EESubsystemParser40 implements XMLStreamConstants, XMLElementReader<List<M
                 case HUNG_TASK_THRESHOLD:
                     ManagedScheduledExecutorServiceResourceDefinition.HUNG_TASK_THRESHOLD_AD.parseAndSetParameter(value, addOperation, reader);
                     break;
+                case HUNG_TASK_TERMINATION_PERIOD:
+                    ManagedScheduledExecutorServiceResourceDefinition.HUNG_TASK_TERMINATION_PERIOD_AD.parseAndSetParameter(value, addOperation, reader);
+                    break;
                 case LONG_RUNNING_TASKS:
                     ManagedScheduledExecutorServiceResourceDefinition.LONG_RUNNING_TASKS_AD.parseAndSetParameter(value, addOperation, reader);
                     break;
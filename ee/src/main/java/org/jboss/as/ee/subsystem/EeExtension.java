@@ -62,7 +62,7 @@ public class EeExtension implements Extension {
         final SubsystemRegistration subsystem = context.registerSubsystem(SUBSYSTEM_NAME, CURRENT_MODEL_VERSION);
 
         // Register the root subsystem resource.
-        final ManagementResourceRegistration rootResource = subsystem.registerSubsystemModel(EeSubsystemRootResource.create());
+        final ManagementResourceRegistration rootResource = subsystem.registerSubsystemModel(EeSubsystemRootResource.create(context.isRuntimeOnlyRegistrationValid()));
 
         // Mandatory describe operation
         rootResource.registerOperationHandler(GenericSubsystemDescribeHandler.DEFINITION, GenericSubsystemDescribeHandler.INSTANCE);
@@ -70,8 +70,8 @@ public class EeExtension implements Extension {
         // register submodels
         rootResource.registerSubModel(ContextServiceResourceDefinition.INSTANCE);
         rootResource.registerSubModel(ManagedThreadFactoryResourceDefinition.INSTANCE);
-        rootResource.registerSubModel(ManagedExecutorServiceResourceDefinition.INSTANCE);
-        rootResource.registerSubModel(ManagedScheduledExecutorServiceResourceDefinition.INSTANCE);
+        rootResource.registerSubModel(new ManagedExecutorServiceResourceDefinition(context.isRuntimeOnlyRegistrationValid()));
+        rootResource.registerSubModel(new ManagedScheduledExecutorServiceResourceDefinition(context.isRuntimeOnlyRegistrationValid()));
         rootResource.registerSubModel(new DefaultBindingsResourceDefinition(new DefaultBindingsConfigurationProcessor()));
 
         subsystem.registerXMLElementWriter(EESubsystemXmlPersister.INSTANCE);
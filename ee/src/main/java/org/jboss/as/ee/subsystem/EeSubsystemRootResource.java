@@ -76,12 +76,15 @@ public class EeSubsystemRootResource extends SimpleResourceDefinition {
     private final DescriptorPropertyReplacementProcessor jbossDescriptorPropertyReplacementProcessor = new DescriptorPropertyReplacementProcessor(Attachments.JBOSS_DESCRIPTOR_PROPERTY_REPLACEMENT);
     private final AnnotationPropertyReplacementProcessor annotationPropertyReplacementProcessor = new AnnotationPropertyReplacementProcessor(Attachments.ANNOTATION_PROPERTY_REPLACEMENT);
 
-    private EeSubsystemRootResource() {
+    private final boolean registerRuntimeOnly;
+
+    private EeSubsystemRootResource(boolean registerRuntimeOnly) {
         super(EeExtension.PATH_SUBSYSTEM,
                 EeExtension.getResourceDescriptionResolver(EeExtension.SUBSYSTEM_NAME),
                 null,
                 ReloadRequiredRemoveStepHandler.INSTANCE
         );
+        this.registerRuntimeOnly = registerRuntimeOnly;
     }
 
     @Override
@@ -96,9 +99,12 @@ public class EeSubsystemRootResource extends SimpleResourceDefinition {
         EeWriteAttributeHandler writeHandler = new EeWriteAttributeHandler(isolationProcessor, moduleDependencyProcessor,
                 specDescriptorPropertyReplacementProcessor, jbossDescriptorPropertyReplacementProcessor, annotationPropertyReplacementProcessor);
         writeHandler.registerAttributes(rootResourceRegistration);
+        if (registerRuntimeOnly) {
+            AnnotationProcessingStatisticsHandler.INSTANCE.registerMetrics(rootResourceRegistration);
+        }
     }
 
-    protected static EeSubsystemRootResource create(){
-        return new EeSubsystemRootResource();
+    protected static EeSubsystemRootResource create(boolean registerRuntimeOnly){
+        return new EeSubsystemRootResource(registerRuntimeOnly);
     }
 }
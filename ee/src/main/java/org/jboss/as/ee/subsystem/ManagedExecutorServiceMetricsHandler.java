@@ -0,0 +1,203 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ee.subsystem;
+
+import java.util.function.Function;
+
+import org.jboss.as.controller.AbstractRuntimeOnlyHandler;
+import org.jboss.as.controller.AttributeDefinition;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.SimpleAttributeDefinition;
+import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
+import org.jboss.as.controller.SimpleOperationDefinition;
+import org.jboss.as.controller.SimpleOperationDefinitionBuilder;
+import org.jboss.as.controller.StringListAttributeDefinition;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
+import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
+import org.jboss.as.controller.descriptions.ResourceDescriptionResolver;
+import org.jboss.as.controller.registry.AttributeAccess;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.as.ee.concurrent.ManagedExecutorRuntimeStats;
+import org.jboss.as.ee.concurrent.ManagedExecutorWithHungThreads;
+import org.jboss.as.ee.concurrent.service.ConcurrentServiceNames;
+import org.jboss.as.ee.concurrent.service.ManagedExecutorServiceService;
+import org.jboss.as.ee.concurrent.service.ManagedScheduledExecutorServiceService;
+import org.jboss.as.ee.logging.EeLogger;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+import org.jboss.msc.service.Service;
+import org.jboss.msc.service.ServiceController;
+import org.jboss.msc.service.ServiceName;
+
+/**
+ * Runtime handler for the metrics and the terminate-hung-tasks operation of managed executor services and managed
+ * scheduled executor services.
+ */
+class ManagedExecutorServiceMetricsHandler extends AbstractRuntimeOnlyHandler {
+
+    static final ManagedExecutorServiceMetricsHandler MANAGED_EXECUTOR_SERVICE = new ManagedExecutorServiceMetricsHandler(ConcurrentServiceNames::getManagedExecutorServiceServiceName);
+    static final ManagedExecutorServiceMetricsHandler MANAGED_SCHEDULED_EXECUTOR_SERVICE = new ManagedExecutorServiceMetricsHandler(ConcurrentServiceNames::getManagedScheduledExecutorServiceServiceName);
+
+    static final String TERMINATE_HUNG_TASKS = "terminate-hung-tasks";
+
+    static final SimpleAttributeDefinition THREAD_COUNT = metric("thread-count", ModelType.INT, null);
+    static final SimpleAttributeDefinition LARGEST_THREAD_COUNT = metric("largest-thread-count", ModelType.INT, null);
+    static final SimpleAttributeDefinition MAX_THREAD_COUNT = metric("max-thread-count", ModelType.INT, null);
+    static final SimpleAttributeDefinition ACTIVE_TASK_COUNT = metric("active-task-count", ModelType.INT, null);
+    static final SimpleAttributeDefinition CURRENT_QUEUE_SIZE = metric("current-queue-size", ModelType.INT, null);
+    static final SimpleAttributeDefinition TASK_COUNT = metric("task-count", ModelType.LONG, null);
+    static final SimpleAttributeDefinition COMPLETED_TASK_COUNT = metric("completed-task-count", ModelType.LONG, null);
+    static final SimpleAttributeDefinition HUNG_THREAD_COUNT = metric("hung-thread-count", ModelType.INT, null);
+    static final SimpleAttributeDefinition HUNG_TASKS_TERMINATED_COUNT = metric("hung-tasks-terminated-count", ModelType.LONG, null);
+    static final SimpleAttributeDefinition WAIT_TIME_AVERAGE = metric("wait-time-average", ModelType.LONG, MeasurementUnit.MICROSECONDS);
+    static final SimpleAttributeDefinition WAIT_TIME_MAX = metric("wait-time-max", ModelType.LONG, MeasurementUnit.MICROSECONDS);
+    static final SimpleAttributeDefinition WAIT_TIME_P99 = metric("wait-time-p99", ModelType.LONG, MeasurementUnit.MICROSECONDS);
+    static final SimpleAttributeDefinition EXECUTION_TIME_AVERAGE = metric("execution-time-average", ModelType.LONG, MeasurementUnit.MICROSECONDS);
+    static final SimpleAttributeDefinition EXECUTION_TIME_MAX = metric("execution-time-max", ModelType.LONG, MeasurementUnit.MICROSECONDS);
+    static final SimpleAttributeDefinition EXECUTION_TIME_P99 = metric("execution-time-p99", ModelType.LONG, MeasurementUnit.MICROSECONDS);
+
+    static final StringListAttributeDefinition HUNG_TASKS = new StringListAttributeDefinition.Builder("hung-tasks")
+            .setRequired(false)
+            .setStorageRuntime()
+            .build();
+
+    static final AttributeDefinition[] METRICS = {THREAD_COUNT, LARGEST_THREAD_COUNT, MAX_THREAD_COUNT, ACTIVE_TASK_COUNT, CURRENT_QUEUE_SIZE, TASK_COUNT, COMPLETED_TASK_COUNT, HUNG_THREAD_COUNT, HUNG_TASKS, HUNG_TASKS_TERMINATED_COUNT,
+            WAIT_TIME_AVERAGE, WAIT_TIME_MAX, WAIT_TIME_P99, EXECUTION_TIME_AVERAGE, EXECUTION_TIME_MAX, EXECUTION_TIME_P99};
+
+    private static SimpleAttributeDefinition metric(String name, ModelType type, MeasurementUnit unit) {
+        final SimpleAttributeDefinitionBuilder builder = new SimpleAttributeDefinitionBuilder(name, type)
+                .setUndefinedMetricValue(new ModelNode(0))
+                .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME);
+        if (unit != null) {
+            builder.setMeasurementUnit(unit);
+        }
+        return builder.build();
+    }
+
+    private final Function<String, ServiceName> serviceNameFunction;
+
+    private ManagedExecutorServiceMetricsHandler(Function<String, ServiceName> serviceNameFunction) {
+        this.serviceNameFunction = serviceNameFunction;
+    }
+
+    void registerMetrics(ManagementResourceRegistration resourceRegistration) {
+        for (AttributeDefinition metric : METRICS) {
+            resourceRegistration.registerMetric(metric, this);
+        }
+    }
+
+    void registerOperations(ManagementResourceRegistration resourceRegistration, ResourceDescriptionResolver resolver) {
+        final SimpleOperationDefinition terminateHungTasks = new SimpleOperationDefinitionBuilder(TERMINATE_HUNG_TASKS, resolver)
+                .setReplyType(ModelType.INT)
+                .setRuntimeOnly()
+                .build();
+        resourceRegistration.registerOperationHandler(terminateHungTasks, this);
+    }
+
+    @Override
+    protected void executeRuntimeStep(OperationContext context, ModelNode operation) throws OperationFailedException {
+        final ManagedExecutorWithHungThreads executor = getExecutor(context);
+        if (TERMINATE_HUNG_TASKS.equals(operation.require(ModelDescriptionConstants.OP).asString())) {
+            context.getResult().set(executor != null ? executor.terminateHungTasks() : 0);
+            return;
+        }
+        if (executor == null) {
+            // the executor is not started, leave the metric undefined
+            return;
+        }
+        final ManagedExecutorRuntimeStats stats = executor.getRuntimeStats();
+        final String attributeName = operation.require(ModelDescriptionConstants.NAME).asString();
+        final ModelNode result = context.getResult();
+        switch (attributeName) {
+            case "thread-count":
+                result.set(stats.getThreadCount());
+                break;
+            case "largest-thread-count":
+                result.set(stats.getLargestThreadCount());
+                break;
+            case "max-thread-count":
+                result.set(stats.getMaxThreadCount());
+                break;
+            case "active-task-count":
+                result.set(stats.getActiveTaskCount());
+                break;
+            case "current-queue-size":
+                result.set(stats.getQueueSize());
+                break;
+            case "task-count":
+                result.set(stats.getTaskCount());
+                break;
+            case "completed-task-count":
+                result.set(stats.getCompletedTaskCount());
+                break;
+            case "hung-thread-count":
+                result.set(stats.getHungTasks().size());
+                break;
+            case "hung-tasks":
+                result.setEmptyList();
+                for (String hungTask : stats.getHungTasks()) {
+                    result.add(hungTask);
+                }
+                break;
+            case "hung-tasks-terminated-count":
+                result.set(stats.getHungTasksTerminatedCount());
+                break;
+            case "wait-time-average":
+                result.set(stats.getWaitTimeAverage());
+                break;
+            case "wait-time-max":
+                result.set(stats.getWaitTimeMax());
+                break;
+            case "wait-time-p99":
+                result.set(stats.getWaitTimeP99());
+                break;
+            case "execution-time-average":
+                result.set(stats.getExecutionTimeAverage());
+                break;
+            case "execution-time-max":
+                result.set(stats.getExecutionTimeMax());
+                break;
+            case "execution-time-p99":
+                result.set(stats.getExecutionTimeP99());
+                break;
+            default:
+                throw EeLogger.ROOT_LOGGER.unknownMetric(attributeName);
+        }
+    }
+
+    private ManagedExecutorWithHungThreads getExecutor(OperationContext context) {
+        final ServiceController<?> controller = context.getServiceRegistry(false).getService(serviceNameFunction.apply(context.getCurrentAddressValue()));
+        if (controller == null) {
+            return null;
+        }
+        final Service<?> service = controller.getService();
+        if (service instanceof ManagedExecutorServiceService) {
+            return ((ManagedExecutorServiceService) service).getExecutorService();
+        }
+        if (service instanceof ManagedScheduledExecutorServiceService) {
+            return ((ManagedScheduledExecutorServiceService) service).getExecutorService();
+        }
+        return null;
+    }
+}
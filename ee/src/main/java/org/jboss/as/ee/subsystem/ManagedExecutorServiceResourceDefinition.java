@@ -40,6 +40,7 @@ import org.jboss.as.controller.operations.validation.StringLengthValidator;
 import org.jboss.as.controller.registry.AttributeAccess;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.as.controller.registry.Resource;
+import org.jboss.as.controller.transform.description.DiscardAttributeChecker;
 import org.jboss.as.controller.transform.description.RejectAttributeChecker;
 import org.jboss.as.controller.transform.description.ResourceTransformationDescriptionBuilder;
 import org.jboss.as.ee.logging.EeLogger;
@@ -55,12 +56,14 @@ public class ManagedExecutorServiceResourceDefinition extends SimpleResourceDefi
     public static final String CONTEXT_SERVICE = "context-service";
     public static final String THREAD_FACTORY = "thread-factory";
     public static final String HUNG_TASK_THRESHOLD = "hung-task-threshold";
+    public static final String HUNG_TASK_TERMINATION_PERIOD = "hung-task-termination-period";
     public static final String LONG_RUNNING_TASKS = "long-running-tasks";
     public static final String CORE_THREADS = "core-threads";
     public static final String MAX_THREADS = "max-threads";
     public static final String KEEPALIVE_TIME = "keepalive-time";
     public static final String QUEUE_LENGTH = "queue-length";
     public static final String REJECT_POLICY = "reject-policy";
+    public static final String VIRTUAL_THREADS = "virtual-threads";
 
     public static final SimpleAttributeDefinition JNDI_NAME_AD =
             new SimpleAttributeDefinitionBuilder(JNDI_NAME, ModelType.STRING, false)
@@ -91,6 +94,15 @@ public class ManagedExecutorServiceResourceDefinition extends SimpleResourceDefi
                     .setFlags(AttributeAccess.Flag.RESTART_RESOURCE_SERVICES)
                     .build();
 
+    public static final SimpleAttributeDefinition HUNG_TASK_TERMINATION_PERIOD_AD =
+            new SimpleAttributeDefinitionBuilder(HUNG_TASK_TERMINATION_PERIOD, ModelType.LONG, true)
+                    .setAllowExpression(true)
+                    .setValidator(new LongRangeValidator(0, Long.MAX_VALUE, true, true))
+                    .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
+                    .setDefaultValue(new ModelNode(0))
+                    .setFlags(AttributeAccess.Flag.RESTART_RESOURCE_SERVICES)
+                    .build();
+
     public static final SimpleAttributeDefinition LONG_RUNNING_TASKS_AD =
             new SimpleAttributeDefinitionBuilder(LONG_RUNNING_TASKS, ModelType.BOOLEAN, true)
                     .setAllowExpression(true)
@@ -136,13 +148,22 @@ public class ManagedExecutorServiceResourceDefinition extends SimpleResourceDefi
                     .setValidator(EnumValidator.create(AbstractManagedExecutorService.RejectPolicy.class, true, true))
                     .build();
 
+    public static final SimpleAttributeDefinition VIRTUAL_THREADS_AD =
+            new SimpleAttributeDefinitionBuilder(VIRTUAL_THREADS, ModelType.BOOLEAN, true)
+                    .setAllowExpression(true)
+                    .setDefaultValue(new ModelNode(false))
+                    .setFlags(AttributeAccess.Flag.RESTART_RESOURCE_SERVICES)
+                    .build();
 
-    static final SimpleAttributeDefinition[] ATTRIBUTES = {JNDI_NAME_AD, CONTEXT_SERVICE_AD, THREAD_FACTORY_AD, HUNG_TASK_THRESHOLD_AD, LONG_RUNNING_TASKS_AD, CORE_THREADS_AD, MAX_THREADS_AD, KEEPALIVE_TIME_AD, QUEUE_LENGTH_AD, REJECT_POLICY_AD};
+    static final SimpleAttributeDefinition[] ATTRIBUTES = {JNDI_NAME_AD, CONTEXT_SERVICE_AD, THREAD_FACTORY_AD, HUNG_TASK_THRESHOLD_AD, HUNG_TASK_TERMINATION_PERIOD_AD, LONG_RUNNING_TASKS_AD, CORE_THREADS_AD, MAX_THREADS_AD, KEEPALIVE_TIME_AD, QUEUE_LENGTH_AD, REJECT_POLICY_AD, VIRTUAL_THREADS_AD};
 
-    public static final ManagedExecutorServiceResourceDefinition INSTANCE = new ManagedExecutorServiceResourceDefinition();
+    public static final ManagedExecutorServiceResourceDefinition INSTANCE = new ManagedExecutorServiceResourceDefinition(false);
 
-    private ManagedExecutorServiceResourceDefinition() {
+    private final boolean registerRuntimeOnly;
+
+    ManagedExecutorServiceResourceDefinition(boolean registerRuntimeOnly) {
         super(PathElement.pathElement(EESubsystemModel.MANAGED_EXECUTOR_SERVICE), EeExtension.getResourceDescriptionResolver(EESubsystemModel.MANAGED_EXECUTOR_SERVICE), ManagedExecutorServiceAdd.INSTANCE, ManagedExecutorServiceRemove.INSTANCE);
+        this.registerRuntimeOnly = registerRuntimeOnly;
     }
 
     @Override
@@ -151,6 +172,17 @@ public class ManagedExecutorServiceResourceDefinition extends SimpleResourceDefi
         for (AttributeDefinition attr : ATTRIBUTES) {
             resourceRegistration.registerReadWriteAttribute(attr, null, writeHandler);
         }
+        if (registerRuntimeOnly) {
+            ManagedExecutorServiceMetricsHandler.MANAGED_EXECUTOR_SERVICE.registerMetrics(resourceRegistration);
+        }
+    }
+
+    @Override
+    public void registerOperations(ManagementResourceRegistration resourceRegistration) {
+        super.registerOperations(resourceRegistration);
+        if (registerRuntimeOnly) {
+            ManagedExecutorServiceMetricsHandler.MANAGED_EXECUTOR_SERVICE.registerOperations(resourceRegistration, getResourceDescriptionResolver());
+        }
     }
 
     void registerTransformers_4_0(final ResourceTransformationDescriptionBuilder builder) {
@@ -158,6 +190,10 @@ public class ManagedExecutorServiceResourceDefinition extends SimpleResourceDefi
         final ResourceTransformationDescriptionBuilder resourceBuilder = builder.addChildResource(pathElement);
         resourceBuilder.getAttributeBuilder()
                 .addRejectCheck(RejectAttributeChecker.UNDEFINED, CORE_THREADS_AD)
+                .setDiscard(new DiscardAttributeChecker.DiscardAttributeValueChecker(new ModelNode(0)), HUNG_TASK_TERMINATION_PERIOD_AD)
+                .addRejectCheck(RejectAttributeChecker.DEFINED, HUNG_TASK_TERMINATION_PERIOD_AD)
+                .setDiscard(new DiscardAttributeChecker.DiscardAttributeValueChecker(new ModelNode(false)), VIRTUAL_THREADS_AD)
+                .addRejectCheck(RejectAttributeChecker.DEFINED, VIRTUAL_THREADS_AD)
                 .end();
     }
 
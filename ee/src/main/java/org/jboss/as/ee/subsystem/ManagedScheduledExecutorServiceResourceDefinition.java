@@ -36,6 +36,7 @@ import org.jboss.as.controller.operations.validation.LongRangeValidator;
 import org.jboss.as.controller.operations.validation.StringLengthValidator;
 import org.jboss.as.controller.registry.AttributeAccess;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.as.controller.transform.description.DiscardAttributeChecker;
 import org.jboss.as.controller.transform.description.RejectAttributeChecker;
 import org.jboss.as.controller.transform.description.ResourceTransformationDescriptionBuilder;
 import org.jboss.dmr.ModelNode;
@@ -50,6 +51,7 @@ public class ManagedScheduledExecutorServiceResourceDefinition extends SimpleRes
     public static final String CONTEXT_SERVICE = "context-service";
     public static final String THREAD_FACTORY = "thread-factory";
     public static final String HUNG_TASK_THRESHOLD = "hung-task-threshold";
+    public static final String HUNG_TASK_TERMINATION_PERIOD = "hung-task-termination-period";
     public static final String LONG_RUNNING_TASKS = "long-running-tasks";
     public static final String CORE_THREADS = "core-threads";
     public static final String KEEPALIVE_TIME = "keepalive-time";
@@ -84,6 +86,15 @@ public class ManagedScheduledExecutorServiceResourceDefinition extends SimpleRes
                     .setFlags(AttributeAccess.Flag.RESTART_RESOURCE_SERVICES)
                     .build();
 
+    public static final SimpleAttributeDefinition HUNG_TASK_TERMINATION_PERIOD_AD =
+            new SimpleAttributeDefinitionBuilder(HUNG_TASK_TERMINATION_PERIOD, ModelType.LONG, true)
+                    .setAllowExpression(true)
+                    .setValidator(new LongRangeValidator(0, Long.MAX_VALUE, true, true))
+                    .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
+                    .setDefaultValue(new ModelNode(0))
+                    .setFlags(AttributeAccess.Flag.RESTART_RESOURCE_SERVICES)
+                    .build();
+
     public static final SimpleAttributeDefinition LONG_RUNNING_TASKS_AD =
             new SimpleAttributeDefinitionBuilder(LONG_RUNNING_TASKS, ModelType.BOOLEAN, true)
                     .setAllowExpression(true)
@@ -116,12 +127,15 @@ public class ManagedScheduledExecutorServiceResourceDefinition extends SimpleRes
                     .build();
 
 
-    static final SimpleAttributeDefinition[] ATTRIBUTES = {JNDI_NAME_AD, CONTEXT_SERVICE_AD, THREAD_FACTORY_AD, HUNG_TASK_THRESHOLD_AD, LONG_RUNNING_TASKS_AD, CORE_THREADS_AD, KEEPALIVE_TIME_AD, REJECT_POLICY_AD};
+    static final SimpleAttributeDefinition[] ATTRIBUTES = {JNDI_NAME_AD, CONTEXT_SERVICE_AD, THREAD_FACTORY_AD, HUNG_TASK_THRESHOLD_AD, HUNG_TASK_TERMINATION_PERIOD_AD, LONG_RUNNING_TASKS_AD, CORE_THREADS_AD, KEEPALIVE_TIME_AD, REJECT_POLICY_AD};
 
-    public static final ManagedScheduledExecutorServiceResourceDefinition INSTANCE = new ManagedScheduledExecutorServiceResourceDefinition();
+    public static final ManagedScheduledExecutorServiceResourceDefinition INSTANCE = new ManagedScheduledExecutorServiceResourceDefinition(false);
 
-    private ManagedScheduledExecutorServiceResourceDefinition() {
+    private final boolean registerRuntimeOnly;
+
+    ManagedScheduledExecutorServiceResourceDefinition(boolean registerRuntimeOnly) {
         super(PathElement.pathElement(EESubsystemModel.MANAGED_SCHEDULED_EXECUTOR_SERVICE), EeExtension.getResourceDescriptionResolver(EESubsystemModel.MANAGED_SCHEDULED_EXECUTOR_SERVICE), ManagedScheduledExecutorServiceAdd.INSTANCE, ManagedScheduledExecutorServiceRemove.INSTANCE);
+        this.registerRuntimeOnly = registerRuntimeOnly;
     }
 
     @Override
@@ -130,6 +144,17 @@ public class ManagedScheduledExecutorServiceResourceDefinition extends SimpleRes
         for (AttributeDefinition attr : ATTRIBUTES) {
             resourceRegistration.registerReadWriteAttribute(attr, null, writeHandler);
         }
+        if (registerRuntimeOnly) {
+            ManagedExecutorServiceMetricsHandler.MANAGED_SCHEDULED_EXECUTOR_SERVICE.registerMetrics(resourceRegistration);
+        }
+    }
+
+    @Override
+    public void registerOperations(ManagementResourceRegistration resourceRegistration) {
+        super.registerOperations(resourceRegistration);
+        if (registerRuntimeOnly) {
+            ManagedExecutorServiceMetricsHandler.MANAGED_SCHEDULED_EXECUTOR_SERVICE.registerOperations(resourceRegistration, getResourceDescriptionResolver());
+        }
     }
 
     void registerTransformers_4_0(final ResourceTransformationDescriptionBuilder builder) {
@@ -137,6 +162,8 @@ public class ManagedScheduledExecutorServiceResourceDefinition extends SimpleRes
         final ResourceTransformationDescriptionBuilder resourceBuilder = builder.addChildResource(pathElement);
         resourceBuilder.getAttributeBuilder()
                 .addRejectCheck(RejectAttributeChecker.UNDEFINED, CORE_THREADS_AD)
+                .setDiscard(new DiscardAttributeChecker.DiscardAttributeValueChecker(new ModelNode(0)), HUNG_TASK_TERMINATION_PERIOD_AD)
+                .addRejectCheck(RejectAttributeChecker.DEFINED, HUNG_TASK_TERMINATION_PERIOD_AD)
                 .end();
     }
 }
@@ -0,0 +1,74 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ee.component;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit test for {@link ComponentRegistry#isDescribed(Class)}.
+ */
+public class ComponentRegistryTestCase {
+
+    @Test
+    public void withoutModuleDescription() {
+        ComponentRegistry registry = new ComponentRegistry(null);
+
+        Assert.assertFalse(registry.isDescribed(Plain.class));
+    }
+
+    @Test
+    public void undescribed() {
+        ComponentRegistry registry = new ComponentRegistry(null, new EEModuleDescription("app", "module", null, false));
+
+        Assert.assertFalse(registry.isDescribed(Plain.class));
+        Assert.assertFalse(registry.isDescribed(Object.class));
+    }
+
+    @Test
+    public void classDescription() {
+        EEModuleDescription description = new EEModuleDescription("app", "module", null, false);
+        description.addOrGetLocalClassDescription(Plain.class.getName());
+        ComponentRegistry registry = new ComponentRegistry(null, description);
+
+        Assert.assertTrue(registry.isDescribed(Plain.class));
+        // Described via its superclass
+        Assert.assertTrue(registry.isDescribed(Extended.class));
+    }
+
+    @Test
+    public void resourceInjection() {
+        EEModuleDescription description = new EEModuleDescription("app", "module", null, false);
+        description.addResourceInjection(new ResourceInjectionConfiguration(new FieldInjectionTarget(Plain.class.getName(), "field", String.class.getName()), null));
+        ComponentRegistry registry = new ComponentRegistry(null, description);
+
+        Assert.assertTrue(registry.isDescribed(Plain.class));
+        Assert.assertTrue(registry.isDescribed(Extended.class));
+    }
+
+    public static class Plain {
+    }
+
+    public static class Extended extends Plain {
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ee.concurrent;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.glassfish.enterprise.concurrent.AbstractManagedExecutorService;
+import org.glassfish.enterprise.concurrent.ManagedThreadFactoryImpl;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit test for the runtime statistics and hung task termination of {@link ManagedExecutorServiceImpl}.
+ */
+public class ManagedExecutorServiceImplTestCase {
+
+    private static final long HUNG_TASK_THRESHOLD = 100L;
+
+    private final ManagedExecutorServiceImpl executorService = new ManagedExecutorServiceImpl("test", new ManagedThreadFactoryImpl("test"), HUNG_TASK_THRESHOLD, false, 1, 1, 0L, TimeUnit.MILLISECONDS, 0L, 10, null, AbstractManagedExecutorService.RejectPolicy.ABORT, null);
+
+    @After
+    public void tearDown() {
+        this.executorService.shutdownNow();
+        this.executorService.getManagedThreadFactory().stop();
+    }
+
+    @Test
+    public void completedTasks() throws Exception {
+        this.executorService.submit(() -> null).get(10, TimeUnit.SECONDS);
+        this.executorService.submit(() -> { }).get(10, TimeUnit.SECONDS);
+
+        ManagedExecutorRuntimeStats stats = this.executorService.getRuntimeStats();
+        Assert.assertEquals(2, stats.getTaskCount());
+        Assert.assertEquals(2, stats.getCompletedTaskCount());
+        Assert.assertEquals(0, stats.getActiveTaskCount());
+        Assert.assertEquals(1, stats.getMaxThreadCount());
+        Assert.assertTrue(stats.getExecutionTimeMax() >= stats.getExecutionTimeAverage());
+        Assert.assertTrue(stats.getHungTasks().isEmpty());
+    }
+
+    @Test
+    public void rejectedTasksAreNotCounted() {
+        this.executorService.shutdown();
+        try {
+            this.executorService.submit(() -> null);
+            Assert.fail();
+        } catch (RejectedExecutionException e) {
+            // Expected
+        }
+
+        Assert.assertEquals(0, this.executorService.getRuntimeStats().getTaskCount());
+    }
+
+    @Test
+    public void terminateHungTasks() throws Exception {
+        CountDownLatch interrupted = new CountDownLatch(1);
+        Future<?> future = this.executorService.submit(() -> awaitInterrupt(interrupted));
+
+        awaitHungTask();
+        Assert.assertEquals(1, this.executorService.terminateHungTasks());
+        Assert.assertTrue(interrupted.await(10, TimeUnit.SECONDS));
+        future.get(10, TimeUnit.SECONDS);
+
+        Assert.assertEquals(1, this.executorService.getRuntimeStats().getHungTasksTerminatedCount());
+    }
+
+    @Test
+    public void periodicallyTerminateHungTasks() throws Exception {
+        CountDownLatch interrupted = new CountDownLatch(1);
+        this.executorService.submit(() -> awaitInterrupt(interrupted));
+
+        Future<?> termination = ManagedExecutorHungTasksPeriodicTermination.startHungTaskPeriodicTermination(this.executorService, 50L);
+        try {
+            Assert.assertTrue(ManagedExecutorHungTasksPeriodicTermination.isTimerActive());
+            Assert.assertTrue(interrupted.await(10, TimeUnit.SECONDS));
+        } finally {
+            ManagedExecutorHungTasksPeriodicTermination.stopHungTaskPeriodicTermination(termination);
+        }
+
+        Assert.assertTrue(termination.isCancelled());
+        Assert.assertFalse(ManagedExecutorHungTasksPeriodicTermination.isTimerActive());
+        Assert.assertTrue(this.executorService.getRuntimeStats().getHungTasksTerminatedCount() >= 1);
+    }
+
+    private void awaitHungTask() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(10);
+        while (this.executorService.getRuntimeStats().getHungTasks().isEmpty()) {
+            Assert.assertTrue(System.currentTimeMillis() < deadline);
+            Thread.sleep(HUNG_TASK_THRESHOLD / 2);
+        }
+    }
+
+    private static void awaitInterrupt(CountDownLatch interrupted) {
+        try {
+            Thread.sleep(TimeUnit.MINUTES.toMillis(1));
+        } catch (InterruptedException e) {
+            interrupted.countDown();
+        }
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ee.concurrent;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.glassfish.enterprise.concurrent.AbstractManagedExecutorService;
+import org.glassfish.enterprise.concurrent.ManagedThreadFactoryImpl;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit test for the runtime statistics of {@link ManagedScheduledExecutorServiceImpl}.
+ */
+public class ManagedScheduledExecutorServiceImplTestCase {
+
+    private final ManagedScheduledExecutorServiceImpl executorService = new ManagedScheduledExecutorServiceImpl("test", new ManagedThreadFactoryImpl("test"), 0L, false, 1, 0L, TimeUnit.MILLISECONDS, 0L, null, AbstractManagedExecutorService.RejectPolicy.ABORT, null);
+
+    @After
+    public void tearDown() {
+        this.executorService.shutdownNow();
+        this.executorService.getManagedThreadFactory().stop();
+    }
+
+    @Test
+    public void periodicTasks() throws Exception {
+        CountDownLatch runs = new CountDownLatch(3);
+        ScheduledFuture<?> future = this.executorService.scheduleAtFixedRate(runs::countDown, 0L, 10L, TimeUnit.MILLISECONDS);
+        try {
+            Assert.assertTrue(runs.await(10, TimeUnit.SECONDS));
+        } finally {
+            future.cancel(false);
+        }
+        this.awaitIdle();
+
+        ManagedExecutorRuntimeStats stats = this.executorService.getRuntimeStats();
+        Assert.assertTrue(stats.getCompletedTaskCount() >= 3);
+        Assert.assertEquals(stats.getCompletedTaskCount(), stats.getTaskCount());
+    }
+
+    @Test
+    public void delayedTasks() throws Exception {
+        this.executorService.schedule(() -> null, 10L, TimeUnit.MILLISECONDS).get(10, TimeUnit.SECONDS);
+        this.awaitIdle();
+
+        ManagedExecutorRuntimeStats stats = this.executorService.getRuntimeStats();
+        Assert.assertEquals(1, stats.getTaskCount());
+        Assert.assertEquals(1, stats.getCompletedTaskCount());
+    }
+
+    private void awaitIdle() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(10);
+        while (this.executorService.getRuntimeStats().getActiveTaskCount() > 0) {
+            Assert.assertTrue(System.currentTimeMillis() < deadline);
+            Thread.sleep(10L);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ee.concurrent;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit test for {@link TaskTimeHistogram}.
+ */
+public class TaskTimeHistogramTestCase {
+
+    @Test
+    public void empty() {
+        TaskTimeHistogram histogram = new TaskTimeHistogram();
+
+        Assert.assertEquals(0, histogram.getCount());
+        Assert.assertEquals(0, histogram.getAverage());
+        Assert.assertEquals(0, histogram.getMax());
+        Assert.assertEquals(0, histogram.getPercentile(0.99));
+    }
+
+    @Test
+    public void record() {
+        TaskTimeHistogram histogram = new TaskTimeHistogram();
+        for (int i = 0; i < 99; ++i) {
+            histogram.record(TimeUnit.MICROSECONDS.toNanos(10));
+        }
+        histogram.record(TimeUnit.MICROSECONDS.toNanos(1000));
+
+        Assert.assertEquals(100, histogram.getCount());
+        Assert.assertEquals((99 * 10 + 1000) / 100, histogram.getAverage());
+        Assert.assertEquals(1000, histogram.getMax());
+        // 10 is in the [8, 16) bucket
+        Assert.assertEquals(15, histogram.getPercentile(0.99));
+        // the upper bound of the [512, 1024) bucket is capped by the max
+        Assert.assertEquals(1000, histogram.getPercentile(1.0));
+    }
+
+    @Test
+    public void negativeTimesAreZero() {
+        TaskTimeHistogram histogram = new TaskTimeHistogram();
+        histogram.record(-1L);
+
+        Assert.assertEquals(1, histogram.getCount());
+        Assert.assertEquals(0, histogram.getMax());
+        Assert.assertEquals(0, histogram.getPercentile(0.5));
+    }
+}
@@ -0,0 +1,193 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ee.concurrent;
+
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import javax.enterprise.concurrent.ManagedExecutorService;
+import javax.enterprise.concurrent.ManagedTask;
+import javax.enterprise.concurrent.ManagedTaskListener;
+
+import org.glassfish.enterprise.concurrent.AbstractManagedExecutorService;
+import org.glassfish.enterprise.concurrent.ManagedThreadFactoryImpl;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit test for {@link VirtualThreadManagedExecutorServiceImpl}, run with a regular task executor in place of the
+ * virtual thread one, which the test JVM may not support.
+ */
+public class VirtualThreadManagedExecutorServiceImplTestCase {
+
+    private ExecutorService taskExecutor;
+    private VirtualThreadManagedExecutorServiceImpl executorService;
+
+    @Before
+    public void setUp() {
+        this.taskExecutor = Executors.newSingleThreadExecutor(task -> new Thread(task, "task-executor"));
+        this.executorService = new VirtualThreadManagedExecutorServiceImpl("test", new ManagedThreadFactoryImpl("test"), 0L, false, null, AbstractManagedExecutorService.RejectPolicy.ABORT, null, this.taskExecutor);
+    }
+
+    @After
+    public void tearDown() {
+        this.executorService.shutdownNow();
+        this.executorService.getManagedThreadFactory().stop();
+    }
+
+    @Test
+    public void runsOnTaskExecutor() throws Exception {
+        Future<String> future = this.executorService.submit(() -> Thread.currentThread().getName());
+
+        Assert.assertEquals("task-executor", future.get(10, TimeUnit.SECONDS));
+        Assert.assertEquals(0, ((ThreadPoolExecutor) this.executorService.getThreadPoolExecutor()).getLargestPoolSize());
+    }
+
+    @Test
+    public void cancelNotifiesAbort() throws Exception {
+        CountDownLatch blocked = new CountDownLatch(1);
+        this.taskExecutor.execute(() -> {
+            try {
+                blocked.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        RecordingTaskListener listener = new RecordingTaskListener();
+        ListenedTask task = new ListenedTask(listener);
+        try {
+            Future<?> future = this.executorService.submit(task);
+            Assert.assertTrue(future.cancel(false));
+        } finally {
+            blocked.countDown();
+        }
+
+        Assert.assertTrue(listener.aborted instanceof CancellationException);
+        Assert.assertSame(listener.aborted, listener.done);
+        Assert.assertSame(task, listener.task);
+        Assert.assertFalse(task.ran);
+    }
+
+    @Test
+    public void rejectionNotifiesAbort() {
+        this.taskExecutor.shutdown();
+        RecordingTaskListener listener = new RecordingTaskListener();
+        ListenedTask task = new ListenedTask(listener);
+        try {
+            this.executorService.submit(task);
+            Assert.fail();
+        } catch (RejectedExecutionException e) {
+            Assert.assertSame(e, listener.aborted);
+            Assert.assertSame(e, listener.done);
+        }
+        Assert.assertFalse(task.ran);
+    }
+
+    @Test
+    public void completionNotifiesDone() throws Exception {
+        RecordingTaskListener listener = new RecordingTaskListener();
+        ListenedTask task = new ListenedTask(listener);
+        this.executorService.submit(task).get(10, TimeUnit.SECONDS);
+
+        Assert.assertTrue(task.ran);
+        Assert.assertTrue(listener.starting);
+        Assert.assertNull(listener.aborted);
+        Assert.assertTrue(listener.doneCalled.await(10, TimeUnit.SECONDS));
+        Assert.assertNull(listener.done);
+    }
+
+    @Test
+    public void createTaskExecutor() throws Exception {
+        ExecutorService executor = VirtualThreadManagedExecutorServiceImpl.createTaskExecutor("test");
+        // null unless the JVM supports virtual threads
+        if (executor != null) {
+            try {
+                Assert.assertTrue(executor.submit(() -> Thread.currentThread().getName()).get(10, TimeUnit.SECONDS).startsWith("test-"));
+            } finally {
+                executor.shutdown();
+            }
+        }
+    }
+
+    private static class ListenedTask implements Runnable, ManagedTask {
+        private final ManagedTaskListener listener;
+        volatile boolean ran;
+
+        ListenedTask(ManagedTaskListener listener) {
+            this.listener = listener;
+        }
+
+        @Override
+        public void run() {
+            this.ran = true;
+        }
+
+        @Override
+        public ManagedTaskListener getManagedTaskListener() {
+            return this.listener;
+        }
+
+        @Override
+        public Map<String, String> getExecutionProperties() {
+            return null;
+        }
+    }
+
+    private static class RecordingTaskListener implements ManagedTaskListener {
+        final CountDownLatch doneCalled = new CountDownLatch(1);
+        volatile Object task;
+        volatile boolean starting;
+        volatile Throwable aborted;
+        volatile Throwable done;
+
+        @Override
+        public void taskSubmitted(Future<?> future, ManagedExecutorService executor, Object task) {
+            this.task = task;
+        }
+
+        @Override
+        public void taskAborted(Future<?> future, ManagedExecutorService executor, Object task, Throwable exception) {
+            this.aborted = exception;
+        }
+
+        @Override
+        public void taskDone(Future<?> future, ManagedExecutorService executor, Object task, Throwable exception) {
+            this.done = exception;
+            this.doneCalled.countDown();
+        }
+
+        @Override
+        public void taskStarting(Future<?> future, ManagedExecutorService executor, Object task) {
+            this.starting = true;
+        }
+    }
+}
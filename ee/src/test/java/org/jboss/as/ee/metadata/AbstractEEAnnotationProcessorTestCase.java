@@ -0,0 +1,103 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ee.metadata;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.server.deployment.DeploymentUnitProcessingException;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit test for the concurrent evaluation of annotation information factories by {@link AbstractEEAnnotationProcessor}.
+ */
+public class AbstractEEAnnotationProcessorTestCase {
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    @After
+    public void destroy() {
+        this.executor.shutdownNow();
+    }
+
+    @Test
+    public void preservesTaskOrder() throws Exception {
+        // Earlier tasks take longer, so results are unlikely to complete in task order
+        List<Callable<Integer>> tasks = new ArrayList<>();
+        for (int i = 0; i < 3; ++i) {
+            int result = i;
+            tasks.add(() -> {
+                TimeUnit.MILLISECONDS.sleep(30 * (2 - result));
+                return result;
+            });
+        }
+
+        Assert.assertEquals(Arrays.asList(0, 1, 2), AbstractEEAnnotationProcessor.invokeAll(this.executor, tasks));
+    }
+
+    @Test
+    public void rethrowsRuntimeException() throws Exception {
+        List<Callable<Integer>> tasks = Arrays.asList(() -> 1, () -> {
+            throw new IllegalStateException();
+        });
+        try {
+            AbstractEEAnnotationProcessor.invokeAll(this.executor, tasks);
+            Assert.fail();
+        } catch (IllegalStateException e) {
+            // Expected
+        }
+    }
+
+    @Test
+    public void wrapsCheckedException() {
+        List<Callable<Integer>> tasks = Arrays.asList(() -> {
+            throw new IOException();
+        }, () -> 2);
+        try {
+            AbstractEEAnnotationProcessor.invokeAll(this.executor, tasks);
+            Assert.fail();
+        } catch (DeploymentUnitProcessingException e) {
+            Assert.assertTrue(e.getCause() instanceof IOException);
+        }
+    }
+
+    @Test
+    public void recordsStatistics() {
+        String processor = this.getClass().getName();
+        AnnotationProcessingStatistics.record(processor, TimeUnit.MICROSECONDS.toNanos(300));
+        AnnotationProcessingStatistics.record(processor, TimeUnit.MICROSECONDS.toNanos(100));
+
+        AnnotationProcessingStatistics.ProcessorStatistics statistics = AnnotationProcessingStatistics.getProcessors().get(processor);
+        Assert.assertEquals(2, statistics.getInvocationCount());
+        Assert.assertEquals(400, statistics.getTotalTime(TimeUnit.MICROSECONDS));
+        Assert.assertEquals(300, statistics.getMaxTime(TimeUnit.MICROSECONDS));
+    }
+}
@@ -94,6 +94,41 @@ public interface Cache<K, V extends Identifiable<K>> extends AffinitySupport<K>,
 
     int getTotalSize();
 
+    /**
+     * Returns the number of bean groups evicted from memory by passivation.
+     */
+    default long getEvictedGroupCount() {
+        return 0;
+    }
+
+    /**
+     * Returns the number of batches in which bean groups were evicted from memory.
+     */
+    default long getEvictionBatchCount() {
+        return 0;
+    }
+
+    /**
+     * Returns the largest number of bean groups evicted from memory in a single batch.
+     */
+    default long getMaxEvictionBatchSize() {
+        return 0;
+    }
+
+    /**
+     * Returns the average time, in milliseconds, taken to evict a batch of bean groups.
+     */
+    default long getAverageEvictionTime() {
+        return 0;
+    }
+
+    /**
+     * Returns the maximum time, in milliseconds, taken to evict a batch of bean groups.
+     */
+    default long getMaxEvictionTime() {
+        return 0;
+    }
+
     /**
      * Checks whether the supplied {@link Throwable} is remotable meaning it can be safely sent to the client over the wire.
      */
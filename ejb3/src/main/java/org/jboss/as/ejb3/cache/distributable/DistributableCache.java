@@ -204,6 +204,31 @@ public class DistributableCache<K, V extends Identifiable<K> & Contextual<Batch>
         return this.manager.getActiveCount() + this.manager.getPassiveCount();
     }
 
+    @Override
+    public long getEvictedGroupCount() {
+        return this.manager.getEvictedGroupCount();
+    }
+
+    @Override
+    public long getEvictionBatchCount() {
+        return this.manager.getEvictionBatchCount();
+    }
+
+    @Override
+    public long getMaxEvictionBatchSize() {
+        return this.manager.getMaxEvictionBatchSize();
+    }
+
+    @Override
+    public long getAverageEvictionTime() {
+        return this.manager.getAverageEvictionTime();
+    }
+
+    @Override
+    public long getMaxEvictionTime() {
+        return this.manager.getMaxEvictionTime();
+    }
+
     @Override
     public boolean isRemotable(Throwable throwable) {
         return this.manager.isRemotable(throwable);
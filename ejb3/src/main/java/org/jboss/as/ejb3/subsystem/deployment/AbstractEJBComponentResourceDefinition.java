@@ -34,6 +34,7 @@ import org.jboss.as.controller.PrimitiveListAttributeDefinition;
 import org.jboss.as.controller.SimpleAttributeDefinition;
 import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
 import org.jboss.as.controller.SimpleResourceDefinition;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
 import org.jboss.as.controller.operations.validation.StringLengthValidator;
 import org.jboss.as.controller.registry.AttributeAccess;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
@@ -112,6 +113,33 @@ public abstract class AbstractEJBComponentResourceDefinition extends SimpleResou
             .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME)
             .build();
 
+    private static final AttributeDefinition PASSIVATION_EVICTED_GROUP_COUNT = new SimpleAttributeDefinitionBuilder("passivation-evicted-group-count", ModelType.LONG)
+            .setUndefinedMetricValue(new ModelNode(0))
+            .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME)
+            .build();
+
+    private static final AttributeDefinition PASSIVATION_BATCH_COUNT = new SimpleAttributeDefinitionBuilder("passivation-batch-count", ModelType.LONG)
+            .setUndefinedMetricValue(new ModelNode(0))
+            .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME)
+            .build();
+
+    private static final AttributeDefinition PASSIVATION_MAX_BATCH_SIZE = new SimpleAttributeDefinitionBuilder("passivation-max-batch-size", ModelType.LONG)
+            .setUndefinedMetricValue(new ModelNode(0))
+            .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME)
+            .build();
+
+    private static final AttributeDefinition PASSIVATION_AVERAGE_TIME = new SimpleAttributeDefinitionBuilder("passivation-average-time", ModelType.LONG)
+            .setUndefinedMetricValue(new ModelNode(0))
+            .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
+            .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME)
+            .build();
+
+    private static final AttributeDefinition PASSIVATION_MAX_TIME = new SimpleAttributeDefinitionBuilder("passivation-max-time", ModelType.LONG)
+            .setUndefinedMetricValue(new ModelNode(0))
+            .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
+            .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME)
+            .build();
+
     // Pool attributes
 
     public static final SimpleAttributeDefinition POOL_AVAILABLE_COUNT = new SimpleAttributeDefinitionBuilder("pool-available-count", ModelType.INT, false)
@@ -175,6 +203,36 @@ public abstract class AbstractEJBComponentResourceDefinition extends SimpleResou
                     context.getResult().set(((StatefulSessionComponent)component).getCache().getTotalSize());
                 }
             });
+            resourceRegistration.registerMetric(PASSIVATION_EVICTED_GROUP_COUNT, new AbstractRuntimeMetricsHandler() {
+                @Override
+                protected void executeReadMetricStep(final OperationContext context, final ModelNode operation, final EJBComponent component) throws OperationFailedException {
+                    context.getResult().set(((StatefulSessionComponent)component).getCache().getEvictedGroupCount());
+                }
+            });
+            resourceRegistration.registerMetric(PASSIVATION_BATCH_COUNT, new AbstractRuntimeMetricsHandler() {
+                @Override
+                protected void executeReadMetricStep(final OperationContext context, final ModelNode operation, final EJBComponent component) throws OperationFailedException {
+                    context.getResult().set(((StatefulSessionComponent)component).getCache().getEvictionBatchCount());
+                }
+            });
+            resourceRegistration.registerMetric(PASSIVATION_MAX_BATCH_SIZE, new AbstractRuntimeMetricsHandler() {
+                @Override
+                protected void executeReadMetricStep(final OperationContext context, final ModelNode operation, final EJBComponent component) throws OperationFailedException {
+                    context.getResult().set(((StatefulSessionComponent)component).getCache().getMaxEvictionBatchSize());
+                }
+            });
+            resourceRegistration.registerMetric(PASSIVATION_AVERAGE_TIME, new AbstractRuntimeMetricsHandler() {
+                @Override
+                protected void executeReadMetricStep(final OperationContext context, final ModelNode operation, final EJBComponent component) throws OperationFailedException {
+                    context.getResult().set(((StatefulSessionComponent)component).getCache().getAverageEvictionTime());
+                }
+            });
+            resourceRegistration.registerMetric(PASSIVATION_MAX_TIME, new AbstractRuntimeMetricsHandler() {
+                @Override
+                protected void executeReadMetricStep(final OperationContext context, final ModelNode operation, final EJBComponent component) throws OperationFailedException {
+                    context.getResult().set(((StatefulSessionComponent)component).getCache().getMaxEvictionTime());
+                }
+            });
         }
 
         resourceRegistration.registerMetric(EXECUTION_TIME, new AbstractRuntimeMetricsHandler() {
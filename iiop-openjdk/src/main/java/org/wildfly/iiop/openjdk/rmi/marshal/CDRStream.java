@@ -49,6 +49,59 @@ import org.wildfly.iiop.openjdk.rmi.RmiIdlUtil;
  * @author <a href="mailto:reverbel@ime.usp.br">Francisco Reverbel</a>
  */
 public class CDRStream {
+
+    // Readers and writers are stateless, so they are resolved once per class and shared by all strategies. A ClassValue
+    // does not prevent the class loader of a deployment from being collected.
+
+    private static final ClassValue<CDRStreamReader> READERS = new ClassValue<CDRStreamReader>() {
+        @Override
+        protected CDRStreamReader computeValue(Class<?> clz) {
+            return createReaderFor(clz);
+        }
+    };
+
+    private static final ClassValue<CDRStreamWriter> WRITERS = new ClassValue<CDRStreamWriter>() {
+        @Override
+        protected CDRStreamWriter computeValue(Class<?> clz) {
+            return createWriterFor(clz);
+        }
+    };
+
+    private static final ClassValue<CDRStreamReader> REMOTE_READERS = new ClassValue<CDRStreamReader>() {
+        @Override
+        protected CDRStreamReader computeValue(Class<?> clz) {
+            return new RemoteReader(clz);
+        }
+    };
+
+    private static final ClassValue<CDRStreamReader> IDL_INTERFACE_READERS = new ClassValue<CDRStreamReader>() {
+        @Override
+        protected CDRStreamReader computeValue(Class<?> clz) {
+            return new IdlInterfaceReader(clz);
+        }
+    };
+
+    private static final ClassValue<CDRStreamWriter> IDL_INTERFACE_WRITERS = new ClassValue<CDRStreamWriter>() {
+        @Override
+        protected CDRStreamWriter computeValue(Class<?> clz) {
+            return new IdlInterfaceWriter(clz);
+        }
+    };
+
+    private static final ClassValue<CDRStreamReader> VALUETYPE_READERS = new ClassValue<CDRStreamReader>() {
+        @Override
+        protected CDRStreamReader computeValue(Class<?> clz) {
+            return new ValuetypeReader(clz);
+        }
+    };
+
+    private static final ClassValue<CDRStreamWriter> VALUETYPE_WRITERS = new ClassValue<CDRStreamWriter>() {
+        @Override
+        protected CDRStreamWriter computeValue(Class<?> clz) {
+            return new ValuetypeWriter(clz);
+        }
+    };
+
     /**
      * Returns the abbreviated name of the marshaller for given
      * <code>Class</code>.
@@ -159,7 +212,7 @@ public class CDRStream {
                 try {
                     // Use Class.forName() (rather than cl.loadClass()), because
                     // Class.forName() loads Java array types (which are valuetypes).
-                    return new ValuetypeReader(Class.forName(s.substring(1),
+                    return VALUETYPE_READERS.get(Class.forName(s.substring(1),
                             true,
                             cl));
                 } catch (ClassNotFoundException e) {
@@ -169,7 +222,7 @@ public class CDRStream {
                 return CorbaObjectReader.instance;
             case 'N':
                 try {
-                    return new IdlInterfaceReader(cl.loadClass(s.substring(1)));
+                    return IDL_INTERFACE_READERS.get(cl.loadClass(s.substring(1)));
                 } catch (ClassNotFoundException e) {
                     throw IIOPLogger.ROOT_LOGGER.errorLoadingClass(s.substring(1), e);
                 }
@@ -177,7 +230,7 @@ public class CDRStream {
                 return ObjectReader.instance;
             case 'R':
                 try {
-                    return new RemoteReader(cl.loadClass(s.substring(1)));
+                    return REMOTE_READERS.get(cl.loadClass(s.substring(1)));
                 } catch (ClassNotFoundException e) {
                     throw IIOPLogger.ROOT_LOGGER.errorLoadingClass(s.substring(1), e);
                 }
@@ -223,7 +276,7 @@ public class CDRStream {
                 try {
                     // Use Class.forName() (rather than cl.loadClass()), because
                     // Class.forName() loads Java array types (which are valuetypes).
-                    return new ValuetypeWriter(Class.forName(s.substring(1),
+                    return VALUETYPE_WRITERS.get(Class.forName(s.substring(1),
                             true,
                             cl));
                 } catch (ClassNotFoundException e) {
@@ -233,7 +286,7 @@ public class CDRStream {
                 return CorbaObjectWriter.instance;
             case 'N':
                 try {
-                    return new IdlInterfaceWriter(cl.loadClass(s.substring(1)));
+                    return IDL_INTERFACE_WRITERS.get(cl.loadClass(s.substring(1)));
                 } catch (ClassNotFoundException e) {
                     throw IIOPLogger.ROOT_LOGGER.errorLoadingClass(s.substring(1), e);
                 }
@@ -258,6 +311,10 @@ public class CDRStream {
      * Returns the <code>CDRStreamReader</code> for a given <code>Class</code>.
      */
     public static CDRStreamReader readerFor(Class clz) {
+        return clz == Void.TYPE ? null : READERS.get(clz);
+    }
+
+    static CDRStreamReader createReaderFor(Class<?> clz) {
         if (clz == Boolean.TYPE) {
             return BooleanReader.instance;
         } else if (clz == Byte.TYPE) {
@@ -279,25 +336,25 @@ public class CDRStream {
         } else if (clz == String.class) {
             return StringReader.instance;
         } else if (RmiIdlUtil.isRMIIDLRemoteInterface(clz)) {
-            return new RemoteReader(clz);
+            return REMOTE_READERS.get(clz);
         } else if (clz == org.omg.CORBA.Object.class) {
             return CorbaObjectReader.instance;
         } else if (org.omg.CORBA.Object.class.isAssignableFrom(clz)) {
-            return new IdlInterfaceReader(clz);
+            return IDL_INTERFACE_READERS.get(clz);
         } else if (IDLEntity.class.isAssignableFrom(clz)) {
-            return new ValuetypeReader(clz);
+            return VALUETYPE_READERS.get(clz);
         } else if (clz == Serializable.class) {
             return SerializableReader.instance;
         } else if (RmiIdlUtil.isAbstractInterface(clz)) {
             return AbstractInterfaceReader.instance;
         } else if (Serializable.class.isAssignableFrom(clz)) {
-            return new ValuetypeReader(clz);
+            return VALUETYPE_READERS.get(clz);
         } else if (Externalizable.class.isAssignableFrom(clz)) {
             return ExternalizableReader.instance;
         } else if (clz == Object.class) {
             return ObjectReader.instance;
         } else {
-            return new ValuetypeReader(clz);
+            return VALUETYPE_READERS.get(clz);
         }
     }
 
@@ -305,6 +362,10 @@ public class CDRStream {
      * Returns the <code>CDRStreamWriter</code> for a given <code>Class</code>.
      */
     public static CDRStreamWriter writerFor(Class clz) {
+        return clz == Void.TYPE ? null : WRITERS.get(clz);
+    }
+
+    static CDRStreamWriter createWriterFor(Class<?> clz) {
         if (clz == Boolean.TYPE) {
             return BooleanWriter.instance;
         } else if (clz == Byte.TYPE) {
@@ -330,21 +391,21 @@ public class CDRStream {
         } else if (clz == org.omg.CORBA.Object.class) {
             return CorbaObjectWriter.instance;
         } else if (org.omg.CORBA.Object.class.isAssignableFrom(clz)) {
-            return new IdlInterfaceWriter(clz);
+            return IDL_INTERFACE_WRITERS.get(clz);
         } else if (IDLEntity.class.isAssignableFrom(clz)) {
-            return new ValuetypeWriter(clz);
+            return VALUETYPE_WRITERS.get(clz);
         } else if (clz == Serializable.class) {
             return SerializableWriter.instance;
         } else if (RmiIdlUtil.isAbstractInterface(clz)) {
             return AbstractInterfaceWriter.instance;
         } else if (Serializable.class.isAssignableFrom(clz)) {
-            return new ValuetypeWriter(clz);
+            return VALUETYPE_WRITERS.get(clz);
         } else if (Externalizable.class.isAssignableFrom(clz)) {
             return ExternalizableWriter.instance;
         } else if (clz == Object.class) {
             return ObjectWriter.instance;
         } else {
-            return new ValuetypeWriter(clz);
+            return VALUETYPE_WRITERS.get(clz);
         }
     }
 
@@ -102,7 +102,7 @@ public class SkeletonStrategy {
         int j = 0;
         for (int i = 0; i < len; i++) {
             if (!RemoteException.class.isAssignableFrom(excepTypes[i])) {
-                excepWriters[j++] = new ExceptionWriter(excepTypes[i]);
+                excepWriters[j++] = ExceptionWriter.WRITERS.get(excepTypes[i]);
             }
         }
         ExceptionWriter.arraysort(excepWriters);
@@ -176,10 +176,21 @@ public class SkeletonStrategy {
      */
     private static class ExceptionWriter
             implements CDRStreamWriter {
+        /**
+         * The writers depend only on the exception class, so they are shared
+         * by the strategies of all methods which declare the exception.
+         */
+        static final ClassValue<ExceptionWriter> WRITERS = new ClassValue<ExceptionWriter>() {
+            @Override
+            protected ExceptionWriter computeValue(Class<?> clz) {
+                return new ExceptionWriter(clz);
+            }
+        };
+
         /**
          * The exception class.
          */
-        private Class clz;
+        private final Class clz;
 
         /*
         * If the exception class corresponds to an IDL-defined exception, this
@@ -187,7 +198,7 @@ public class SkeletonStrategy {
         * A null value indicates that the exception class does not correspond
         * to an IDL-defined exception.
         */
-        private java.lang.reflect.Method writeMethod = null;
+        private final java.lang.reflect.Method writeMethod;
 
         /**
          * The CORBA repository id of the exception class. (This field is used
@@ -195,13 +206,13 @@ public class SkeletonStrategy {
          * exception. An IDL-generated helper class provides the repository id
          * of an IDL-defined exception.)
          */
-        private String reposId;
+        private final String reposId;
 
         /**
          * Constructs an <code>ExceptionWriter</code> for a given exception
          * class.
          */
-        ExceptionWriter(Class clz) {
+        private ExceptionWriter(Class clz) {
             this.clz = clz;
             if (IDLEntity.class.isAssignableFrom(clz)
                     && UserException.class.isAssignableFrom(clz)) {
@@ -213,7 +224,8 @@ public class SkeletonStrategy {
                             clz.getClassLoader().loadClass(helperClassName);
                     Class[] paramTypes =
                             {org.omg.CORBA.portable.OutputStream.class, clz};
-                    writeMethod = helperClass.getMethod("write", paramTypes);
+                    this.writeMethod = helperClass.getMethod("write", paramTypes);
+                    this.reposId = null;
                 } catch (ClassNotFoundException e) {
                     throw IIOPLogger.ROOT_LOGGER.errorLoadingClass(helperClassName, e);
                 } catch (NoSuchMethodException e) {
@@ -223,6 +235,7 @@ public class SkeletonStrategy {
             } else {
                 // This ExceptionWriter does not correspond to an IDL-defined
                 // exception
+                this.writeMethod = null;
                 try {
                     this.reposId = ExceptionAnalysis.getExceptionAnalysis(clz)
                             .getExceptionRepositoryId();
@@ -23,11 +23,6 @@ package org.wildfly.iiop.openjdk.rmi.marshal.strategy;
 
 import java.rmi.NoSuchObjectException;
 import java.rmi.Remote;
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.Iterator;
-import java.util.List;
-import java.util.Map;
 import java.rmi.UnexpectedException;
 
 import javax.rmi.PortableRemoteObject;
@@ -58,30 +53,32 @@ public class StubStrategy {
      * Each <code>CDRStreamWriter</code> in the array marshals a method
      * parameter.
      */
-    private CDRStreamWriter[] paramWriters;
+    private final CDRStreamWriter[] paramWriters;
 
     /**
-     * List of exception classes.
+     * The exception classes. A method declares few exceptions, so plain
+     * arrays are both smaller and faster to search than a map.
      */
-    private List<Class<?>> exceptionList;
+    private final Class<?>[] exceptionClasses;
 
     /**
-     * Maps exception repository ids into ExceptionReader instances.
+     * The <code>ExceptionReader</code>s of the exception classes, in the
+     * same order.
      */
-    private Map<String, ExceptionReader> exceptionMap;
+    private final ExceptionReader[] exceptionReaders;
 
     /**
      * A <code>CDRStreamReader</code> that unmarshals the return value of the
      * method.
      */
-    private CDRStreamReader retvalReader;
+    private final CDRStreamReader retvalReader;
 
     /**
      * If this <code>StubStrategy</code> is for a method that returns a
      * remote interface, this field contains the remote interface's
      * <code>Class</code>. Otherwise it contains null.
      */
-    private Class<?> retvalRemoteInterface;
+    private final Class<?> retvalRemoteInterface;
 
     /**
      * Returns an <code>StubStrategy</code> for a method, given descriptions
@@ -151,17 +148,15 @@ public class StubStrategy {
             paramWriters[i] = CDRStream.writerFor(paramTypes[i], cl);
         }
 
-        // Initialize exception list and exception map
-        exceptionList = new ArrayList<Class<?>>();
-        exceptionMap = new HashMap<String, ExceptionReader>();
+        // Initialize exception classes and readers
         len = excepIds.length;
+        exceptionClasses = new Class<?>[len];
+        exceptionReaders = new ExceptionReader[len];
         for (int i = 0; i < len; i++) {
             try {
                 Class<?> clz = cl.loadClass(excepTypes[i]);
-                exceptionList.add(clz);
-                ExceptionReader exceptionReader =
-                        new ExceptionReader(clz, excepIds[i]);
-                exceptionMap.put(exceptionReader.getReposId(), exceptionReader);
+                exceptionClasses[i] = clz;
+                exceptionReaders[i] = ExceptionReader.forClass(clz, excepIds[i]);
             } catch (ClassNotFoundException e) {
                 throw IIOPLogger.ROOT_LOGGER.errorLoadingClass(excepTypes[i], e);
             }
@@ -177,6 +172,8 @@ public class StubStrategy {
             } catch (ClassNotFoundException e) {
                 throw IIOPLogger.ROOT_LOGGER.errorLoadingClass(retvalType.substring(1), e);
             }
+        } else {
+            retvalRemoteInterface = null;
         }
     }
 
@@ -230,12 +227,12 @@ public class StubStrategy {
      * @return an exception unmarshaled from the stream.
      */
     public Exception readException(String id, InputStream in) {
-        ExceptionReader exceptionReader = (ExceptionReader) exceptionMap.get(id);
-        if (exceptionReader == null) {
-            return new UnexpectedException(id);
-        } else {
-            return exceptionReader.read(in);
+        for (ExceptionReader exceptionReader : exceptionReaders) {
+            if (exceptionReader.getReposId().equals(id)) {
+                return exceptionReader.read(in);
+            }
         }
+        return new UnexpectedException(id);
     }
 
     /**
@@ -248,9 +245,8 @@ public class StubStrategy {
      *         method, false otherwise.
      */
     public boolean isDeclaredException(Throwable t) {
-        Iterator<Class<?>> iterator = exceptionList.iterator();
-        while (iterator.hasNext()) {
-            if (((Class<?>) iterator.next()).isInstance(t)) {
+        for (Class<?> exceptionClass : exceptionClasses) {
+            if (exceptionClass.isInstance(t)) {
                 return true;
             }
         }
@@ -279,15 +275,26 @@ public class StubStrategy {
      * class from a CDR input stream.
      */
     private static class ExceptionReader {
+        /**
+         * The readers of IDL-defined exceptions, which do not depend on the
+         * repository id declared by the stub and are therefore shared.
+         */
+        private static final ClassValue<ExceptionReader> IDL_EXCEPTION_READERS = new ClassValue<ExceptionReader>() {
+            @Override
+            protected ExceptionReader computeValue(Class<?> clz) {
+                return new ExceptionReader(clz, null);
+            }
+        };
+
         /**
          * The exception class.
          */
-        private Class<?> clz;
+        private final Class<?> clz;
 
         /**
          * The CORBA repository id of the exception class.
          */
-        private String reposId;
+        private final String reposId;
 
         /*
         * If the exception class corresponds to an IDL-defined exception, this
@@ -295,23 +302,35 @@ public class StubStrategy {
         * A null value indicates that the exception class does not correspond
         * to an IDL-defined exception.
         */
-        private java.lang.reflect.Method readMethod = null;
+        private final java.lang.reflect.Method readMethod;
+
+        /**
+         * Returns an <code>ExceptionReader</code> for a given exception
+         * class.
+         */
+        static ExceptionReader forClass(Class<?> clz, String reposId) {
+            return isIdlException(clz) ? IDL_EXCEPTION_READERS.get(clz) : new ExceptionReader(clz, reposId);
+        }
+
+        private static boolean isIdlException(Class<?> clz) {
+            return IDLEntity.class.isAssignableFrom(clz)
+                    && UserException.class.isAssignableFrom(clz);
+        }
 
         /**
          * Constructs an <code>ExceptionReader</code> for a given exception
          * class.
          */
-        ExceptionReader(Class<?> clz, String reposId) {
+        private ExceptionReader(Class<?> clz, String reposId) {
             this.clz = clz;
-            if (IDLEntity.class.isAssignableFrom(clz)
-                    && UserException.class.isAssignableFrom(clz)) {
+            if (isIdlException(clz)) {
 
                 // This ExceptionReader corresponds to an IDL-defined exception
                 String helperClassName = clz.getName() + "Helper";
                 try {
                     Class<?> helperClass = clz.getClassLoader().loadClass(helperClassName);
                     Class<?>[] paramTypes = {org.omg.CORBA.portable.InputStream.class};
-                    readMethod = helperClass.getMethod("read", paramTypes);
+                    this.readMethod = helperClass.getMethod("read", paramTypes);
 
                     // Ignore the reposId parameter and use the id
                     // returned by the IDL-generated helper class
@@ -329,6 +348,7 @@ public class StubStrategy {
             } else {
                 // This ExceptionReader does not correspond to an IDL-defined
                 // exception: store the reposId parameter
+                this.readMethod = null;
                 this.reposId = reposId;
             }
         }
@@ -0,0 +1,102 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.iiop.openjdk.rmi.marshal;
+
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.io.Serializable;
+import java.rmi.Remote;
+import java.rmi.RemoteException;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * Unit test for the cached readers and writers of {@link CDRStream}.
+ */
+public class CDRStreamTestCase {
+
+    private static final List<Class<?>> TYPES = Arrays.asList(
+            boolean.class, byte.class, char.class, double.class, float.class, int.class, long.class, short.class,
+            String.class, Object.class, Serializable.class,
+            int[].class, String[].class, Value[].class, int[][].class,
+            Hello.class, Value.class);
+
+    @Test
+    public void readers() throws Exception {
+        ClassLoader loader = this.getClass().getClassLoader();
+        for (Class<?> type : TYPES) {
+            CDRStreamReader reader = CDRStream.readerFor(type);
+            assertNotNull(type.getName(), reader);
+            assertSame(type.getName(), reader, CDRStream.readerFor(type));
+            assertSame(type.getName(), CDRStream.createReaderFor(type), reader);
+            assertSame(type.getName(), CDRStream.readerFor(CDRStream.abbrevFor(type), loader), reader);
+        }
+        assertNull(CDRStream.readerFor(void.class));
+    }
+
+    @Test
+    public void writers() throws Exception {
+        ClassLoader loader = this.getClass().getClassLoader();
+        for (Class<?> type : TYPES) {
+            CDRStreamWriter writer = CDRStream.writerFor(type);
+            assertNotNull(type.getName(), writer);
+            assertSame(type.getName(), writer, CDRStream.writerFor(type));
+            assertSame(type.getName(), CDRStream.createWriterFor(type), writer);
+            assertSame(type.getName(), CDRStream.writerFor(CDRStream.abbrevFor(type), loader), writer);
+        }
+        assertNull(CDRStream.writerFor(void.class));
+    }
+
+    @Test
+    public void typeSpecific() {
+        // Readers and writers which capture their class must not be shared between classes
+        assertNotSame(CDRStream.readerFor(Value.class), CDRStream.readerFor(OtherValue.class));
+        assertNotSame(CDRStream.writerFor(Value.class), CDRStream.writerFor(OtherValue.class));
+        assertNotSame(CDRStream.readerFor(int[].class), CDRStream.readerFor(long[].class));
+        assertNotSame(CDRStream.readerFor(Hello.class), CDRStream.readerFor(Goodbye.class));
+        // Primitive readers and writers are singletons
+        assertSame(CDRStream.readerFor(int.class), CDRStream.readerFor("I", null));
+        assertSame(CDRStream.writerFor(int.class), CDRStream.writerFor("I", null));
+    }
+
+    public interface Hello extends Remote {
+        String hello() throws RemoteException;
+    }
+
+    public interface Goodbye extends Remote {
+        String goodbye() throws RemoteException;
+    }
+
+    public static class Value implements Serializable {
+        private static final long serialVersionUID = 1L;
+    }
+
+    public static class OtherValue implements Serializable {
+        private static final long serialVersionUID = 1L;
+    }
+}
@@ -77,6 +77,10 @@ public class JaxrsScanningProcessor implements DeploymentUnitProcessor {
 
     public static final DotName APPLICATION = DotName.createSimple(Application.class.getName());
 
+    private static final DotName OBJECT = DotName.createSimple(Object.class.getName());
+
+    private static final String SERVLET_PACKAGE_PREFIX = "javax.servlet.";
+
     @Override
     public void deploy(DeploymentPhaseContext phaseContext) throws DeploymentUnitProcessingException {
         final DeploymentUnit deploymentUnit = phaseContext.getDeploymentUnit();
@@ -188,6 +192,10 @@ public class JaxrsScanningProcessor implements DeploymentUnitProcessor {
         }
 
         for (String clazzName: appClazzList) {
+            // Indexed classes known not to extend Application are never loaded
+            if (!mayBeApplicationClass(index, DotName.createSimple(clazzName))) {
+                continue;
+            }
             Class<?> clazz = null;
             try {
                 clazz = classLoader.loadClass(clazzName);
@@ -274,7 +282,7 @@ public class JaxrsScanningProcessor implements DeploymentUnitProcessor {
         boolean hasBoot = hasBootClasses(webdata);
         resteasyDeploymentData.setBootClasses(hasBoot);
 
-        Class<?> declaredApplicationClass = checkDeclaredApplicationClassAsServlet(webdata, classLoader);
+        Class<?> declaredApplicationClass = checkDeclaredApplicationClassAsServlet(webdata, classLoader, du.getAttachment(Attachments.COMPOSITE_ANNOTATION_INDEX));
         // Assume that checkDeclaredApplicationClassAsServlet created the dispatcher
         if (declaredApplicationClass != null) {
             resteasyDeploymentData.setDispatcherCreated(true);
@@ -407,6 +415,15 @@ public class JaxrsScanningProcessor implements DeploymentUnitProcessor {
 
     protected Class<?> checkDeclaredApplicationClassAsServlet(JBossWebMetaData webData,
                                                               ClassLoader classLoader) throws DeploymentUnitProcessingException {
+        return checkDeclaredApplicationClassAsServlet(webData, classLoader, null);
+    }
+
+    /**
+     * As {@link #checkDeclaredApplicationClassAsServlet(JBossWebMetaData, ClassLoader)}, but consults the annotation index
+     * first, so that servlet classes that are indexed and known not to extend {@link Application} are never loaded.
+     */
+    protected Class<?> checkDeclaredApplicationClassAsServlet(JBossWebMetaData webData,
+                                                              ClassLoader classLoader, CompositeIndex index) throws DeploymentUnitProcessingException {
         if (webData.getServlets() == null)
             return null;
 
@@ -414,6 +431,9 @@ public class JaxrsScanningProcessor implements DeploymentUnitProcessor {
             String servletClass = servlet.getServletClass();
             if (servletClass == null)
                 continue;
+            if (index != null && !mayBeApplicationClass(index, DotName.createSimple(servletClass))) {
+                continue;
+            }
             Class<?> clazz = null;
             try {
                 clazz = classLoader.loadClass(servletClass);
@@ -440,6 +460,28 @@ public class JaxrsScanningProcessor implements DeploymentUnitProcessor {
     }
 
 
+    /**
+     * Walks the indexed superclass chain of the given class. Returns false only if the chain provably ends without
+     * passing through {@link Application}; any class that cannot be resolved through the index is assumed to be a candidate.
+     */
+    private static boolean mayBeApplicationClass(CompositeIndex index, DotName className) {
+        DotName current = className;
+        while (current != null) {
+            if (current.equals(APPLICATION)) {
+                return true;
+            }
+            if (current.equals(OBJECT) || current.toString().startsWith(SERVLET_PACKAGE_PREFIX)) {
+                return false;
+            }
+            final ClassInfo info = index.getClassByName(current);
+            if (info == null) {
+                return true;
+            }
+            current = info.superName();
+        }
+        return false;
+    }
+
     private boolean valueOf(String paramName, String value) throws DeploymentUnitProcessingException {
         if (value == null) {
             throw JaxrsLogger.JAXRS_LOGGER.invalidParamValue(paramName, value);
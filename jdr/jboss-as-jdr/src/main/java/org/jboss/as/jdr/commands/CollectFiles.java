@@ -24,12 +24,12 @@ package org.jboss.as.jdr.commands;
 import org.jboss.as.jdr.util.Utils;
 import org.jboss.as.jdr.util.Sanitizer;
 import org.jboss.as.jdr.vfs.Filters;
-import org.jboss.vfs.VFS;
 import org.jboss.vfs.VirtualFile;
 import org.jboss.vfs.VirtualFileFilter;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.Iterator;
@@ -83,8 +83,14 @@ public class CollectFiles extends JdrCommand {
 
     @Override
     public void execute() throws Exception {
-        VirtualFile root = VFS.getChild(this.env.getJbossHome());
-        List<VirtualFile> matches = root.getChildrenRecursively(Filters.and(this.filter, this.blacklistFilter));
+        VirtualFileFilter filter = Filters.and(this.filter, this.blacklistFilter);
+        List<VirtualFile> matches = new ArrayList<VirtualFile>();
+        // the files of JBOSS_HOME are listed once, and shared by all collectors
+        for (VirtualFile file : this.env.getJbossHomeFiles()) {
+            if (filter.accepts(file)) {
+                matches.add(file);
+            }
+        }
 
         // order the files in some arbitrary way.. basically prep for the limiter so things like log files can
         // be gotten in chronological order.  Keep in mind everything that might be collected per the filter for
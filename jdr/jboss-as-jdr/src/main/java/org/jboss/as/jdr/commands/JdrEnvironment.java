@@ -21,9 +21,16 @@
  */
 package org.jboss.as.jdr.commands;
 
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
 import org.jboss.as.cli.scriptsupport.CLI;
 import org.jboss.as.controller.client.ModelControllerClient;
 import org.jboss.as.jdr.util.JdrZipFile;
+import org.jboss.vfs.VFS;
+import org.jboss.vfs.VirtualFile;
 
 /**
  * Value object of globally useful data.
@@ -54,6 +61,8 @@ public class JdrEnvironment {
     private CLI cli;
     private JdrZipFile zip;
     private boolean isServerRunning;
+    // shared with every copy, so that JBOSS_HOME is only walked once per report
+    private AtomicReference<List<VirtualFile>> jbossHomeFiles = new AtomicReference<List<VirtualFile>>();
 
     public JdrEnvironment() {}
 
@@ -72,6 +81,7 @@ public class JdrEnvironment {
         this.setServerRunning(copy.isServerRunning());
         this.setProductName(copy.getProductName());
         this.setProductVersion(copy.getProductVersion());
+        this.jbossHomeFiles = copy.jbossHomeFiles;
     }
 
     public String getJbossHome() {
@@ -79,9 +89,30 @@ public class JdrEnvironment {
     }
 
     public void setJbossHome(String jbossHome) {
+        if ((jbossHome != null) ? !jbossHome.equals(this.jbossHome) : (this.jbossHome != null)) {
+            this.jbossHomeFiles = new AtomicReference<List<VirtualFile>>();
+        }
         this.jbossHome = jbossHome;
     }
 
+    /**
+     * Returns every file beneath {@code JBOSS_HOME}. The file system is walked on first use only, and the result is
+     * shared with every copy of this environment.
+     *
+     * @return an unmodifiable list of the files
+     * @throws IOException if the file system cannot be walked
+     */
+    public List<VirtualFile> getJbossHomeFiles() throws IOException {
+        List<VirtualFile> files = jbossHomeFiles.get();
+        if (files == null) {
+            files = Collections.unmodifiableList(VFS.getChild(this.jbossHome).getChildrenRecursively());
+            if (!jbossHomeFiles.compareAndSet(null, files)) {
+                files = jbossHomeFiles.get();
+            }
+        }
+        return files;
+    }
+
     public String getUsername() {
         return username;
     }
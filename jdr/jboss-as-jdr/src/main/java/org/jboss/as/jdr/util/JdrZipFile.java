@@ -24,6 +24,7 @@ package org.jboss.as.jdr.util;
 import org.jboss.as.jdr.commands.JdrEnvironment;
 import org.jboss.vfs.VirtualFile;
 
+import java.io.BufferedOutputStream;
 import java.io.ByteArrayInputStream;
 import java.io.FileOutputStream;
 import java.io.InputStream;
@@ -40,11 +41,15 @@ import static org.jboss.as.jdr.logger.JdrLogger.ROOT_LOGGER;
  */
 public class JdrZipFile {
 
+    private static final int BUFFER_SIZE = 64 * 1024;
+
     ZipOutputStream zos;
     String jbossHome;
     JdrEnvironment env;
     String name;
     String baseName;
+    // reused for every entry, the zip is written by one command at a time
+    private final byte[] buffer = new byte[BUFFER_SIZE];
 
     public JdrZipFile(JdrEnvironment env) throws Exception {
         this.env = env;
@@ -64,7 +69,7 @@ public class JdrZipFile {
                 java.io.File.separator +
                 baseName + ".zip";
 
-        zos = new ZipOutputStream(new FileOutputStream(this.name));
+        zos = new ZipOutputStream(new BufferedOutputStream(new FileOutputStream(this.name), BUFFER_SIZE));
     }
 
     /**
@@ -83,8 +88,6 @@ public class JdrZipFile {
      * @param path destination to write to in the zip file
      */
     public void add(InputStream is, String path) {
-        byte [] buffer = new byte[1024];
-
         try {
             String entryName = this.baseName + "/" + path;
             ZipEntry ze = new ZipEntry(entryName);
@@ -23,16 +23,17 @@ package org.jboss.as.jdr.util;
 
 import org.jboss.vfs.VirtualFileFilter;
 
-import java.io.ByteArrayOutputStream;
-import java.io.ByteArrayInputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
 import java.io.InputStream;
-import java.io.PrintWriter;
-import java.util.regex.Matcher;
+import java.io.InputStreamReader;
 import java.util.regex.Pattern;
 
 /**
  * {@link Sanitizer} subclass that replaces all instance of {@code pattern} with
  * the {@code replacement} text.
+ *
+ * The content is sanitized line by line while it is read, so only the current line is held in memory.
  */
 public class PatternSanitizer extends AbstractSanitizer {
 
@@ -46,18 +47,73 @@ public class PatternSanitizer extends AbstractSanitizer {
     }
 
     public InputStream sanitize(InputStream in) throws Exception {
-        ByteArrayOutputStream output = new ByteArrayOutputStream();
-        PrintWriter writer = new PrintWriter(output);
-        String[] lines = Utils.readLines(in).toArray(new String[0]);
-        int lineCount = lines.length;
-        for(int i = 0; i < lineCount; i++) {
-            Matcher matcher = pattern.matcher(lines[i]);
-            writer.write(matcher.replaceAll(replacement));
-            if(i < (lineCount-1)){
-                writer.write(Utils.LINE_SEP);
+        return new SanitizingInputStream(new BufferedReader(new InputStreamReader(in)));
+    }
+
+    /**
+     * Yields the sanitized lines of a reader, separated by {@link Utils#LINE_SEP}.
+     */
+    private class SanitizingInputStream extends InputStream {
+
+        private final BufferedReader reader;
+        private byte[] buffer = new byte[0];
+        private int position = 0;
+        private boolean first = true;
+        private boolean eof = false;
+
+        SanitizingInputStream(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        /**
+         * Ensures that the buffer has unread content, if there is any left.
+         * @return false if the underlying reader is exhausted
+         */
+        private boolean fill() throws IOException {
+            while (position == buffer.length) {
+                if (eof) {
+                    return false;
+                }
+                String line = reader.readLine();
+                if (line == null) {
+                    eof = true;
+                    return false;
+                }
+                String sanitized = pattern.matcher(line).replaceAll(replacement);
+                buffer = (first ? sanitized : Utils.LINE_SEP + sanitized).getBytes();
+                position = 0;
+                first = false;
             }
+            return true;
+        }
+
+        @Override
+        public int read() throws IOException {
+            return fill() ? buffer[position++] & 0xff : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            if (!fill()) {
+                return -1;
+            }
+            int count = Math.min(len, buffer.length - position);
+            System.arraycopy(buffer, position, b, off, count);
+            position += count;
+            return count;
+        }
+
+        @Override
+        public int available() throws IOException {
+            return fill() ? buffer.length - position : 0;
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
         }
-        writer.close();
-        return new ByteArrayInputStream(output.toByteArray());
     }
 }
@@ -23,11 +23,39 @@ package org.jboss.as.jdr.util;
 
 import static org.jboss.as.jdr.logger.JdrLogger.ROOT_LOGGER;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLEventReader;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import javax.xml.stream.events.Attribute;
+import javax.xml.stream.events.Characters;
+import javax.xml.stream.events.Comment;
+import javax.xml.stream.events.DTD;
+import javax.xml.stream.events.EntityReference;
+import javax.xml.stream.events.Namespace;
+import javax.xml.stream.events.ProcessingInstruction;
+import javax.xml.stream.events.StartDocument;
+import javax.xml.stream.events.StartElement;
+import javax.xml.stream.events.XMLEvent;
 import javax.xml.transform.Transformer;
 import javax.xml.transform.TransformerFactory;
 import javax.xml.transform.dom.DOMSource;
@@ -37,7 +65,6 @@ import javax.xml.xpath.XPathConstants;
 import javax.xml.xpath.XPathExpression;
 import javax.xml.xpath.XPathFactory;
 
-import org.apache.commons.io.IOUtils;
 import org.jboss.vfs.VirtualFileFilter;
 import org.w3c.dom.Document;
 import org.w3c.dom.NodeList;
@@ -45,48 +72,255 @@ import org.w3c.dom.NodeList;
 /**
  * {@link Sanitizer} subclass that removes the contents of the matched xpath expression
  * in {@code pattern}.
+ *
+ * Expressions of the form {@code //name} and {@code /a/b/name} are matched against the local names of the elements
+ * while the document is streamed through StAX, so the document is never held in memory. Unlike the xpath evaluation,
+ * this matches elements regardless of their namespace, so elements of namespaced configuration files are sanitized too. Any other expression is
+ * evaluated against a DOM. In both cases the content is spooled to a temporary file, so that the original can be
+ * returned if the document cannot be sanitized; the file is deleted when the returned stream is closed.
  */
 public class XMLSanitizer extends AbstractSanitizer {
 
+    private static final Pattern DESCENDANT = Pattern.compile("//([\\w.\\-]+)");
+    private static final Pattern ABSOLUTE = Pattern.compile("(/[\\w.\\-]+)+");
+
+    // the element name matched anywhere in the document, for //name expressions
+    private String descendant;
+    // the element names from the root, for /a/b/name expressions
+    private List<String> absolute;
+
     private XPathExpression expression;
     private DocumentBuilder builder;
     private Transformer transformer;
 
+    private final XMLInputFactory inputFactory;
+    private final XMLOutputFactory outputFactory;
+
     public XMLSanitizer(String pattern, VirtualFileFilter filter) throws Exception {
         this.filter = filter;
         XPathFactory factory = XPathFactory.newInstance();
         XPath xpath = factory.newXPath();
         expression = xpath.compile(pattern);
 
-        DocumentBuilderFactory DBfactory = DocumentBuilderFactory.newInstance();
-        DBfactory.setNamespaceAware(true);
-        builder = DBfactory.newDocumentBuilder();
-        builder.setErrorHandler(null);
+        Matcher matcher = DESCENDANT.matcher(pattern);
+        if (matcher.matches()) {
+            descendant = matcher.group(1);
+        } else if (ABSOLUTE.matcher(pattern).matches()) {
+            absolute = new ArrayList<String>();
+            for (String name : pattern.substring(1).split("/")) {
+                absolute.add(name);
+            }
+        } else {
+            DocumentBuilderFactory DBfactory = DocumentBuilderFactory.newInstance();
+            DBfactory.setNamespaceAware(true);
+            builder = DBfactory.newDocumentBuilder();
+            builder.setErrorHandler(null);
 
-        TransformerFactory transformerFactory = TransformerFactory.newInstance();
-        transformer = transformerFactory.newTransformer();
+            TransformerFactory transformerFactory = TransformerFactory.newInstance();
+            transformer = transformerFactory.newTransformer();
+        }
 
+        inputFactory = XMLInputFactory.newInstance();
+        inputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE);
+        outputFactory = XMLOutputFactory.newInstance();
     }
 
     public InputStream sanitize(InputStream in) throws Exception {
-        byte [] content = IOUtils.toByteArray(in);
+        // storing the entire file on disk in case we need to bail.
+        File original = File.createTempFile("jdr", ".xml");
+        File sanitized = null;
         try {
-            // storing the entire file in memory in case we need to bail.
-            Document doc = builder.parse(new ByteArrayInputStream(content));
-            doc.setXmlStandalone(true);
-            Object result = expression.evaluate(doc, XPathConstants.NODESET);
-            NodeList nodes = (NodeList) result;
-            for (int i = 0; i < nodes.getLength(); i++) {
-                nodes.item(i).setTextContent("");
+            try {
+                Files.copy(in, original.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            } finally {
+                Utils.safelyClose(in);
+            }
+            sanitized = File.createTempFile("jdr", ".xml");
+            try (OutputStream output = Files.newOutputStream(sanitized.toPath())) {
+                if (builder != null) {
+                    transform(original, output);
+                } else {
+                    stream(original, output);
+                }
             }
-            DOMSource source = new DOMSource(doc);
-            ByteArrayOutputStream output = new ByteArrayOutputStream();
-            StreamResult outStream = new StreamResult(output);
-            transformer.transform(source, outStream);
-            return new ByteArrayInputStream(output.toByteArray());
+            delete(original);
+            return new TemporaryFileInputStream(sanitized);
         } catch (Exception e) {
             ROOT_LOGGER.debug("Error while sanitizing an xml document", e);
-            return new ByteArrayInputStream(content);
+            if (sanitized != null) {
+                delete(sanitized);
+            }
+            return new TemporaryFileInputStream(original);
+        }
+    }
+
+    private void stream(File original, OutputStream output) throws Exception {
+        try (InputStream input = new FileInputStream(original)) {
+            XMLEventReader reader = inputFactory.createXMLEventReader(input);
+            XMLEvent first = reader.peek();
+            String encoding = "UTF-8";
+            if (first != null && first.isStartDocument() && ((StartDocument) first).encodingSet()) {
+                encoding = ((StartDocument) first).getCharacterEncodingScheme();
+            }
+            XMLStreamWriter writer = outputFactory.createXMLStreamWriter(output, encoding);
+            // always write the declaration, as the transformer does
+            writer.writeStartDocument(encoding, "1.0");
+            Deque<String> elements = new ArrayDeque<String>();
+            // the depth within a matched element, whose content is being dropped
+            int skip = 0;
+            while (reader.hasNext()) {
+                XMLEvent event = reader.nextEvent();
+                if (skip > 0) {
+                    if (event.isStartElement()) {
+                        skip++;
+                    } else if (event.isEndElement() && --skip == 0) {
+                        elements.pop();
+                    }
+                    continue;
+                }
+                switch (event.getEventType()) {
+                    case XMLStreamConstants.START_ELEMENT: {
+                        StartElement element = event.asStartElement();
+                        elements.push(element.getName().getLocalPart());
+                        // a matched element is written as an empty element, as the transformer does
+                        if (matches(elements)) {
+                            skip = 1;
+                            writeStartElement(writer, element, true);
+                        } else {
+                            writeStartElement(writer, element, false);
+                        }
+                        break;
+                    }
+                    case XMLStreamConstants.END_ELEMENT: {
+                        elements.pop();
+                        writer.writeEndElement();
+                        break;
+                    }
+                    case XMLStreamConstants.CHARACTERS:
+                    case XMLStreamConstants.SPACE:
+                    case XMLStreamConstants.CDATA: {
+                        Characters characters = event.asCharacters();
+                        if (characters.isCData()) {
+                            writer.writeCData(characters.getData());
+                        } else {
+                            writer.writeCharacters(characters.getData());
+                        }
+                        break;
+                    }
+                    case XMLStreamConstants.COMMENT: {
+                        writer.writeComment(((Comment) event).getText());
+                        break;
+                    }
+                    case XMLStreamConstants.PROCESSING_INSTRUCTION: {
+                        ProcessingInstruction instruction = (ProcessingInstruction) event;
+                        writer.writeProcessingInstruction(instruction.getTarget(), instruction.getData());
+                        break;
+                    }
+                    case XMLStreamConstants.DTD: {
+                        writer.writeDTD(((DTD) event).getDocumentTypeDeclaration());
+                        break;
+                    }
+                    case XMLStreamConstants.ENTITY_REFERENCE: {
+                        writer.writeEntityRef(((EntityReference) event).getName());
+                        break;
+                    }
+                    case XMLStreamConstants.END_DOCUMENT: {
+                        writer.writeEndDocument();
+                        break;
+                    }
+                    default: {
+                        // the declaration was already written
+                    }
+                }
+            }
+            writer.flush();
+            writer.close();
+            reader.close();
+        }
+    }
+
+    private static void writeStartElement(XMLStreamWriter writer, StartElement element, boolean empty) throws XMLStreamException {
+        QName name = element.getName();
+        if (empty) {
+            writer.writeEmptyElement(name.getPrefix(), name.getLocalPart(), name.getNamespaceURI());
+        } else {
+            writer.writeStartElement(name.getPrefix(), name.getLocalPart(), name.getNamespaceURI());
+        }
+        Iterator<?> namespaces = element.getNamespaces();
+        while (namespaces.hasNext()) {
+            Namespace namespace = (Namespace) namespaces.next();
+            if (namespace.isDefaultNamespaceDeclaration()) {
+                writer.writeDefaultNamespace(namespace.getNamespaceURI());
+            } else {
+                writer.writeNamespace(namespace.getPrefix(), namespace.getNamespaceURI());
+            }
+        }
+        Iterator<?> attributes = element.getAttributes();
+        while (attributes.hasNext()) {
+            Attribute attribute = (Attribute) attributes.next();
+            QName attributeName = attribute.getName();
+            if (attributeName.getNamespaceURI().isEmpty()) {
+                writer.writeAttribute(attributeName.getLocalPart(), attribute.getValue());
+            } else {
+                writer.writeAttribute(attributeName.getPrefix(), attributeName.getNamespaceURI(), attributeName.getLocalPart(), attribute.getValue());
+            }
+        }
+    }
+
+    private boolean matches(Deque<String> elements) {
+        if (descendant != null) {
+            return descendant.equals(elements.peek());
+        }
+        if (elements.size() != absolute.size()) {
+            return false;
+        }
+        // the deque is a stack, so it iterates from the root backwards
+        Iterator<String> names = elements.descendingIterator();
+        for (String name : absolute) {
+            if (!name.equals(names.next())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void transform(File original, OutputStream output) throws Exception {
+        Document doc = builder.parse(original);
+        doc.setXmlStandalone(true);
+        Object result = expression.evaluate(doc, XPathConstants.NODESET);
+        NodeList nodes = (NodeList) result;
+        for (int i = 0; i < nodes.getLength(); i++) {
+            nodes.item(i).setTextContent("");
+        }
+        transformer.transform(new DOMSource(doc), new StreamResult(output));
+    }
+
+    private static void delete(File file) {
+        try {
+            Files.deleteIfExists(file.toPath());
+        } catch (IOException e) {
+            ROOT_LOGGER.debugf(e, "Unable to delete %s", file);
+        }
+    }
+
+    /**
+     * Reads a temporary file, which is deleted once the stream is closed.
+     */
+    private static class TemporaryFileInputStream extends FileInputStream {
+        private final File file;
+
+        TemporaryFileInputStream(File file) throws IOException {
+            super(file);
+            this.file = file;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                super.close();
+            } finally {
+                delete(file);
+            }
         }
     }
 }
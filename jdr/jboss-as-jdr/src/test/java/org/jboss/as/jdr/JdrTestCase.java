@@ -34,6 +34,7 @@ import org.junit.Test;
 import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.InputStream;
+import java.util.Scanner;
 
 import static org.junit.Assert.*;
 
@@ -74,10 +75,33 @@ public class JdrTestCase {
         String xml = "<test><password>foobar</password></test>";
         InputStream is = new ByteArrayInputStream(xml.getBytes());
         XMLSanitizer s = new XMLSanitizer("//password", Filters.TRUE);
-        InputStream res = s.sanitize(is);
-        byte [] buf = new byte [res.available()];
-        res.read(buf);
-        assertEquals("<?xml version=\"1.0\" encoding=\"UTF-8\"?><test><password/></test>", new String(buf));
+        assertEquals("<?xml version=\"1.0\" encoding=\"UTF-8\"?><test><password/></test>", read(s.sanitize(is)));
+    }
+
+    @Test
+    public void testXMLSanitizerNestedContent() throws Exception {
+        String xml = "<test xmlns=\"urn:test\"><password>foo<secret>bar</secret></password><user name=\"baz\">qux</user></test>";
+        XMLSanitizer s = new XMLSanitizer("//password", Filters.TRUE);
+        String result = read(s.sanitize(new ByteArrayInputStream(xml.getBytes())));
+        assertFalse(result, result.contains("foo"));
+        assertFalse(result, result.contains("bar"));
+        assertTrue(result, result.contains("name=\"baz\">qux</user>"));
+    }
+
+    @Test
+    public void testXMLSanitizerAbsolutePath() throws Exception {
+        String xml = "<test><password>foo</password><nested><password>bar</password></nested></test>";
+        XMLSanitizer s = new XMLSanitizer("/test/nested/password", Filters.TRUE);
+        String result = read(s.sanitize(new ByteArrayInputStream(xml.getBytes())));
+        assertTrue(result, result.contains("foo"));
+        assertFalse(result, result.contains("bar"));
+    }
+
+    @Test
+    public void testXMLSanitizerMalformed() throws Exception {
+        String xml = "<test><password>foobar</password>";
+        XMLSanitizer s = new XMLSanitizer("//password", Filters.TRUE);
+        assertEquals(xml, read(s.sanitize(new ByteArrayInputStream(xml.getBytes()))));
     }
 
     @Test
@@ -91,6 +115,15 @@ public class JdrTestCase {
         assertEquals("password=*", new String(buf));
     }
 
+    @Test
+    public void testPatternSanitizerMultipleLines() throws Exception {
+        String propf = "user=foo\npassword=123456\npassword=654321\n";
+        PatternSanitizer s = new PatternSanitizer("password=.*", "password=*", Filters.TRUE);
+        String result = read(s.sanitize(new ByteArrayInputStream(propf.getBytes())));
+        String sep = String.format("%n");
+        assertEquals("user=foo" + sep + "password=*" + sep + "password=*", result);
+    }
+
     @Test
     public void testWildcardFilterAcceptAnything() throws Exception {
         VirtualFileFilter filter = Filters.wildcard("*");
@@ -145,4 +178,9 @@ public class JdrTestCase {
         } catch (Exception ignored) { }
     }
 
+    private static String read(InputStream is) throws Exception {
+        try (Scanner scanner = new Scanner(is).useDelimiter("\\A")) {
+            return scanner.hasNext() ? scanner.next() : "";
+        }
+    }
 }
@@ -0,0 +1,267 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2017, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.as.jpa.hibernate5;
+
+import static org.jboss.as.jpa.hibernate5.JpaLogger.JPA_LOGGER;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.CRC32;
+
+import org.hibernate.Version;
+import org.hibernate.boot.archive.scan.internal.ClassDescriptorImpl;
+import org.hibernate.boot.archive.scan.internal.MappingFileDescriptorImpl;
+import org.hibernate.boot.archive.scan.internal.PackageDescriptorImpl;
+import org.hibernate.boot.archive.scan.internal.ScanResultImpl;
+import org.hibernate.boot.archive.scan.spi.ClassDescriptor;
+import org.hibernate.boot.archive.scan.spi.MappingFileDescriptor;
+import org.hibernate.boot.archive.scan.spi.PackageDescriptor;
+import org.hibernate.boot.archive.scan.spi.ScanEnvironment;
+import org.hibernate.boot.archive.scan.spi.ScanOptions;
+import org.hibernate.boot.archive.scan.spi.ScanParameters;
+import org.hibernate.boot.archive.scan.spi.ScanResult;
+import org.jboss.vfs.VFS;
+import org.jboss.vfs.VirtualFile;
+
+/**
+ * Archive scanner that persists the result of a scan, so that an unchanged persistence unit does not need to have its
+ * archives rescanned on the next server start or redeploy.
+ * <p>
+ * A cache entry is keyed by the Hibernate version, the scan options, the scanned archive URLs and the identity of the
+ * deployment content (the path, size and modification time of the deployed archive), and is protected by a CRC32 checksum.
+ * Exploded deployments have no such identity, so the path, size and modification time of every entry of their archives
+ * is used instead.  Any mismatch or read failure simply results in a regular scan, after which the entry is rewritten.
+ */
+public class CachingHibernateArchiveScanner extends HibernateArchiveScanner {
+
+    private static final int FORMAT_VERSION = 1;
+
+    private final File cacheFile;
+    private final String content;
+
+    /**
+     * @param cacheFile the file holding the cache entry
+     * @param content the identity of the deployment content, or null if the deployment is exploded
+     */
+    public CachingHibernateArchiveScanner(File cacheFile, String content) {
+        this.cacheFile = cacheFile;
+        this.content = content;
+    }
+
+    @Override
+    public ScanResult scan(ScanEnvironment environment, ScanOptions options, ScanParameters parameters) {
+        final byte[] key;
+        try {
+            key = key(environment, options, this.content);
+        } catch (IOException | URISyntaxException e) {
+            JPA_LOGGER.debugf(e, "Unable to fingerprint %s, scan cache not used", environment.getRootUrl());
+            return super.scan(environment, options, parameters);
+        }
+        final ScanResult cached = read(key);
+        if (cached != null) {
+            JPA_LOGGER.debugf("Using cached scan result %s for %s", cacheFile, environment.getRootUrl());
+            return cached;
+        }
+        final ScanResult result = super.scan(environment, options, parameters);
+        write(key, result);
+        return result;
+    }
+
+    static byte[] key(ScanEnvironment environment, ScanOptions options, String content) throws IOException, URISyntaxException {
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        update(digest, Version.getVersionString());
+        update(digest, String.valueOf(options.canDetectUnlistedClassesInRoot()));
+        update(digest, String.valueOf(options.canDetectUnlistedClassesInNonRoot()));
+        update(digest, String.valueOf(options.canDetectHibernateMappingFiles()));
+        if (environment.getExplicitlyListedClassNames() != null) {
+            for (String className : environment.getExplicitlyListedClassNames()) {
+                update(digest, className);
+            }
+        }
+        if (environment.getExplicitlyListedMappingFiles() != null) {
+            for (String mappingFile : environment.getExplicitlyListedMappingFiles()) {
+                update(digest, mappingFile);
+            }
+        }
+        final List<URL> urls = new ArrayList<>();
+        if (environment.getRootUrl() != null) {
+            urls.add(environment.getRootUrl());
+        }
+        if (environment.getNonRootUrls() != null) {
+            urls.addAll(environment.getNonRootUrls());
+        }
+        for (URL url : urls) {
+            update(digest, url.toExternalForm());
+        }
+        if (content != null) {
+            update(digest, content);
+        } else {
+            for (URL url : urls) {
+                for (VirtualFile file : VFS.getChild(url.toURI()).getChildrenRecursively()) {
+                    update(digest, file.getPathName());
+                    update(digest, Long.toString(file.getSize()));
+                    update(digest, Long.toString(file.getLastModified()));
+                }
+            }
+        }
+        return digest.digest();
+    }
+
+    private static void update(MessageDigest digest, String value) {
+        digest.update(value.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+    }
+
+    ScanResult read(byte[] key) {
+        if (!cacheFile.isFile()) {
+            return null;
+        }
+        try {
+            final byte[] bytes = Files.readAllBytes(cacheFile.toPath());
+            if (bytes.length < Long.BYTES) {
+                return null;
+            }
+            final CRC32 crc = new CRC32();
+            crc.update(bytes, 0, bytes.length - Long.BYTES);
+            final DataInputStream input = new DataInputStream(new ByteArrayInputStream(bytes));
+            input.skipBytes(bytes.length - Long.BYTES);
+            if (input.readLong() != crc.getValue()) {
+                JPA_LOGGER.debugf("Discarding corrupt scan cache %s", cacheFile);
+                return null;
+            }
+            final DataInputStream data = new DataInputStream(new ByteArrayInputStream(bytes, 0, bytes.length - Long.BYTES));
+            if (data.readInt() != FORMAT_VERSION) {
+                return null;
+            }
+            final byte[] cachedKey = new byte[data.readInt()];
+            data.readFully(cachedKey);
+            if (!MessageDigest.isEqual(key, cachedKey)) {
+                return null;
+            }
+            final Set<PackageDescriptor> packages = new HashSet<>();
+            for (int i = data.readInt(); i > 0; --i) {
+                final String name = data.readUTF();
+                packages.add(new PackageDescriptorImpl(name, streamAccess(data.readUTF())));
+            }
+            final Set<ClassDescriptor> classes = new HashSet<>();
+            for (int i = data.readInt(); i > 0; --i) {
+                final String name = data.readUTF();
+                final ClassDescriptor.Categorization categorization = ClassDescriptor.Categorization.values()[data.readByte()];
+                classes.add(new ClassDescriptorImpl(name, categorization, streamAccess(data.readUTF())));
+            }
+            final Set<MappingFileDescriptor> mappingFiles = new HashSet<>();
+            for (int i = data.readInt(); i > 0; --i) {
+                final String name = data.readUTF();
+                mappingFiles.add(new MappingFileDescriptorImpl(name, streamAccess(data.readUTF())));
+            }
+            return new ScanResultImpl(packages, classes, mappingFiles);
+        } catch (IOException | RuntimeException e) {
+            JPA_LOGGER.debugf(e, "Unable to read scan cache %s", cacheFile);
+            return null;
+        }
+    }
+
+    void write(byte[] key, ScanResult result) {
+        try {
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            final DataOutputStream data = new DataOutputStream(bytes);
+            data.writeInt(FORMAT_VERSION);
+            data.writeInt(key.length);
+            data.write(key);
+            final Collection<PackageDescriptor> packages = result.getLocatedPackages();
+            data.writeInt(packages.size());
+            for (PackageDescriptor descriptor : packages) {
+                data.writeUTF(descriptor.getName());
+                data.writeUTF(descriptor.getStreamAccess().getStreamName());
+            }
+            final Collection<ClassDescriptor> classes = result.getLocatedClasses();
+            data.writeInt(classes.size());
+            for (ClassDescriptor descriptor : classes) {
+                data.writeUTF(descriptor.getName());
+                data.writeByte(descriptor.getCategorization().ordinal());
+                data.writeUTF(descriptor.getStreamAccess().getStreamName());
+            }
+            final Collection<MappingFileDescriptor> mappingFiles = result.getLocatedMappingFiles();
+            data.writeInt(mappingFiles.size());
+            for (MappingFileDescriptor descriptor : mappingFiles) {
+                data.writeUTF(descriptor.getName());
+                data.writeUTF(descriptor.getStreamAccess().getStreamName());
+            }
+            data.flush();
+            final CRC32 crc = new CRC32();
+            crc.update(bytes.toByteArray());
+            data.writeLong(crc.getValue());
+            data.flush();
+
+            final File directory = cacheFile.getParentFile();
+            if (directory != null && !directory.isDirectory() && !directory.mkdirs()) {
+                throw new IOException(directory.getAbsolutePath());
+            }
+            // Write to a temporary file first, so that a concurrent reader never sees a partial entry
+            final File temp = new File(directory, cacheFile.getName() + ".tmp");
+            try (OutputStream output = Files.newOutputStream(temp.toPath())) {
+                bytes.writeTo(output);
+            }
+            Files.move(temp.toPath(), cacheFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException e) {
+            JPA_LOGGER.debugf(e, "Unable to write scan cache %s", cacheFile);
+        }
+    }
+
+    private static VirtualFileInputStreamAccess streamAccess(String pathName) {
+        return new VirtualFileInputStreamAccess(pathName, VFS.getChild(pathName));
+    }
+
+    /**
+     * Computes the name of the cache file of a persistence unit, independent of any characters in its scoped name
+     * that are not valid in file names.
+     */
+    public static String cacheFileName(String scopedPersistenceUnitName) {
+        try {
+            final byte[] hash = MessageDigest.getInstance("SHA-1").digest(scopedPersistenceUnitName.getBytes(StandardCharsets.UTF_8));
+            final StringBuilder builder = new StringBuilder(hash.length * 2 + 5);
+            for (byte b : hash) {
+                builder.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+            }
+            return builder.append(".scan").toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
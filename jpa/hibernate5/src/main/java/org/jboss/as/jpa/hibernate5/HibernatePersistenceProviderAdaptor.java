@@ -19,6 +19,7 @@ package org.jboss.as.jpa.hibernate5;
 
 import static org.jboss.as.jpa.hibernate5.JpaLogger.JPA_LOGGER;
 
+import java.io.File;
 import java.util.Map;
 import java.util.Properties;
 
@@ -51,6 +52,10 @@ public class HibernatePersistenceProviderAdaptor implements PersistenceProviderA
     private static final String SHARED_CACHE_MODE = "javax.persistence.sharedCache.mode";
     private static final String NONE = SharedCacheMode.NONE.name();
     private static final String HIBERNATE_EXTENDED_BEANMANAGER = "org.hibernate.jpa.event.spi.jpa.ExtendedBeanManager";
+    // set by the JPA subsystem, if the persistence unit enabled the scan cache (wildfly.jpa.scancache)
+    private static final String SCAN_CACHE_DIRECTORY = "wildfly.jpa.scancache.dir";
+    // set by the JPA subsystem along with the scan cache directory, if the deployment is an archive
+    private static final String SCAN_CACHE_CONTENT = "wildfly.jpa.scancache.content";
 
     @Override
     public void injectJtaManager(JtaManager jtaManager) {
@@ -73,7 +78,13 @@ public class HibernatePersistenceProviderAdaptor implements PersistenceProviderA
         putPropertyIfAbsent(pu, properties, AvailableSettings.USE_NEW_ID_GENERATOR_MAPPINGS, "true");
         putPropertyIfAbsent(pu, properties, AvailableSettings.KEYWORD_AUTO_QUOTING_ENABLED,"false");
         putPropertyIfAbsent(pu, properties, AvailableSettings.IMPLICIT_NAMING_STRATEGY, NAMING_STRATEGY_JPA_COMPLIANT_IMPL);
-        putPropertyIfAbsent(pu, properties, AvailableSettings.SCANNER, HibernateArchiveScanner.class);
+        final String scanCacheDirectory = pu.getProperties().getProperty(SCAN_CACHE_DIRECTORY);
+        if (scanCacheDirectory != null) {
+            putPropertyIfAbsent(pu, properties, AvailableSettings.SCANNER,
+                    new CachingHibernateArchiveScanner(new File(scanCacheDirectory, CachingHibernateArchiveScanner.cacheFileName(pu.getScopedPersistenceUnitName())), pu.getProperties().getProperty(SCAN_CACHE_CONTENT)));
+        } else {
+            putPropertyIfAbsent(pu, properties, AvailableSettings.SCANNER, HibernateArchiveScanner.class);
+        }
         properties.put(AvailableSettings.APP_CLASSLOADER, pu.getClassLoader());
         putPropertyIfAbsent(pu, properties, AvailableSettings.JTA_PLATFORM,  new JBossAppServerJtaPlatform(jtaManager));
         putPropertyIfAbsent(pu,properties, org.hibernate.ejb.AvailableSettings.ENTITY_MANAGER_FACTORY_NAME, pu.getScopedPersistenceUnitName());
@@ -0,0 +1,189 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2017, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.as.jpa.hibernate5;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.hibernate.boot.archive.scan.internal.ClassDescriptorImpl;
+import org.hibernate.boot.archive.scan.internal.MappingFileDescriptorImpl;
+import org.hibernate.boot.archive.scan.internal.PackageDescriptorImpl;
+import org.hibernate.boot.archive.scan.internal.ScanResultImpl;
+import org.hibernate.boot.archive.scan.internal.StandardScanOptions;
+import org.hibernate.boot.archive.scan.spi.ClassDescriptor;
+import org.hibernate.boot.archive.scan.spi.MappingFileDescriptor;
+import org.hibernate.boot.archive.scan.spi.PackageDescriptor;
+import org.hibernate.boot.archive.scan.spi.ScanEnvironment;
+import org.hibernate.boot.archive.scan.spi.ScanOptions;
+import org.hibernate.boot.archive.scan.spi.ScanResult;
+import org.jboss.vfs.VFS;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the persistent format of {@link CachingHibernateArchiveScanner}.
+ */
+public class CachingHibernateArchiveScannerTestCase {
+
+    private static final byte[] KEY = new byte[] { 1, 2, 3, 4 };
+
+    private File directory;
+    private File cacheFile;
+    private CachingHibernateArchiveScanner scanner;
+
+    @Before
+    public void setUp() throws IOException {
+        this.directory = Files.createTempDirectory("scan-cache").toFile();
+        this.cacheFile = new File(this.directory, CachingHibernateArchiveScanner.cacheFileName("test.ear/test.jar#pu"));
+        this.scanner = new CachingHibernateArchiveScanner(this.cacheFile, null);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(this.directory.toPath())) {
+            paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    @Test
+    public void readWhatWasWritten() {
+        this.scanner.write(KEY, result());
+
+        ScanResult cached = this.scanner.read(KEY);
+        assertNotNull(cached);
+
+        assertEquals(1, cached.getLocatedPackages().size());
+        PackageDescriptor packageDescriptor = cached.getLocatedPackages().iterator().next();
+        assertEquals("org.example", packageDescriptor.getName());
+        assertEquals("/content/test.jar/org/example/package-info.class", packageDescriptor.getStreamAccess().getStreamName());
+
+        assertEquals(1, cached.getLocatedClasses().size());
+        ClassDescriptor classDescriptor = cached.getLocatedClasses().iterator().next();
+        assertEquals("org.example.Entity", classDescriptor.getName());
+        assertEquals(ClassDescriptor.Categorization.MODEL, classDescriptor.getCategorization());
+        assertEquals("/content/test.jar/org/example/Entity.class", classDescriptor.getStreamAccess().getStreamName());
+
+        assertEquals(1, cached.getLocatedMappingFiles().size());
+        MappingFileDescriptor mappingFileDescriptor = cached.getLocatedMappingFiles().iterator().next();
+        assertEquals("META-INF/orm.xml", mappingFileDescriptor.getName());
+        assertEquals("/content/test.jar/META-INF/orm.xml", mappingFileDescriptor.getStreamAccess().getStreamName());
+    }
+
+    @Test
+    public void missingEntry() {
+        assertNull(this.scanner.read(KEY));
+    }
+
+    @Test
+    public void differentKey() {
+        this.scanner.write(KEY, result());
+
+        assertNull(this.scanner.read(new byte[] { 1, 2, 3, 5 }));
+    }
+
+    @Test
+    public void corruptEntry() throws IOException {
+        this.scanner.write(KEY, result());
+
+        byte[] bytes = Files.readAllBytes(this.cacheFile.toPath());
+        bytes[bytes.length / 2] ^= 0xff;
+        Files.write(this.cacheFile.toPath(), bytes);
+
+        assertNull(this.scanner.read(KEY));
+
+        // A rescan rewrites the entry
+        this.scanner.write(KEY, result());
+        assertNotNull(this.scanner.read(KEY));
+    }
+
+    @Test
+    public void truncatedEntry() throws IOException {
+        this.scanner.write(KEY, result());
+
+        byte[] bytes = Files.readAllBytes(this.cacheFile.toPath());
+        byte[] truncated = new byte[bytes.length - 3];
+        System.arraycopy(bytes, 0, truncated, 0, truncated.length);
+        Files.write(this.cacheFile.toPath(), truncated);
+
+        assertNull(this.scanner.read(KEY));
+
+        Files.write(this.cacheFile.toPath(), new byte[] { 0 });
+
+        assertNull(this.scanner.read(KEY));
+    }
+
+    @Test
+    public void contentKey() throws Exception {
+        // The archive does not exist, so the key can only be computed if its entries are not walked
+        ScanEnvironment environment = environment(new File(this.directory, "missing.jar").toURI().toURL());
+        ScanOptions options = new StandardScanOptions();
+
+        byte[] key = CachingHibernateArchiveScanner.key(environment, options, "/content/ab/cdef/content:100:1");
+        assertArrayEquals(key, CachingHibernateArchiveScanner.key(environment, options, "/content/ab/cdef/content:100:1"));
+        assertFalse(Arrays.equals(key, CachingHibernateArchiveScanner.key(environment, options, "/content/ab/cdef/content:100:2")));
+    }
+
+    private static ScanEnvironment environment(URL rootUrl) {
+        return new ScanEnvironment() {
+            @Override
+            public URL getRootUrl() {
+                return rootUrl;
+            }
+
+            @Override
+            public List<URL> getNonRootUrls() {
+                return Collections.emptyList();
+            }
+
+            @Override
+            public List<String> getExplicitlyListedClassNames() {
+                return Collections.singletonList("org.example.Entity");
+            }
+
+            @Override
+            public List<String> getExplicitlyListedMappingFiles() {
+                return Collections.emptyList();
+            }
+        };
+    }
+
+    private static ScanResult result() {
+        PackageDescriptor packageDescriptor = new PackageDescriptorImpl("org.example", streamAccess("/content/test.jar/org/example/package-info.class"));
+        ClassDescriptor classDescriptor = new ClassDescriptorImpl("org.example.Entity", ClassDescriptor.Categorization.MODEL, streamAccess("/content/test.jar/org/example/Entity.class"));
+        MappingFileDescriptor mappingFileDescriptor = new MappingFileDescriptorImpl("META-INF/orm.xml", streamAccess("/content/test.jar/META-INF/orm.xml"));
+        return new ScanResultImpl(Collections.singleton(packageDescriptor), Collections.singleton(classDescriptor), Collections.singleton(mappingFileDescriptor));
+    }
+
+    private static VirtualFileInputStreamAccess streamAccess(String pathName) {
+        return new VirtualFileInputStreamAccess(pathName, VFS.getChild(pathName));
+    }
+}
@@ -152,6 +152,24 @@ public class Configuration {
      */
     public static final String JPA_ALLOW_TWO_PHASE_BOOTSTRAP = "wildfly.jpa.twophasebootstrap";
 
+    /**
+     * set to true to cache the result of scanning the persistence unit archives in the server data directory, so
+     * that an unchanged persistence unit is not rescanned on the next start or redeploy (defaults to false).
+     */
+    public static final String JPA_SCAN_CACHE = "wildfly.jpa.scancache";
+
+    /**
+     * directory that holds the scan cache entries, set by the container if {@link #JPA_SCAN_CACHE} is enabled
+     * (defaults to jboss.server.data.dir/jpa/scancache)
+     */
+    public static final String JPA_SCAN_CACHE_DIR = "wildfly.jpa.scancache.dir";
+
+    /**
+     * identity of the deployment content (path, size and modification time of the deployed archive), set by the
+     * container if {@link #JPA_SCAN_CACHE} is enabled and the deployment is an archive
+     */
+    public static final String JPA_SCAN_CACHE_CONTENT = "wildfly.jpa.scancache.content";
+
     /**
      * set to false to ignore default data source (defaults to true)
      */
@@ -265,6 +283,16 @@ public class Configuration {
         return PROVIDER_MODULE_DEFAULT;
     }
 
+    /**
+     * Determine if the result of scanning the persistence unit archives may be cached across restarts
+     *
+     * @param pu the PU
+     * @return true if the scan cache is enabled for pu
+     */
+    public static boolean allowScanCache(PersistenceUnitMetadata pu) {
+        return Boolean.parseBoolean(pu.getProperties().getProperty(JPA_SCAN_CACHE));
+    }
+
     /**
      * Determine if two phase persistence unit start is allowed
      *
@@ -25,6 +25,7 @@ package org.jboss.as.jpa.processor;
 import static org.jboss.as.jpa.messages.JpaLogger.ROOT_LOGGER;
 import static org.jboss.as.server.Services.addServerExecutorDependency;
 
+import java.io.File;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.util.ArrayList;
@@ -81,6 +82,7 @@ import org.jboss.as.naming.ServiceBasedNamingStore;
 import org.jboss.as.naming.ValueManagedReferenceFactory;
 import org.jboss.as.naming.deployment.ContextNames;
 import org.jboss.as.naming.service.BinderService;
+import org.jboss.as.server.ServerEnvironment;
 import org.jboss.as.server.deployment.AttachmentKey;
 import org.jboss.as.server.deployment.AttachmentList;
 import org.jboss.as.server.deployment.Attachments;
@@ -108,11 +110,13 @@ import org.jboss.msc.service.ServiceName;
 import org.jboss.msc.service.ServiceRegistryException;
 import org.jboss.msc.service.ServiceTarget;
 import org.jboss.msc.value.ImmediateValue;
+import org.jboss.vfs.VirtualFile;
 import org.jipijapa.plugin.spi.ManagementAdaptor;
 import org.jipijapa.plugin.spi.PersistenceProviderAdaptor;
 import org.jipijapa.plugin.spi.PersistenceUnitMetadata;
 import org.jipijapa.plugin.spi.Platform;
 import org.jipijapa.plugin.spi.TwoPhaseBootstrapCapable;
+import org.wildfly.security.manager.WildFlySecurityManager;
 
 /**
  * Handle the installation of the Persistence Unit service
@@ -310,6 +314,25 @@ public class PersistenceUnitServiceHandler {
         }
     }
 
+    /**
+     * If the persistence unit opted into the scan cache, tell the persistence provider adaptor where the cache lives,
+     * and identify the deployment content, so that the cache can be validated without walking the archives.
+     */
+    private static void configureScanCache(final DeploymentUnit deploymentUnit, final PersistenceUnitMetadata pu) {
+        if (Configuration.allowScanCache(pu) && !pu.getProperties().containsKey(Configuration.JPA_SCAN_CACHE_DIR)) {
+            final String dataDir = WildFlySecurityManager.getPropertyPrivileged(ServerEnvironment.SERVER_DATA_DIR, null);
+            if (dataDir != null) {
+                pu.getProperties().setProperty(Configuration.JPA_SCAN_CACHE_DIR, new File(new File(dataDir, "jpa"), "scancache").getAbsolutePath());
+                // The path of managed content is derived from its hash; an archive is rewritten whenever it changes.
+                // Exploded content has no such identity, so its archives are fingerprinted entry by entry instead.
+                final VirtualFile content = DeploymentUtils.getTopDeploymentUnit(deploymentUnit).getAttachment(Attachments.DEPLOYMENT_CONTENTS);
+                if (content != null && content.isFile()) {
+                    pu.getProperties().setProperty(Configuration.JPA_SCAN_CACHE_CONTENT, content.getPathName() + ':' + content.getSize() + ':' + content.getLastModified());
+                }
+            }
+        }
+    }
+
     /**
      * start the persistence unit in one phase
      *
@@ -360,6 +383,7 @@ public class PersistenceUnitServiceHandler {
             deploymentUnit.addToAttachmentList(REMOVAL_KEY, persistenceAdaptorRemoval);
 
             // add persistence provider specific properties
+            configureScanCache(deploymentUnit, pu);
             adaptor.addProviderProperties(properties, pu);
 
             final ServiceName puServiceName = PersistenceUnitServiceImpl.getPUServiceName(pu);
@@ -489,6 +513,7 @@ public class PersistenceUnitServiceHandler {
             deploymentUnit.addToAttachmentList(REMOVAL_KEY, new PersistenceAdaptorRemoval(pu, adaptor));
 
             // add persistence provider specific properties
+            configureScanCache(deploymentUnit, pu);
             adaptor.addProviderProperties(properties, pu);
 
             final ServiceName puServiceName = PersistenceUnitServiceImpl.getPUServiceName(pu).append(FIRST_PHASE);
@@ -602,6 +627,7 @@ public class PersistenceUnitServiceHandler {
             deploymentUnit.addToAttachmentList(REMOVAL_KEY, persistenceAdaptorRemoval);
 
             // add persistence provider specific properties
+            configureScanCache(deploymentUnit, pu);
             adaptor.addProviderProperties(properties, pu);
 
             final ServiceName puServiceName = PersistenceUnitServiceImpl.getPUServiceName(pu);
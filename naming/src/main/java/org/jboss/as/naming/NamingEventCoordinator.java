@@ -22,40 +22,66 @@
 
 package org.jboss.as.naming;
 
+import static java.security.AccessController.doPrivileged;
+import static org.jboss.as.naming.logging.NamingLogger.ROOT_LOGGER;
+
 import java.security.PrivilegedAction;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ThreadFactory;
-import org.jboss.as.naming.util.FastCopyHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import javax.naming.Binding;
+import javax.naming.CompositeName;
+import javax.naming.InvalidNameException;
 import javax.naming.Name;
 import javax.naming.event.EventContext;
 import javax.naming.event.NamespaceChangeListener;
 import javax.naming.event.NamingEvent;
 import javax.naming.event.NamingListener;
 import javax.naming.event.ObjectChangeListener;
-import java.util.Arrays;
-import java.util.Collections;
-import java.util.HashSet;
-import java.util.List;
-import java.util.Map;
-import java.util.Set;
-import java.util.concurrent.CopyOnWriteArrayList;
-import java.util.concurrent.Executor;
-import java.util.concurrent.Executors;
-import org.jboss.threads.JBossThreadFactory;
 
-import static java.security.AccessController.doPrivileged;
+import org.jboss.threads.JBossThreadFactory;
 
 /**
- * Coordinator responsible for passing @(code NamingEvent} instances to registered @{code NamingListener} instances.  Two
- * maps are used to managed a mapping between a listener and its configuration as well as a mapping from target name to a list
- * of listener configurations.  These maps are updated atomically on listener add and remove.
+ * Coordinator responsible for passing @(code NamingEvent} instances to registered @{code NamingListener} instances.
+ * Listeners are indexed by a trie of target name components, each node holding the listeners of its target per event
+ * scope.  Firing an event walks the trie along the event name only, so the listeners to notify are found in time
+ * proportional to the depth of the name rather than to the number of registered listeners.  The trie is updated on
+ * listener add and remove, which are serialized, while events are fired without locking.
+ * <p>
+ * Events are queued and delivered in order by a single thread, which drains all the events queued at a time in one
+ * pass, so that bursts of binds and unbinds do not result in a task per event.
+ * </p>
  *
  * @author John E. Bailey
  */
 public class NamingEventCoordinator {
-    private volatile Map<TargetScope, List<ListenerHolder>> holdersByTarget = Collections.emptyMap();
-    private volatile Map<NamingListener, ListenerHolder> holdersByListener = Collections.emptyMap();
+    private static final ListenerHolder[] NO_HOLDERS = new ListenerHolder[0];
+
+    private final Node root = new Node(null, null);
+    // Guarded by this
+    private final Map<NamingListener, ListenerHolder> holdersByListener = new HashMap<NamingListener, ListenerHolder>();
+
+    private final Queue<FireEventTask> pendingEvents = new ConcurrentLinkedQueue<FireEventTask>();
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final Runnable drainTask = new Runnable() {
+        @Override
+        public void run() {
+            drain();
+        }
+    };
 
     private final ThreadFactory threadFactory = doPrivileged(new PrivilegedAction<JBossThreadFactory>() {
         public JBossThreadFactory run() {
@@ -76,26 +102,24 @@ public class NamingEventCoordinator {
      * @param namingListener The listener
      */
     synchronized void addListener(final String target, final int scope, final NamingListener namingListener) {
+        if (scope < EventContext.OBJECT_SCOPE || scope > EventContext.SUBTREE_SCOPE) {
+            // No event is ever fired against an unknown scope
+            return;
+        }
         final TargetScope targetScope = new TargetScope(target, scope);
         // Do we have a holder for this listener
         ListenerHolder holder = holdersByListener.get(namingListener);
         if (holder == null) {
-            holder = new ListenerHolder(namingListener, targetScope);
-            final Map<NamingListener, ListenerHolder> byListenerCopy = new FastCopyHashMap<NamingListener, ListenerHolder>(holdersByListener);
-            byListenerCopy.put(namingListener, holder);
-            holdersByListener = byListenerCopy;
-        } else {
-            holder.addTarget(targetScope);
+            holder = new ListenerHolder(namingListener);
+            holdersByListener.put(namingListener, holder);
         }
-
-        List<ListenerHolder> holdersForTarget = holdersByTarget.get(targetScope);
-        if (holdersForTarget == null) {
-            holdersForTarget = new CopyOnWriteArrayList<ListenerHolder>();
-            final Map<TargetScope, List<ListenerHolder>> byTargetCopy = new FastCopyHashMap<TargetScope, List<ListenerHolder>>(holdersByTarget);
-            byTargetCopy.put(targetScope, holdersForTarget);
-            holdersByTarget = byTargetCopy;
+        if (holder.targets.add(targetScope)) {
+            Node node = root;
+            for (String component : targetScope.components) {
+                node = node.getOrCreateChild(component);
+            }
+            node.addHolder(scope, holder);
         }
-        holdersForTarget.add(holder);
     }
 
     /**
@@ -106,24 +130,30 @@ public class NamingEventCoordinator {
      */
     synchronized void removeListener(final NamingListener namingListener) {
         // Do we have a holder for this listener
-        final ListenerHolder holder = holdersByListener.get(namingListener);
+        final ListenerHolder holder = holdersByListener.remove(namingListener);
         if (holder == null) {
             return;
         }
+        // Events already queued for the listener are not delivered
+        holder.removed = true;
 
-        final Map<NamingListener, ListenerHolder> byListenerCopy = new FastCopyHashMap<NamingListener, ListenerHolder>(holdersByListener);
-        byListenerCopy.remove(namingListener);
-        holdersByListener = byListenerCopy;
-
-        final Map<TargetScope, List<ListenerHolder>> byTargetCopy = new FastCopyHashMap<TargetScope, List<ListenerHolder>>(holdersByTarget);
         for (TargetScope targetScope : holder.targets) {
-            final List<ListenerHolder> holders = holdersByTarget.get(targetScope);
-            holders.remove(holder);
-            if (holders.isEmpty()) {
-                byTargetCopy.remove(targetScope);
+            Node node = root;
+            for (String component : targetScope.components) {
+                node = node.children.get(component);
+                if (node == null) {
+                    break;
+                }
+            }
+            if (node != null) {
+                node.removeHolder(targetScope.scope, holder);
+                // Prune the nodes left with neither listeners nor children
+                while (node.parent != null && node.isEmpty()) {
+                    node.parent.children.remove(node.name, node);
+                    node = node.parent;
+                }
             }
         }
-        holdersByTarget = byTargetCopy;
     }
 
     /**
@@ -139,49 +169,67 @@ public class NamingEventCoordinator {
      * @param scopes The scopes this event should be fired against
      */
     void fireEvent(final EventContext context, final Name name, final Binding existingBinding, final Binding newBinding, int type, final String changeInfo, final Integer... scopes) {
-        final String target = name.toString();
-        final Set<Integer> scopeSet = new HashSet<Integer>(Arrays.asList(scopes));
-        final NamingEvent event = new NamingEvent(context, type, newBinding, existingBinding, changeInfo);
-
-        final Set<ListenerHolder> holdersToFire = new HashSet<ListenerHolder>();
-
-        // Check for OBJECT_SCOPE based listeners
-        if (scopeSet.contains(EventContext.OBJECT_SCOPE)) {
-            final TargetScope targetScope = new TargetScope(target, EventContext.OBJECT_SCOPE);
-            final List<ListenerHolder> holders = holdersByTarget.get(targetScope);
-            if (holders != null) {
-                for (ListenerHolder holder : holders) {
-                    holdersToFire.add(holder);
-                }
+        boolean objectScope = false;
+        boolean oneLevelScope = false;
+        boolean subtreeScope = false;
+        for (Integer scope : scopes) {
+            if (scope == EventContext.OBJECT_SCOPE) {
+                objectScope = true;
+            } else if (scope == EventContext.ONELEVEL_SCOPE) {
+                oneLevelScope = true;
+            } else if (scope == EventContext.SUBTREE_SCOPE) {
+                subtreeScope = true;
             }
         }
 
-        // Check for ONELEVEL_SCOPE based listeners
-        if (scopeSet.contains(EventContext.ONELEVEL_SCOPE) && !name.isEmpty()) {
-            final TargetScope targetScope = new TargetScope(name.getPrefix(name.size() - 1).toString(), EventContext.ONELEVEL_SCOPE);
-            final List<ListenerHolder> holders = holdersByTarget.get(targetScope);
-            if (holders != null) {
-                for (ListenerHolder holder : holders) {
-                    holdersToFire.add(holder);
+        final Set<ListenerHolder> holdersToFire = new LinkedHashSet<ListenerHolder>();
+        final int size = name.size();
+        Node node = root;
+        for (int depth = 0; node != null; depth++) {
+            // SUBTREE_SCOPE based listeners registered against a proper, non empty, prefix of the name
+            if (subtreeScope && depth > 0 && depth < size) {
+                holdersToFire.addAll(Arrays.asList(node.getHolders(EventContext.SUBTREE_SCOPE)));
+            }
+            // ONELEVEL_SCOPE based listeners registered against the parent of the name
+            if (oneLevelScope && depth == size - 1) {
+                holdersToFire.addAll(Arrays.asList(node.getHolders(EventContext.ONELEVEL_SCOPE)));
+            }
+            if (depth == size) {
+                // OBJECT_SCOPE based listeners registered against the name itself
+                if (objectScope) {
+                    holdersToFire.addAll(Arrays.asList(node.getHolders(EventContext.OBJECT_SCOPE)));
                 }
+                break;
             }
+            node = node.children.get(name.get(depth));
         }
 
-        // Check for SUBTREE_SCOPE based listeners
-        if (scopeSet.contains(EventContext.SUBTREE_SCOPE) && !name.isEmpty()) {
-            for (int i = 1; i < name.size(); i++) {
-                final Name parentName = name.getPrefix(i);
-                final TargetScope targetScope = new TargetScope(parentName.toString(), EventContext.SUBTREE_SCOPE);
-                final List<ListenerHolder> holders = holdersByTarget.get(targetScope);
-                if (holders != null) {
-                    for (ListenerHolder holder : holders) {
-                        holdersToFire.add(holder);
-                    }
-                }
+        if (!holdersToFire.isEmpty()) {
+            pendingEvents.add(new FireEventTask(holdersToFire, new NamingEvent(context, type, newBinding, existingBinding, changeInfo)));
+            scheduleDrain();
+        }
+    }
+
+    private void scheduleDrain() {
+        if (draining.compareAndSet(false, true)) {
+            try {
+                executor.execute(drainTask);
+            } catch (RejectedExecutionException e) {
+                draining.set(false);
+                throw e;
             }
         }
+    }
 
-        executor.execute(new FireEventTask(holdersToFire, event));
+    private void drain() {
+        do {
+            FireEventTask task;
+            while ((task = pendingEvents.poll()) != null) {
+                task.run();
+            }
+            draining.set(false);
+            // An event may have been queued after the queue was found empty, but before draining was reset
+        } while (!pendingEvents.isEmpty() && draining.compareAndSet(false, true));
     }
 
     private class FireEventTask implements Runnable {
@@ -196,50 +244,138 @@ public class NamingEventCoordinator {
         @Override
         public void run() {
             for (ListenerHolder holder : listenerHolders) {
+                if (holder.removed) {
+                    continue;
+                }
                 final NamingListener listener = holder.listener;
-                switch (event.getType()) {
-                    case NamingEvent.OBJECT_ADDED:
-                        if (listener instanceof NamespaceChangeListener)
-                            ((NamespaceChangeListener) listener).objectAdded(event);
-                        break;
-                    case NamingEvent.OBJECT_REMOVED:
-                        if (listener instanceof NamespaceChangeListener)
-                            ((NamespaceChangeListener) listener).objectRemoved(event);
-                        break;
-                    case NamingEvent.OBJECT_RENAMED:
-                        if (listener instanceof NamespaceChangeListener)
-                            ((NamespaceChangeListener) listener).objectRenamed(event);
-                        break;
-                    case NamingEvent.OBJECT_CHANGED:
-                        if (listener instanceof ObjectChangeListener)
-                            ((ObjectChangeListener) listener).objectChanged(event);
-                        break;
+                try {
+                    switch (event.getType()) {
+                        case NamingEvent.OBJECT_ADDED:
+                            if (listener instanceof NamespaceChangeListener)
+                                ((NamespaceChangeListener) listener).objectAdded(event);
+                            break;
+                        case NamingEvent.OBJECT_REMOVED:
+                            if (listener instanceof NamespaceChangeListener)
+                                ((NamespaceChangeListener) listener).objectRemoved(event);
+                            break;
+                        case NamingEvent.OBJECT_RENAMED:
+                            if (listener instanceof NamespaceChangeListener)
+                                ((NamespaceChangeListener) listener).objectRenamed(event);
+                            break;
+                        case NamingEvent.OBJECT_CHANGED:
+                            if (listener instanceof ObjectChangeListener)
+                                ((ObjectChangeListener) listener).objectChanged(event);
+                            break;
+                    }
+                } catch (Throwable t) {
+                    // Do not let a failing listener prevent the delivery to the other listeners, or of the other events
+                    ROOT_LOGGER.namingListenerFailed(t, listener);
                 }
             }
         }
     }
 
-    private class ListenerHolder {
-        private volatile Set<TargetScope> targets = new HashSet<TargetScope>();
-        private final NamingListener listener;
+    /**
+     * A node of the listener trie, holding the listeners registered against the target name leading to it.  The listener
+     * arrays are copied on write, writes being serialized by the coordinator.
+     */
+    private static class Node {
+        private final Node parent;
+        private final String name;
+        private final ConcurrentMap<String, Node> children = new ConcurrentHashMap<String, Node>();
+        private volatile ListenerHolder[][] holdersByScope = {NO_HOLDERS, NO_HOLDERS, NO_HOLDERS};
+
+        private Node(final Node parent, final String name) {
+            this.parent = parent;
+            this.name = name;
+        }
 
-        private ListenerHolder(final NamingListener listener, final TargetScope initialTarget) {
-            this.listener = listener;
-            addTarget(initialTarget);
+        private Node getOrCreateChild(final String component) {
+            Node child = children.get(component);
+            if (child == null) {
+                child = new Node(this, component);
+                children.put(component, child);
+            }
+            return child;
+        }
+
+        private ListenerHolder[] getHolders(final int scope) {
+            return holdersByScope[scope];
         }
 
-        private synchronized void addTarget(final TargetScope targetScope) {
-            targets.add(targetScope);
+        private void addHolder(final int scope, final ListenerHolder holder) {
+            final ListenerHolder[] holders = holdersByScope[scope];
+            final ListenerHolder[] newHolders = Arrays.copyOf(holders, holders.length + 1);
+            newHolders[holders.length] = holder;
+            setHolders(scope, newHolders);
+        }
+
+        private void removeHolder(final int scope, final ListenerHolder holder) {
+            final ListenerHolder[] holders = holdersByScope[scope];
+            for (int i = 0; i < holders.length; i++) {
+                if (holders[i] == holder) {
+                    final ListenerHolder[] newHolders = holders.length == 1 ? NO_HOLDERS : new ListenerHolder[holders.length - 1];
+                    System.arraycopy(holders, 0, newHolders, 0, i);
+                    System.arraycopy(holders, i + 1, newHolders, i, holders.length - i - 1);
+                    setHolders(scope, newHolders);
+                    return;
+                }
+            }
+        }
+
+        private void setHolders(final int scope, final ListenerHolder[] holders) {
+            final ListenerHolder[][] copy = holdersByScope.clone();
+            copy[scope] = holders;
+            holdersByScope = copy;
+        }
+
+        private boolean isEmpty() {
+            for (ListenerHolder[] holders : holdersByScope) {
+                if (holders.length != 0) {
+                    return false;
+                }
+            }
+            return children.isEmpty();
         }
     }
 
-    private class TargetScope {
+    private static class ListenerHolder {
+        // Guarded by the coordinator
+        private final Set<TargetScope> targets = new HashSet<TargetScope>();
+        private final NamingListener listener;
+        private volatile boolean removed;
+
+        private ListenerHolder(final NamingListener listener) {
+            this.listener = listener;
+        }
+    }
+
+    private static class TargetScope {
         private final String target;
         private final int scope;
+        private final String[] components;
 
         private TargetScope(String target, int scope) {
             this.target = target;
             this.scope = scope;
+            this.components = parse(target);
+        }
+
+        private static String[] parse(final String target) {
+            if (target == null || target.isEmpty()) {
+                return new String[0];
+            }
+            try {
+                final Name name = new CompositeName(target);
+                final String[] components = new String[name.size()];
+                for (int i = 0; i < components.length; i++) {
+                    components[i] = name.get(i);
+                }
+                return components;
+            } catch (InvalidNameException e) {
+                // Such a target can only match an event name made of a single, identical, component
+                return new String[] {target};
+            }
         }
 
         @Override
@@ -593,4 +593,14 @@ public interface NamingLogger extends BasicLogger {
 
     @Message(id = 64, value = "Cannot rebind external context lookup")
     OperationFailedException cannotRebindExternalContext();
+
+    /**
+     * Logs a warning message indicating a naming listener failed to handle an event.
+     *
+     * @param cause    the cause of the error.
+     * @param listener the listener.
+     */
+    @LogMessage(level = WARN)
+    @Message(id = 65, value = "Naming listener %s failed to handle event")
+    void namingListenerFailed(@Cause Throwable cause, Object listener);
 }
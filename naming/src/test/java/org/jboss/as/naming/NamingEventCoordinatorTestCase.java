@@ -25,6 +25,7 @@ package org.jboss.as.naming;
 import org.junit.Before;
 import org.junit.Test;
 
+import javax.naming.Binding;
 import javax.naming.CompositeName;
 import javax.naming.event.EventContext;
 import javax.naming.event.NamespaceChangeListener;
@@ -161,6 +162,67 @@ public class NamingEventCoordinatorTestCase {
         assertEquals(1, subtreeListenerThree.capturedEvents.size());
     }
 
+    @Test
+    public void testRemoveListener() throws Exception {
+        final NamingEventCoordinator coordinator = new NamingEventCoordinator();
+
+        final CollectingListener removedListener = new CollectingListener(0);
+        coordinator.addListener("foo", EventContext.SUBTREE_SCOPE, removedListener);
+        coordinator.addListener("foo/bar", EventContext.OBJECT_SCOPE, removedListener);
+        final CollectingListener listener = new CollectingListener(1);
+        coordinator.addListener("foo/bar", EventContext.OBJECT_SCOPE, listener);
+
+        coordinator.removeListener(removedListener);
+        coordinator.fireEvent(context, new CompositeName("foo/bar"), null, null, NamingEvent.OBJECT_ADDED, "bind", NamingEventCoordinator.DEFAULT_SCOPES);
+
+        assertTrue(listener.latch.await(1, TimeUnit.SECONDS));
+        assertTrue(removedListener.capturedEvents.isEmpty());
+    }
+
+    @Test
+    public void testListenerRegisteredForSeveralScopes() throws Exception {
+        final NamingEventCoordinator coordinator = new NamingEventCoordinator();
+
+        final CollectingListener listener = new CollectingListener(2);
+        coordinator.addListener("foo", EventContext.SUBTREE_SCOPE, listener);
+        coordinator.addListener("foo", EventContext.ONELEVEL_SCOPE, listener);
+        coordinator.addListener("foo/bar", EventContext.OBJECT_SCOPE, listener);
+
+        coordinator.fireEvent(context, new CompositeName("foo/bar"), null, null, NamingEvent.OBJECT_ADDED, "bind", NamingEventCoordinator.DEFAULT_SCOPES);
+        coordinator.fireEvent(context, new CompositeName("foo/bar/baz"), null, null, NamingEvent.OBJECT_ADDED, "bind", NamingEventCoordinator.DEFAULT_SCOPES);
+
+        assertTrue(listener.latch.await(1, TimeUnit.SECONDS));
+        // The listener is notified once per event, however many of its targets match
+        assertEquals(2, listener.capturedEvents.size());
+    }
+
+    @Test
+    public void testBindStorm() throws Exception {
+        final NamingEventCoordinator coordinator = new NamingEventCoordinator();
+        final int count = 5000;
+
+        final CollectingListener[] objectListeners = new CollectingListener[count];
+        for (int i = 0; i < count; i++) {
+            objectListeners[i] = new CollectingListener(1);
+            coordinator.addListener("app/module/bean" + i, EventContext.OBJECT_SCOPE, objectListeners[i]);
+        }
+        final CollectingListener subtreeListener = new CollectingListener(count);
+        coordinator.addListener("app", EventContext.SUBTREE_SCOPE, subtreeListener);
+
+        for (int i = 0; i < count; i++) {
+            coordinator.fireEvent(context, new CompositeName("app/module/bean" + i), null, new Binding("bean" + i, null), NamingEvent.OBJECT_ADDED, "bind", NamingEventCoordinator.DEFAULT_SCOPES);
+        }
+
+        assertTrue(subtreeListener.latch.await(10, TimeUnit.SECONDS));
+        assertEquals(count, subtreeListener.capturedEvents.size());
+        for (int i = 0; i < count; i++) {
+            // Events are delivered in the order they were fired
+            assertEquals("bean" + i, subtreeListener.capturedEvents.get(i).getNewBinding().getName());
+            assertTrue(objectListeners[i].latch.await(1, TimeUnit.SECONDS));
+            assertEquals(1, objectListeners[i].capturedEvents.size());
+        }
+    }
+
     private class CollectingListener implements ObjectChangeListener, NamespaceChangeListener {
         private final List<NamingEvent> capturedEvents = new ArrayList<NamingEvent>();
 
@@ -62,6 +62,10 @@ class AccessLogAdd extends AbstractAddStepHandler {
         final boolean extended = AccessLogDefinition.EXTENDED.resolveModelAttribute(context, model).asBoolean();
         final ModelNode relativeToNode = AccessLogDefinition.RELATIVE_TO.resolveModelAttribute(context, model);
         final String relativeTo = relativeToNode.isDefined() ? relativeToNode.asString() : null;
+        final boolean async = AccessLogDefinition.ASYNC.resolveModelAttribute(context, model).asBoolean();
+        final AsyncAccessLog.Format format = AsyncAccessLog.Format.valueOf(AccessLogDefinition.OUTPUT_FORMAT.resolveModelAttribute(context, model).asString());
+        final int queueSize = AccessLogDefinition.QUEUE_SIZE.resolveModelAttribute(context, model).asInt();
+        final AsyncAccessLog.OverflowPolicy overflowPolicy = AsyncAccessLog.OverflowPolicy.valueOf(AccessLogDefinition.OVERFLOW_POLICY.resolveModelAttribute(context, model).asString());
 
         Predicate predicate = null;
         ModelNode predicateNode = AccessLogDefinition.PREDICATE.resolveModelAttribute(context, model);
@@ -71,9 +75,9 @@ class AccessLogAdd extends AbstractAddStepHandler {
 
         final AccessLogService service;
         if (useServerLog) {
-            service = new AccessLogService(pattern, extended, predicate);
+            service = new AccessLogService(pattern, extended, predicate, async, format, queueSize, overflowPolicy);
         } else {
-            service = new AccessLogService(pattern, directory, relativeTo, filePrefix, fileSuffix, rotate, extended, predicate);
+            service = new AccessLogService(pattern, directory, relativeTo, filePrefix, fileSuffix, rotate, extended, predicate, async, format, queueSize, overflowPolicy);
         }
 
         final String serverName = serverAddress.getLastElement().getValue();
@@ -24,8 +24,12 @@ package org.wildfly.extension.undertow;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
+import java.util.function.Function;
 
 import org.jboss.as.controller.AttributeDefinition;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.OperationStepHandler;
 import org.jboss.as.controller.PersistentResourceDefinition;
 import org.jboss.as.controller.SimpleAttributeDefinition;
 import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
@@ -33,10 +37,14 @@ import org.jboss.as.controller.access.constraint.SensitivityClassification;
 import org.jboss.as.controller.access.management.AccessConstraintDefinition;
 import org.jboss.as.controller.access.management.SensitiveTargetAccessConstraintDefinition;
 import org.jboss.as.controller.capability.RuntimeCapability;
+import org.jboss.as.controller.operations.validation.EnumValidator;
+import org.jboss.as.controller.operations.validation.IntRangeValidator;
 import org.jboss.as.controller.operations.validation.StringLengthValidator;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.dmr.ModelNode;
 import org.jboss.dmr.ModelType;
 import org.jboss.dmr.ValueExpression;
+import org.jboss.msc.service.ServiceController;
 
 /**
  * @author Tomaz Cerar (c) 2013 Red Hat Inc.
@@ -112,6 +120,43 @@ class AccessLogDefinition extends PersistentResourceDefinition {
             .setRestartAllServices()
             .build();
 
+    protected static final SimpleAttributeDefinition ASYNC = new SimpleAttributeDefinitionBuilder(Constants.ASYNC, ModelType.BOOLEAN, true)
+            .setDefaultValue(new ModelNode(false))
+            .setAllowExpression(true)
+            .setRestartAllServices()
+            .build();
+
+    protected static final SimpleAttributeDefinition OUTPUT_FORMAT = new SimpleAttributeDefinitionBuilder(Constants.OUTPUT_FORMAT, ModelType.STRING, true)
+            .setDefaultValue(new ModelNode(AsyncAccessLog.Format.TEXT.name()))
+            .setValidator(new EnumValidator<>(AsyncAccessLog.Format.class, true, true))
+            .setAllowExpression(true)
+            .setRestartAllServices()
+            .build();
+
+    protected static final SimpleAttributeDefinition QUEUE_SIZE = new SimpleAttributeDefinitionBuilder(Constants.QUEUE_SIZE, ModelType.INT, true)
+            .setDefaultValue(new ModelNode(8192))
+            .setValidator(new IntRangeValidator(1, true, true))
+            .setAllowExpression(true)
+            .setRestartAllServices()
+            .build();
+
+    protected static final SimpleAttributeDefinition OVERFLOW_POLICY = new SimpleAttributeDefinitionBuilder(Constants.OVERFLOW_POLICY, ModelType.STRING, true)
+            .setDefaultValue(new ModelNode(AsyncAccessLog.OverflowPolicy.BLOCK.name()))
+            .setValidator(new EnumValidator<>(AsyncAccessLog.OverflowPolicy.class, true, true))
+            .setAllowExpression(true)
+            .setRestartAllServices()
+            .build();
+
+    static final SimpleAttributeDefinition DROPPED_RECORDS = new SimpleAttributeDefinitionBuilder(Constants.DROPPED_RECORDS, ModelType.LONG)
+            .setUndefinedMetricValue(new ModelNode(0L))
+            .setStorageRuntime()
+            .build();
+
+    static final SimpleAttributeDefinition QUEUED_RECORDS = new SimpleAttributeDefinitionBuilder(Constants.QUEUED_RECORDS, ModelType.INT)
+            .setUndefinedMetricValue(new ModelNode(0))
+            .setStorageRuntime()
+            .build();
+
     static final Collection<SimpleAttributeDefinition> ATTRIBUTES = Arrays.asList(
             // IMPORTANT -- keep these in xsd order as this order controls marshalling
             WORKER,
@@ -123,7 +168,11 @@ class AccessLogDefinition extends PersistentResourceDefinition {
             USE_SERVER_LOG,
             RELATIVE_TO,
             EXTENDED,
-            PREDICATE
+            PREDICATE,
+            ASYNC,
+            OUTPUT_FORMAT,
+            QUEUE_SIZE,
+            OVERFLOW_POLICY
     );
     static final AccessLogDefinition INSTANCE = new AccessLogDefinition();
     private final List<AccessConstraintDefinition> accessConstraints;
@@ -149,4 +198,31 @@ class AccessLogDefinition extends PersistentResourceDefinition {
         //noinspection unchecked
         return (Collection) ATTRIBUTES;
     }
+
+    @Override
+    public void registerAttributes(ManagementResourceRegistration resourceRegistration) {
+        super.registerAttributes(resourceRegistration);
+        resourceRegistration.registerMetric(DROPPED_RECORDS, new MetricHandler(log -> new ModelNode(log.getDroppedCount())));
+        resourceRegistration.registerMetric(QUEUED_RECORDS, new MetricHandler(log -> new ModelNode(log.getQueuedCount())));
+    }
+
+    private static class MetricHandler implements OperationStepHandler {
+        private final Function<AsyncAccessLog, ModelNode> metric;
+
+        MetricHandler(Function<AsyncAccessLog, ModelNode> metric) {
+            this.metric = metric;
+        }
+
+        @Override
+        public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
+            ServiceController<?> controller = context.getServiceRegistry(false).getService(ACCESS_LOG_CAPABILITY.getCapabilityServiceName(context.getCurrentAddress()));
+            if (controller != null && controller.getState() == ServiceController.State.UP) {
+                AsyncAccessLog log = ((AccessLogService) controller.getValue()).getAsyncLog();
+                if (log != null) {
+                    context.getResult().set(this.metric.apply(log));
+                }
+            }
+            context.completeStep(OperationContext.RollbackHandler.NOOP_ROLLBACK_HANDLER);
+        }
+    }
 }
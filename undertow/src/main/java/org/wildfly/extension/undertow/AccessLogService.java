@@ -61,7 +61,12 @@ class AccessLogService implements Service<AccessLogService> {
     private final boolean useServerLog;
     private final boolean extended;
     private final Predicate predicate;
+    private final boolean async;
+    private final AsyncAccessLog.Format format;
+    private final int queueSize;
+    private final AsyncAccessLog.OverflowPolicy overflowPolicy;
     private volatile AccessLogReceiver logReceiver;
+    private volatile AsyncAccessLog asyncLog;
 
 
     private PathManager.Callback.Handle callbackHandle;
@@ -72,7 +77,7 @@ class AccessLogService implements Service<AccessLogService> {
     private final InjectedValue<PathManager> pathManager = new InjectedValue<PathManager>();
 
 
-    AccessLogService(String pattern, boolean extended, Predicate predicate) {
+    AccessLogService(String pattern, boolean extended, Predicate predicate, boolean async, AsyncAccessLog.Format format, int queueSize, AsyncAccessLog.OverflowPolicy overflowPolicy) {
         this.pattern = pattern;
         this.extended = extended;
         this.path = null;
@@ -82,9 +87,14 @@ class AccessLogService implements Service<AccessLogService> {
         this.useServerLog = true;
         this.rotate = false; //doesn't really matter
         this.predicate = predicate == null ? Predicates.truePredicate() : predicate;
+        // JSON lines are only written by the asynchronous access log
+        this.async = async || format == AsyncAccessLog.Format.JSON;
+        this.format = format;
+        this.queueSize = queueSize;
+        this.overflowPolicy = overflowPolicy;
     }
 
-    AccessLogService(String pattern, String path, String pathRelativeTo, String filePrefix, String fileSuffix, boolean rotate, boolean extended, Predicate predicate) {
+    AccessLogService(String pattern, String path, String pathRelativeTo, String filePrefix, String fileSuffix, boolean rotate, boolean extended, Predicate predicate, boolean async, AsyncAccessLog.Format format, int queueSize, AsyncAccessLog.OverflowPolicy overflowPolicy) {
         this.pattern = pattern;
         this.path = path;
         this.pathRelativeTo = pathRelativeTo;
@@ -94,6 +104,11 @@ class AccessLogService implements Service<AccessLogService> {
         this.extended = extended;
         this.useServerLog = false;
         this.predicate = predicate == null ? Predicates.truePredicate() : predicate;
+        // JSON lines are only written by the asynchronous access log
+        this.async = async || format == AsyncAccessLog.Format.JSON;
+        this.format = format;
+        this.queueSize = queueSize;
+        this.overflowPolicy = overflowPolicy;
     }
 
     @Override
@@ -113,7 +128,8 @@ class AccessLogService implements Service<AccessLogService> {
                 }
             }
             try {
-                DefaultAccessLogReceiver.Builder builder = DefaultAccessLogReceiver.builder().setLogWriteExecutor(worker.getValue())
+                // the asynchronous access log writes its batches on its own thread
+                DefaultAccessLogReceiver.Builder builder = DefaultAccessLogReceiver.builder().setLogWriteExecutor(async ? Runnable::run : worker.getValue())
                         .setOutputDirectory(directory)
                         .setLogBaseName(filePrefix)
                         .setLogNameSuffix(fileSuffix)
@@ -129,12 +145,23 @@ class AccessLogService implements Service<AccessLogService> {
                 throw new StartException(e);
             }
         }
+        if (async) {
+            if (extended && extendedPattern == null) {
+                extendedPattern = new ExtendedAccessLogParser(getClass().getClassLoader()).parse(pattern);
+            }
+            asyncLog = new AsyncAccessLog("access-log-" + host.getValue().getName(), extended ? null : pattern, extendedPattern, getClass().getClassLoader(), logReceiver, format, queueSize, overflowPolicy);
+            asyncLog.start();
+        }
         host.getValue().setAccessLogService(this);
     }
 
     @Override
     public void stop(StopContext context) {
         host.getValue().setAccessLogService(null);
+        if (asyncLog != null) {
+            asyncLog.close();
+            asyncLog = null;
+        }
         if (callbackHandle != null) {
             callbackHandle.remove();
             callbackHandle = null;
@@ -158,7 +185,11 @@ class AccessLogService implements Service<AccessLogService> {
         return pathManager;
     }
 
-    protected AccessLogHandler configureAccessLogHandler(HttpHandler handler) {
+    protected HttpHandler configureAccessLogHandler(HttpHandler handler) {
+        AsyncAccessLog asyncLog = this.asyncLog;
+        if (asyncLog != null) {
+            return asyncLog.createHandler(handler, predicate);
+        }
         if(extendedPattern != null) {
             return new AccessLogHandler(handler, logReceiver, pattern, extendedPattern, predicate);
         } else {
@@ -170,6 +201,10 @@ class AccessLogService implements Service<AccessLogService> {
         return host;
     }
 
+    AsyncAccessLog getAsyncLog() {
+        return asyncLog;
+    }
+
     boolean isRotate() {
         return rotate;
     }
@@ -0,0 +1,414 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.undertow;
+
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import io.undertow.attribute.ExchangeAttribute;
+import io.undertow.attribute.ExchangeAttributeParser;
+import io.undertow.attribute.ExchangeAttributes;
+import io.undertow.predicate.Predicate;
+import io.undertow.server.ExchangeCompletionListener;
+import io.undertow.server.HttpHandler;
+import io.undertow.server.HttpServerExchange;
+import io.undertow.server.handlers.accesslog.AccessLogReceiver;
+import io.undertow.server.handlers.accesslog.DefaultAccessLogReceiver;
+import org.jboss.threads.JBossThreadFactory;
+import org.wildfly.extension.undertow.logging.UndertowLogger;
+import org.xnio.XnioIoThread;
+
+/**
+ * Access log that moves the formatting and writing of the records off the I/O threads.
+ * <p>
+ * When an exchange completes, the values of the attributes of the pattern are copied into a slot of a preallocated ring
+ * buffer, which costs no more than reading the attributes. A dedicated thread formats the records of the buffer, as
+ * text or as JSON lines, and hands them to the {@link AccessLogReceiver} in batches. When the buffer is full a record
+ * is either dropped, and counted, or the completing exchange waits for room, depending on the {@link OverflowPolicy}.
+ * An exchange completed by an I/O thread never waits, as that would stall every connection of the thread.
+ */
+class AsyncAccessLog implements Runnable {
+
+    enum Format {
+        /**
+         * The pattern, as for the synchronous access log.
+         */
+        TEXT,
+        /**
+         * A JSON object per line, with a member per attribute of the pattern.
+         */
+        JSON,
+        ;
+    }
+
+    enum OverflowPolicy {
+        /**
+         * The exchange waits until the writer has made room for the record, unless it completes on an I/O thread, in
+         * which case the record is discarded.
+         */
+        BLOCK,
+        /**
+         * The record is discarded.
+         */
+        DROP,
+        ;
+    }
+
+    private static final String COMMON_PATTERN = "%h %l %u %t \"%r\" %s %b";
+    private static final String COMBINED_PATTERN = COMMON_PATTERN + " \"%{i,Referer}\" \"%{i,User-Agent}\"";
+    private static final long IDLE_WAIT = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final long FULL_WAIT = TimeUnit.MICROSECONDS.toNanos(50);
+
+    private final AccessLogReceiver receiver;
+    private final Format format;
+    private final OverflowPolicy overflowPolicy;
+    // the pattern is split into literals, and the attributes between them
+    private final String[] literals;
+    private final ExchangeAttribute[] attributes;
+    private final String[] names;
+    private final boolean[] timestamps;
+    private final Slot[] slots;
+    private final int mask;
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+    private final LongAdder dropped = new LongAdder();
+    private final Thread writer;
+    private final SimpleDateFormat dateFormat = new SimpleDateFormat("[dd/MMM/yyyy:HH:mm:ss Z]", Locale.US);
+    private volatile boolean waiting;
+    private volatile boolean closed;
+
+    /**
+     * @param name the name of the thread group of the writer thread
+     * @param pattern the pattern, or {@code null} if the records are given by a single attribute
+     * @param attribute the attribute of the whole record, used if the pattern is {@code null}
+     * @param queueSize the number of records that can be buffered, rounded up to a power of two
+     */
+    AsyncAccessLog(String name, String pattern, ExchangeAttribute attribute, ClassLoader classLoader, AccessLogReceiver receiver, Format format, int queueSize, OverflowPolicy overflowPolicy) {
+        this.receiver = receiver;
+        this.format = format;
+        this.overflowPolicy = overflowPolicy;
+        final List<String> literals = new ArrayList<>();
+        final List<String> tokens = new ArrayList<>();
+        if (pattern != null) {
+            parse(pattern.equals("common") ? COMMON_PATTERN : pattern.equals("combined") ? COMBINED_PATTERN : pattern, literals, tokens);
+        } else {
+            literals.add("");
+            literals.add("");
+            tokens.add("message");
+        }
+        this.literals = literals.toArray(new String[literals.size()]);
+        this.attributes = new ExchangeAttribute[tokens.size()];
+        this.names = new String[tokens.size()];
+        this.timestamps = new boolean[tokens.size()];
+        final ExchangeAttributeParser parser = ExchangeAttributes.parser(classLoader);
+        for (int i = 0; i < tokens.size(); ++i) {
+            final String token = tokens.get(i);
+            this.timestamps[i] = token.equals("%t") || token.equals("%{DATE_TIME}");
+            this.attributes[i] = (pattern != null) ? parser.parse(token) : attribute;
+            this.names[i] = name(token);
+        }
+        int capacity = 1;
+        while (capacity < queueSize) {
+            capacity <<= 1;
+        }
+        this.slots = new Slot[capacity];
+        for (int i = 0; i < capacity; ++i) {
+            this.slots[i] = new Slot(tokens.size());
+        }
+        this.mask = capacity - 1;
+        this.writer = new JBossThreadFactory(new ThreadGroup(name), Boolean.TRUE, null, "%G - %t", null, null).newThread(this);
+    }
+
+    /**
+     * Splits a pattern into the literal text, and the {@code %x}, {@code %{...}} and {@code ${...}} attributes in
+     * between, so that there is always one more literal than there are attributes.
+     */
+    static void parse(String pattern, List<String> literals, List<String> tokens) {
+        final StringBuilder literal = new StringBuilder();
+        int i = 0;
+        while (i < pattern.length()) {
+            final char c = pattern.charAt(i);
+            int end = -1;
+            if ((c == '%' || c == '$') && i + 1 < pattern.length() && pattern.charAt(i + 1) == '{') {
+                end = pattern.indexOf('}', i);
+                end = (end == -1) ? -1 : end + 1;
+            } else if (c == '%' && i + 1 < pattern.length() && Character.isLetter(pattern.charAt(i + 1))) {
+                end = i + 2;
+            }
+            if (end == -1) {
+                literal.append(c);
+                ++i;
+            } else {
+                literals.add(literal.toString());
+                literal.setLength(0);
+                tokens.add(pattern.substring(i, end));
+                i = end;
+            }
+        }
+        literals.add(literal.toString());
+    }
+
+    /**
+     * The name of the JSON member of an attribute
+     */
+    static String name(String token) {
+        switch (token) {
+            case "%a": return "remote-ip";
+            case "%A": return "local-ip";
+            case "%b":
+            case "%B": return "bytes-sent";
+            case "%D": return "response-time";
+            case "%h": return "remote-host";
+            case "%H": return "protocol";
+            case "%I": return "thread-name";
+            case "%l": return "remote-logical-user";
+            case "%m": return "method";
+            case "%p": return "local-port";
+            case "%q": return "query";
+            case "%r": return "request-line";
+            case "%s": return "status";
+            case "%t": return "time";
+            case "%T": return "response-time-seconds";
+            case "%u": return "remote-user";
+            case "%U": return "request-path";
+            case "%v": return "local-server-name";
+            default:
+        }
+        if (token.startsWith("%{") && token.length() > 5 && token.charAt(3) == ',') {
+            final String argument = token.substring(4, token.length() - 1);
+            switch (token.charAt(2)) {
+                case 'i': return "request-header." + argument;
+                case 'o': return "response-header." + argument;
+                case 'c': return "cookie." + argument;
+                case 'q': return "query-parameter." + argument;
+                default:
+            }
+        }
+        if ((token.startsWith("%{") || token.startsWith("${")) && token.endsWith("}")) {
+            return token.substring(2, token.length() - 1);
+        }
+        return token;
+    }
+
+    void start() {
+        writer.start();
+    }
+
+    /**
+     * Stops the writer thread, once it has written the buffered records
+     */
+    void close() {
+        closed = true;
+        LockSupport.unpark(writer);
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    int getQueuedCount() {
+        return (int) (head.get() - tail.get());
+    }
+
+    HttpHandler createHandler(HttpHandler next, Predicate predicate) {
+        final ExchangeCompletionListener listener = (exchange, nextListener) -> {
+            try {
+                if (predicate.resolve(exchange)) {
+                    log(exchange);
+                }
+            } finally {
+                nextListener.proceed();
+            }
+        };
+        return exchange -> {
+            exchange.addExchangeCompleteListener(listener);
+            next.handleRequest(exchange);
+        };
+    }
+
+    void log(HttpServerExchange exchange) {
+        long sequence;
+        while (true) {
+            sequence = head.get();
+            if (closed) {
+                dropped.increment();
+                return;
+            }
+            if (sequence - tail.get() >= slots.length) {
+                if (overflowPolicy == OverflowPolicy.DROP || Thread.currentThread() instanceof XnioIoThread) {
+                    dropped.increment();
+                    return;
+                }
+                LockSupport.unpark(writer);
+                LockSupport.parkNanos(this, FULL_WAIT);
+            } else if (head.compareAndSet(sequence, sequence + 1)) {
+                break;
+            }
+        }
+        final Slot slot = slots[(int) sequence & mask];
+        final long now = System.currentTimeMillis();
+        for (int i = 0; i < attributes.length; ++i) {
+            if (timestamps[i]) {
+                slot.values[i] = null;
+                slot.timestamp = now;
+            } else {
+                try {
+                    slot.values[i] = attributes[i].readAttribute(exchange);
+                } catch (RuntimeException e) {
+                    slot.values[i] = null;
+                }
+            }
+        }
+        slot.sequence = sequence;
+        if (waiting) {
+            LockSupport.unpark(writer);
+        }
+    }
+
+    @Override
+    public void run() {
+        final StringBuilder batch = new StringBuilder(512);
+        final boolean batched = receiver instanceof DefaultAccessLogReceiver;
+        long next = 0;
+        while (true) {
+            final Slot slot = slots[(int) next & mask];
+            if (slot.sequence == next) {
+                if (batched && batch.length() > 0) {
+                    batch.append('\n');
+                }
+                format(slot, batch);
+                ++next;
+                // frees the slot
+                tail.lazySet(next);
+                if (!batched) {
+                    write(batch);
+                } else if (batch.length() >= 64 * 1024) {
+                    write(batch);
+                }
+                continue;
+            }
+            write(batch);
+            if (closed && head.get() == next) {
+                return;
+            }
+            waiting = true;
+            if (slot.sequence != next && !closed) {
+                LockSupport.parkNanos(this, IDLE_WAIT);
+            }
+            waiting = false;
+        }
+    }
+
+    private void write(StringBuilder batch) {
+        if (batch.length() > 0) {
+            try {
+                receiver.logMessage(batch.toString());
+            } catch (RuntimeException e) {
+                UndertowLogger.ROOT_LOGGER.debugf(e, "Failed to write access log records");
+            }
+            batch.setLength(0);
+        }
+    }
+
+    private void format(Slot slot, StringBuilder builder) {
+        if (format == Format.JSON) {
+            builder.append('{');
+            for (int i = 0; i < attributes.length; ++i) {
+                if (i > 0) {
+                    builder.append(',');
+                }
+                appendJson(builder, names[i]);
+                builder.append(':');
+                appendJson(builder, value(slot, i));
+            }
+            builder.append('}');
+        } else {
+            for (int i = 0; i < attributes.length; ++i) {
+                builder.append(literals[i]).append(value(slot, i));
+            }
+            builder.append(literals[attributes.length]);
+        }
+    }
+
+    private String value(Slot slot, int index) {
+        if (timestamps[index]) {
+            return dateFormat.format(new Date(slot.timestamp));
+        }
+        final String value = slot.values[index];
+        return (value != null) ? value : "-";
+    }
+
+    private static void appendJson(StringBuilder builder, String value) {
+        builder.append('"');
+        for (int i = 0; i < value.length(); ++i) {
+            final char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    builder.append("\\\"");
+                    break;
+                case '\\':
+                    builder.append("\\\\");
+                    break;
+                case '\n':
+                    builder.append("\\n");
+                    break;
+                case '\r':
+                    builder.append("\\r");
+                    break;
+                case '\t':
+                    builder.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        builder.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        builder.append(c);
+                    }
+            }
+        }
+        builder.append('"');
+    }
+
+    private static class Slot {
+        final String[] values;
+        long timestamp;
+        // the sequence of the record held by this slot, written last by the producer
+        volatile long sequence = -1;
+
+        Slot(int size) {
+            this.values = new String[size];
+        }
+    }
+}
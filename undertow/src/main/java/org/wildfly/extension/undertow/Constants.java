@@ -225,9 +225,19 @@ public interface Constants {
     String STATISTICS_ENABLED = "statistics-enabled";
     String DEFAULT_SECURITY_DOMAIN = "default-security-domain";
     String DISABLE_FILE_WATCH_SERVICE = "disable-file-watch-service";
+    String SESSION_EVICTION_POLICY = "session-eviction-policy";
+    String PRECOMPRESS_STATIC_RESOURCES = "precompress-static-resources";
     String PER_MESSAGE_DEFLATE = "per-message-deflate";
     String DEFLATER_LEVEL = "deflater-level";
     String MAX_RETRIES = "max-retries";
+    String LOAD_BALANCING_POLICY = "load-balancing-policy";
+    String HEALTH_CHECK_PATH = "health-check-path";
+    String ASYNC = "async";
+    String OUTPUT_FORMAT = "output-format";
+    String QUEUE_SIZE = "queue-size";
+    String OVERFLOW_POLICY = "overflow-policy";
+    String DROPPED_RECORDS = "dropped-records";
+    String QUEUED_RECORDS = "queued-records";
 
     // Elytron Integration
     String APPLICATION_SECURITY_DOMAIN = "application-security-domain";
@@ -37,8 +37,10 @@ import org.jboss.as.controller.OperationContext;
 import org.jboss.as.controller.OperationFailedException;
 import org.jboss.as.controller.PathAddress;
 import org.jboss.as.controller.PathElement;
+import org.jboss.as.controller.SimpleAttributeDefinition;
 import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
 import org.jboss.as.controller.SimpleResourceDefinition;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
 import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.as.controller.registry.Resource;
@@ -46,7 +48,9 @@ import org.jboss.dmr.ModelNode;
 import org.jboss.dmr.ModelType;
 import org.jboss.msc.service.ServiceController;
 import org.wildfly.extension.undertow.deployment.UndertowDeploymentService;
+import org.wildfly.extension.undertow.deployment.UndertowMetricsCollector;
 import org.wildfly.extension.undertow.logging.UndertowLogger;
+import org.wildfly.extension.undertow.session.LocalSessionManager;
 
 /**
  * @author Tomaz Cerar
@@ -57,6 +61,15 @@ public class DeploymentDefinition extends SimpleResourceDefinition {
     public static final AttributeDefinition SERVER = new SimpleAttributeDefinitionBuilder("server", ModelType.STRING).setStorageRuntime().build();
     public static final AttributeDefinition CONTEXT_ROOT = new SimpleAttributeDefinitionBuilder("context-root", ModelType.STRING).setStorageRuntime().build();
     public static final AttributeDefinition VIRTUAL_HOST = new SimpleAttributeDefinitionBuilder("virtual-host", ModelType.STRING).setStorageRuntime().build();
+    static final SimpleAttributeDefinition REQUEST_LATENCY_P50 = new SimpleAttributeDefinitionBuilder("request-latency-p50", ModelType.LONG)
+            .setMeasurementUnit(MeasurementUnit.NANOSECONDS)
+            .setUndefinedMetricValue(new ModelNode(0L)).setStorageRuntime().build();
+    static final SimpleAttributeDefinition REQUEST_LATENCY_P99 = new SimpleAttributeDefinitionBuilder("request-latency-p99", ModelType.LONG)
+            .setMeasurementUnit(MeasurementUnit.NANOSECONDS)
+            .setUndefinedMetricValue(new ModelNode(0L)).setStorageRuntime().build();
+    static final SimpleAttributeDefinition REQUEST_LATENCY_P999 = new SimpleAttributeDefinitionBuilder("request-latency-p999", ModelType.LONG)
+            .setMeasurementUnit(MeasurementUnit.NANOSECONDS)
+            .setUndefinedMetricValue(new ModelNode(0L)).setStorageRuntime().build();
 
     private DeploymentDefinition() {
         super(PathElement.pathElement(SUBSYSTEM, UndertowExtension.SUBSYSTEM_NAME),
@@ -72,6 +85,39 @@ public class DeploymentDefinition extends SimpleResourceDefinition {
         for (SessionStat stat : SessionStat.values()) {
             resourceRegistration.registerMetric(stat.definition, SessionManagerStatsHandler.getInstance());
         }
+        resourceRegistration.registerMetric(REQUEST_LATENCY_P50, new RequestLatencyHandler(50));
+        resourceRegistration.registerMetric(REQUEST_LATENCY_P99, new RequestLatencyHandler(99));
+        resourceRegistration.registerMetric(REQUEST_LATENCY_P999, new RequestLatencyHandler(99.9));
+    }
+
+    static class RequestLatencyHandler extends AbstractRuntimeOnlyHandler {
+
+        private final double percentile;
+
+        RequestLatencyHandler(double percentile) {
+            this.percentile = percentile;
+        }
+
+        @Override
+        protected void executeRuntimeStep(OperationContext context, ModelNode operation) throws OperationFailedException {
+            final PathAddress address = PathAddress.pathAddress(operation.get(ModelDescriptionConstants.OP_ADDR));
+            final ModelNode subModel = context.readResourceFromRoot(address, false).getModel();
+
+            final String host = VIRTUAL_HOST.resolveModelAttribute(context, subModel).asString();
+            final String path = CONTEXT_ROOT.resolveModelAttribute(context, subModel).asString();
+            final String server = SERVER.resolveModelAttribute(context, subModel).asString();
+
+            long result = 0;
+            final ServiceController<?> controller = context.getServiceRegistry(false).getService(UndertowService.deploymentServiceName(server, host, path));
+            if (controller != null && controller.getState() == ServiceController.State.UP) {
+                final UndertowDeploymentService deploymentService = (UndertowDeploymentService) controller.getService();
+                final UndertowMetricsCollector collector = (UndertowMetricsCollector) deploymentService.getDeploymentInfoInjectedValue().getValue().getMetricsCollector();
+                if (collector != null) {
+                    result = collector.getRequestLatency().getValueAtPercentile(percentile);
+                }
+            }
+            context.getResult().set(result);
+        }
     }
 
     static class SessionManagerStatsHandler extends AbstractRuntimeOnlyHandler {
@@ -117,7 +163,12 @@ public class DeploymentDefinition extends SimpleResourceDefinition {
 
                 switch (stat) {
                     case ACTIVE_SESSIONS:
-                        result.set(sessionManager.getActiveSessions().size());
+                        if (sessionManager instanceof LocalSessionManager) {
+                            // Avoids copying the identifiers of every session
+                            result.set((int) ((LocalSessionManager) sessionManager).getActiveSessionCount());
+                        } else {
+                            result.set(sessionManager.getActiveSessions().size());
+                        }
                         break;
                     case EXPIRED_SESSIONS:
                         if(sms == null) {
@@ -126,6 +177,13 @@ public class DeploymentDefinition extends SimpleResourceDefinition {
                             result.set((int)sms.getExpiredSessionCount());
                         }
                         break;
+                    case EVICTED_SESSIONS:
+                        if (sms instanceof LocalSessionManager) {
+                            result.set((int) ((LocalSessionManager) sms).getEvictedSessionCount());
+                        } else {
+                            result.set(0);
+                        }
+                        break;
                     case MAX_ACTIVE_SESSIONS:
                         if(sms == null) {
                             result.set(0);
@@ -177,6 +235,8 @@ public class DeploymentDefinition extends SimpleResourceDefinition {
                 .setUndefinedMetricValue(new ModelNode(0)).setStorageRuntime().build()),
         EXPIRED_SESSIONS(new SimpleAttributeDefinitionBuilder("expired-sessions", ModelType.INT)
                 .setUndefinedMetricValue(new ModelNode(0)).setStorageRuntime().build()),
+        EVICTED_SESSIONS(new SimpleAttributeDefinitionBuilder("evicted-sessions", ModelType.INT)
+                .setUndefinedMetricValue(new ModelNode(0)).setStorageRuntime().build()),
         SESSIONS_CREATED(new SimpleAttributeDefinitionBuilder("sessions-created", ModelType.INT)
                 .setUndefinedMetricValue(new ModelNode(0)).setStorageRuntime().build()),
         //DUPLICATED_SESSION_IDS(new SimpleAttributeDefinition("duplicated-session-ids", ModelType.INT, false)),
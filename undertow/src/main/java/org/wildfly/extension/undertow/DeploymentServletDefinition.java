@@ -96,6 +96,9 @@ public class DeploymentServletDefinition extends SimpleResourceDefinition {
                 response.set(metricResult.getTotalRequests());
             }
         });
+        registration.registerMetric(DeploymentDefinition.REQUEST_LATENCY_P50, new LatencyMetricsHandler(50));
+        registration.registerMetric(DeploymentDefinition.REQUEST_LATENCY_P99, new LatencyMetricsHandler(99));
+        registration.registerMetric(DeploymentDefinition.REQUEST_LATENCY_P999, new LatencyMetricsHandler(99.9));
         registration.registerMetric(SERVLET_MAPPINGS, new AbstractMetricsHandler() {
             @Override
             void handle(final ModelNode response, final String name, final MetricsHandler.MetricResult metricResult, final ServletInfo servlet) {
@@ -147,4 +150,40 @@ public class DeploymentServletDefinition extends SimpleResourceDefinition {
         }
     }
 
+    static class LatencyMetricsHandler implements OperationStepHandler {
+
+        private final double percentile;
+
+        LatencyMetricsHandler(double percentile) {
+            this.percentile = percentile;
+        }
+
+        @Override
+        public void execute(final OperationContext context, final ModelNode operation) throws OperationFailedException {
+            final PathAddress address = PathAddress.pathAddress(operation.get(ModelDescriptionConstants.OP_ADDR));
+
+            final Resource web = context.readResourceFromRoot(address.subAddress(0, address.size() - 1), false);
+            final ModelNode subModel = web.getModel();
+
+            final String host = DeploymentDefinition.VIRTUAL_HOST.resolveModelAttribute(context, subModel).asString();
+            final String path = DeploymentDefinition.CONTEXT_ROOT.resolveModelAttribute(context, subModel).asString();
+            final String server = DeploymentDefinition.SERVER.resolveModelAttribute(context, subModel).asString();
+
+            context.addStep(new OperationStepHandler() {
+                @Override
+                public void execute(final OperationContext context, final ModelNode operation) throws OperationFailedException {
+                    final ServiceController<?> deploymentServiceController = context.getServiceRegistry(false).getService(UndertowService.deploymentServiceName(server, host, path));
+                    if (deploymentServiceController == null) {
+                        return;
+                    }
+                    final UndertowDeploymentService deploymentService = (UndertowDeploymentService) deploymentServiceController.getService();
+                    final DeploymentInfo deploymentInfo = deploymentService.getDeploymentInfoInjectedValue().getValue();
+                    final UndertowMetricsCollector collector = (UndertowMetricsCollector) deploymentInfo.getMetricsCollector();
+
+                    final LatencyHistogram.Snapshot latency = collector != null ? collector.getLatency(address.getLastElement().getValue()) : null;
+                    context.getResult().set(latency != null ? latency.getValueAtPercentile(percentile) : 0L);
+                }
+            }, OperationContext.Stage.RUNTIME);
+        }
+    }
 }
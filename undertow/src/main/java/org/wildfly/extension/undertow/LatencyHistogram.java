@@ -0,0 +1,154 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.undertow;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogram of latencies in nanoseconds, from which percentiles are computed.
+ * <p>
+ * Latencies are counted in log-linear buckets: every power of two range is split into 16 buckets, so a percentile is
+ * overestimated by at most a 16th. The counts are striped by thread, so that recording a latency is a single atomic
+ * increment which rarely contends with other threads, and the stripes are only summed up when the histogram is read.
+ * Latencies beyond about 18 minutes are counted as 18 minutes.
+ * </p>
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final long MAX_VALUE = (1L << 40) - 1;
+    static final int BUCKETS = index(MAX_VALUE) + 1;
+    private static final int STRIPES = Math.min(Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 2 - 1), 4);
+
+    private final AtomicLongArray counts = new AtomicLongArray(STRIPES * BUCKETS);
+    private final LongAdder total = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Records a latency.
+     *
+     * @param nanos the latency in nanoseconds
+     */
+    public void record(long nanos) {
+        long value = Math.min(Math.max(nanos, 0), MAX_VALUE);
+        int stripe = (int) Thread.currentThread().getId() & (STRIPES - 1);
+        this.counts.incrementAndGet(stripe * BUCKETS + index(value));
+        this.total.add(value);
+        this.max.accumulate(value);
+    }
+
+    /**
+     * Returns the latencies recorded so far. The snapshot is not atomic with respect to concurrent recordings.
+     */
+    public Snapshot snapshot() {
+        long[] counts = new long[BUCKETS];
+        long count = 0;
+        for (int stripe = 0; stripe < STRIPES; ++stripe) {
+            for (int bucket = 0; bucket < BUCKETS; ++bucket) {
+                long value = this.counts.get(stripe * BUCKETS + bucket);
+                counts[bucket] += value;
+                count += value;
+            }
+        }
+        return new Snapshot(counts, count, this.total.sum(), this.max.get());
+    }
+
+    public void reset() {
+        for (int i = 0; i < this.counts.length(); ++i) {
+            this.counts.set(i, 0);
+        }
+        this.total.reset();
+        this.max.reset();
+    }
+
+    static int index(long value) {
+        if (value < 2 * SUB_BUCKETS) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        int mantissa = (int) (value >>> shift);
+        return SUB_BUCKETS * (shift + 1) + mantissa - SUB_BUCKETS;
+    }
+
+    /**
+     * Returns the highest value counted in a bucket.
+     */
+    static long highestValue(int index) {
+        if (index < 2 * SUB_BUCKETS) {
+            return index;
+        }
+        int shift = index / SUB_BUCKETS - 1;
+        long mantissa = SUB_BUCKETS + index % SUB_BUCKETS;
+        return ((mantissa + 1) << shift) - 1;
+    }
+
+    public static final class Snapshot {
+        private final long[] counts;
+        private final long count;
+        private final long total;
+        private final long max;
+
+        Snapshot(long[] counts, long count, long total, long max) {
+            this.counts = counts;
+            this.count = count;
+            this.total = total;
+            this.max = max;
+        }
+
+        public long getCount() {
+            return this.count;
+        }
+
+        public long getMean() {
+            return (this.count > 0) ? this.total / this.count : 0;
+        }
+
+        public long getMax() {
+            return this.max;
+        }
+
+        /**
+         * Returns the latency which the given percentage of the latencies do not exceed.
+         *
+         * @param percentile a percentage between 0 and 100
+         * @return the latency in nanoseconds, or 0 if no latency was recorded
+         */
+        public long getValueAtPercentile(double percentile) {
+            if (this.count == 0) {
+                return 0;
+            }
+            long rank = Math.max((long) Math.ceil(percentile / 100 * this.count), 1);
+            long seen = 0;
+            for (int bucket = 0; bucket < this.counts.length; ++bucket) {
+                seen += this.counts[bucket];
+                if (seen >= rank) {
+                    return Math.min(highestValue(bucket), this.max);
+                }
+            }
+            return this.max;
+        }
+    }
+}
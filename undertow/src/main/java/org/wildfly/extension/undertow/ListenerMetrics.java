@@ -0,0 +1,117 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.undertow;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import io.undertow.server.HttpHandler;
+import io.undertow.server.OpenListener;
+import org.xnio.ChannelListener;
+import org.xnio.StreamConnection;
+
+/**
+ * Connection gauges and the request latency histogram of a listener.
+ * <p>
+ * Accepted connections are tracked in a set, from which closed connections are swept whenever it has doubled in size and
+ * whenever the gauges are read, so that tracking does not depend on close listeners of the connections. Connections
+ * without an active request are counted as idle, i.e. kept alive.
+ * </p>
+ */
+class ListenerMetrics {
+
+    private static final int MIN_SWEEP_THRESHOLD = 64;
+
+    private final Set<StreamConnection> connections = ConcurrentHashMap.newKeySet();
+    private final LongAdder activeRequests = new LongAdder();
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private volatile int sweepThreshold = MIN_SWEEP_THRESHOLD;
+    private volatile boolean latencyEnabled;
+
+    void setLatencyEnabled(boolean latencyEnabled) {
+        this.latencyEnabled = latencyEnabled;
+    }
+
+    /**
+     * Wraps the open listener of the listener, to track the connections it accepts.
+     */
+    ChannelListener<StreamConnection> wrap(OpenListener openListener) {
+        return connection -> {
+            this.connections.add(connection);
+            if (this.connections.size() > this.sweepThreshold) {
+                this.sweep();
+            }
+            openListener.handleEvent(connection);
+        };
+    }
+
+    /**
+     * Wraps the root handler of the listener, to track its requests.
+     */
+    HttpHandler wrap(HttpHandler next) {
+        return exchange -> {
+            this.activeRequests.increment();
+            boolean latencyEnabled = this.latencyEnabled;
+            long start = latencyEnabled ? System.nanoTime() : 0;
+            exchange.addExchangeCompleteListener((completed, nextListener) -> {
+                this.activeRequests.decrement();
+                if (latencyEnabled) {
+                    this.latency.record(System.nanoTime() - start);
+                }
+                nextListener.proceed();
+            });
+            next.handleRequest(exchange);
+        };
+    }
+
+    int getActiveConnections() {
+        this.sweep();
+        return this.connections.size();
+    }
+
+    int getIdleConnections() {
+        return (int) Math.max(this.getActiveConnections() - this.activeRequests.sum(), 0);
+    }
+
+    int getActiveRequests() {
+        return (int) this.activeRequests.sum();
+    }
+
+    LatencyHistogram.Snapshot getLatency() {
+        return this.latency.snapshot();
+    }
+
+    void reset() {
+        this.latency.reset();
+    }
+
+    void clear() {
+        this.connections.clear();
+    }
+
+    private void sweep() {
+        this.connections.removeIf(connection -> !connection.isOpen());
+        this.sweepThreshold = Math.max(this.connections.size() * 2, MIN_SWEEP_THRESHOLD);
+    }
+}
@@ -35,6 +35,7 @@ import java.util.HashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
 
 import io.undertow.UndertowOptions;
 import io.undertow.server.ConnectorStatistics;
@@ -203,6 +204,22 @@ abstract class ListenerResourceDefinition extends PersistentResourceDefinition {
         }
     }
 
+    static final SimpleAttributeDefinition ACTIVE_CONNECTIONS = new SimpleAttributeDefinitionBuilder("active-connections", ModelType.INT)
+            .setUndefinedMetricValue(new ModelNode(0)).setStorageRuntime().build();
+    static final SimpleAttributeDefinition IDLE_CONNECTIONS = new SimpleAttributeDefinitionBuilder("idle-connections", ModelType.INT)
+            .setUndefinedMetricValue(new ModelNode(0)).setStorageRuntime().build();
+    static final SimpleAttributeDefinition ACTIVE_REQUESTS = new SimpleAttributeDefinitionBuilder("active-requests", ModelType.INT)
+            .setUndefinedMetricValue(new ModelNode(0)).setStorageRuntime().build();
+    static final SimpleAttributeDefinition REQUEST_LATENCY_P50 = new SimpleAttributeDefinitionBuilder("request-latency-p50", ModelType.LONG)
+            .setMeasurementUnit(MeasurementUnit.NANOSECONDS)
+            .setUndefinedMetricValue(new ModelNode(0L)).setStorageRuntime().build();
+    static final SimpleAttributeDefinition REQUEST_LATENCY_P99 = new SimpleAttributeDefinitionBuilder("request-latency-p99", ModelType.LONG)
+            .setMeasurementUnit(MeasurementUnit.NANOSECONDS)
+            .setUndefinedMetricValue(new ModelNode(0L)).setStorageRuntime().build();
+    static final SimpleAttributeDefinition REQUEST_LATENCY_P999 = new SimpleAttributeDefinitionBuilder("request-latency-p999", ModelType.LONG)
+            .setMeasurementUnit(MeasurementUnit.NANOSECONDS)
+            .setUndefinedMetricValue(new ModelNode(0L)).setStorageRuntime().build();
+
     protected static final Collection<AttributeDefinition> ATTRIBUTES;
     private static final List<AccessConstraintDefinition> CONSTRAINTS = Collections.singletonList(UndertowExtension.LISTENER_CONSTRAINT);
 
@@ -251,6 +268,12 @@ abstract class ListenerResourceDefinition extends PersistentResourceDefinition {
         for(ConnectorStat attr : ConnectorStat.values()) {
             resourceRegistration.registerMetric(attr.definition, ReadStatisticHandler.INSTANCE);
         }
+        resourceRegistration.registerMetric(ACTIVE_CONNECTIONS, new MetricHandler(metrics -> new ModelNode(metrics.getActiveConnections())));
+        resourceRegistration.registerMetric(IDLE_CONNECTIONS, new MetricHandler(metrics -> new ModelNode(metrics.getIdleConnections())));
+        resourceRegistration.registerMetric(ACTIVE_REQUESTS, new MetricHandler(metrics -> new ModelNode(metrics.getActiveRequests())));
+        resourceRegistration.registerMetric(REQUEST_LATENCY_P50, new MetricHandler(metrics -> new ModelNode(metrics.getLatency().getValueAtPercentile(50))));
+        resourceRegistration.registerMetric(REQUEST_LATENCY_P99, new MetricHandler(metrics -> new ModelNode(metrics.getLatency().getValueAtPercentile(99))));
+        resourceRegistration.registerMetric(REQUEST_LATENCY_P999, new MetricHandler(metrics -> new ModelNode(metrics.getLatency().getValueAtPercentile(99.9))));
     }
 
     @Override
@@ -306,6 +329,23 @@ abstract class ListenerResourceDefinition extends PersistentResourceDefinition {
         }
     }
 
+    private static class MetricHandler implements OperationStepHandler {
+        private final Function<ListenerMetrics, ModelNode> metric;
+
+        MetricHandler(Function<ListenerMetrics, ModelNode> metric) {
+            this.metric = metric;
+        }
+
+        @Override
+        public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
+            ListenerService service = getListenerService(context);
+            if (service != null) {
+                context.getResult().set(this.metric.apply(service.getMetrics()));
+            }
+            context.completeStep(OperationContext.RollbackHandler.NOOP_ROLLBACK_HANDLER);
+        }
+    }
+
     static ListenerService getListenerService(OperationContext context) {
         final String name = context.getCurrentAddressValue();
         ServiceName serviceName = LISTENER_CAPABILITY.getCapabilityServiceName(name);
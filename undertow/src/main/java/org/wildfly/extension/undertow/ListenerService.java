@@ -73,6 +73,7 @@ public abstract class ListenerService implements Service<UndertowListener>, Unde
     protected final InjectedValue<Pool<ByteBuffer>> bufferPool = new InjectedValue<>();
     protected final InjectedValue<Server> serverService = new InjectedValue<>();
     private final List<HandlerWrapper> listenerHandlerWrappers = new ArrayList<>();
+    private final ListenerMetrics metrics = new ListenerMetrics();
 
     private final String name;
     protected final OptionMap listenerOptions;
@@ -125,7 +126,7 @@ public abstract class ListenerService implements Service<UndertowListener>, Unde
         if(started && enabled != this.enabled) {
             if(enabled) {
                 final InetSocketAddress socketAddress = binding.getValue().getSocketAddress();
-                final ChannelListener<AcceptingChannel<StreamConnection>> acceptListener = ChannelListeners.openListenerAdapter(openListener);
+                final ChannelListener<AcceptingChannel<StreamConnection>> acceptListener = ChannelListeners.openListenerAdapter(metrics.wrap(openListener));
                 try {
                     startListening(worker.getValue(), socketAddress, acceptListener);
                 } catch (IOException e) {
@@ -162,10 +163,11 @@ public abstract class ListenerService implements Service<UndertowListener>, Unde
             for(HandlerWrapper wrapper : listenerHandlerWrappers) {
                 handler = wrapper.wrap(handler);
             }
-            openListener.setRootHandler(handler);
+            metrics.setLatencyEnabled(getUndertowService().isStatisticsEnabled());
+            openListener.setRootHandler(metrics.wrap(handler));
             if(enabled) {
                 final InetSocketAddress socketAddress = binding.getValue().getSocketAddress();
-                final ChannelListener<AcceptingChannel<StreamConnection>> acceptListener = ChannelListeners.openListenerAdapter(openListener);
+                final ChannelListener<AcceptingChannel<StreamConnection>> acceptListener = ChannelListeners.openListenerAdapter(metrics.wrap(openListener));
                 startListening(worker.getValue(), socketAddress, acceptListener);
             }
             registerBinding();
@@ -186,6 +188,7 @@ public abstract class ListenerService implements Service<UndertowListener>, Unde
             OptionMap.Builder builder = OptionMap.builder().addAll(options);
             builder.set(UndertowOptions.ENABLE_STATISTICS, enabled);
             openListener.setUndertowOptions(builder.getMap());
+            metrics.setLatencyEnabled(enabled);
         };
         getUndertowService().registerStatisticsListener(statisticsChangeListener);
     }
@@ -200,6 +203,7 @@ public abstract class ListenerService implements Service<UndertowListener>, Unde
             stopListening();
         }
         unregisterBinding();
+        metrics.clear();
         getUndertowService().unregisterStatisticsListener(statisticsChangeListener);
         statisticsChangeListener = null;
     }
@@ -212,6 +216,10 @@ public abstract class ListenerService implements Service<UndertowListener>, Unde
         return openListener;
     }
 
+    ListenerMetrics getMetrics() {
+        return metrics;
+    }
+
     protected abstract OpenListener createOpenListener();
 
     abstract void startListening(XnioWorker worker, InetSocketAddress socketAddress, ChannelListener<AcceptingChannel<StreamConnection>> acceptListener) throws IOException;
@@ -52,6 +52,7 @@ public class ResetConnectorStatisticsHandler implements OperationStepHandler {
     public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
         ListenerService service = ListenerResourceDefinition.getListenerService(context);
         if (service != null) {
+            service.getMetrics().reset();
             ConnectorStatistics stats = service.getOpenListener().getConnectorStatistics();
             if (stats != null) {
                 stats.reset();
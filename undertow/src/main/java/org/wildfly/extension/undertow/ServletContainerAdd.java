@@ -40,6 +40,7 @@ import org.jboss.msc.service.ServiceController;
 import org.jboss.msc.value.InjectedValue;
 import org.jboss.security.negotiation.NegotiationMechanismFactory;
 import org.wildfly.extension.undertow.security.digest.DigestAuthenticationMechanismFactory;
+import org.wildfly.extension.undertow.session.SessionEvictionPolicy;
 import org.xnio.Pool;
 import org.xnio.XnioWorker;
 
@@ -75,6 +76,7 @@ final class ServletContainerAdd extends AbstractBoottimeAddStepHandler {
         final boolean proactiveAuth = ServletContainerDefinition.PROACTIVE_AUTHENTICATION.resolveModelAttribute(context, model).asBoolean();
         final String bufferCache = ServletContainerDefinition.DEFAULT_BUFFER_CACHE.resolveModelAttribute(context, model).asString();
         final boolean disableFileWatchService = ServletContainerDefinition.DISABLE_FILE_WATCH_SERVICE.resolveModelAttribute(context, model).asBoolean();
+        final boolean precompressStaticResources = ServletContainerDefinition.PRECOMPRESS_STATIC_RESOURCES.resolveModelAttribute(context, model).asBoolean();
 
         JSPConfig jspConfig = JspDefinition.INSTANCE.getConfig(context, fullModel.get(JspDefinition.INSTANCE.getPathElement().getKeyValuePair()));
 
@@ -96,6 +98,8 @@ final class ServletContainerAdd extends AbstractBoottimeAddStepHandler {
             maxSessions = ServletContainerDefinition.MAX_SESSIONS.resolveModelAttribute(context, model).asInt();
         }
 
+        final SessionEvictionPolicy sessionEvictionPolicy = SessionEvictionPolicy.valueOf(ServletContainerDefinition.SESSION_EVICTION_POLICY.resolveModelAttribute(context, model).asString());
+
         final int sessionTimeout = ServletContainerDefinition.DEFAULT_SESSION_TIMEOUT.resolveModelAttribute(context, model).asInt();
 
         WebsocketsDefinition.WebSocketInfo webSocketInfo = WebsocketsDefinition.INSTANCE.getConfig(context, fullModel.get(WebsocketsDefinition.INSTANCE.getPathElement().getKeyValuePair()));
@@ -132,7 +136,8 @@ final class ServletContainerAdd extends AbstractBoottimeAddStepHandler {
                 disableCachingForSecuredPages, webSocketInfo != null, webSocketInfo != null && webSocketInfo.isDispatchToWorker(),
                 webSocketInfo != null && webSocketInfo.isPerMessageDeflate(), webSocketInfo == null ? -1 : webSocketInfo.getDeflaterLevel(),
                 mimeMappings,
-                welcomeFiles, directoryListingEnabled, proactiveAuth, sessionIdLength, authenticationMechanisms, maxSessions, crawlerSessionManagerConfig, disableFileWatchService);
+                welcomeFiles, directoryListingEnabled, proactiveAuth, sessionIdLength, authenticationMechanisms, maxSessions, sessionEvictionPolicy, crawlerSessionManagerConfig, disableFileWatchService,
+                precompressStaticResources);
 
 
         final CapabilityServiceBuilder<ServletContainerService> builder = context.getCapabilityServiceTarget()
@@ -42,6 +42,7 @@ import org.jboss.as.controller.registry.AttributeAccess;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.dmr.ModelNode;
 import org.jboss.dmr.ModelType;
+import org.wildfly.extension.undertow.session.SessionEvictionPolicy;
 
 /**
  * @author <a href="mailto:tomaz.cerar@redhat.com">Tomaz Cerar</a> (c) 2013 Red Hat Inc.
@@ -147,6 +148,14 @@ class ServletContainerDefinition extends PersistentResourceDefinition {
                     .build();
 
 
+    protected static final AttributeDefinition SESSION_EVICTION_POLICY =
+            new SimpleAttributeDefinitionBuilder(Constants.SESSION_EVICTION_POLICY, ModelType.STRING, true)
+                    .setFlags(AttributeAccess.Flag.RESTART_ALL_SERVICES)
+                    .setAllowExpression(true)
+                    .setDefaultValue(new ModelNode(SessionEvictionPolicy.LRU.name()))
+                    .setValidator(new EnumValidator<>(SessionEvictionPolicy.class, true, true))
+                    .build();
+
     protected static final AttributeDefinition DISABLE_FILE_WATCH_SERVICE =
             new SimpleAttributeDefinitionBuilder(Constants.DISABLE_FILE_WATCH_SERVICE, ModelType.BOOLEAN, true)
                     .setFlags(AttributeAccess.Flag.RESTART_ALL_SERVICES)
@@ -154,6 +163,13 @@ class ServletContainerDefinition extends PersistentResourceDefinition {
                     .setAllowExpression(true)
                     .build();
 
+    protected static final AttributeDefinition PRECOMPRESS_STATIC_RESOURCES =
+            new SimpleAttributeDefinitionBuilder(Constants.PRECOMPRESS_STATIC_RESOURCES, ModelType.BOOLEAN, true)
+                    .setFlags(AttributeAccess.Flag.RESTART_ALL_SERVICES)
+                    .setDefaultValue(new ModelNode(false))
+                    .setAllowExpression(true)
+                    .build();
+
     private static final List<? extends PersistentResourceDefinition> CHILDREN;
     static final Collection<AttributeDefinition> ATTRIBUTES = Arrays.asList(
             ALLOW_NON_STANDARD_WRAPPERS,
@@ -169,7 +185,9 @@ class ServletContainerDefinition extends PersistentResourceDefinition {
             PROACTIVE_AUTHENTICATION,
             SESSION_ID_LENGTH,
             MAX_SESSIONS,
-            DISABLE_FILE_WATCH_SERVICE
+            SESSION_EVICTION_POLICY,
+            DISABLE_FILE_WATCH_SERVICE,
+            PRECOMPRESS_STATIC_RESOURCES
             );
 
     static final ServletContainerDefinition INSTANCE = new ServletContainerDefinition();
@@ -34,6 +34,8 @@ import org.jboss.msc.service.StartContext;
 import org.jboss.msc.service.StartException;
 import org.jboss.msc.service.StopContext;
 import org.jboss.msc.value.InjectedValue;
+import org.jboss.threads.JBossThreadFactory;
+import org.wildfly.extension.undertow.session.SessionEvictionPolicy;
 import org.xnio.Pool;
 import org.xnio.XnioWorker;
 
@@ -43,6 +45,12 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Central Undertow 'Container' HTTP listeners will make this container accessible whilst deployers will add content.
@@ -80,14 +88,19 @@ public class ServletContainerService implements Service<ServletContainerService>
     private final boolean proactiveAuth;
     private final Map<String, AuthenticationMechanismFactory> authenticationMechanisms;
     private final Integer maxSessions;
+    private final SessionEvictionPolicy sessionEvictionPolicy;
     private final boolean disableFileWatchService;
+    private final boolean precompressStaticResources;
+    private volatile ExecutorService staticResourceExecutor;
+    private volatile ScheduledExecutorService sessionExpirationExecutor;
 
     public ServletContainerService(boolean allowNonStandardWrappers, ServletStackTraces stackTraces, SessionCookieConfig sessionCookieConfig, JSPConfig jspConfig,
                                    String defaultEncoding, boolean useListenerEncoding, boolean ignoreFlush, boolean eagerFilterInit, int defaultSessionTimeout,
                                    boolean disableCachingForSecuredPages, boolean websocketsEnabled, boolean dispatchWebsocketInvocationToWorker, boolean perMessageDeflate,
                                    int deflaterLevel, Map<String, String> mimeMappings, List<String> welcomeFiles, Boolean directoryListingEnabled, boolean proactiveAuth,
                                    int sessionIdLength, Map<String, AuthenticationMechanismFactory> authenticationMechanisms, Integer maxSessions,
-                                   CrawlerSessionManagerConfig crawlerSessionManagerConfig, boolean disableFileWatchService) {
+                                   SessionEvictionPolicy sessionEvictionPolicy, CrawlerSessionManagerConfig crawlerSessionManagerConfig, boolean disableFileWatchService,
+                                   boolean precompressStaticResources) {
 
         this.allowNonStandardWrappers = allowNonStandardWrappers;
         this.stackTraces = stackTraces;
@@ -106,8 +119,10 @@ public class ServletContainerService implements Service<ServletContainerService>
         this.directoryListingEnabled = directoryListingEnabled;
         this.proactiveAuth = proactiveAuth;
         this.maxSessions = maxSessions;
+        this.sessionEvictionPolicy = sessionEvictionPolicy;
         this.crawlerSessionManagerConfig = crawlerSessionManagerConfig;
         this.disableFileWatchService = disableFileWatchService;
+        this.precompressStaticResources = precompressStaticResources;
         this.welcomeFiles = new ArrayList<>(welcomeFiles);
         this.mimeMappings = new HashMap<>(mimeMappings);
         this.sessionIdLength = sessionIdLength;
@@ -117,11 +132,29 @@ public class ServletContainerService implements Service<ServletContainerService>
     @Override
     public void start(StartContext context) throws StartException {
         servletContainer = ServletContainer.Factory.newInstance();
+        if (precompressStaticResources) {
+            // a single thread, shared by all deployments, which ends when there is nothing left to compress
+            final ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 60L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+                    new JBossThreadFactory(new ThreadGroup("ServletContainer-StaticResources"), Boolean.TRUE, null, "%G - %t", null, null));
+            executor.allowCoreThreadTimeOut(true);
+            staticResourceExecutor = executor;
+        }
+        // a single thread, shared by all deployments, which sweeps the expired sessions of their local session managers
+        final ScheduledThreadPoolExecutor sessionExecutor = new ScheduledThreadPoolExecutor(1,
+                new JBossThreadFactory(new ThreadGroup("ServletContainer-SessionExpiration"), Boolean.TRUE, null, "%G - %t", null, null));
+        sessionExecutor.setRemoveOnCancelPolicy(true);
+        sessionExpirationExecutor = sessionExecutor;
     }
 
     @Override
     public void stop(StopContext context) {
-
+        final ExecutorService executor = staticResourceExecutor;
+        if (executor != null) {
+            executor.shutdownNow();
+            staticResourceExecutor = null;
+        }
+        sessionExpirationExecutor.shutdownNow();
+        sessionExpirationExecutor = null;
     }
 
     @Override
@@ -242,10 +275,32 @@ public class ServletContainerService implements Service<ServletContainerService>
         return maxSessions;
     }
 
+    public SessionEvictionPolicy getSessionEvictionPolicy() {
+        return sessionEvictionPolicy;
+    }
+
     public boolean isDisableFileWatchService() {
         return disableFileWatchService;
     }
 
+    public boolean isPrecompressStaticResources() {
+        return precompressStaticResources;
+    }
+
+    /**
+     * Returns the executor on which the static resources of deployments are prepared, if they are pre-compressed.
+     */
+    public ExecutorService getStaticResourceExecutor() {
+        return staticResourceExecutor;
+    }
+
+    /**
+     * Returns the executor on which the local session managers of deployments expire their sessions.
+     */
+    public ScheduledExecutorService getSessionExpirationExecutor() {
+        return sessionExpirationExecutor;
+    }
+
     public CrawlerSessionManagerConfig getCrawlerSessionManagerConfig() {
         return crawlerSessionManagerConfig;
     }
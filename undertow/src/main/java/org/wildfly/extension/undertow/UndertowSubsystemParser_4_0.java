@@ -30,6 +30,7 @@ import org.jboss.as.controller.PersistentResourceDefinition;
 import org.jboss.as.controller.PersistentResourceXMLDescription;
 import org.jboss.as.controller.PersistentResourceXMLParser;
 import org.jboss.as.controller.operations.common.Util;
+import org.wildfly.extension.undertow.filters.AdaptiveRequestLimitFilter;
 import org.wildfly.extension.undertow.filters.CustomFilterDefinition;
 import org.wildfly.extension.undertow.filters.ErrorPageDefinition;
 import org.wildfly.extension.undertow.filters.ExpressionFilterDefinition;
@@ -38,6 +39,7 @@ import org.wildfly.extension.undertow.filters.FilterRefDefinition;
 import org.wildfly.extension.undertow.filters.GzipFilter;
 import org.wildfly.extension.undertow.filters.ModClusterDefinition;
 import org.wildfly.extension.undertow.filters.RequestLimitHandler;
+import org.wildfly.extension.undertow.filters.ResponseCacheFilter;
 import org.wildfly.extension.undertow.filters.ResponseHeaderFilter;
 import org.wildfly.extension.undertow.filters.RewriteFilterDefinition;
 import org.wildfly.extension.undertow.handlers.FileHandler;
@@ -130,7 +132,11 @@ public class UndertowSubsystemParser_4_0 extends PersistentResourceXMLParser {
                                                                 AccessLogDefinition.ROTATE,
                                                                 AccessLogDefinition.USE_SERVER_LOG,
                                                                 AccessLogDefinition.EXTENDED,
-                                                                AccessLogDefinition.PREDICATE)
+                                                                AccessLogDefinition.PREDICATE,
+                                                                AccessLogDefinition.ASYNC,
+                                                                AccessLogDefinition.OUTPUT_FORMAT,
+                                                                AccessLogDefinition.QUEUE_SIZE,
+                                                                AccessLogDefinition.OVERFLOW_POLICY)
                                         ).addChild(filterRefBuilder())
                                                 .addChild(
                                                     builder(UndertowExtension.PATH_SSO)
@@ -158,7 +164,9 @@ public class UndertowSubsystemParser_4_0 extends PersistentResourceXMLParser {
                                 .addAttribute(ServletContainerDefinition.PROACTIVE_AUTHENTICATION)
                                 .addAttribute(ServletContainerDefinition.SESSION_ID_LENGTH)
                                 .addAttribute(ServletContainerDefinition.MAX_SESSIONS)
+                                .addAttribute(ServletContainerDefinition.SESSION_EVICTION_POLICY)
                                 .addAttribute(ServletContainerDefinition.DISABLE_FILE_WATCH_SERVICE)
+                                .addAttribute(ServletContainerDefinition.PRECOMPRESS_STATIC_RESOURCES)
                                 .addChild(
                                         builder(JspDefinition.INSTANCE.getPathElement())
                                                 .setXmlElementName(Constants.JSP_CONFIG)
@@ -248,7 +256,10 @@ public class UndertowSubsystemParser_4_0 extends PersistentResourceXMLParser {
                                                         ReverseProxyHandler.REQUEST_QUEUE_SIZE,
                                                         ReverseProxyHandler.CACHED_CONNECTIONS_PER_THREAD,
                                                         ReverseProxyHandler.CONNECTION_IDLE_TIMEOUT,
-                                                        ReverseProxyHandler.MAX_RETRIES)
+                                                        ReverseProxyHandler.MAX_RETRIES,
+                                                        ReverseProxyHandler.LOAD_BALANCING_POLICY,
+                                                        ReverseProxyHandler.HEALTH_CHECK_PATH,
+                                                        ReverseProxyHandler.HEALTH_CHECK_INTERVAL)
                                                 .addChild(builder(ReverseProxyHandlerHost.INSTANCE.getPathElement())
                                                         .setXmlElementName(Constants.HOST)
                                                         .addAttributes(
@@ -317,6 +328,13 @@ public class UndertowSubsystemParser_4_0 extends PersistentResourceXMLParser {
                         ).addChild(
                                 builder(RewriteFilterDefinition.INSTANCE.getPathElement())
                                         .addAttributes(RewriteFilterDefinition.TARGET, RewriteFilterDefinition.REDIRECT)
+                        ).addChild(
+                                builder(AdaptiveRequestLimitFilter.INSTANCE.getPathElement())
+                                        .addAttributes(AdaptiveRequestLimitFilter.INITIAL_LIMIT, AdaptiveRequestLimitFilter.MIN_LIMIT,
+                                                AdaptiveRequestLimitFilter.MAX_LIMIT, AdaptiveRequestLimitFilter.LATENCY_TOLERANCE)
+                        ).addChild(
+                                builder(ResponseCacheFilter.INSTANCE.getPathElement())
+                                        .addAttributes(ResponseCacheFilter.BUFFER_CACHE, ResponseCacheFilter.MAX_SIZE, ResponseCacheFilter.MAX_ENTRY_SIZE)
                         )
 
                 )
@@ -36,7 +36,9 @@ import org.jboss.as.controller.transform.description.ResourceTransformationDescr
 import org.jboss.as.controller.transform.description.TransformationDescription;
 import org.jboss.as.controller.transform.description.TransformationDescriptionBuilder;
 import org.jboss.dmr.ModelNode;
+import org.wildfly.extension.undertow.filters.AdaptiveRequestLimitFilter;
 import org.wildfly.extension.undertow.filters.ModClusterDefinition;
+import org.wildfly.extension.undertow.filters.ResponseCacheFilter;
 import org.wildfly.extension.undertow.handlers.ReverseProxyHandler;
 
 
@@ -88,6 +90,10 @@ public class UndertowTransformers implements ExtensionTransformerRegistration {
                 .getAttributeBuilder()
                 .setDiscard(new DiscardAttributeChecker.DiscardAttributeValueChecker(new ModelNode(false)), ServletContainerDefinition.DISABLE_FILE_WATCH_SERVICE)
                 .addRejectCheck(RejectAttributeChecker.DEFINED, ServletContainerDefinition.DISABLE_FILE_WATCH_SERVICE)
+                .setDiscard(new DiscardAttributeChecker.DiscardAttributeValueChecker(ServletContainerDefinition.SESSION_EVICTION_POLICY.getDefaultValue()), ServletContainerDefinition.SESSION_EVICTION_POLICY)
+                .addRejectCheck(RejectAttributeChecker.DEFINED, ServletContainerDefinition.SESSION_EVICTION_POLICY)
+                .setDiscard(new DiscardAttributeChecker.DiscardAttributeValueChecker(new ModelNode(false)), ServletContainerDefinition.PRECOMPRESS_STATIC_RESOURCES)
+                .addRejectCheck(RejectAttributeChecker.DEFINED, ServletContainerDefinition.PRECOMPRESS_STATIC_RESOURCES)
                 .end()
                 .addChildResource(UndertowExtension.PATH_WEBSOCKETS)
                 .getAttributeBuilder()
@@ -102,6 +108,10 @@ public class UndertowTransformers implements ExtensionTransformerRegistration {
                 .getAttributeBuilder()
                 .setDiscard(new DiscardAttributeChecker.DiscardAttributeValueChecker(new ModelNode(1L)), Constants.MAX_RETRIES)
                 .addRejectCheck(RejectAttributeChecker.DEFINED, Constants.MAX_RETRIES)
+                .setDiscard(new DiscardAttributeChecker.DiscardAttributeValueChecker(ReverseProxyHandler.LOAD_BALANCING_POLICY.getDefaultValue()), ReverseProxyHandler.LOAD_BALANCING_POLICY)
+                .setDiscard(DiscardAttributeChecker.UNDEFINED, ReverseProxyHandler.HEALTH_CHECK_PATH)
+                .setDiscard(new DiscardAttributeChecker.DiscardAttributeValueChecker(ReverseProxyHandler.HEALTH_CHECK_INTERVAL.getDefaultValue()), ReverseProxyHandler.HEALTH_CHECK_INTERVAL)
+                .addRejectCheck(RejectAttributeChecker.DEFINED, ReverseProxyHandler.LOAD_BALANCING_POLICY, ReverseProxyHandler.HEALTH_CHECK_PATH, ReverseProxyHandler.HEALTH_CHECK_INTERVAL)
                 .setValueConverter(new AttributeConverter.DefaultValueAttributeConverter(ReverseProxyHandler.CONNECTIONS_PER_THREAD), ReverseProxyHandler.CONNECTIONS_PER_THREAD)
                 .end()
                 .addChildResource(PathElement.pathElement(Constants.HOST))
@@ -110,8 +120,8 @@ public class UndertowTransformers implements ExtensionTransformerRegistration {
                 .addRejectCheck(RejectAttributeChecker.DEFINED, Constants.SSL_CONTEXT)
                 .end();
 
-        subsystemBuilder.addChildResource(UndertowExtension.PATH_FILTERS)
-                .addChildResource(PathElement.pathElement(Constants.MOD_CLUSTER))
+        final ResourceTransformationDescriptionBuilder filtersBuilder = subsystemBuilder.addChildResource(UndertowExtension.PATH_FILTERS);
+        filtersBuilder.addChildResource(PathElement.pathElement(Constants.MOD_CLUSTER))
                 .getAttributeBuilder()
                 .setDiscard(new DiscardAttributeChecker.DiscardAttributeValueChecker(ModClusterDefinition.FAILOVER_STRATEGY.getDefaultValue()), ModClusterDefinition.FAILOVER_STRATEGY)
                 .setDiscard(new DiscardAttributeChecker.DiscardAttributeValueChecker(ModClusterDefinition.MAX_RETRIES.getDefaultValue()), ModClusterDefinition.MAX_RETRIES)
@@ -123,6 +133,18 @@ public class UndertowTransformers implements ExtensionTransformerRegistration {
                 .addRejectCheck(RejectAttributeChecker.UNDEFINED, Constants.SECURITY_REALM)
                 .end();
 
+        filtersBuilder.rejectChildResource(AdaptiveRequestLimitFilter.INSTANCE.getPathElement());
+        filtersBuilder.rejectChildResource(ResponseCacheFilter.INSTANCE.getPathElement());
+
+        hostBuilder.addChildResource(UndertowExtension.PATH_ACCESS_LOG)
+                .getAttributeBuilder()
+                .setDiscard(new DiscardAttributeChecker.DiscardAttributeValueChecker(AccessLogDefinition.ASYNC.getDefaultValue()), AccessLogDefinition.ASYNC)
+                .setDiscard(new DiscardAttributeChecker.DiscardAttributeValueChecker(AccessLogDefinition.OUTPUT_FORMAT.getDefaultValue()), AccessLogDefinition.OUTPUT_FORMAT)
+                .setDiscard(new DiscardAttributeChecker.DiscardAttributeValueChecker(AccessLogDefinition.QUEUE_SIZE.getDefaultValue()), AccessLogDefinition.QUEUE_SIZE)
+                .setDiscard(new DiscardAttributeChecker.DiscardAttributeValueChecker(AccessLogDefinition.OVERFLOW_POLICY.getDefaultValue()), AccessLogDefinition.OVERFLOW_POLICY)
+                .addRejectCheck(RejectAttributeChecker.DEFINED, AccessLogDefinition.ASYNC, AccessLogDefinition.OUTPUT_FORMAT, AccessLogDefinition.QUEUE_SIZE, AccessLogDefinition.OVERFLOW_POLICY)
+                .end();
+
         hostBuilder.rejectChildResource(UndertowExtension.PATH_HTTP_INVOKER);
         subsystemBuilder.rejectChildResource(UndertowExtension.PATH_APPLICATION_SECURITY_DOMAIN);
 
@@ -0,0 +1,669 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.undertow.deployment;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Date;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.zip.GZIPOutputStream;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.ServletRequest;
+import javax.servlet.http.HttpServletRequest;
+
+import io.undertow.io.IoCallback;
+import io.undertow.io.Sender;
+import io.undertow.server.HttpServerExchange;
+import io.undertow.server.handlers.cache.DirectBufferCache;
+import io.undertow.server.handlers.cache.LimitedBufferSlicePool;
+import io.undertow.server.handlers.resource.RangeAwareResource;
+import io.undertow.server.handlers.resource.Resource;
+import io.undertow.server.handlers.resource.ResourceChangeEvent;
+import io.undertow.server.handlers.resource.ResourceChangeListener;
+import io.undertow.server.handlers.resource.ResourceManager;
+import io.undertow.servlet.handlers.ServletRequestContext;
+import io.undertow.util.ETag;
+import io.undertow.util.HeaderMap;
+import io.undertow.util.HeaderValues;
+import io.undertow.util.Headers;
+import io.undertow.util.HttpString;
+import io.undertow.util.Methods;
+import io.undertow.util.MimeMappings;
+import org.wildfly.extension.undertow.logging.UndertowLogger;
+
+/**
+ * Resource manager that serves compressed variants of the static resources of a deployment from the direct buffer cache.
+ * <p>
+ * For every compressible resource a gzip variant is created once, and a {@code .br} or {@code .gz} file shipped next to
+ * the resource is used as its brotli or gzip variant. The variants are stored in the same {@link DirectBufferCache} as
+ * the identity bytes cached by the wrapped {@link io.undertow.server.handlers.resource.CachingResourceManager}, and the
+ * best one accepted by the client is sent instead of the identity bytes. Each resource is given a strong ETag derived
+ * from its content, the variants use the same ETag with the encoding appended.
+ * <p>
+ * The encoding is negotiated when the resource requested by a servlet request is looked up, and the {@code Vary} and
+ * {@code Content-Encoding} response headers are set at that point, so that the ETag and the length reported by the
+ * resource describe the variant that is sent, and conditional and {@code HEAD} requests see the same representation as
+ * {@code GET} requests. Range requests and included resources are always served with the identity bytes.
+ * <p>
+ * The resources of the deployment are prepared in the background once the deployment is installed, see
+ * {@link #start(Executor)}. Variants are invalidated through the {@link ResourceChangeListener} of the wrapped manager for
+ * exploded deployments, or when the last modified date of the resource changes. Resources without a last modified
+ * date are not compressed, as their changes could not be detected.
+ */
+public class PrecompressedResourceManager implements ResourceManager {
+
+    static final String BROTLI = "br";
+    static final String GZIP = "gzip";
+
+    /**
+     * The encodings in order of preference, mapped to the extension of a pre-compressed file
+     */
+    private static final Map<String, String> ENCODINGS = new LinkedHashMap<>();
+
+    static {
+        ENCODINGS.put(BROTLI, ".br");
+        ENCODINGS.put(GZIP, ".gz");
+    }
+
+    private static final int MIN_FILE_SIZE = 256;
+    private static final int MAX_FILE_SIZE = 1024 * 1024;
+    private static final int MAX_ENTRIES = 1000;
+
+    private final ResourceManager delegate;
+    private final DirectBufferCache dataCache;
+    private final ConcurrentMap<String, Representations> representations = new ConcurrentHashMap<>();
+    private final ResourceChangeListener changeListener = this::resourcesChanged;
+    private volatile boolean closed;
+
+    public PrecompressedResourceManager(ResourceManager delegate, DirectBufferCache dataCache) {
+        this.delegate = delegate;
+        this.dataCache = dataCache;
+        if (delegate.isResourceChangeListenerSupported()) {
+            delegate.registerResourceChangeListener(changeListener);
+        }
+    }
+
+    /**
+     * Starts to prepare the static resources of the deployment in the background, see {@link #prepare()}.
+     *
+     * @param executor the executor shared by the deployments of the servlet container
+     */
+    public void start(Executor executor) {
+        try {
+            executor.execute(this::prepare);
+        } catch (RejectedExecutionException e) {
+            // the servlet container is stopping, the resources are prepared on demand
+        }
+    }
+
+    /**
+     * Creates the ETags and compressed variants of all the static resources of the deployment, so that the first
+     * requests do not pay for the compression. Stops early if this resource manager is closed.
+     */
+    public void prepare() {
+        final Deque<Resource> resources = new ArrayDeque<>();
+        try {
+            final Resource root = delegate.getResource("/");
+            if (root != null) {
+                resources.add(root);
+            }
+            while (!resources.isEmpty() && representations.size() < MAX_ENTRIES && !closed) {
+                final Resource resource = resources.poll();
+                final String path = normalize(resource.getPath());
+                if (resource.isDirectory()) {
+                    if (!isProtected(path)) {
+                        resources.addAll(resource.list());
+                    }
+                } else if (!path.endsWith(".br") && !path.endsWith(".gz")) {
+                    getRepresentations(path, resource);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            UndertowLogger.ROOT_LOGGER.debugf(e, "Failed to prepare the compressed resources of %s", delegate);
+        }
+    }
+
+    @Override
+    public Resource getResource(String path) throws IOException {
+        return getResource(path, getNegotiatingExchange(path));
+    }
+
+    /**
+     * Returns a resource whose representation is negotiated for the given exchange, whose response headers are set for
+     * the negotiated representation
+     *
+     * @param exchange the exchange the resource is served to, or {@code null} to describe the identity representation
+     */
+    Resource getResource(String path, HttpServerExchange exchange) throws IOException {
+        final Resource resource = delegate.getResource(path);
+        if (resource == null || resource.isDirectory()) {
+            return resource;
+        }
+        final Representations representations = getRepresentations(normalize(path), resource);
+        if (representations == null) {
+            return resource;
+        }
+        if (exchange == null || representations.variants.isEmpty() || exchange.getRequestHeaders().contains(Headers.RANGE)) {
+            return new PrecompressedResource(resource, representations, null);
+        }
+        final HttpString method = exchange.getRequestMethod();
+        if (!method.equals(Methods.GET) && !method.equals(Methods.HEAD)) {
+            return new PrecompressedResource(resource, representations, null);
+        }
+        final String encoding = selectEncoding(exchange.getRequestHeaders().get(Headers.ACCEPT_ENCODING), representations.variants.keySet());
+        final Variant variant = (encoding != null) ? representations.variants.get(encoding) : null;
+        final HeaderMap headers = exchange.getResponseHeaders();
+        final HeaderValues vary = headers.get(Headers.VARY);
+        if (vary == null || !vary.contains(Headers.ACCEPT_ENCODING_STRING)) {
+            headers.add(Headers.VARY, Headers.ACCEPT_ENCODING_STRING);
+        }
+        if (variant != null) {
+            headers.put(Headers.CONTENT_ENCODING, variant.key.encoding);
+        }
+        return new PrecompressedResource(resource, representations, variant);
+    }
+
+    /**
+     * Returns the exchange whose requested resource is the given path, as only the response of that resource may be
+     * changed to describe a compressed variant.
+     */
+    private static HttpServerExchange getNegotiatingExchange(String path) {
+        final ServletRequestContext context = ServletRequestContext.current();
+        if (context == null) {
+            return null;
+        }
+        // an included resource must not change the headers of the including response
+        final ServletRequest request = context.getServletRequest();
+        final DispatcherType type = request.getDispatcherType();
+        if ((type != DispatcherType.REQUEST && type != DispatcherType.FORWARD) || !(request instanceof HttpServletRequest)) {
+            return null;
+        }
+        // neither must any other resource looked up by the application while it handles the request
+        final HttpServletRequest httpRequest = (HttpServletRequest) request;
+        final String pathInfo = httpRequest.getPathInfo();
+        final String requested = (pathInfo != null) ? httpRequest.getServletPath() + pathInfo : httpRequest.getServletPath();
+        return normalize(requested).equals(normalize(path)) ? context.getExchange() : null;
+    }
+
+    @Override
+    public boolean isResourceChangeListenerSupported() {
+        return delegate.isResourceChangeListenerSupported();
+    }
+
+    @Override
+    public void registerResourceChangeListener(ResourceChangeListener listener) {
+        delegate.registerResourceChangeListener(listener);
+    }
+
+    @Override
+    public void removeResourceChangeListener(ResourceChangeListener listener) {
+        delegate.removeResourceChangeListener(listener);
+    }
+
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        if (delegate.isResourceChangeListenerSupported()) {
+            delegate.removeResourceChangeListener(changeListener);
+        }
+        for (String path : representations.keySet()) {
+            invalidate(path);
+        }
+        delegate.close();
+    }
+
+    private void resourcesChanged(Collection<ResourceChangeEvent> changes) {
+        for (ResourceChangeEvent change : changes) {
+            String path = normalize(change.getResource());
+            for (String extension : ENCODINGS.values()) {
+                if (path.endsWith(extension)) {
+                    invalidate(path.substring(0, path.length() - extension.length()));
+                }
+            }
+            invalidate(path);
+        }
+    }
+
+    void invalidate(String path) {
+        final Representations removed = representations.remove(path);
+        if (removed != null) {
+            for (Variant variant : removed.variants.values()) {
+                dataCache.remove(variant.key);
+            }
+        }
+    }
+
+    /**
+     * Returns the representations of a resource, creating them if the resource was not seen before or has changed
+     *
+     * @return the representations, or {@code null} if the resource is not compressible
+     */
+    private Representations getRepresentations(String path, Resource resource) {
+        final Date lastModified = resource.getLastModified();
+        if (lastModified == null) {
+            return null;
+        }
+        Representations existing = representations.get(path);
+        if (existing != null) {
+            if (existing.lastModified.equals(lastModified)) {
+                return existing;
+            }
+            invalidate(path);
+        }
+        final Long length = resource.getContentLength();
+        if (length == null || length < MIN_FILE_SIZE || length > MAX_FILE_SIZE || representations.size() >= MAX_ENTRIES || !isCompressible(resource)) {
+            return null;
+        }
+        try {
+            final byte[] identity = read(resource);
+            final ETag etag = new ETag(false, digest(identity));
+            final Map<String, Variant> variants = new LinkedHashMap<>();
+            for (Map.Entry<String, String> encoding : ENCODINGS.entrySet()) {
+                final Resource precompressed = delegate.getResource(path + encoding.getValue());
+                byte[] bytes = null;
+                if (precompressed != null && !precompressed.isDirectory()) {
+                    bytes = read(precompressed);
+                } else if (encoding.getKey().equals(GZIP)) {
+                    bytes = gzip(identity);
+                }
+                // a variant that does not save at least a tenth of the bytes is not worth the Vary header
+                if (bytes != null && bytes.length < identity.length - identity.length / 10) {
+                    final VariantKey key = new VariantKey(this, path, encoding.getKey());
+                    if (store(key, bytes)) {
+                        variants.put(encoding.getKey(), new Variant(key, new ETag(false, etag.getTag() + "-" + encoding.getKey()), bytes.length));
+                    }
+                }
+            }
+            final Representations created = new Representations(etag, lastModified, variants);
+            existing = representations.putIfAbsent(path, created);
+            if (existing != null) {
+                for (Variant variant : variants.values()) {
+                    dataCache.remove(variant.key);
+                }
+                return existing;
+            }
+            if (closed) {
+                // created in the background while this resource manager was closed
+                invalidate(path);
+            }
+            return created;
+        } catch (IOException e) {
+            UndertowLogger.ROOT_LOGGER.debugf(e, "Failed to compress %s", path);
+            return null;
+        }
+    }
+
+    private boolean store(VariantKey key, byte[] bytes) {
+        final DirectBufferCache.CacheEntry entry = dataCache.add(key, bytes.length, -1);
+        if (entry == null || entry.buffers().length == 0 || !entry.claimEnable()) {
+            return false;
+        }
+        if (!entry.reference()) {
+            entry.disable();
+            return false;
+        }
+        try {
+            int offset = 0;
+            for (LimitedBufferSlicePool.PooledByteBuffer pooled : entry.buffers()) {
+                final ByteBuffer buffer = pooled.getBuffer();
+                buffer.clear();
+                final int length = Math.min(buffer.remaining(), bytes.length - offset);
+                buffer.put(bytes, offset, length);
+                buffer.flip();
+                offset += length;
+            }
+            entry.enable();
+            return true;
+        } finally {
+            entry.dereference();
+        }
+    }
+
+    private static boolean isProtected(String path) {
+        final String name = path.toUpperCase(Locale.ENGLISH);
+        return name.startsWith("WEB-INF") || name.startsWith("META-INF");
+    }
+
+    private static boolean isCompressible(Resource resource) {
+        final String contentType = resource.getContentType(MimeMappings.DEFAULT);
+        if (contentType == null) {
+            return false;
+        }
+        final String type = contentType.toLowerCase(Locale.ENGLISH);
+        return type.startsWith("text/") || type.contains("javascript") || type.contains("json") || type.contains("xml");
+    }
+
+    private static byte[] read(Resource resource) throws IOException {
+        final File file = resource.getFile();
+        if (file != null) {
+            return Files.readAllBytes(file.toPath());
+        }
+        final URL url = resource.getUrl();
+        if (url == null) {
+            throw new IOException(resource.getPath());
+        }
+        try (InputStream input = url.openStream()) {
+            final ByteArrayOutputStream output = new ByteArrayOutputStream();
+            final byte[] buffer = new byte[8192];
+            int read;
+            while ((read = input.read(buffer)) != -1) {
+                output.write(buffer, 0, read);
+            }
+            return output.toByteArray();
+        }
+    }
+
+    private static byte[] gzip(byte[] bytes) throws IOException {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream(bytes.length / 2);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(output)) {
+            gzip.write(bytes);
+        }
+        return output.toByteArray();
+    }
+
+    private static String digest(byte[] bytes) {
+        try {
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(MessageDigest.getInstance("SHA-1").digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static String normalize(String path) {
+        int start = 0;
+        while (start < path.length() && path.charAt(start) == '/') {
+            ++start;
+        }
+        return path.substring(start);
+    }
+
+    /**
+     * Selects the preferred encoding that is accepted by the client
+     *
+     * @param acceptEncoding the values of the {@code Accept-Encoding} request header, may be {@code null}
+     * @param available the available encodings, in order of preference
+     * @return the encoding, or {@code null} if the identity bytes should be sent
+     */
+    static String selectEncoding(List<String> acceptEncoding, Collection<String> available) {
+        if (acceptEncoding == null || acceptEncoding.isEmpty() || available.isEmpty()) {
+            return null;
+        }
+        float wildcard = 0;
+        final Map<String, Float> accepted = new HashMap<>();
+        for (String header : acceptEncoding) {
+            for (String element : header.split(",")) {
+                final String[] parts = element.split(";");
+                final String coding = parts[0].trim().toLowerCase(Locale.ENGLISH);
+                float quality = 1;
+                for (int i = 1; i < parts.length; ++i) {
+                    final String parameter = parts[i].trim();
+                    if (parameter.startsWith("q=")) {
+                        try {
+                            quality = Float.parseFloat(parameter.substring(2));
+                        } catch (NumberFormatException e) {
+                            quality = 0;
+                        }
+                    }
+                }
+                if (coding.equals("*")) {
+                    wildcard = quality;
+                } else if (!coding.isEmpty()) {
+                    accepted.put(coding, quality);
+                }
+            }
+        }
+        String selected = null;
+        float selectedQuality = 0;
+        for (String encoding : available) {
+            final Float quality = accepted.get(encoding);
+            final float q = (quality != null) ? quality : wildcard;
+            if (q > selectedQuality) {
+                selected = encoding;
+                selectedQuality = q;
+            }
+        }
+        return selected;
+    }
+
+    private static class Representations {
+        final ETag etag;
+        final Date lastModified;
+        final Map<String, Variant> variants;
+
+        Representations(ETag etag, Date lastModified, Map<String, Variant> variants) {
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.variants = variants;
+        }
+    }
+
+    private static class Variant {
+        final VariantKey key;
+        final ETag etag;
+        final long length;
+
+        Variant(VariantKey key, ETag etag, long length) {
+            this.key = key;
+            this.etag = etag;
+            this.length = length;
+        }
+    }
+
+    private static class VariantKey {
+        private final PrecompressedResourceManager manager;
+        private final String path;
+        private final String encoding;
+
+        VariantKey(PrecompressedResourceManager manager, String path, String encoding) {
+            this.manager = manager;
+            this.path = path;
+            this.encoding = encoding;
+        }
+
+        @Override
+        public boolean equals(Object object) {
+            if (!(object instanceof VariantKey)) {
+                return false;
+            }
+            final VariantKey key = (VariantKey) object;
+            return manager == key.manager && path.equals(key.path) && encoding.equals(key.encoding);
+        }
+
+        @Override
+        public int hashCode() {
+            return (System.identityHashCode(manager) * 31 + path.hashCode()) * 31 + encoding.hashCode();
+        }
+    }
+
+    private class PrecompressedResource implements Resource, RangeAwareResource {
+        private final Resource underlying;
+        private final Representations representations;
+        private final Variant variant;
+
+        /**
+         * @param variant the negotiated variant, or {@code null} for the identity representation
+         */
+        PrecompressedResource(Resource underlying, Representations representations, Variant variant) {
+            this.underlying = underlying;
+            this.representations = representations;
+            this.variant = variant;
+        }
+
+        @Override
+        public String getPath() {
+            return underlying.getPath();
+        }
+
+        @Override
+        public Date getLastModified() {
+            return underlying.getLastModified();
+        }
+
+        @Override
+        public String getLastModifiedString() {
+            return underlying.getLastModifiedString();
+        }
+
+        @Override
+        public ETag getETag() {
+            return (variant != null) ? variant.etag : representations.etag;
+        }
+
+        @Override
+        public String getName() {
+            return underlying.getName();
+        }
+
+        @Override
+        public boolean isDirectory() {
+            return false;
+        }
+
+        @Override
+        public List<Resource> list() {
+            return underlying.list();
+        }
+
+        @Override
+        public String getContentType(MimeMappings mimeMappings) {
+            return underlying.getContentType(mimeMappings);
+        }
+
+        @Override
+        public void serve(Sender sender, HttpServerExchange exchange, IoCallback completionCallback) {
+            if (variant == null) {
+                underlying.serve(sender, exchange, completionCallback);
+                return;
+            }
+            final DirectBufferCache.CacheEntry entry = dataCache.get(variant.key);
+            if (entry == null || !entry.enabled() || !entry.reference()) {
+                // the variant was evicted from the buffer cache after it was negotiated, it is created again on the next request
+                invalidate(normalize(getPath()));
+                final HeaderMap headers = exchange.getResponseHeaders();
+                headers.remove(Headers.CONTENT_ENCODING);
+                headers.put(Headers.ETAG, representations.etag.toString());
+                final Long length = underlying.getContentLength();
+                if (length != null) {
+                    headers.put(Headers.CONTENT_LENGTH, length);
+                }
+                underlying.serve(sender, exchange, completionCallback);
+                return;
+            }
+            final LimitedBufferSlicePool.PooledByteBuffer[] pooled = entry.buffers();
+            final ByteBuffer[] buffers = new ByteBuffer[pooled.length];
+            for (int i = 0; i < pooled.length; ++i) {
+                buffers[i] = pooled[i].getBuffer().duplicate();
+            }
+            exchange.getResponseHeaders().put(Headers.CONTENT_LENGTH, variant.length);
+            exchange.getResponseHeaders().put(Headers.ETAG, variant.etag.toString());
+            sender.send(buffers, new DereferenceCallback(entry, completionCallback));
+        }
+
+        @Override
+        public Long getContentLength() {
+            return (variant != null) ? variant.length : underlying.getContentLength();
+        }
+
+        @Override
+        public String getCacheKey() {
+            return underlying.getCacheKey();
+        }
+
+        @Override
+        public File getFile() {
+            return underlying.getFile();
+        }
+
+        public Path getFilePath() {
+            final File file = getFile();
+            return (file != null) ? file.toPath() : null;
+        }
+
+        @Override
+        public File getResourceManagerRoot() {
+            return underlying.getResourceManagerRoot();
+        }
+
+        public Path getResourceManagerRootPath() {
+            return getResourceManagerRoot().toPath();
+        }
+
+        @Override
+        public URL getUrl() {
+            return underlying.getUrl();
+        }
+
+        @Override
+        public void serveRange(Sender sender, HttpServerExchange exchange, long start, long end, IoCallback completionCallback) {
+            ((RangeAwareResource) underlying).serveRange(sender, exchange, start, end, completionCallback);
+        }
+
+        @Override
+        public boolean isRangeSupported() {
+            return (underlying instanceof RangeAwareResource) && ((RangeAwareResource) underlying).isRangeSupported();
+        }
+    }
+
+    private static class DereferenceCallback implements IoCallback {
+        private final DirectBufferCache.CacheEntry entry;
+        private final IoCallback callback;
+
+        DereferenceCallback(DirectBufferCache.CacheEntry entry, IoCallback callback) {
+            this.entry = entry;
+            this.callback = callback;
+        }
+
+        @Override
+        public void onComplete(HttpServerExchange exchange, Sender sender) {
+            entry.dereference();
+            callback.onComplete(exchange, sender);
+        }
+
+        @Override
+        public void onException(HttpServerExchange exchange, Sender sender, IOException exception) {
+            entry.dereference();
+            callback.onException(exchange, sender, exception);
+        }
+    }
+}
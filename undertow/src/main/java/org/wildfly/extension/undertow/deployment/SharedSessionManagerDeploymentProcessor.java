@@ -22,11 +22,14 @@
 
 package org.wildfly.extension.undertow.deployment;
 
-import io.undertow.server.session.InMemorySessionManager;
+import io.undertow.server.session.SecureRandomSessionIdGenerator;
+import io.undertow.server.session.SessionManager;
+import io.undertow.servlet.api.Deployment;
 import io.undertow.servlet.api.SessionManagerFactory;
 
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.stream.Stream;
 
 import org.jboss.as.clustering.controller.CapabilityServiceBuilder;
@@ -43,8 +46,11 @@ import org.jboss.modules.Module;
 import org.jboss.msc.service.ServiceName;
 import org.jboss.msc.service.ServiceTarget;
 import org.jboss.msc.service.ServiceController.Mode;
+import org.wildfly.extension.undertow.ServletContainerService;
 import org.wildfly.extension.undertow.session.DistributableSessionIdentifierCodecBuilderProvider;
 import org.wildfly.extension.undertow.session.DistributableSessionManagerFactoryBuilderProvider;
+import org.wildfly.extension.undertow.session.LocalSessionManager;
+import org.wildfly.extension.undertow.session.SessionEvictionPolicy;
 import org.wildfly.extension.undertow.session.SharedSessionManagerConfig;
 import org.wildfly.extension.undertow.session.SimpleDistributableSessionManagerConfiguration;
 import org.wildfly.extension.undertow.session.SimpleSessionIdentifierCodecBuilder;
@@ -79,13 +85,10 @@ public class SharedSessionManagerDeploymentProcessor implements DeploymentUnitPr
         CapabilityServiceBuilder<SessionManagerFactory> factoryBuilder = DistributableSessionManagerFactoryBuilderProvider.INSTANCE
                 .map(provider -> provider.getBuilder(managerServiceName, new SimpleDistributableSessionManagerConfiguration(sharedConfig, serverName, deploymentUnit.getName(), module)))
                 .orElseGet(() -> {
-                    InMemorySessionManager manager = new InMemorySessionManager(deploymentUnit.getName(), sharedConfig.getMaxActiveSessions());
-                    if (sharedConfig.getSessionConfig() != null) {
-                        if (sharedConfig.getSessionConfig().getSessionTimeoutSet()) {
-                            manager.setDefaultSessionTimeout(sharedConfig.getSessionConfig().getSessionTimeout());
-                        }
-                    }
-                    return new SimpleCapabilityServiceBuilder<>(managerServiceName, new ImmediateSessionManagerFactory(manager));
+                    Optional<ServletContainerService> servletContainer = Optional.ofNullable(deploymentUnit.getAttachment(UndertowAttachments.SERVLET_CONTAINER_SERVICE));
+                    SessionEvictionPolicy evictionPolicy = servletContainer.map(ServletContainerService::getSessionEvictionPolicy).orElse(SessionEvictionPolicy.LRU);
+                    ScheduledExecutorService expirationExecutor = servletContainer.map(ServletContainerService::getSessionExpirationExecutor).orElse(null);
+                    return new SimpleCapabilityServiceBuilder<>(managerServiceName, new SharedLocalSessionManagerFactory(deploymentUnit.getName(), sharedConfig, evictionPolicy, expirationExecutor));
                 });
 
         ServiceName codecServiceName = deploymentServiceName.append(SharedSessionManagerConfig.SHARED_SESSION_IDENTIFIER_CODEC_SERVICE_NAME);
@@ -99,4 +102,38 @@ public class SharedSessionManagerDeploymentProcessor implements DeploymentUnitPr
     @Override
     public void undeploy(DeploymentUnit context) {
     }
+
+    /**
+     * Creates the shared session manager for the first web module that uses it, so that, like the session managers of
+     * single deployments, it only exposes its statistics if the deployment collects metrics.
+     */
+    private static class SharedLocalSessionManagerFactory implements SessionManagerFactory {
+        private final String deploymentName;
+        private final SharedSessionManagerConfig config;
+        private final SessionEvictionPolicy evictionPolicy;
+        private final ScheduledExecutorService expirationExecutor;
+        // Guarded by this
+        private SessionManager manager;
+
+        SharedLocalSessionManagerFactory(String deploymentName, SharedSessionManagerConfig config, SessionEvictionPolicy evictionPolicy, ScheduledExecutorService expirationExecutor) {
+            this.deploymentName = deploymentName;
+            this.config = config;
+            this.evictionPolicy = evictionPolicy;
+            this.expirationExecutor = expirationExecutor;
+        }
+
+        @Override
+        public synchronized SessionManager createSessionManager(Deployment deployment) {
+            if (this.manager == null) {
+                LocalSessionManager manager = new LocalSessionManager(this.deploymentName, new SecureRandomSessionIdGenerator(), this.config.getMaxActiveSessions(), this.evictionPolicy, deployment.getDeploymentInfo().getMetricsCollector() != null, this.expirationExecutor);
+                if (this.config.getSessionConfig() != null) {
+                    if (this.config.getSessionConfig().getSessionTimeoutSet()) {
+                        manager.setDefaultSessionTimeout(this.config.getSessionConfig().getSessionTimeout());
+                    }
+                }
+                this.manager = manager;
+            }
+            return this.manager;
+        }
+    }
 }
@@ -418,7 +418,9 @@ public class UndertowDeploymentInfoService implements Service<DeploymentInfo> {
             }
             deploymentInfo.setServerName(serverEnvironmentInjectedValue.getValue().getProductConfig().getPrettyVersionString());
             if (undertowService.getValue().isStatisticsEnabled()) {
-                deploymentInfo.setMetricsCollector(new UndertowMetricsCollector());
+                UndertowMetricsCollector metricsCollector = new UndertowMetricsCollector();
+                metricsCollector.addLatencyHandlers(deploymentInfo);
+                deploymentInfo.setMetricsCollector(metricsCollector);
             }
 
             ControlPoint controlPoint = controlPointInjectedValue.getOptionalValue();
@@ -596,6 +598,11 @@ public class UndertowDeploymentInfoService implements Service<DeploymentInfo> {
                 ResourceManager resourceManager = new ServletResourceManager(deploymentRoot, overlays, explodedDeployment, mergedMetaData.isSymbolicLinkingEnabled(), servletContainer.isDisableFileWatchService(), externalOverlays);
 
                 resourceManager = new CachingResourceManager(100, 10 * 1024 * 1024, servletContainer.getBufferCache(), resourceManager, explodedDeployment ? 2000 : -1);
+                if (servletContainer.isPrecompressStaticResources() && servletContainer.getBufferCache() != null) {
+                    PrecompressedResourceManager precompressed = new PrecompressedResourceManager(resourceManager, servletContainer.getBufferCache());
+                    precompressed.start(servletContainer.getStaticResourceExecutor());
+                    resourceManager = precompressed;
+                }
                 if(externalResources != null && !externalResources.isEmpty()) {
                     //TODO: we don't cache external deployments, as they are intended for development use
                     //should be make this configurable or something?
@@ -30,6 +30,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.function.BiFunction;
 import java.util.function.Predicate;
 import java.util.stream.Stream;
@@ -99,13 +100,14 @@ import org.wildfly.extension.undertow.security.jacc.WarJACCDeployer;
 import org.wildfly.extension.undertow.session.DistributableSessionIdentifierCodecBuilderProvider;
 import org.wildfly.extension.undertow.session.DistributableSessionManagerConfiguration;
 import org.wildfly.extension.undertow.session.DistributableSessionManagerFactoryBuilderProvider;
+import org.wildfly.extension.undertow.session.LocalSessionManagerFactory;
+import org.wildfly.extension.undertow.session.SessionEvictionPolicy;
 import org.wildfly.extension.undertow.session.SharedSessionManagerConfig;
 import org.wildfly.extension.undertow.session.SimpleDistributableSessionManagerConfiguration;
 import org.wildfly.extension.undertow.session.SimpleSessionIdentifierCodecBuilder;
 
 import io.undertow.servlet.api.DeploymentInfo;
 import io.undertow.servlet.api.SessionManagerFactory;
-import io.undertow.servlet.core.InMemorySessionManagerFactory;
 
 public class UndertowDeploymentProcessor implements DeploymentUnitProcessor {
 
@@ -448,6 +450,8 @@ public class UndertowDeploymentProcessor implements DeploymentUnitProcessor {
         if(maxActiveSessions == null && servletContainerService != null) {
             maxActiveSessions = servletContainerService.getMaxSessions();
         }
+        SessionEvictionPolicy evictionPolicy = (servletContainerService != null) ? servletContainerService.getSessionEvictionPolicy() : SessionEvictionPolicy.LRU;
+        ScheduledExecutorService expirationExecutor = (servletContainerService != null) ? servletContainerService.getSessionExpirationExecutor() : null;
         ServiceName name = deploymentServiceName.append("session");
         if (metaData.getDistributable() != null) {
             if (DistributableSessionManagerFactoryBuilderProvider.INSTANCE.isPresent()) {
@@ -457,7 +461,7 @@ public class UndertowDeploymentProcessor implements DeploymentUnitProcessor {
             // Fallback to local session manager if server does not support clustering
             UndertowLogger.ROOT_LOGGER.clusteringNotSupported();
         }
-        return new SimpleCapabilityServiceBuilder<>(name, (maxActiveSessions != null) ? new InMemorySessionManagerFactory(maxActiveSessions) : new InMemorySessionManagerFactory());
+        return new SimpleCapabilityServiceBuilder<>(name, new LocalSessionManagerFactory(maxActiveSessions, evictionPolicy, expirationExecutor));
     }
 
     private static CapabilityServiceBuilder<SessionIdentifierCodec> getSessionIdentifierCodecBuilder(ServiceName deploymentServiceName, String serverName, String deploymentName, JBossWebMetaData metaData) {
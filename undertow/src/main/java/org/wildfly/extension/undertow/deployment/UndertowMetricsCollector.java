@@ -22,17 +22,27 @@
 
 package org.wildfly.extension.undertow.deployment;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
+import io.undertow.server.HttpHandler;
+import io.undertow.server.HttpServerExchange;
 import io.undertow.server.handlers.MetricsHandler;
+import io.undertow.servlet.api.DeploymentInfo;
 import io.undertow.servlet.api.MetricsCollector;
+import io.undertow.servlet.api.ServletInfo;
+import org.wildfly.extension.undertow.LatencyHistogram;
 
 /**
+ * Collects the metrics of the servlets of a deployment, as well as the latency histograms of the requests of the
+ * deployment and of each servlet.
+ *
  * @author Tomaz Cerar (c) 2014 Red Hat Inc.
  */
 public class UndertowMetricsCollector implements MetricsCollector {
-    private final Map<String, MetricsHandler> metrics = new HashMap<>();
+    private final Map<String, MetricsHandler> metrics = new ConcurrentHashMap<>();
+    private final LatencyHistogram requestLatency = new LatencyHistogram();
+    private final Map<String, LatencyHistogram> servletLatencies = new ConcurrentHashMap<>();
 
     @Override
     public void registerMetric(String name, MetricsHandler handler) {
@@ -40,9 +50,51 @@ public class UndertowMetricsCollector implements MetricsCollector {
     }
 
     public MetricsHandler.MetricResult getMetrics(String name) {
-        if (metrics.containsKey(name)) {
-            return metrics.get(name).getMetrics();
+        MetricsHandler handler = metrics.get(name);
+        return handler != null ? handler.getMetrics() : null;
+    }
+
+    /**
+     * Adds the handlers which record the latency of the requests of the deployment and of its servlets, which must all
+     * have been added to the deployment.
+     */
+    void addLatencyHandlers(DeploymentInfo deploymentInfo) {
+        deploymentInfo.addInitialHandlerChainWrapper(next -> new LatencyHandler(requestLatency, next));
+        for (ServletInfo servlet : deploymentInfo.getServlets().values()) {
+            LatencyHistogram latency = servletLatencies.computeIfAbsent(servlet.getName(), name -> new LatencyHistogram());
+            servlet.addHandlerChainWrapper(next -> new LatencyHandler(latency, next));
+        }
+    }
+
+    public LatencyHistogram.Snapshot getRequestLatency() {
+        return requestLatency.snapshot();
+    }
+
+    public LatencyHistogram.Snapshot getLatency(String name) {
+        LatencyHistogram latency = servletLatencies.get(name);
+        return latency != null ? latency.snapshot() : null;
+    }
+
+    /**
+     * Records the time from the start of a request until its response completes, including asynchronous processing.
+     */
+    private static class LatencyHandler implements HttpHandler {
+        private final LatencyHistogram latency;
+        private final HttpHandler next;
+
+        LatencyHandler(LatencyHistogram latency, HttpHandler next) {
+            this.latency = latency;
+            this.next = next;
+        }
+
+        @Override
+        public void handleRequest(HttpServerExchange exchange) throws Exception {
+            long start = System.nanoTime();
+            exchange.addExchangeCompleteListener((completed, nextListener) -> {
+                latency.record(System.nanoTime() - start);
+                nextListener.proceed();
+            });
+            next.handleRequest(exchange);
         }
-        return null;
     }
 }
@@ -52,6 +52,9 @@ public class UndertowServletContainerDependencyProcessor implements DeploymentUn
                 servletContainerName = metaData.getServletContainerName();
             }
             phaseContext.addDeploymentDependency(UndertowService.SERVLET_CONTAINER.append(servletContainerName), UndertowAttachments.SERVLET_CONTAINER_SERVICE);
+        } else if (deploymentUnit.hasAttachment(UndertowAttachments.SHARED_SESSION_MANAGER_CONFIG)) {
+            // the session manager shared by the web modules of an ear follows the default servlet container
+            phaseContext.addDeploymentDependency(UndertowService.SERVLET_CONTAINER.append(defaultServletContainer), UndertowAttachments.SERVLET_CONTAINER_SERVICE);
         }
     }
 
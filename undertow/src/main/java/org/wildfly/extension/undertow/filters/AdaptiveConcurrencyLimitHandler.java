@@ -0,0 +1,64 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.undertow.filters;
+
+import io.undertow.server.ExchangeCompletionListener;
+import io.undertow.server.HttpHandler;
+import io.undertow.server.HttpServerExchange;
+import io.undertow.util.StatusCodes;
+
+/**
+ * Handler which rejects requests with a 503 once the concurrency limit of its {@link AdaptiveConcurrencyLimiter} is
+ * reached, rather than letting them queue.
+ */
+class AdaptiveConcurrencyLimitHandler implements HttpHandler {
+
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final HttpHandler next;
+
+    AdaptiveConcurrencyLimitHandler(AdaptiveConcurrencyLimiter limiter, HttpHandler next) {
+        this.limiter = limiter;
+        this.next = next;
+    }
+
+    @Override
+    public void handleRequest(HttpServerExchange exchange) throws Exception {
+        if (!this.limiter.tryAcquire()) {
+            exchange.setStatusCode(StatusCodes.SERVICE_UNAVAILABLE);
+            exchange.endExchange();
+            return;
+        }
+        final long start = System.nanoTime();
+        exchange.addExchangeCompleteListener(new ExchangeCompletionListener() {
+            @Override
+            public void exchangeEvent(HttpServerExchange exchange, NextListener nextListener) {
+                try {
+                    AdaptiveConcurrencyLimitHandler.this.limiter.release(start, System.nanoTime());
+                } finally {
+                    nextListener.proceed();
+                }
+            }
+        });
+        this.next.handleRequest(exchange);
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.undertow.filters;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Concurrency limit which adapts to the latency of the requests it admits, in the way TCP congestion control adapts
+ * to round trip times.
+ * <p>
+ * The latency of completed requests is averaged over a sampling window, and compared with the lowest latency observed,
+ * which estimates the latency of a request when nothing is queued. As long as the average latency stays within the
+ * tolerance, the limit grows by its square root per window. Beyond it, the limit shrinks in proportion to the ratio of
+ * the two latencies, by at most half per window. The limit does not grow while less than half of it is used, and the
+ * estimate of the no load latency is reset periodically, so that it follows lasting changes of the backend latency.
+ * </p>
+ */
+class AdaptiveConcurrencyLimiter {
+
+    static final long WINDOW = TimeUnit.MILLISECONDS.toNanos(100);
+    // The number of windows after which the estimate of the no load latency is reset
+    static final int BASELINE_RESET_WINDOWS = 600;
+    private static final double SMOOTHING = 0.2;
+    private static final double MIN_GRADIENT = 0.5;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder rejected = new LongAdder();
+    private volatile int limit;
+
+    // Samples of the current window
+    private final LongAdder latencies = new LongAdder();
+    private final LongAdder samples = new LongAdder();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private final AtomicLong baseline = new AtomicLong(Long.MAX_VALUE);
+    private final AtomicBoolean updating = new AtomicBoolean();
+    private volatile long windowEnd;
+    // Guarded by updating
+    private int windows;
+
+    /**
+     * @param initialLimit the initial concurrency limit
+     * @param minLimit the minimum concurrency limit
+     * @param maxLimit the maximum concurrency limit
+     * @param tolerance the ratio of the average latency to the no load latency which is tolerated before the limit shrinks
+     * @param now the current time, in nanoseconds
+     */
+    AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double tolerance, long now) {
+        this.minLimit = minLimit;
+        this.maxLimit = Math.max(minLimit, maxLimit);
+        this.tolerance = tolerance;
+        this.limit = Math.min(Math.max(initialLimit, this.minLimit), this.maxLimit);
+        this.windowEnd = now + WINDOW;
+    }
+
+    /**
+     * Admits a request, if less requests than the current limit are in flight.
+     *
+     * @return {@code true} if the request was admitted, in which case {@link #release(long, long)} must be called once it completes
+     */
+    boolean tryAcquire() {
+        int current = this.inFlight.get();
+        while (current < this.limit) {
+            if (this.inFlight.compareAndSet(current, current + 1)) {
+                if (current + 1 > this.maxInFlight.get()) {
+                    this.maxInFlight.accumulateAndGet(current + 1, Math::max);
+                }
+                return true;
+            }
+            current = this.inFlight.get();
+        }
+        this.rejected.increment();
+        return false;
+    }
+
+    /**
+     * Records the completion of an admitted request.
+     *
+     * @param start the time the request was admitted, in nanoseconds
+     * @param now the current time, in nanoseconds
+     */
+    void release(long start, long now) {
+        this.inFlight.decrementAndGet();
+        long latency = Math.max(now - start, 1L);
+        this.latencies.add(latency);
+        this.samples.increment();
+        long current = this.baseline.get();
+        while (latency < current && !this.baseline.compareAndSet(current, latency)) {
+            current = this.baseline.get();
+        }
+        if (now - this.windowEnd >= 0 && this.updating.compareAndSet(false, true)) {
+            try {
+                this.update(now);
+            } finally {
+                this.updating.set(false);
+            }
+        }
+    }
+
+    private void update(long now) {
+        long count = this.samples.sumThenReset();
+        long total = this.latencies.sumThenReset();
+        int used = this.maxInFlight.getAndSet(this.inFlight.get());
+        this.windowEnd = now + WINDOW;
+        if (count == 0) return;
+
+        double average = (double) total / count;
+        int current = this.limit;
+        double gradient = Math.max(MIN_GRADIENT, Math.min(1.0, this.tolerance * this.baseline.get() / average));
+        double target = current * gradient + Math.sqrt(current);
+        if ((gradient == 1.0) && (used < current / 2)) {
+            // Do not grow a limit which is not used
+            target = current;
+        }
+        double smoothed = (1 - SMOOTHING) * current + SMOOTHING * target;
+        // Round towards the target, so that the limit still moves by one when the adjustment is small
+        int next = (int) ((target > current) ? Math.ceil(smoothed) : Math.floor(smoothed));
+        this.limit = Math.min(Math.max(next, this.minLimit), this.maxLimit);
+
+        if (++this.windows >= BASELINE_RESET_WINDOWS) {
+            this.windows = 0;
+            this.baseline.set((long) average);
+        }
+    }
+
+    int getLimit() {
+        return this.limit;
+    }
+
+    int getInFlight() {
+        return this.inFlight.get();
+    }
+
+    long getRejectedCount() {
+        return this.rejected.sum();
+    }
+}
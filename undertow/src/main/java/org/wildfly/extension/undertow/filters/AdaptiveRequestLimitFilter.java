@@ -0,0 +1,149 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.undertow.filters;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.function.Function;
+
+import io.undertow.predicate.Predicate;
+import io.undertow.server.HttpHandler;
+import org.jboss.as.controller.AttributeDefinition;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.OperationStepHandler;
+import org.jboss.as.controller.SimpleAttributeDefinition;
+import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
+import org.jboss.as.controller.operations.validation.IntRangeValidator;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+import org.jboss.msc.service.ServiceController;
+import org.wildfly.extension.undertow.UndertowService;
+
+/**
+ * Request limit filter whose concurrency limit adapts to the latency of the requests, see {@link AdaptiveConcurrencyLimiter}.
+ */
+public class AdaptiveRequestLimitFilter extends Filter {
+
+    public static final AdaptiveRequestLimitFilter INSTANCE = new AdaptiveRequestLimitFilter();
+
+    public static final AttributeDefinition INITIAL_LIMIT = new SimpleAttributeDefinitionBuilder("initial-limit", ModelType.INT)
+            .setValidator(new IntRangeValidator(1, true, true))
+            .setAllowExpression(true)
+            .setRequired(false)
+            .setDefaultValue(new ModelNode(20))
+            .setRestartAllServices()
+            .build();
+
+    public static final AttributeDefinition MIN_LIMIT = new SimpleAttributeDefinitionBuilder("min-limit", ModelType.INT)
+            .setValidator(new IntRangeValidator(1, true, true))
+            .setAllowExpression(true)
+            .setRequired(false)
+            .setDefaultValue(new ModelNode(1))
+            .setRestartAllServices()
+            .build();
+
+    public static final AttributeDefinition MAX_LIMIT = new SimpleAttributeDefinitionBuilder("max-limit", ModelType.INT)
+            .setValidator(new IntRangeValidator(1, true, true))
+            .setAllowExpression(true)
+            .setRequired(false)
+            .setDefaultValue(new ModelNode(1000))
+            .setRestartAllServices()
+            .build();
+
+    public static final AttributeDefinition LATENCY_TOLERANCE = new SimpleAttributeDefinitionBuilder("latency-tolerance", ModelType.INT)
+            .setValidator(new IntRangeValidator(100, true, true))
+            .setAllowExpression(true)
+            .setRequired(false)
+            .setDefaultValue(new ModelNode(200))
+            .setRestartAllServices()
+            .build();
+
+    public static final SimpleAttributeDefinition CURRENT_LIMIT = new SimpleAttributeDefinitionBuilder("current-limit", ModelType.INT)
+            .setUndefinedMetricValue(new ModelNode(0))
+            .setStorageRuntime()
+            .build();
+
+    public static final SimpleAttributeDefinition IN_FLIGHT = new SimpleAttributeDefinitionBuilder("in-flight", ModelType.INT)
+            .setUndefinedMetricValue(new ModelNode(0))
+            .setStorageRuntime()
+            .build();
+
+    public static final SimpleAttributeDefinition REJECTED_COUNT = new SimpleAttributeDefinitionBuilder("rejected-count", ModelType.LONG)
+            .setUndefinedMetricValue(new ModelNode(0L))
+            .setStorageRuntime()
+            .build();
+
+    private AdaptiveRequestLimitFilter() {
+        super("adaptive-request-limit");
+    }
+
+    @Override
+    public Collection<AttributeDefinition> getAttributes() {
+        return Arrays.asList(INITIAL_LIMIT, MIN_LIMIT, MAX_LIMIT, LATENCY_TOLERANCE);
+    }
+
+    @Override
+    public void registerAttributes(ManagementResourceRegistration resourceRegistration) {
+        super.registerAttributes(resourceRegistration);
+        resourceRegistration.registerMetric(CURRENT_LIMIT, new MetricHandler(limiter -> new ModelNode(limiter.getLimit())));
+        resourceRegistration.registerMetric(IN_FLIGHT, new MetricHandler(limiter -> new ModelNode(limiter.getInFlight())));
+        resourceRegistration.registerMetric(REJECTED_COUNT, new MetricHandler(limiter -> new ModelNode(limiter.getRejectedCount())));
+    }
+
+    @Override
+    FilterService createFilterService(ModelNode model) {
+        return new AdaptiveRequestLimitService(model);
+    }
+
+    @Override
+    public HttpHandler createHttpHandler(Predicate predicate, ModelNode model, HttpHandler next) {
+        throw new IllegalStateException(); //should not be used, as the handler shares the limiter of the filter service
+    }
+
+    @Override
+    protected Class[] getConstructorSignature() {
+        throw new IllegalStateException(); //should not be used, as the handler is constructed by the filter service
+    }
+
+    private static class MetricHandler implements OperationStepHandler {
+        private final Function<AdaptiveConcurrencyLimiter, ModelNode> metric;
+
+        MetricHandler(Function<AdaptiveConcurrencyLimiter, ModelNode> metric) {
+            this.metric = metric;
+        }
+
+        @Override
+        public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
+            ServiceController<?> controller = context.getServiceRegistry(false).getService(UndertowService.FILTER.append(context.getCurrentAddressValue()));
+            if (controller != null && controller.getState() == ServiceController.State.UP) {
+                AdaptiveConcurrencyLimiter limiter = ((AdaptiveRequestLimitService) controller.getValue()).getLimiter();
+                if (limiter != null) {
+                    context.getResult().set(this.metric.apply(limiter));
+                }
+            }
+            context.completeStep(OperationContext.RollbackHandler.NOOP_ROLLBACK_HANDLER);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.undertow.filters;
+
+import io.undertow.Handlers;
+import io.undertow.predicate.Predicate;
+import io.undertow.server.HttpHandler;
+import org.jboss.dmr.ModelNode;
+import org.jboss.msc.service.StartContext;
+import org.jboss.msc.service.StartException;
+import org.jboss.msc.service.StopContext;
+
+/**
+ * Filter service holding the {@link AdaptiveConcurrencyLimiter} shared by all the handlers created for the filter,
+ * whichever host or location references it.
+ */
+class AdaptiveRequestLimitService extends FilterService {
+
+    private final int initialLimit;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private volatile AdaptiveConcurrencyLimiter limiter;
+
+    AdaptiveRequestLimitService(ModelNode model) {
+        super(AdaptiveRequestLimitFilter.INSTANCE, model);
+        this.initialLimit = model.get(AdaptiveRequestLimitFilter.INITIAL_LIMIT.getName()).asInt();
+        this.minLimit = model.get(AdaptiveRequestLimitFilter.MIN_LIMIT.getName()).asInt();
+        this.maxLimit = model.get(AdaptiveRequestLimitFilter.MAX_LIMIT.getName()).asInt();
+        this.tolerance = model.get(AdaptiveRequestLimitFilter.LATENCY_TOLERANCE.getName()).asInt() / 100.0;
+    }
+
+    @Override
+    public void start(StartContext context) throws StartException {
+        super.start(context);
+        this.limiter = new AdaptiveConcurrencyLimiter(this.initialLimit, this.minLimit, this.maxLimit, this.tolerance, System.nanoTime());
+    }
+
+    @Override
+    public void stop(StopContext context) {
+        this.limiter = null;
+        super.stop(context);
+    }
+
+    @Override
+    public HttpHandler createHttpHandler(Predicate predicate, HttpHandler next) {
+        HttpHandler handler = new AdaptiveConcurrencyLimitHandler(this.limiter, next);
+        return (predicate != null) ? Handlers.predicate(predicate, handler, next) : handler;
+    }
+
+    AdaptiveConcurrencyLimiter getLimiter() {
+        return this.limiter;
+    }
+}
@@ -58,6 +58,13 @@ abstract class Filter extends AbstractHandlerDefinition {
 
     }
 
+    /**
+     * Creates the service of a filter, which creates the handlers of the filter.
+     */
+    FilterService createFilterService(ModelNode model) {
+        return new FilterService(this, model);
+    }
+
     public HttpHandler createHttpHandler(final Predicate predicate, final ModelNode model, HttpHandler next) {
         List<AttributeDefinition> attributes = new ArrayList<>(getAttributes());
         HttpHandler handler = createHandler(getHandlerClass(), model, attributes, next);
@@ -52,7 +52,9 @@ public class FilterDefinitions extends PersistentResourceDefinition {
             CustomFilterDefinition.INSTANCE,
             ModClusterDefinition.INSTANCE,
             ExpressionFilterDefinition.INSTANCE,
-            RewriteFilterDefinition.INSTANCE
+            RewriteFilterDefinition.INSTANCE,
+            AdaptiveRequestLimitFilter.INSTANCE,
+            ResponseCacheFilter.INSTANCE
     ));
 
     private FilterDefinitions() {
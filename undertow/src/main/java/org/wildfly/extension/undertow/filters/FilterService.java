@@ -26,6 +26,7 @@ import io.undertow.predicate.Predicate;
 import io.undertow.server.HttpHandler;
 import org.jboss.dmr.ModelNode;
 import org.jboss.msc.service.Service;
+import org.jboss.msc.service.ServiceBuilder;
 import org.jboss.msc.service.StartContext;
 import org.jboss.msc.service.StartException;
 import org.jboss.msc.service.StopContext;
@@ -43,6 +44,12 @@ public class FilterService implements Service<FilterService> {
         this.model = model;
     }
 
+    /**
+     * Adds the dependencies of the filter to the builder of this service.
+     */
+    void addDependencies(ServiceBuilder<FilterService> builder) {
+    }
+
     @Override
     public void start(StartContext context) throws StartException {
 
@@ -0,0 +1,186 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.undertow.filters;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.function.Function;
+
+import io.undertow.predicate.Predicate;
+import io.undertow.server.HttpHandler;
+import org.jboss.as.controller.AttributeDefinition;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationDefinition;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.OperationStepHandler;
+import org.jboss.as.controller.SimpleAttributeDefinition;
+import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
+import org.jboss.as.controller.SimpleOperationDefinitionBuilder;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
+import org.jboss.as.controller.operations.validation.IntRangeValidator;
+import org.jboss.as.controller.operations.validation.LongRangeValidator;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+import org.jboss.msc.service.ServiceController;
+import org.wildfly.extension.undertow.Constants;
+import org.wildfly.extension.undertow.UndertowExtension;
+import org.wildfly.extension.undertow.UndertowService;
+
+public class ResponseCacheFilter extends Filter {
+
+    public static final ResponseCacheFilter INSTANCE = new ResponseCacheFilter();
+
+    public static final AttributeDefinition BUFFER_CACHE = new SimpleAttributeDefinitionBuilder("buffer-cache", ModelType.STRING)
+            .setAllowExpression(true)
+            .setRequired(false)
+            .setDefaultValue(new ModelNode("default"))
+            .setRestartAllServices()
+            .build();
+
+    public static final AttributeDefinition MAX_SIZE = new SimpleAttributeDefinitionBuilder("max-size", ModelType.LONG)
+            .setValidator(new LongRangeValidator(1, true, true))
+            .setMeasurementUnit(MeasurementUnit.BYTES)
+            .setAllowExpression(true)
+            .setRequired(false)
+            .setDefaultValue(new ModelNode(4194304L))
+            .setRestartAllServices()
+            .build();
+
+    public static final AttributeDefinition MAX_ENTRY_SIZE = new SimpleAttributeDefinitionBuilder("max-entry-size", ModelType.INT)
+            .setValidator(new IntRangeValidator(1, true, true))
+            .setMeasurementUnit(MeasurementUnit.BYTES)
+            .setAllowExpression(true)
+            .setRequired(false)
+            .setDefaultValue(new ModelNode(262144))
+            .setRestartAllServices()
+            .build();
+
+    public static final SimpleAttributeDefinition HIT_COUNT = new SimpleAttributeDefinitionBuilder("hit-count", ModelType.LONG)
+            .setUndefinedMetricValue(new ModelNode(0L))
+            .setStorageRuntime()
+            .build();
+
+    public static final SimpleAttributeDefinition MISS_COUNT = new SimpleAttributeDefinitionBuilder("miss-count", ModelType.LONG)
+            .setUndefinedMetricValue(new ModelNode(0L))
+            .setStorageRuntime()
+            .build();
+
+    public static final SimpleAttributeDefinition HIT_RATIO = new SimpleAttributeDefinitionBuilder("hit-ratio", ModelType.DOUBLE)
+            .setUndefinedMetricValue(new ModelNode(0.0))
+            .setStorageRuntime()
+            .build();
+
+    public static final SimpleAttributeDefinition ENTRIES = new SimpleAttributeDefinitionBuilder("entries", ModelType.INT)
+            .setUndefinedMetricValue(new ModelNode(0))
+            .setStorageRuntime()
+            .build();
+
+    public static final SimpleAttributeDefinition MEMORY_USED = new SimpleAttributeDefinitionBuilder("memory-used", ModelType.LONG)
+            .setUndefinedMetricValue(new ModelNode(0L))
+            .setMeasurementUnit(MeasurementUnit.BYTES)
+            .setStorageRuntime()
+            .build();
+
+    public static final SimpleAttributeDefinition PATH = new SimpleAttributeDefinitionBuilder("path", ModelType.STRING)
+            .setRequired(false)
+            .build();
+
+    private static final OperationDefinition INVALIDATE = new SimpleOperationDefinitionBuilder("invalidate", UndertowExtension.getResolver(Constants.FILTER, "response-cache"))
+            .setParameters(PATH)
+            .setReplyType(ModelType.INT)
+            .setRuntimeOnly()
+            .build();
+
+    private ResponseCacheFilter() {
+        super("response-cache");
+    }
+
+    @Override
+    public Collection<AttributeDefinition> getAttributes() {
+        return Arrays.asList(BUFFER_CACHE, MAX_SIZE, MAX_ENTRY_SIZE);
+    }
+
+    @Override
+    public void registerAttributes(ManagementResourceRegistration resourceRegistration) {
+        super.registerAttributes(resourceRegistration);
+        resourceRegistration.registerMetric(HIT_COUNT, new MetricHandler(store -> new ModelNode(store.getHitCount())));
+        resourceRegistration.registerMetric(MISS_COUNT, new MetricHandler(store -> new ModelNode(store.getMissCount())));
+        resourceRegistration.registerMetric(HIT_RATIO, new MetricHandler(store -> new ModelNode(store.getHitRatio())));
+        resourceRegistration.registerMetric(ENTRIES, new MetricHandler(store -> new ModelNode(store.getEntryCount())));
+        resourceRegistration.registerMetric(MEMORY_USED, new MetricHandler(store -> new ModelNode(store.getMemoryUsed())));
+    }
+
+    @Override
+    public void registerOperations(ManagementResourceRegistration resourceRegistration) {
+        super.registerOperations(resourceRegistration);
+        resourceRegistration.registerOperationHandler(INVALIDATE, (context, operation) -> {
+            ModelNode path = PATH.resolveModelAttribute(context, operation);
+            ServiceController<?> controller = context.getServiceRegistry(false).getService(UndertowService.FILTER.append(context.getCurrentAddressValue()));
+            int count = 0;
+            if (controller != null && controller.getState() == ServiceController.State.UP) {
+                ResponseCacheStore store = ((ResponseCacheService) controller.getValue()).getStore();
+                if (store != null) {
+                    count = store.invalidate(path.isDefined() ? path.asString() : null);
+                }
+            }
+            context.getResult().set(count);
+            context.completeStep(OperationContext.RollbackHandler.NOOP_ROLLBACK_HANDLER);
+        });
+    }
+
+    @Override
+    FilterService createFilterService(ModelNode model) {
+        return new ResponseCacheService(model);
+    }
+
+    @Override
+    public HttpHandler createHttpHandler(Predicate predicate, ModelNode model, HttpHandler next) {
+        throw new IllegalStateException(); //should not be used, as the handler shares the cache of the filter service
+    }
+
+    @Override
+    protected Class[] getConstructorSignature() {
+        throw new IllegalStateException(); //should not be used, as the handler is constructed by the filter service
+    }
+
+    private static class MetricHandler implements OperationStepHandler {
+        private final Function<ResponseCacheStore, ModelNode> metric;
+
+        MetricHandler(Function<ResponseCacheStore, ModelNode> metric) {
+            this.metric = metric;
+        }
+
+        @Override
+        public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
+            ServiceController<?> controller = context.getServiceRegistry(false).getService(UndertowService.FILTER.append(context.getCurrentAddressValue()));
+            if (controller != null && controller.getState() == ServiceController.State.UP) {
+                ResponseCacheStore store = ((ResponseCacheService) controller.getValue()).getStore();
+                if (store != null) {
+                    context.getResult().set(this.metric.apply(store));
+                }
+            }
+            context.completeStep(OperationContext.RollbackHandler.NOOP_ROLLBACK_HANDLER);
+        }
+    }
+}
@@ -0,0 +1,457 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.undertow.filters;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import io.undertow.io.IoCallback;
+import io.undertow.io.Sender;
+import io.undertow.server.ConduitWrapper;
+import io.undertow.server.HttpHandler;
+import io.undertow.server.HttpServerExchange;
+import io.undertow.server.handlers.cache.DirectBufferCache;
+import io.undertow.server.handlers.cache.LimitedBufferSlicePool;
+import io.undertow.util.ConduitFactory;
+import io.undertow.util.DateUtils;
+import io.undertow.util.ETag;
+import io.undertow.util.ETagUtils;
+import io.undertow.util.HeaderMap;
+import io.undertow.util.HeaderValues;
+import io.undertow.util.Headers;
+import io.undertow.util.HttpString;
+import io.undertow.util.Methods;
+import io.undertow.util.StatusCodes;
+import org.xnio.IoUtils;
+import org.xnio.channels.StreamSourceChannel;
+import org.xnio.conduits.AbstractStreamSinkConduit;
+import org.xnio.conduits.ConduitWritableByteChannel;
+import org.xnio.conduits.StreamSinkConduit;
+import org.wildfly.extension.undertow.filters.ResponseCacheStore.CachedResponse;
+
+/**
+ * Serves GET and HEAD requests from the responses cached by a response-cache filter, and caches the responses of the
+ * next handler which are cacheable according to their {@code Cache-Control} or {@code Expires} header.
+ * <p>
+ * Requests with credentials or with {@code Cache-Control: no-store} bypass the cache, and requests which ask for
+ * revalidation are passed to the next handler, whose response then replaces the cached one. A request whose
+ * {@code If-None-Match} header matches the {@code ETag} of the cached response gets a 304 response.
+ * </p>
+ */
+class ResponseCacheHandler implements HttpHandler {
+
+    // headers which are not stored, as they only apply to a single response
+    private static final Set<HttpString> EXCLUDED_HEADERS = new HashSet<>(Arrays.asList(Headers.CONNECTION, Headers.KEEP_ALIVE,
+            Headers.TRANSFER_ENCODING, Headers.TE, Headers.TRAILER, Headers.UPGRADE, Headers.PROXY_AUTHENTICATE,
+            Headers.CONTENT_LENGTH, Headers.DATE, Headers.AGE, Headers.SET_COOKIE, Headers.SET_COOKIE2));
+    // headers which are sent with a 304 response
+    private static final Set<HttpString> NOT_MODIFIED_HEADERS = new HashSet<>(Arrays.asList(Headers.ETAG, Headers.CACHE_CONTROL,
+            Headers.EXPIRES, Headers.VARY, Headers.CONTENT_LOCATION));
+
+    private final ResponseCacheStore store;
+    private final HttpHandler next;
+
+    ResponseCacheHandler(ResponseCacheStore store, HttpHandler next) {
+        this.store = store;
+        this.next = next;
+    }
+
+    @Override
+    public void handleRequest(HttpServerExchange exchange) throws Exception {
+        HttpString method = exchange.getRequestMethod();
+        boolean get = method.equals(Methods.GET);
+        HeaderMap requestHeaders = exchange.getRequestHeaders();
+        if ((!get && !method.equals(Methods.HEAD)) || requestHeaders.contains(Headers.AUTHORIZATION)) {
+            this.next.handleRequest(exchange);
+            return;
+        }
+        String cacheControl = ResponseCacheStore.headerValue(requestHeaders, Headers.CACHE_CONTROL);
+        if (directive(cacheControl, "no-store") != null) {
+            this.next.handleRequest(exchange);
+            return;
+        }
+        String key = ResponseCacheStore.key(exchange.getRequestScheme(), exchange.getHostAndPort(), exchange.getRequestURI(), exchange.getQueryString());
+        if (directive(cacheControl, "no-cache") == null && !"0".equals(directive(cacheControl, "max-age")) && directive(ResponseCacheStore.headerValue(requestHeaders, Headers.PRAGMA), "no-cache") == null) {
+            long now = System.currentTimeMillis();
+            CachedResponse response = this.store.lookup(key, requestHeaders, now);
+            if (response != null && this.serve(exchange, response, now)) {
+                this.store.recordHit();
+                return;
+            }
+        }
+        this.store.recordMiss();
+        if (get) {
+            ResponseCapture capture = new ResponseCapture(this.store.getMaxEntrySize());
+            exchange.addResponseWrapper(capture);
+            exchange.addExchangeCompleteListener((completed, nextListener) -> {
+                try {
+                    if (capture.isComplete()) {
+                        this.store(completed, key, capture);
+                    }
+                } finally {
+                    nextListener.proceed();
+                }
+            });
+        }
+        this.next.handleRequest(exchange);
+    }
+
+    private boolean serve(HttpServerExchange exchange, CachedResponse response, long now) {
+        HeaderMap headers = exchange.getResponseHeaders();
+        if (response.etag != null && !ETagUtils.handleIfNoneMatch(exchange, response.etag, true)) {
+            exchange.setStatusCode(StatusCodes.NOT_MODIFIED);
+            for (int i = 0; i < response.headerNames.length; ++i) {
+                if (NOT_MODIFIED_HEADERS.contains(response.headerNames[i])) {
+                    headers.add(response.headerNames[i], response.headerValues[i]);
+                }
+            }
+            exchange.endExchange();
+            return true;
+        }
+        DirectBufferCache.CacheEntry entry = this.store.reference(response);
+        if (entry == null) {
+            return false;
+        }
+        exchange.setStatusCode(response.status);
+        for (int i = 0; i < response.headerNames.length; ++i) {
+            headers.add(response.headerNames[i], response.headerValues[i]);
+        }
+        headers.put(Headers.CONTENT_LENGTH, response.getLength());
+        headers.put(Headers.AGE, TimeUnit.MILLISECONDS.toSeconds(Math.max(now - response.date, 0)));
+        if (exchange.getRequestMethod().equals(Methods.HEAD)) {
+            entry.dereference();
+            exchange.endExchange();
+            return true;
+        }
+        LimitedBufferSlicePool.PooledByteBuffer[] pooled = entry.buffers();
+        ByteBuffer[] buffers = new ByteBuffer[pooled.length];
+        for (int i = 0; i < pooled.length; ++i) {
+            buffers[i] = pooled[i].getBuffer().duplicate();
+        }
+        exchange.getResponseSender().send(buffers, new DereferenceCallback(entry));
+        return true;
+    }
+
+    private void store(HttpServerExchange exchange, String key, ResponseCapture capture) {
+        HeaderMap headers = exchange.getResponseHeaders();
+        if (!isCacheable(exchange)) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        long freshness = freshness(ResponseCacheStore.headerValue(headers, Headers.CACHE_CONTROL), headers.getFirst(Headers.EXPIRES), headers.getFirst(Headers.DATE), now);
+        if (freshness <= 0) {
+            return;
+        }
+        String contentLength = headers.getFirst(Headers.CONTENT_LENGTH);
+        try {
+            if (contentLength != null && Long.parseLong(contentLength) != capture.length) {
+                // the body was changed by a conduit applied after the capture
+                return;
+            }
+        } catch (NumberFormatException e) {
+            return;
+        }
+        List<String> vary = values(ResponseCacheStore.headerValue(headers, Headers.VARY));
+        if (vary.contains("*")) {
+            return;
+        }
+        HttpString[] varyNames = new HttpString[vary.size()];
+        String[] varyValues = new String[vary.size()];
+        for (int i = 0; i < varyNames.length; ++i) {
+            varyNames[i] = new HttpString(vary.get(i));
+            varyValues[i] = ResponseCacheStore.headerValue(exchange.getRequestHeaders(), varyNames[i]);
+        }
+        String tag = headers.getFirst(Headers.ETAG);
+        List<ETag> etags = (tag != null) ? ETagUtils.parseETagList(tag) : Collections.emptyList();
+        List<HttpString> headerNames = new ArrayList<>();
+        List<String> headerValues = new ArrayList<>();
+        for (HeaderValues values : headers) {
+            if (!EXCLUDED_HEADERS.contains(values.getHeaderName())) {
+                for (String value : values) {
+                    headerNames.add(values.getHeaderName());
+                    headerValues.add(value);
+                }
+            }
+        }
+        CachedResponse response = new CachedResponse(key, exchange.getRequestURI(), exchange.getStatusCode(),
+                headerNames.toArray(new HttpString[headerNames.size()]), headerValues.toArray(new String[headerValues.size()]),
+                varyNames, varyValues, (etags.size() == 1) ? etags.get(0) : null, now, now + freshness, capture.length);
+        this.store.store(response, capture.body);
+    }
+
+    /**
+     * Checks the status and the headers of a response which forbid caching it.
+     */
+    static boolean isCacheable(HttpServerExchange exchange) {
+        HeaderMap headers = exchange.getResponseHeaders();
+        if (exchange.getStatusCode() != StatusCodes.OK || headers.contains(Headers.SET_COOKIE) || headers.contains(Headers.SET_COOKIE2)) {
+            return false;
+        }
+        String cacheControl = ResponseCacheStore.headerValue(headers, Headers.CACHE_CONTROL);
+        return directive(cacheControl, "no-store") == null && directive(cacheControl, "private") == null && directive(cacheControl, "no-cache") == null;
+    }
+
+    /**
+     * Computes how long a response stays fresh, preferring {@code s-maxage} and {@code max-age} over {@code Expires}.
+     *
+     * @return the freshness lifetime in milliseconds, which is not positive if the response is stale
+     */
+    static long freshness(String cacheControl, String expires, String date, long now) {
+        String maxAge = directive(cacheControl, "s-maxage");
+        if (maxAge == null) {
+            maxAge = directive(cacheControl, "max-age");
+        }
+        if (maxAge != null) {
+            try {
+                return TimeUnit.SECONDS.toMillis(Long.parseLong(maxAge));
+            } catch (NumberFormatException e) {
+                return 0;
+            }
+        }
+        if (expires != null) {
+            Date expiry = DateUtils.parseDate(expires);
+            if (expiry == null) {
+                return 0;
+            }
+            Date origin = (date != null) ? DateUtils.parseDate(date) : null;
+            return expiry.getTime() - ((origin != null) ? origin.getTime() : now);
+        }
+        return 0;
+    }
+
+    /**
+     * Returns the value of a directive of a {@code Cache-Control} header.
+     *
+     * @return the unquoted value of the directive, an empty string if it has no value, or {@code null} if it is not present
+     */
+    static String directive(String header, String name) {
+        if (header == null) {
+            return null;
+        }
+        for (String directive : values(header)) {
+            int index = directive.indexOf('=');
+            String directiveName = (index < 0) ? directive : directive.substring(0, index).trim();
+            if (directiveName.equalsIgnoreCase(name)) {
+                if (index < 0) {
+                    return "";
+                }
+                String value = directive.substring(index + 1).trim();
+                return (value.length() > 1 && value.startsWith("\"") && value.endsWith("\"")) ? value.substring(1, value.length() - 1) : value;
+            }
+        }
+        return null;
+    }
+
+    private static List<String> values(String header) {
+        if (header == null) {
+            return Collections.emptyList();
+        }
+        List<String> values = new ArrayList<>();
+        for (String value : header.split(",")) {
+            String trimmed = value.trim();
+            if (!trimmed.isEmpty()) {
+                values.add(trimmed.toLowerCase(Locale.ENGLISH));
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Copies the body of a response, as long as it does not exceed the maximum size of a cached response.
+     */
+    private static class ResponseCapture implements ConduitWrapper<StreamSinkConduit> {
+        private final int maxLength;
+        private byte[] body;
+        private int length;
+        private boolean overflow;
+        private volatile boolean complete;
+
+        ResponseCapture(int maxLength) {
+            this.maxLength = maxLength;
+        }
+
+        @Override
+        public StreamSinkConduit wrap(ConduitFactory<StreamSinkConduit> factory, HttpServerExchange exchange) {
+            // the headers are usually complete by the time the body is written, so skip what cannot be cached anyway
+            // and keep the zero copy file transfers of those responses
+            if (!this.canBeStored(exchange)) {
+                return factory.create();
+            }
+            this.body = new byte[Math.min(this.maxLength, 4096)];
+            return new CapturingConduit(factory.create());
+        }
+
+        private boolean canBeStored(HttpServerExchange exchange) {
+            if (!isCacheable(exchange)) {
+                return false;
+            }
+            HeaderMap headers = exchange.getResponseHeaders();
+            String contentLength = headers.getFirst(Headers.CONTENT_LENGTH);
+            try {
+                if (contentLength != null && Long.parseLong(contentLength) > this.maxLength) {
+                    return false;
+                }
+            } catch (NumberFormatException e) {
+                return false;
+            }
+            return freshness(ResponseCacheStore.headerValue(headers, Headers.CACHE_CONTROL), headers.getFirst(Headers.EXPIRES), headers.getFirst(Headers.DATE), System.currentTimeMillis()) > 0;
+        }
+
+        boolean isComplete() {
+            return this.complete && !this.overflow && (this.body != null);
+        }
+
+        void capture(ByteBuffer source, int position, int count) {
+            if (this.overflow || count <= 0) {
+                return;
+            }
+            if (count > this.maxLength - this.length) {
+                this.overflow();
+                return;
+            }
+            if (this.length + count > this.body.length) {
+                this.body = Arrays.copyOf(this.body, Math.min(Math.max(this.body.length * 2, this.length + count), this.maxLength));
+            }
+            ByteBuffer written = source.duplicate();
+            written.position(position);
+            written.get(this.body, this.length, count);
+            this.length += count;
+        }
+
+        void overflow() {
+            this.overflow = true;
+            this.body = null;
+        }
+
+        private class CapturingConduit extends AbstractStreamSinkConduit<StreamSinkConduit> {
+
+            CapturingConduit(StreamSinkConduit next) {
+                super(next);
+            }
+
+            @Override
+            public int write(ByteBuffer src) throws IOException {
+                int position = src.position();
+                int written = super.write(src);
+                capture(src, position, written);
+                return written;
+            }
+
+            @Override
+            public long write(ByteBuffer[] srcs, int offs, int len) throws IOException {
+                int[] positions = positions(srcs, offs, len);
+                long written = super.write(srcs, offs, len);
+                captureAll(srcs, offs, len, positions);
+                return written;
+            }
+
+            @Override
+            public int writeFinal(ByteBuffer src) throws IOException {
+                int position = src.position();
+                int written = super.writeFinal(src);
+                capture(src, position, written);
+                if (!src.hasRemaining()) {
+                    complete = true;
+                }
+                return written;
+            }
+
+            @Override
+            public long writeFinal(ByteBuffer[] srcs, int offs, int len) throws IOException {
+                int[] positions = positions(srcs, offs, len);
+                long written = super.writeFinal(srcs, offs, len);
+                captureAll(srcs, offs, len, positions);
+                if (!srcs[offs + len - 1].hasRemaining()) {
+                    complete = true;
+                }
+                return written;
+            }
+
+            @Override
+            public long transferFrom(FileChannel src, long position, long count) throws IOException {
+                if (overflow || count > maxLength - length) {
+                    // the response is too large to be cached, so keep sending the file directly
+                    overflow();
+                    return super.transferFrom(src, position, count);
+                }
+                // pass the file through this conduit, rather than sending it directly, so that it is captured
+                return src.transferTo(position, count, new ConduitWritableByteChannel(this));
+            }
+
+            @Override
+            public long transferFrom(StreamSourceChannel source, long count, ByteBuffer throughBuffer) throws IOException {
+                return IoUtils.transfer(source, count, throughBuffer, new ConduitWritableByteChannel(this));
+            }
+
+            @Override
+            public void terminateWrites() throws IOException {
+                super.terminateWrites();
+                complete = true;
+            }
+
+            private int[] positions(ByteBuffer[] srcs, int offs, int len) {
+                int[] positions = new int[len];
+                for (int i = 0; i < len; ++i) {
+                    positions[i] = srcs[offs + i].position();
+                }
+                return positions;
+            }
+
+            private void captureAll(ByteBuffer[] srcs, int offs, int len, int[] positions) {
+                for (int i = 0; i < len; ++i) {
+                    capture(srcs[offs + i], positions[i], srcs[offs + i].position() - positions[i]);
+                }
+            }
+        }
+    }
+
+    private static class DereferenceCallback implements IoCallback {
+        private final DirectBufferCache.CacheEntry entry;
+
+        DereferenceCallback(DirectBufferCache.CacheEntry entry) {
+            this.entry = entry;
+        }
+
+        @Override
+        public void onComplete(HttpServerExchange exchange, Sender sender) {
+            this.entry.dereference();
+            IoCallback.END_EXCHANGE.onComplete(exchange, sender);
+        }
+
+        @Override
+        public void onException(HttpServerExchange exchange, Sender sender, IOException exception) {
+            this.entry.dereference();
+            IoCallback.END_EXCHANGE.onException(exchange, sender, exception);
+        }
+    }
+}
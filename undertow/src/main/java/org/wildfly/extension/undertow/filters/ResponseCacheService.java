@@ -0,0 +1,80 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.undertow.filters;
+
+import io.undertow.Handlers;
+import io.undertow.predicate.Predicate;
+import io.undertow.server.HttpHandler;
+import io.undertow.server.handlers.cache.DirectBufferCache;
+import org.jboss.dmr.ModelNode;
+import org.jboss.msc.service.ServiceBuilder;
+import org.jboss.msc.service.StartContext;
+import org.jboss.msc.service.StartException;
+import org.jboss.msc.service.StopContext;
+import org.jboss.msc.value.InjectedValue;
+import org.wildfly.extension.undertow.BufferCacheService;
+
+class ResponseCacheService extends FilterService {
+
+    private final String bufferCache;
+    private final long maxSize;
+    private final int maxEntrySize;
+    private final InjectedValue<DirectBufferCache> bufferCacheValue = new InjectedValue<>();
+    private volatile ResponseCacheStore store;
+
+    ResponseCacheService(ModelNode model) {
+        super(ResponseCacheFilter.INSTANCE, model);
+        this.bufferCache = model.get(ResponseCacheFilter.BUFFER_CACHE.getName()).asString();
+        this.maxSize = model.get(ResponseCacheFilter.MAX_SIZE.getName()).asLong();
+        this.maxEntrySize = model.get(ResponseCacheFilter.MAX_ENTRY_SIZE.getName()).asInt();
+    }
+
+    @Override
+    void addDependencies(ServiceBuilder<FilterService> builder) {
+        builder.addDependency(BufferCacheService.SERVICE_NAME.append(this.bufferCache), DirectBufferCache.class, this.bufferCacheValue);
+    }
+
+    @Override
+    public void start(StartContext context) throws StartException {
+        super.start(context);
+        this.store = new ResponseCacheStore(this.bufferCacheValue.getValue(), this.maxSize, this.maxEntrySize);
+    }
+
+    @Override
+    public void stop(StopContext context) {
+        // release the buffers of the cached bodies
+        this.store.invalidate(null);
+        this.store = null;
+        super.stop(context);
+    }
+
+    @Override
+    public HttpHandler createHttpHandler(Predicate predicate, HttpHandler next) {
+        HttpHandler handler = new ResponseCacheHandler(this.store, next);
+        return (predicate != null) ? Handlers.predicate(predicate, handler, next) : handler;
+    }
+
+    ResponseCacheStore getStore() {
+        return this.store;
+    }
+}
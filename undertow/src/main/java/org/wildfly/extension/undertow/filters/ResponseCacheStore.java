@@ -0,0 +1,389 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.undertow.filters;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import io.undertow.server.handlers.cache.DirectBufferCache;
+import io.undertow.server.handlers.cache.LimitedBufferSlicePool;
+import io.undertow.util.ETag;
+import io.undertow.util.HeaderMap;
+import io.undertow.util.HeaderValues;
+import io.undertow.util.HttpString;
+
+/**
+ * The responses cached by a response-cache filter.
+ * <p>
+ * The bodies of the responses are stored in a {@link DirectBufferCache}, their status and headers in a map keyed by the
+ * request URL, which holds one response per variant, as selected by the request headers named by the {@code Vary}
+ * header of the response. The memory used by the responses is kept below the maximum size by evicting them in CLOCK
+ * order, an approximation of least recently used order which only sets a flag when a response is used. The buffer
+ * cache may be shared with other users, which may cause it to evict a body on its own, so a response whose body is
+ * gone is simply dropped.
+ * </p>
+ */
+final class ResponseCacheStore {
+
+    // estimate of the memory used by a response besides its body and headers
+    private static final int RESPONSE_OVERHEAD = 128;
+
+    private final DirectBufferCache buffers;
+    private final long maxSize;
+    private final int maxEntrySize;
+    private final ConcurrentMap<String, CachedResponse[]> responses = new ConcurrentHashMap<>();
+    private final Queue<CachedResponse> clock = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger entries = new AtomicInteger();
+    private final AtomicInteger released = new AtomicInteger();
+    private final AtomicLong memoryUsed = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    ResponseCacheStore(DirectBufferCache buffers, long maxSize, int maxEntrySize) {
+        this.buffers = buffers;
+        this.maxSize = maxSize;
+        this.maxEntrySize = maxEntrySize;
+    }
+
+    static String key(String scheme, String hostAndPort, String path, String query) {
+        StringBuilder key = new StringBuilder(scheme.length() + hostAndPort.length() + path.length() + 4 + (query != null ? query.length() : 0));
+        key.append(scheme).append("://").append(hostAndPort).append(path);
+        if (query != null && !query.isEmpty()) {
+            key.append('?').append(query);
+        }
+        return key.toString();
+    }
+
+    /**
+     * Returns all the values of a header, separated by commas, or {@code null} if the header is not present.
+     */
+    static String headerValue(HeaderMap headers, HttpString name) {
+        HeaderValues values = headers.get(name);
+        if (values == null || values.isEmpty()) {
+            return null;
+        }
+        if (values.size() == 1) {
+            return values.getFirst();
+        }
+        StringBuilder value = new StringBuilder();
+        for (String part : values) {
+            if (value.length() > 0) {
+                value.append(',');
+            }
+            value.append(part);
+        }
+        return value.toString();
+    }
+
+    int getMaxEntrySize() {
+        return this.maxEntrySize;
+    }
+
+    /**
+     * Looks up the fresh response for a request.
+     *
+     * @return the response, or {@code null} if no fresh response of the variant requested is cached
+     */
+    CachedResponse lookup(String key, HeaderMap requestHeaders, long now) {
+        CachedResponse[] variants = this.responses.get(key);
+        if (variants != null) {
+            for (CachedResponse response : variants) {
+                if (response.matches(requestHeaders)) {
+                    if (response.isFresh(now)) {
+                        response.referenced = true;
+                        return response;
+                    }
+                    this.remove(response);
+                    return null;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * References the body of a response, which must be dereferenced once it has been sent.
+     *
+     * @return the entry of the body, or {@code null} if the body is no longer cached
+     */
+    DirectBufferCache.CacheEntry reference(CachedResponse response) {
+        DirectBufferCache.CacheEntry entry = this.buffers.get(response.bodyKey);
+        if (entry != null && entry.enabled() && entry.reference()) {
+            return entry;
+        }
+        this.remove(response);
+        return null;
+    }
+
+    /**
+     * Stores a response, which replaces any cached response of the same variant.
+     *
+     * @param body the array holding the body of the response, of which the first {@link CachedResponse#getLength()} bytes are used
+     * @return {@code true} if the response was stored
+     */
+    boolean store(CachedResponse response, byte[] body) {
+        int length = response.getLength();
+        if (length == 0 || length > this.maxEntrySize || response.getSize() > this.maxSize) {
+            return false;
+        }
+        DirectBufferCache.CacheEntry entry = this.buffers.add(response.bodyKey, length, -1);
+        if (entry == null || entry.buffers().length == 0 || !entry.claimEnable()) {
+            return false;
+        }
+        if (!entry.reference()) {
+            entry.disable();
+            return false;
+        }
+        try {
+            int offset = 0;
+            for (LimitedBufferSlicePool.PooledByteBuffer pooled : entry.buffers()) {
+                ByteBuffer buffer = pooled.getBuffer();
+                buffer.clear();
+                int count = Math.min(buffer.remaining(), length - offset);
+                buffer.put(body, offset, count);
+                buffer.flip();
+                offset += count;
+            }
+            entry.enable();
+        } finally {
+            entry.dereference();
+        }
+
+        this.entries.incrementAndGet();
+        this.memoryUsed.addAndGet(response.getSize());
+        CachedResponse[] replaced = new CachedResponse[1];
+        this.responses.compute(response.key, (key, variants) -> {
+            if (variants == null) {
+                return new CachedResponse[] { response };
+            }
+            for (int i = 0; i < variants.length; ++i) {
+                if (Arrays.equals(variants[i].varyNames, response.varyNames) && Arrays.equals(variants[i].varyValues, response.varyValues)) {
+                    replaced[0] = variants[i];
+                    CachedResponse[] result = variants.clone();
+                    result[i] = response;
+                    return result;
+                }
+            }
+            CachedResponse[] result = Arrays.copyOf(variants, variants.length + 1);
+            result[variants.length] = response;
+            return result;
+        });
+        if (replaced[0] != null) {
+            this.release(replaced[0]);
+        }
+        this.clock.add(response);
+        this.evict(System.currentTimeMillis());
+        return true;
+    }
+
+    /**
+     * Removes the responses of a path.
+     *
+     * @param path the path, a path ending with {@code *} to remove all the paths starting with it, or {@code null} to remove all responses
+     * @return the number of responses removed
+     */
+    int invalidate(String path) {
+        boolean prefix = (path != null) && path.endsWith("*");
+        String match = prefix ? path.substring(0, path.length() - 1) : path;
+        int count = 0;
+        for (CachedResponse[] variants : this.responses.values()) {
+            for (CachedResponse response : variants) {
+                if (match == null || (prefix ? response.path.startsWith(match) : response.path.equals(match))) {
+                    if (this.remove(response)) {
+                        count += 1;
+                    }
+                }
+            }
+        }
+        return count;
+    }
+
+    void recordHit() {
+        this.hits.increment();
+    }
+
+    void recordMiss() {
+        this.misses.increment();
+    }
+
+    long getHitCount() {
+        return this.hits.sum();
+    }
+
+    long getMissCount() {
+        return this.misses.sum();
+    }
+
+    double getHitRatio() {
+        long hits = this.hits.sum();
+        long total = hits + this.misses.sum();
+        return (total > 0) ? (double) hits / total : 0;
+    }
+
+    int getEntryCount() {
+        return this.entries.get();
+    }
+
+    long getMemoryUsed() {
+        return this.memoryUsed.get();
+    }
+
+    private void evict(long now) {
+        while (this.memoryUsed.get() > this.maxSize) {
+            CachedResponse candidate = this.clock.poll();
+            if (candidate == null) {
+                return;
+            }
+            if (candidate.isReleased()) {
+                this.released.decrementAndGet();
+            } else if (candidate.referenced && candidate.isFresh(now)) {
+                // second chance
+                candidate.referenced = false;
+                this.clock.add(candidate);
+            } else {
+                this.remove(candidate);
+                this.released.decrementAndGet();
+            }
+        }
+    }
+
+    private boolean remove(CachedResponse response) {
+        this.responses.computeIfPresent(response.key, (key, variants) -> {
+            for (int i = 0; i < variants.length; ++i) {
+                if (variants[i] == response) {
+                    if (variants.length == 1) {
+                        return null;
+                    }
+                    CachedResponse[] result = new CachedResponse[variants.length - 1];
+                    System.arraycopy(variants, 0, result, 0, i);
+                    System.arraycopy(variants, i + 1, result, i, result.length - i);
+                    return result;
+                }
+            }
+            return variants;
+        });
+        return this.release(response);
+    }
+
+    private boolean release(CachedResponse response) {
+        if (!response.release()) {
+            return false;
+        }
+        this.buffers.remove(response.bodyKey);
+        this.entries.decrementAndGet();
+        this.memoryUsed.addAndGet(-response.getSize());
+        // purge released responses from the clock once they outnumber the cached ones
+        if (this.released.incrementAndGet() > Math.max(this.entries.get(), 64)) {
+            this.released.set(0);
+            for (Iterator<CachedResponse> responses = this.clock.iterator(); responses.hasNext(); ) {
+                if (responses.next().isReleased()) {
+                    responses.remove();
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The status, headers and body of a cached response.
+     */
+    static final class CachedResponse {
+        final String key;
+        final String path;
+        final int status;
+        final HttpString[] headerNames;
+        final String[] headerValues;
+        final HttpString[] varyNames;
+        final String[] varyValues;
+        final ETag etag;
+        final long date;
+        final long expires;
+        private final int length;
+        private final int size;
+        // unique key of the body in the buffer cache
+        final Object bodyKey = new Object();
+        private final AtomicBoolean released = new AtomicBoolean();
+        volatile boolean referenced;
+
+        CachedResponse(String key, String path, int status, HttpString[] headerNames, String[] headerValues, HttpString[] varyNames, String[] varyValues, ETag etag, long date, long expires, int length) {
+            this.key = key;
+            this.path = path;
+            this.status = status;
+            this.headerNames = headerNames;
+            this.headerValues = headerValues;
+            this.varyNames = varyNames;
+            this.varyValues = varyValues;
+            this.etag = etag;
+            this.date = date;
+            this.expires = expires;
+            this.length = length;
+            int size = RESPONSE_OVERHEAD + key.length() + length;
+            for (int i = 0; i < headerNames.length; ++i) {
+                size += headerNames[i].length() + headerValues[i].length();
+            }
+            this.size = size;
+        }
+
+        int getLength() {
+            return this.length;
+        }
+
+        /**
+         * Returns the estimated memory used by this response.
+         */
+        int getSize() {
+            return this.size;
+        }
+
+        boolean isFresh(long now) {
+            return now < this.expires;
+        }
+
+        boolean matches(HeaderMap requestHeaders) {
+            for (int i = 0; i < this.varyNames.length; ++i) {
+                if (!Objects.equals(this.varyValues[i], headerValue(requestHeaders, this.varyNames[i]))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        boolean isReleased() {
+            return this.released.get();
+        }
+
+        private boolean release() {
+            return this.released.compareAndSet(false, true);
+        }
+    }
+}
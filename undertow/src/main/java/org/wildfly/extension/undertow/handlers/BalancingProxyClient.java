@@ -0,0 +1,413 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.undertow.handlers;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import javax.net.ssl.HttpsURLConnection;
+import javax.net.ssl.SSLContext;
+
+import io.undertow.server.ExchangeCompletionListener;
+import io.undertow.server.HttpServerExchange;
+import io.undertow.server.handlers.Cookie;
+import io.undertow.server.handlers.proxy.LoadBalancingProxyClient;
+import io.undertow.server.handlers.proxy.ProxyCallback;
+import io.undertow.server.handlers.proxy.ProxyClient;
+import io.undertow.server.handlers.proxy.ProxyConnection;
+import io.undertow.util.AttachmentKey;
+import org.jboss.threads.JBossThreadFactory;
+import org.wildfly.extension.undertow.logging.UndertowLogger;
+import org.xnio.ssl.XnioSsl;
+
+/**
+ * Proxy client that chooses the host of each request according to a {@link LoadBalancingPolicy}, and optionally probes
+ * the hosts with HTTP requests to take unhealthy ones out of rotation.
+ * <p>
+ * Each host is given its own single host {@link LoadBalancingProxyClient}, so connection pooling and queueing behave as
+ * before. Only {@code http} and {@code https} hosts are probed. The hosts that failed a connection attempt are avoided for the {@code problem-server-retry} time, and requests
+ * with a session are forwarded to the host whose instance id matches the route of the session. If no host is available,
+ * the {@link LoadBalancingPolicy#ROUND_ROBIN} policy finds no target, as the proxy did before the policies were
+ * introduced, while the other policies use all of the hosts.
+ */
+public class BalancingProxyClient implements ProxyClient {
+
+    /**
+     * The time in nanoseconds over which the weight of a latency sample decays to 1/e
+     */
+    private static final double DECAY_TIME = TimeUnit.SECONDS.toNanos(10);
+
+    /**
+     * The attempt to forward an exchange, replaced when the proxy handler retries the exchange
+     */
+    private static final AttachmentKey<Backend.Request> REQUEST = AttachmentKey.create(Backend.Request.class);
+
+    private static final ExchangeCompletionListener COMPLETION_LISTENER = (exchange, nextListener) -> {
+        try {
+            exchange.getAttachment(REQUEST).complete(exchange.getStatusCode() >= 500);
+        } finally {
+            nextListener.proceed();
+        }
+    };
+
+    private final Supplier<LoadBalancingProxyClient> clientFactory;
+    private final LoadBalancingPolicy policy;
+    private final List<String> sessionCookieNames;
+    private final long problemServerRetry;
+    private final String healthCheckPath;
+    private final int healthCheckInterval;
+    private final AtomicInteger next = new AtomicInteger();
+    private volatile Backend[] backends = new Backend[0];
+    private ScheduledThreadPoolExecutor healthChecker;
+
+    /**
+     * @param clientFactory creates the client of a single host
+     * @param policy the load balancing policy
+     * @param sessionCookieNames the names of the session cookies and path parameters that carry the route of a request
+     * @param problemServerRetry the time in seconds a host is avoided after a failed connection attempt
+     * @param healthCheckPath the path of the health check requests, or {@code null} if hosts are not probed
+     * @param healthCheckInterval the time in milliseconds between health checks of a host
+     */
+    public BalancingProxyClient(Supplier<LoadBalancingProxyClient> clientFactory, LoadBalancingPolicy policy, List<String> sessionCookieNames, int problemServerRetry, String healthCheckPath, int healthCheckInterval) {
+        this.clientFactory = clientFactory;
+        this.policy = policy;
+        this.sessionCookieNames = sessionCookieNames;
+        this.problemServerRetry = TimeUnit.SECONDS.toNanos(problemServerRetry);
+        this.healthCheckPath = healthCheckPath;
+        this.healthCheckInterval = healthCheckInterval;
+    }
+
+    /**
+     * Adds a host
+     *
+     * @param uri the uri of the host
+     * @param jvmRoute the instance id of the host, may be {@code null}
+     * @param ssl the SSL configuration of the proxied connections, or {@code null} for plain connections
+     * @param sslContext the SSL context of the health check requests, may be {@code null}
+     * @return the statistics of the host
+     */
+    public synchronized Backend addHost(URI uri, String jvmRoute, XnioSsl ssl, SSLContext sslContext) {
+        final LoadBalancingProxyClient client = clientFactory.get();
+        client.addHost(uri, jvmRoute, ssl);
+        final Backend backend = new Backend(uri, jvmRoute, client, sslContext);
+        final Backend[] existing = this.backends;
+        final Backend[] backends = new Backend[existing.length + 1];
+        System.arraycopy(existing, 0, backends, 0, existing.length);
+        backends[existing.length] = backend;
+        this.backends = backends;
+        if (healthCheckPath != null) {
+            if (healthChecker == null) {
+                healthChecker = new ScheduledThreadPoolExecutor(1, new JBossThreadFactory(new ThreadGroup("reverse-proxy-health-check"), Boolean.TRUE, null, "%G - %t", null, null));
+                healthChecker.setRemoveOnCancelPolicy(true);
+            }
+            // one thread per host, so that a host that does not answer only delays its own probes
+            healthChecker.setCorePoolSize(backends.length);
+            backend.healthCheck = healthChecker.scheduleWithFixedDelay(backend::check, 0, healthCheckInterval, TimeUnit.MILLISECONDS);
+        }
+        return backend;
+    }
+
+    public synchronized void removeHost(URI uri) {
+        final List<Backend> backends = new ArrayList<>(this.backends.length);
+        for (Backend backend : this.backends) {
+            if (backend.uri.equals(uri)) {
+                if (backend.healthCheck != null) {
+                    backend.healthCheck.cancel(false);
+                }
+                backend.client.removeHost(uri);
+            } else {
+                backends.add(backend);
+            }
+        }
+        this.backends = backends.toArray(new Backend[backends.size()]);
+        if (healthChecker != null) {
+            if (backends.isEmpty()) {
+                healthChecker.shutdownNow();
+                healthChecker = null;
+            } else {
+                healthChecker.setCorePoolSize(backends.size());
+            }
+        }
+    }
+
+    @Override
+    public ProxyTarget findTarget(HttpServerExchange exchange) {
+        final Backend[] backends = this.backends;
+        if (backends.length == 0) {
+            return null;
+        }
+        final Backend sticky = findStickyBackend(exchange, backends);
+        if (sticky != null) {
+            return sticky;
+        }
+        final long now = System.nanoTime();
+        final List<Backend> candidates = new ArrayList<>(backends.length);
+        for (Backend backend : backends) {
+            if (backend.isAvailable(now)) {
+                candidates.add(backend);
+            }
+        }
+        if (candidates.isEmpty()) {
+            if (policy == LoadBalancingPolicy.ROUND_ROBIN) {
+                return null;
+            }
+            for (Backend backend : backends) {
+                candidates.add(backend);
+            }
+        }
+        final int size = candidates.size();
+        if (size == 1 || policy == LoadBalancingPolicy.ROUND_ROBIN) {
+            return candidates.get(Math.floorMod(next.getAndIncrement(), size));
+        }
+        // power of two choices
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        final int first = random.nextInt(size);
+        final int second = (first + 1 + random.nextInt(size - 1)) % size;
+        final Backend a = candidates.get(first);
+        final Backend b = candidates.get(second);
+        return (a.cost(policy, now) <= b.cost(policy, now)) ? a : b;
+    }
+
+    private Backend findStickyBackend(HttpServerExchange exchange, Backend[] backends) {
+        final Map<String, Cookie> cookies = exchange.getRequestCookies();
+        for (String name : sessionCookieNames) {
+            final Cookie cookie = cookies.get(name);
+            String route = (cookie != null) ? route(cookie.getValue()) : null;
+            if (route == null) {
+                final Deque<String> parameter = exchange.getPathParameters().get(name.toLowerCase());
+                route = (parameter != null && !parameter.isEmpty()) ? route(parameter.getFirst()) : null;
+            }
+            if (route != null) {
+                final long now = System.nanoTime();
+                for (Backend backend : backends) {
+                    if (route.equals(backend.jvmRoute) && backend.isAvailable(now)) {
+                        return backend;
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    private static String route(String sessionId) {
+        final int index = sessionId.indexOf('.');
+        return (index != -1 && index < sessionId.length() - 1) ? sessionId.substring(index + 1) : null;
+    }
+
+    @Override
+    public void getConnection(ProxyTarget target, HttpServerExchange exchange, ProxyCallback<ProxyConnection> callback, long timeout, TimeUnit timeUnit) {
+        final Backend backend = (Backend) target;
+        final Backend.Request request = backend.new Request(callback);
+        final Backend.Request previous = exchange.putAttachment(REQUEST, request);
+        if (previous == null) {
+            exchange.addExchangeCompleteListener(COMPLETION_LISTENER);
+        } else {
+            // the proxy handler retries an exchange whose previous attempt failed
+            previous.complete(true);
+        }
+        backend.client.getConnection(backend.client.findTarget(exchange), exchange, request, timeout, timeUnit);
+    }
+
+    /**
+     * A host of the proxy, and its statistics
+     */
+    public final class Backend implements ProxyTarget {
+        private final URI uri;
+        private final String jvmRoute;
+        private final LoadBalancingProxyClient client;
+        private final SSLContext sslContext;
+        private final AtomicInteger activeRequests = new AtomicInteger();
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private volatile boolean healthy = true;
+        private volatile long problemUntil;
+        private volatile ScheduledFuture<?> healthCheck;
+        // guarded by this
+        private double latency;
+        private long latencyTimestamp = System.nanoTime();
+
+        Backend(URI uri, String jvmRoute, LoadBalancingProxyClient client, SSLContext sslContext) {
+            this.uri = uri;
+            this.jvmRoute = jvmRoute;
+            this.client = client;
+            this.sslContext = sslContext;
+        }
+
+        boolean isAvailable(long now) {
+            return healthy && (problemUntil == 0 || now - problemUntil >= 0);
+        }
+
+        double cost(LoadBalancingPolicy policy, long now) {
+            final int active = activeRequests.get();
+            if (policy == LoadBalancingPolicy.LEAST_OUTSTANDING_REQUESTS) {
+                return active;
+            }
+            return getLatency(now) * (active + 1);
+        }
+
+        private synchronized double getLatency(long now) {
+            return latency * Math.exp(-(now - latencyTimestamp) / DECAY_TIME);
+        }
+
+        private synchronized void recordLatency(long latency, long now) {
+            final double current = getLatency(now);
+            // a slower sample replaces the average immediately, a faster one is blended in as older samples decay
+            if (latency > current) {
+                this.latency = latency;
+            } else {
+                final double weight = Math.exp(-(now - latencyTimestamp) / DECAY_TIME);
+                this.latency = this.latency * weight + latency * (1 - weight);
+            }
+            latencyTimestamp = now;
+        }
+
+        void check() {
+            final String scheme = uri.getScheme();
+            if (!scheme.equals("http") && !scheme.equals("https")) {
+                // other protocols, such as AJP, cannot be probed with an HTTP request
+                return;
+            }
+            try {
+                final URL url = new URL(scheme, uri.getHost(), uri.getPort(), healthCheckPath);
+                final HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+                try {
+                    if (sslContext != null && connection instanceof HttpsURLConnection) {
+                        ((HttpsURLConnection) connection).setSSLSocketFactory(sslContext.getSocketFactory());
+                    }
+                    connection.setConnectTimeout(healthCheckInterval);
+                    connection.setReadTimeout(healthCheckInterval);
+                    connection.setInstanceFollowRedirects(false);
+                    final int status = connection.getResponseCode();
+                    setHealthy(status >= 200 && status < 400);
+                } finally {
+                    connection.disconnect();
+                }
+            } catch (IOException | RuntimeException e) {
+                UndertowLogger.ROOT_LOGGER.debugf(e, "Health check of %s failed", uri);
+                setHealthy(false);
+            }
+        }
+
+        private void setHealthy(boolean healthy) {
+            if (this.healthy != healthy) {
+                UndertowLogger.ROOT_LOGGER.debugf("Reverse proxy host %s is now %s", uri, healthy ? "healthy" : "unhealthy");
+                this.healthy = healthy;
+            }
+        }
+
+        public URI getUri() {
+            return uri;
+        }
+
+        public boolean isHealthy() {
+            return healthy;
+        }
+
+        public int getActiveRequests() {
+            return activeRequests.get();
+        }
+
+        public long getRequestCount() {
+            return requests.sum();
+        }
+
+        public long getErrorCount() {
+            return errors.sum();
+        }
+
+        /**
+         * @return the peak exponentially weighted moving average of the request latency, in milliseconds
+         */
+        public long getLatency() {
+            return TimeUnit.NANOSECONDS.toMillis((long) getLatency(System.nanoTime()));
+        }
+
+        /**
+         * A request forwarded to this host, completed either by the exchange, by a retry, or by a failure to obtain a
+         * connection
+         */
+        private class Request implements ProxyCallback<ProxyConnection> {
+            private final ProxyCallback<ProxyConnection> callback;
+            private final long start = System.nanoTime();
+            private final AtomicBoolean done = new AtomicBoolean();
+
+            Request(ProxyCallback<ProxyConnection> callback) {
+                this.callback = callback;
+                activeRequests.incrementAndGet();
+                requests.increment();
+            }
+
+            private void complete(boolean error) {
+                if (done.compareAndSet(false, true)) {
+                    final long now = System.nanoTime();
+                    activeRequests.decrementAndGet();
+                    recordLatency(now - start, now);
+                    if (error) {
+                        errors.increment();
+                    }
+                }
+            }
+
+            private void fail() {
+                problemUntil = System.nanoTime() + problemServerRetry;
+                complete(true);
+            }
+
+            @Override
+            public void completed(HttpServerExchange exchange, ProxyConnection result) {
+                callback.completed(exchange, result);
+            }
+
+            @Override
+            public void failed(HttpServerExchange exchange) {
+                fail();
+                callback.failed(exchange);
+            }
+
+            @Override
+            public void couldNotResolveBackend(HttpServerExchange exchange) {
+                fail();
+                callback.couldNotResolveBackend(exchange);
+            }
+
+            @Override
+            public void queuedRequestFailed(HttpServerExchange exchange) {
+                complete(true);
+                callback.queuedRequestFailed(exchange);
+            }
+        }
+    }
+}
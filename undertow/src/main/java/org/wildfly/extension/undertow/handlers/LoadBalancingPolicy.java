@@ -0,0 +1,44 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.undertow.handlers;
+
+/**
+ * The strategies a reverse proxy can use to choose the host that a request, that is not bound to a host by its session,
+ * is forwarded to.
+ */
+public enum LoadBalancingPolicy {
+    /**
+     * Hosts take turns.
+     */
+    ROUND_ROBIN,
+    /**
+     * The better of two randomly chosen hosts, by the number of requests they are processing.
+     */
+    LEAST_OUTSTANDING_REQUESTS,
+    /**
+     * The better of two randomly chosen hosts, by their peak exponentially weighted moving average latency, multiplied
+     * by the number of requests they are processing.
+     */
+    PEAK_EWMA,
+    ;
+}
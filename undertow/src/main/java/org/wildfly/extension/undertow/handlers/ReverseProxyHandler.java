@@ -33,6 +33,9 @@ import org.jboss.as.controller.OperationFailedException;
 import org.jboss.as.controller.PersistentResourceDefinition;
 import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
 import org.jboss.as.controller.client.helpers.MeasurementUnit;
+import org.jboss.as.controller.operations.validation.EnumValidator;
+import org.jboss.as.controller.operations.validation.IntRangeValidator;
+import org.jboss.as.controller.operations.validation.StringLengthValidator;
 import org.jboss.as.controller.registry.AttributeAccess;
 import org.jboss.dmr.ModelNode;
 import org.jboss.dmr.ModelType;
@@ -107,6 +110,30 @@ public class ReverseProxyHandler extends Handler {
             .setDefaultValue(new ModelNode(1L))
             .build();
 
+    public static final AttributeDefinition LOAD_BALANCING_POLICY = new SimpleAttributeDefinitionBuilder(Constants.LOAD_BALANCING_POLICY, ModelType.STRING)
+            .setRequired(false)
+            .setAllowExpression(true)
+            .setValidator(new EnumValidator<>(LoadBalancingPolicy.class, true, true))
+            .setDefaultValue(new ModelNode(LoadBalancingPolicy.ROUND_ROBIN.name()))
+            .setRestartAllServices()
+            .build();
+
+    public static final AttributeDefinition HEALTH_CHECK_PATH = new SimpleAttributeDefinitionBuilder(Constants.HEALTH_CHECK_PATH, ModelType.STRING)
+            .setRequired(false)
+            .setAllowExpression(true)
+            .setValidator(new StringLengthValidator(1, true, true))
+            .setRestartAllServices()
+            .build();
+
+    public static final AttributeDefinition HEALTH_CHECK_INTERVAL = new SimpleAttributeDefinitionBuilder(Constants.HEALTH_CHECK_INTERVAL, ModelType.INT)
+            .setRequired(false)
+            .setAllowExpression(true)
+            .setValidator(new IntRangeValidator(1, true, true))
+            .setDefaultValue(new ModelNode(10000))
+            .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
+            .setRestartAllServices()
+            .build();
+
     public static final ReverseProxyHandler INSTANCE = new ReverseProxyHandler();
 
     private ReverseProxyHandler() {
@@ -118,7 +145,7 @@ public class ReverseProxyHandler extends Handler {
         return Arrays.asList(CONNECTIONS_PER_THREAD, SESSION_COOKIE_NAMES,
                 PROBLEM_SERVER_RETRY, REQUEST_QUEUE_SIZE, MAX_REQUEST_TIME,
                 CACHED_CONNECTIONS_PER_THREAD, CONNECTION_IDLE_TIMEOUT,
-                MAX_RETRIES);
+                MAX_RETRIES, LOAD_BALANCING_POLICY, HEALTH_CHECK_PATH, HEALTH_CHECK_INTERVAL);
     }
 
     @Override
@@ -139,7 +166,11 @@ public class ReverseProxyHandler extends Handler {
         int maxRetries = MAX_RETRIES.resolveModelAttribute(context, model).asInt();
 
 
-        final LoadBalancingProxyClient lb = new LoadBalancingProxyClient(exchange -> {
+        LoadBalancingPolicy policy = LoadBalancingPolicy.valueOf(LOAD_BALANCING_POLICY.resolveModelAttribute(context, model).asString());
+        ModelNode healthCheckPath = HEALTH_CHECK_PATH.resolveModelAttribute(context, model);
+        int healthCheckInterval = HEALTH_CHECK_INTERVAL.resolveModelAttribute(context, model).asInt();
+
+        final BalancingProxyClient lb = new BalancingProxyClient(() -> new LoadBalancingProxyClient(exchange -> {
             //we always create a new connection for upgrade requests
             return exchange.getRequestHeaders().contains(Headers.UPGRADE);
         })
@@ -147,11 +178,9 @@ public class ReverseProxyHandler extends Handler {
                 .setMaxQueueSize(requestQueueSize)
                 .setSoftMaxConnectionsPerThread(cachedConnectionsPerThread)
                 .setTtl(connectionIdleTimeout)
-                .setProblemServerRetry(problemServerRetry);
-        String[] sessionIds = sessionCookieNames.split(",");
-        for (String id : sessionIds) {
-            lb.addSessionCookieName(id);
-        }
+                .setProblemServerRetry(problemServerRetry),
+                policy, Arrays.asList(sessionCookieNames.split(",")), problemServerRetry,
+                healthCheckPath.isDefined() ? healthCheckPath.asString() : null, healthCheckInterval);
 
         ProxyHandler handler = new ProxyHandler(lb, maxTime, ResponseCodeHandler.HANDLE_404, false, false, maxRetries);
         return handler;
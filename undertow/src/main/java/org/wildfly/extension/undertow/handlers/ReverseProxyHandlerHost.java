@@ -30,17 +30,18 @@ import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.function.Function;
 import javax.net.ssl.SSLContext;
 
 import io.undertow.protocols.ssl.UndertowXnioSsl;
 import io.undertow.server.HttpHandler;
-import io.undertow.server.handlers.proxy.LoadBalancingProxyClient;
 import io.undertow.server.handlers.proxy.ProxyHandler;
 import org.jboss.as.controller.AbstractAddStepHandler;
 import org.jboss.as.controller.AttributeDefinition;
 import org.jboss.as.controller.CapabilityServiceBuilder;
 import org.jboss.as.controller.OperationContext;
 import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.OperationStepHandler;
 import org.jboss.as.controller.PathAddress;
 import org.jboss.as.controller.PathElement;
 import org.jboss.as.controller.PersistentResourceDefinition;
@@ -49,6 +50,7 @@ import org.jboss.as.controller.SimpleAttributeDefinition;
 import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
 import org.jboss.as.controller.access.management.SensitiveTargetAccessConstraintDefinition;
 import org.jboss.as.controller.capability.RuntimeCapability;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
 import org.jboss.as.controller.operations.validation.StringLengthValidator;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.as.controller.registry.OperationEntry;
@@ -57,6 +59,7 @@ import org.jboss.as.network.OutboundSocketBinding;
 import org.jboss.dmr.ModelNode;
 import org.jboss.dmr.ModelType;
 import org.jboss.msc.service.Service;
+import org.jboss.msc.service.ServiceController;
 import org.jboss.msc.service.ServiceName;
 import org.jboss.msc.service.StartContext;
 import org.jboss.msc.service.StartException;
@@ -127,6 +130,32 @@ public class ReverseProxyHandlerHost extends PersistentResourceDefinition {
             .setAccessConstraints(SensitiveTargetAccessConstraintDefinition.SECURITY_REALM_REF)
             .build();
 
+    public static final SimpleAttributeDefinition REQUEST_COUNT = new SimpleAttributeDefinitionBuilder("request-count", ModelType.LONG)
+            .setUndefinedMetricValue(new ModelNode(0L))
+            .setStorageRuntime()
+            .build();
+
+    public static final SimpleAttributeDefinition ERROR_COUNT = new SimpleAttributeDefinitionBuilder("error-count", ModelType.LONG)
+            .setUndefinedMetricValue(new ModelNode(0L))
+            .setStorageRuntime()
+            .build();
+
+    public static final SimpleAttributeDefinition ACTIVE_REQUESTS = new SimpleAttributeDefinitionBuilder("active-requests", ModelType.INT)
+            .setUndefinedMetricValue(new ModelNode(0))
+            .setStorageRuntime()
+            .build();
+
+    public static final SimpleAttributeDefinition LATENCY = new SimpleAttributeDefinitionBuilder("latency", ModelType.LONG)
+            .setUndefinedMetricValue(new ModelNode(0L))
+            .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
+            .setStorageRuntime()
+            .build();
+
+    public static final SimpleAttributeDefinition HEALTHY = new SimpleAttributeDefinitionBuilder("healthy", ModelType.BOOLEAN)
+            .setUndefinedMetricValue(new ModelNode(false))
+            .setStorageRuntime()
+            .build();
+
     public static final ReverseProxyHandlerHost INSTANCE = new ReverseProxyHandlerHost();
 
     private ReverseProxyHandlerHost() {
@@ -140,6 +169,15 @@ public class ReverseProxyHandlerHost extends PersistentResourceDefinition {
         return Arrays.asList(OUTBOUND_SOCKET_BINDING, SCHEME, INSTANCE_ID, PATH, SSL_CONTEXT, SECURITY_REALM);
     }
 
+    @Override
+    public void registerAttributes(ManagementResourceRegistration resourceRegistration) {
+        super.registerAttributes(resourceRegistration);
+        resourceRegistration.registerMetric(REQUEST_COUNT, new MetricHandler(backend -> new ModelNode(backend.getRequestCount())));
+        resourceRegistration.registerMetric(ERROR_COUNT, new MetricHandler(backend -> new ModelNode(backend.getErrorCount())));
+        resourceRegistration.registerMetric(ACTIVE_REQUESTS, new MetricHandler(backend -> new ModelNode(backend.getActiveRequests())));
+        resourceRegistration.registerMetric(LATENCY, new MetricHandler(backend -> new ModelNode(backend.getLatency())));
+        resourceRegistration.registerMetric(HEALTHY, new MetricHandler(backend -> new ModelNode(backend.isHealthy())));
+    }
 
     @Override
     public void registerOperations(ManagementResourceRegistration resourceRegistration) {
@@ -190,6 +228,26 @@ public class ReverseProxyHandlerHost extends PersistentResourceDefinition {
         }
     }
 
+    private static class MetricHandler implements OperationStepHandler {
+        private final Function<BalancingProxyClient.Backend, ModelNode> metric;
+
+        MetricHandler(Function<BalancingProxyClient.Backend, ModelNode> metric) {
+            this.metric = metric;
+        }
+
+        @Override
+        public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
+            ServiceController<?> controller = context.getServiceRegistry(false).getService(REVERSE_PROXY_HOST_RUNTIME_CAPABILITY.getCapabilityServiceName(context.getCurrentAddress()));
+            if (controller != null && controller.getState() == ServiceController.State.UP) {
+                BalancingProxyClient.Backend backend = ((ReverseProxyHostService) controller.getValue()).backend;
+                if (backend != null) {
+                    context.getResult().set(this.metric.apply(backend));
+                }
+            }
+            context.completeStep(OperationContext.RollbackHandler.NOOP_ROLLBACK_HANDLER);
+        }
+    }
+
     private static final class ReverseProxyHostService implements Service<ReverseProxyHostService> {
 
         private final InjectedValue<HttpHandler> proxyHandler = new InjectedValue<>();
@@ -200,6 +258,7 @@ public class ReverseProxyHandlerHost extends PersistentResourceDefinition {
         private final String instanceId;
         private final String scheme;
         private final String path;
+        private volatile BalancingProxyClient.Backend backend;
 
         private ReverseProxyHostService(String scheme, String instanceId, String path) {
             this.instanceId = instanceId;
@@ -216,7 +275,7 @@ public class ReverseProxyHandlerHost extends PersistentResourceDefinition {
             //todo: this is a bit of a hack, as the proxy handler may be wrapped by a request controller handler for graceful shutdown
             ProxyHandler proxyHandler = (ProxyHandler) (this.proxyHandler.getValue() instanceof GlobalRequestControllerHandler ? ((GlobalRequestControllerHandler)this.proxyHandler.getValue()).getNext() : this.proxyHandler.getValue());
 
-            final LoadBalancingProxyClient client = (LoadBalancingProxyClient) proxyHandler.getProxyClient();
+            final BalancingProxyClient client = (BalancingProxyClient) proxyHandler.getProxyClient();
             try {
                 SSLContext sslContext = this.sslContext.getOptionalValue();
                 if (sslContext == null) {
@@ -227,14 +286,14 @@ public class ReverseProxyHandlerHost extends PersistentResourceDefinition {
                 }
 
                 if (sslContext == null) {
-                    client.addHost(getUri(), instanceId);
+                    backend = client.addHost(getUri(), instanceId, null, null);
                 } else {
                     OptionMap.Builder builder = OptionMap.builder();
                     builder.set(Options.USE_DIRECT_BUFFERS, true);
                     OptionMap combined = builder.getMap();
 
                     XnioSsl xnioSsl = new UndertowXnioSsl(Xnio.getInstance(), combined, sslContext);
-                    client.addHost(getUri(), instanceId, xnioSsl);
+                    backend = client.addHost(getUri(), instanceId, xnioSsl, sslContext);
                 }
             } catch (URISyntaxException e) {
                 throw new StartException(e);
@@ -244,7 +303,8 @@ public class ReverseProxyHandlerHost extends PersistentResourceDefinition {
         @Override
         public void stop(StopContext stopContext) {
             ProxyHandler proxyHandler = (ProxyHandler) (this.proxyHandler.getValue() instanceof GlobalRequestControllerHandler ? ((GlobalRequestControllerHandler)this.proxyHandler.getValue()).getNext() : this.proxyHandler.getValue());
-            final LoadBalancingProxyClient client = (LoadBalancingProxyClient) proxyHandler.getProxyClient();
+            final BalancingProxyClient client = (BalancingProxyClient) proxyHandler.getProxyClient();
+            backend = null;
             try {
                 client.removeHost(getUri());
             } catch (URISyntaxException e) {
@@ -390,4 +390,8 @@ public interface UndertowLogger extends BasicLogger {
     @Message(id = 95, value = "the path ['%s'] doesn't exist on file system")
     String unableAddHandlerForPath(String path);
 
+    @LogMessage(level = ERROR)
+    @Message(id = 96, value = "Failed to expire session %s")
+    void failedToExpireSession(@Cause Throwable cause, String sessionId);
+
 }
@@ -0,0 +1,717 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.undertow.session;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import io.undertow.UndertowMessages;
+import io.undertow.server.HttpServerExchange;
+import io.undertow.server.session.Session;
+import io.undertow.server.session.SessionConfig;
+import io.undertow.server.session.SessionIdGenerator;
+import io.undertow.server.session.SessionListener;
+import io.undertow.server.session.SessionListener.SessionDestroyedReason;
+import io.undertow.server.session.SessionListeners;
+import io.undertow.server.session.SessionManager;
+import io.undertow.server.session.SessionManagerStatistics;
+import io.undertow.util.AttachmentKey;
+import io.undertow.util.ConcurrentDirectDeque;
+import org.wildfly.extension.undertow.logging.UndertowLogger;
+
+/**
+ * Non-distributable {@link SessionManager} suited to large numbers of sessions.
+ * <p>
+ * Sessions are spread over independent shards. Instead of a timer per session, expiration is driven by a coarse timing
+ * wheel that is swept once per {@link #TICK} on an executor shared by the managers of a servlet container, so accessing
+ * a session only records the access time and never reschedules anything on the I/O threads. A session that was accessed
+ * after it was scheduled is simply moved to a later slot when its slot is swept. A session that timed out but was not
+ * swept yet is expired when it is looked up.
+ * <p>
+ * Once the maximum number of active sessions is reached, a session is expired according to the configured
+ * {@link SessionEvictionPolicy}. The least recently used session is tracked exactly, by a queue of the sessions in
+ * access order that is only maintained if the number of sessions is limited. The least frequently used session is
+ * approximated from a small sample of sessions, visited in round-robin order.
+ */
+public class LocalSessionManager implements SessionManager, SessionManagerStatistics {
+
+    /**
+     * Resolution of the expiration wheel, in milliseconds.
+     */
+    static final long TICK = 1000L;
+
+    // Both must be powers of 2
+    private static final int SHARDS = 16;
+    private static final int WHEEL_SIZE = 256;
+
+    private static final int SAMPLE_SIZE = 8;
+    private static final int MAX_ID_ATTEMPTS = 100;
+
+    private static final AttachmentKey<LocalSession> NEW_SESSION = AttachmentKey.create(LocalSession.class);
+
+    private final String deploymentName;
+    private final SessionIdGenerator generator;
+    private final int maxActiveSessions;
+    private final SessionEvictionPolicy evictionPolicy;
+    private final boolean statisticsEnabled;
+    private final ScheduledExecutorService executor;
+    private final SessionListeners listeners = new SessionListeners();
+    private final List<ConcurrentMap<String, LocalSession>> shards = new ArrayList<>(SHARDS);
+    private final Slot[] wheel = new Slot[WHEEL_SIZE];
+    // Sessions in the order of their last access, oldest first, only maintained by the LRU policy
+    private final ConcurrentDirectDeque<LocalSession> accessQueue;
+    private final AtomicInteger activeSessionCount = new AtomicInteger();
+    private final LongAdder createdSessionCount = new LongAdder();
+    private final LongAdder expiredSessionCount = new LongAdder();
+    private final LongAdder evictedSessionCount = new LongAdder();
+    private final LongAdder rejectedSessionCount = new LongAdder();
+    private final LongAdder totalSessionAliveTime = new LongAdder();
+    private final LongAccumulator maxSessionAliveTime = new LongAccumulator(Math::max, 0L);
+    private volatile long startTime = System.currentTimeMillis();
+    private volatile long lastTick = this.startTime / TICK;
+    private volatile int defaultSessionTimeout = (int) TimeUnit.MINUTES.toSeconds(30);
+
+    // Guarded by this
+    private int starts;
+    private ScheduledFuture<?> sweep;
+
+    // Guarded by shards
+    private int cursorShard;
+    private Iterator<LocalSession> cursor;
+
+    /**
+     * Creates a new session manager.
+     * @param deploymentName the name of the deployment
+     * @param generator generates the identifiers of new sessions
+     * @param maxActiveSessions the maximum number of active sessions, or a non-positive value if unlimited
+     * @param evictionPolicy the policy applied once the maximum number of active sessions is reached
+     * @param statisticsEnabled whether {@link #getStatistics()} exposes the statistics of this manager
+     * @param executor the executor that sweeps the expiration wheel, or {@code null} if sessions only expire when they are looked up
+     */
+    public LocalSessionManager(String deploymentName, SessionIdGenerator generator, int maxActiveSessions, SessionEvictionPolicy evictionPolicy, boolean statisticsEnabled, ScheduledExecutorService executor) {
+        this.deploymentName = deploymentName;
+        this.generator = generator;
+        this.maxActiveSessions = maxActiveSessions;
+        this.evictionPolicy = evictionPolicy;
+        this.statisticsEnabled = statisticsEnabled;
+        this.executor = executor;
+        this.accessQueue = ((maxActiveSessions > 0) && (evictionPolicy == SessionEvictionPolicy.LRU)) ? ConcurrentDirectDeque.newInstance() : null;
+        for (int i = 0; i < SHARDS; ++i) {
+            this.shards.add(new ConcurrentHashMap<>());
+        }
+        for (int i = 0; i < WHEEL_SIZE; ++i) {
+            this.wheel[i] = new Slot();
+        }
+    }
+
+    @Override
+    public String getDeploymentName() {
+        return this.deploymentName;
+    }
+
+    @Override
+    public synchronized void start() {
+        // A shared session manager is started by every deployment using it
+        if (this.starts++ == 0) {
+            this.startTime = System.currentTimeMillis();
+            this.lastTick = this.startTime / TICK;
+            if (this.executor != null) {
+                this.sweep = this.executor.scheduleWithFixedDelay(() -> this.expire(System.currentTimeMillis()), TICK, TICK, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    @Override
+    public void stop() {
+        synchronized (this) {
+            if ((this.starts == 0) || (--this.starts > 0)) {
+                return;
+            }
+            if (this.sweep != null) {
+                this.sweep.cancel(false);
+                this.sweep = null;
+            }
+        }
+        for (ConcurrentMap<String, LocalSession> shard : this.shards) {
+            for (LocalSession session : shard.values()) {
+                session.destroy(null, SessionDestroyedReason.UNDEPLOY);
+            }
+        }
+        for (Slot slot : this.wheel) {
+            slot.clear();
+        }
+    }
+
+    @Override
+    public Session createSession(HttpServerExchange exchange, SessionConfig config) {
+        if (config == null) {
+            throw UndertowMessages.MESSAGES.couldNotFindSessionCookieConfig();
+        }
+        if (this.maxActiveSessions > 0) {
+            while (this.activeSessionCount.get() >= this.maxActiveSessions) {
+                if ((this.evictionPolicy == SessionEvictionPolicy.REJECT) || !this.evict()) {
+                    this.rejectedSessionCount.increment();
+                    throw UndertowMessages.MESSAGES.tooManySessions(this.maxActiveSessions);
+                }
+            }
+        }
+        String requestedId = config.findSessionId(exchange);
+        LocalSession session = (requestedId != null) ? this.add(requestedId, config) : null;
+        for (int attempts = 0; session == null; ++attempts) {
+            if (attempts == MAX_ID_ATTEMPTS) {
+                throw UndertowMessages.MESSAGES.couldNotGenerateUniqueSessionId();
+            }
+            session = this.add(this.generator.createSessionId(), config);
+        }
+        config.setSessionId(exchange, session.getId());
+        session.schedule();
+        this.listeners.sessionCreated(session, exchange);
+        exchange.putAttachment(NEW_SESSION, session);
+        return session;
+    }
+
+    @Override
+    public Session getSession(HttpServerExchange exchange, SessionConfig config) {
+        if (exchange != null) {
+            LocalSession session = exchange.getAttachment(NEW_SESSION);
+            if (session != null) {
+                return session;
+            }
+        }
+        if (config == null) {
+            throw UndertowMessages.MESSAGES.couldNotFindSessionCookieConfig();
+        }
+        String id = config.findSessionId(exchange);
+        long now = System.currentTimeMillis();
+        LocalSession session = (id != null) ? this.find(id, now) : null;
+        if (session != null) {
+            // Keeps the session from expiring while the request is in progress
+            session.access(now);
+        }
+        return session;
+    }
+
+    @Override
+    public Session getSession(String id) {
+        return this.find(id, System.currentTimeMillis());
+    }
+
+    /**
+     * Returns the session with the specified identifier, expiring it if it timed out since the last sweep.
+     */
+    private LocalSession find(String id, long now) {
+        LocalSession session = this.shard(id).get(id);
+        if ((session != null) && session.isExpired(now)) {
+            this.timeout(session, now);
+            return null;
+        }
+        return session;
+    }
+
+    @Override
+    public void registerSessionListener(SessionListener listener) {
+        this.listeners.addSessionListener(listener);
+    }
+
+    @Override
+    public void removeSessionListener(SessionListener listener) {
+        this.listeners.removeSessionListener(listener);
+    }
+
+    @Override
+    public void setDefaultSessionTimeout(int timeout) {
+        this.defaultSessionTimeout = timeout;
+    }
+
+    @Override
+    public Set<String> getTransientSessions() {
+        // None of our sessions are persisted
+        return this.getAllSessions();
+    }
+
+    @Override
+    public Set<String> getActiveSessions() {
+        return this.getAllSessions();
+    }
+
+    @Override
+    public Set<String> getAllSessions() {
+        Set<String> ids = new HashSet<>();
+        for (ConcurrentMap<String, LocalSession> shard : this.shards) {
+            ids.addAll(shard.keySet());
+        }
+        return ids;
+    }
+
+    @Override
+    public SessionManagerStatistics getStatistics() {
+        return this.statisticsEnabled ? this : null;
+    }
+
+    @Override
+    public long getCreatedSessionCount() {
+        return this.createdSessionCount.sum();
+    }
+
+    @Override
+    public long getMaxActiveSessions() {
+        return this.maxActiveSessions;
+    }
+
+    @Override
+    public long getActiveSessionCount() {
+        return this.activeSessionCount.get();
+    }
+
+    @Override
+    public long getExpiredSessionCount() {
+        return this.expiredSessionCount.sum();
+    }
+
+    /**
+     * Returns the number of sessions that were expired to make room for new sessions.
+     * @return the number of evicted sessions
+     */
+    public long getEvictedSessionCount() {
+        return this.evictedSessionCount.sum();
+    }
+
+    @Override
+    public long getRejectedSessions() {
+        return this.rejectedSessionCount.sum();
+    }
+
+    @Override
+    public long getMaxSessionAliveTime() {
+        return this.maxSessionAliveTime.get();
+    }
+
+    @Override
+    public long getAverageSessionAliveTime() {
+        long expired = this.expiredSessionCount.sum();
+        return (expired > 0) ? this.totalSessionAliveTime.sum() / expired : 0;
+    }
+
+    @Override
+    public long getStartTime() {
+        return this.startTime;
+    }
+
+    /**
+     * Expires the sessions of every slot of the expiration wheel that elapsed since the previous sweep.
+     * @param now the current time, in milliseconds
+     */
+    void expire(long now) {
+        long tick = now / TICK;
+        long last = this.lastTick;
+        if (tick <= last) {
+            return;
+        }
+        // Sessions scheduled from now on land in a later slot
+        this.lastTick = tick;
+        for (long t = Math.max(last + 1, tick - WHEEL_SIZE + 1); t <= tick; ++t) {
+            for (Expiration expiration : this.wheel[(int) t & (WHEEL_SIZE - 1)].drain(t)) {
+                LocalSession session = expiration.session;
+                if (session.isExpired(expiration, now)) {
+                    this.timeout(session, now);
+                }
+            }
+        }
+    }
+
+    private void timeout(LocalSession session, long now) {
+        try {
+            if (session.destroy(null, SessionDestroyedReason.TIMEOUT)) {
+                long aliveTime = now - session.creationTime;
+                this.expiredSessionCount.increment();
+                this.totalSessionAliveTime.add(aliveTime);
+                this.maxSessionAliveTime.accumulate(aliveTime);
+            }
+        } catch (Throwable e) {
+            UndertowLogger.ROOT_LOGGER.failedToExpireSession(e, session.getId());
+        }
+    }
+
+    Expiration schedule(LocalSession session, long time) {
+        Expiration expiration = new Expiration(session);
+        long tick = Math.max((time + TICK - 1) / TICK, this.lastTick + 1);
+        // The last tick read may be stale, so the slot may have been swept in the meantime, in which case a later slot is used
+        while (!this.wheel[(int) tick & (WHEEL_SIZE - 1)].add(expiration, tick)) {
+            tick = Math.max(tick + 1, this.lastTick + 1);
+        }
+        return expiration;
+    }
+
+    private ConcurrentMap<String, LocalSession> shard(String id) {
+        int hash = id.hashCode();
+        return this.shards.get((hash ^ (hash >>> 16)) & (SHARDS - 1));
+    }
+
+    private LocalSession add(String id, SessionConfig config) {
+        LocalSession session = new LocalSession(this, id, config, this.defaultSessionTimeout);
+        if (this.shard(id).putIfAbsent(id, session) != null) {
+            return null;
+        }
+        this.activeSessionCount.incrementAndGet();
+        this.createdSessionCount.increment();
+        if (this.accessQueue != null) {
+            session.enqueue(this.accessQueue);
+        }
+        return session;
+    }
+
+    boolean remove(String id, LocalSession session) {
+        if (this.shard(id).remove(id, session)) {
+            this.activeSessionCount.decrementAndGet();
+            return true;
+        }
+        return false;
+    }
+
+    String changeSessionId(LocalSession session, String oldId) {
+        if (!this.shard(oldId).remove(oldId, session)) {
+            throw UndertowMessages.MESSAGES.sessionIsInvalid(oldId);
+        }
+        for (int attempts = 0; attempts < MAX_ID_ATTEMPTS; ++attempts) {
+            String id = this.generator.createSessionId();
+            if (this.shard(id).putIfAbsent(id, session) == null) {
+                return id;
+            }
+        }
+        this.shard(oldId).put(oldId, session);
+        throw UndertowMessages.MESSAGES.couldNotGenerateUniqueSessionId();
+    }
+
+    private boolean evict() {
+        LocalSession victim = (this.accessQueue != null) ? this.accessQueue.poll() : this.sample();
+        if (victim == null) {
+            return false;
+        }
+        if (victim.destroy(null, SessionDestroyedReason.TIMEOUT)) {
+            this.evictedSessionCount.increment();
+        }
+        return true;
+    }
+
+    /**
+     * Inspects the next few sessions in round-robin order and returns the least frequently used one.
+     */
+    private LocalSession sample() {
+        LocalSession victim = null;
+        synchronized (this.shards) {
+            int sampled = 0;
+            int empty = 0;
+            while ((sampled < SAMPLE_SIZE) && (empty < SHARDS)) {
+                if ((this.cursor == null) || !this.cursor.hasNext()) {
+                    this.cursorShard = (this.cursorShard + 1) & (SHARDS - 1);
+                    this.cursor = this.shards.get(this.cursorShard).values().iterator();
+                    if (!this.cursor.hasNext()) {
+                        empty += 1;
+                        continue;
+                    }
+                }
+                LocalSession session = this.cursor.next();
+                empty = 0;
+                sampled += 1;
+                if ((victim == null) || (session.frequency < victim.frequency)) {
+                    victim = session;
+                }
+            }
+        }
+        return victim;
+    }
+
+    /**
+     * Sessions of a slot of the expiration wheel.
+     */
+    private static final class Slot {
+        private List<Expiration> expirations = new ArrayList<>();
+        // The last tick for which this slot was swept
+        private long tick = Long.MIN_VALUE;
+
+        /**
+         * Adds an entry to this slot, unless the specified tick was already swept.
+         */
+        synchronized boolean add(Expiration expiration, long tick) {
+            if (tick <= this.tick) {
+                return false;
+            }
+            this.expirations.add(expiration);
+            return true;
+        }
+
+        synchronized List<Expiration> drain(long tick) {
+            this.tick = tick;
+            List<Expiration> expirations = this.expirations;
+            this.expirations = new ArrayList<>();
+            return expirations;
+        }
+
+        synchronized void clear() {
+            this.expirations = new ArrayList<>();
+        }
+    }
+
+    /**
+     * Entry of the expiration wheel, only the latest entry of a session is effective.
+     */
+    static final class Expiration {
+        final LocalSession session;
+
+        Expiration(LocalSession session) {
+            this.session = session;
+        }
+    }
+
+    static final class LocalSession implements Session {
+        private final LocalSessionManager manager;
+        private final long creationTime = System.currentTimeMillis();
+        private final Map<String, Object> attributes = new ConcurrentHashMap<>();
+        private volatile String id;
+        private volatile SessionConfig config;
+        private volatile int maxInactiveInterval;
+        private volatile boolean invalid;
+        volatile long lastAccessedTime = this.creationTime;
+        // Number of requests used by the LFU policy, halved whenever the session is rescheduled so that it decays over time.
+        // Concurrent requests may lose an increment, which is irrelevant for an estimate.
+        volatile int frequency;
+
+        // Guarded by this
+        private Expiration expiration;
+        private Object accessToken;
+        private boolean removed;
+
+        LocalSession(LocalSessionManager manager, String id, SessionConfig config, int maxInactiveInterval) {
+            this.manager = manager;
+            this.id = id;
+            this.config = config;
+            this.maxInactiveInterval = maxInactiveInterval;
+        }
+
+        @Override
+        public String getId() {
+            return this.id;
+        }
+
+        @Override
+        public void requestDone(HttpServerExchange exchange) {
+            if (!this.invalid) {
+                this.access(System.currentTimeMillis());
+                this.frequency++;
+            }
+        }
+
+        @Override
+        public long getCreationTime() {
+            this.validate();
+            return this.creationTime;
+        }
+
+        @Override
+        public long getLastAccessedTime() {
+            this.validate();
+            return this.lastAccessedTime;
+        }
+
+        @Override
+        public void setMaxInactiveInterval(int interval) {
+            this.validate();
+            synchronized (this) {
+                this.maxInactiveInterval = interval;
+                this.schedule();
+            }
+        }
+
+        @Override
+        public int getMaxInactiveInterval() {
+            this.validate();
+            return this.maxInactiveInterval;
+        }
+
+        @Override
+        public Object getAttribute(String name) {
+            this.validate();
+            return (name != null) ? this.attributes.get(name) : null;
+        }
+
+        @Override
+        public Set<String> getAttributeNames() {
+            this.validate();
+            return Collections.unmodifiableSet(this.attributes.keySet());
+        }
+
+        @Override
+        public Object setAttribute(String name, Object value) {
+            if (value == null) {
+                return this.removeAttribute(name);
+            }
+            this.validate();
+            Object old = this.attributes.put(name, value);
+            if (old == null) {
+                this.manager.listeners.attributeAdded(this, name, value);
+            } else {
+                this.manager.listeners.attributeUpdated(this, name, value, old);
+            }
+            return old;
+        }
+
+        @Override
+        public Object removeAttribute(String name) {
+            this.validate();
+            Object old = this.attributes.remove(name);
+            if (old != null) {
+                this.manager.listeners.attributeRemoved(this, name, old);
+            }
+            return old;
+        }
+
+        @Override
+        public void invalidate(HttpServerExchange exchange) {
+            if (!this.destroy(exchange, SessionDestroyedReason.INVALIDATED)) {
+                throw UndertowMessages.MESSAGES.sessionIsInvalid(this.id);
+            }
+        }
+
+        @Override
+        public SessionManager getSessionManager() {
+            return this.manager;
+        }
+
+        @Override
+        public String changeSessionId(HttpServerExchange exchange, SessionConfig config) {
+            this.validate();
+            String oldId;
+            String id;
+            synchronized (this) {
+                oldId = this.id;
+                id = this.manager.changeSessionId(this, oldId);
+                this.id = id;
+            }
+            this.config = config;
+            config.setSessionId(exchange, id);
+            this.manager.listeners.sessionIdChanged(this, oldId);
+            return id;
+        }
+
+        /**
+         * Records an access to this session, and moves it to the end of the access queue of the LRU policy.
+         */
+        void access(long now) {
+            this.lastAccessedTime = now;
+            ConcurrentDirectDeque<LocalSession> queue = this.manager.accessQueue;
+            if (queue != null) {
+                synchronized (this) {
+                    if (this.accessToken != null) {
+                        queue.removeToken(this.accessToken);
+                        this.accessToken = queue.offerLastAndReturnToken(this);
+                    }
+                }
+            }
+        }
+
+        synchronized void enqueue(ConcurrentDirectDeque<LocalSession> queue) {
+            if (!this.removed) {
+                this.accessToken = queue.offerLastAndReturnToken(this);
+            }
+        }
+
+        /**
+         * Indicates whether this session timed out.
+         */
+        boolean isExpired(long now) {
+            long interval = TimeUnit.SECONDS.toMillis(this.maxInactiveInterval);
+            return (interval > 0) && (this.lastAccessedTime + interval <= now);
+        }
+
+        /**
+         * Places this session on the expiration wheel according to its current access time and timeout.
+         */
+        synchronized void schedule() {
+            long interval = TimeUnit.SECONDS.toMillis(this.maxInactiveInterval);
+            this.expiration = (interval > 0) ? this.manager.schedule(this, this.lastAccessedTime + interval) : null;
+        }
+
+        /**
+         * Indicates whether this session expired, or reschedules it if it was accessed since the specified entry was created.
+         */
+        synchronized boolean isExpired(Expiration expiration, long now) {
+            if (this.expiration != expiration) {
+                return false;
+            }
+            long interval = TimeUnit.SECONDS.toMillis(this.maxInactiveInterval);
+            if (this.lastAccessedTime + interval <= now) {
+                return true;
+            }
+            this.frequency >>>= 1;
+            this.expiration = this.manager.schedule(this, this.lastAccessedTime + interval);
+            return false;
+        }
+
+        /**
+         * Removes this session from its manager and notifies the session listeners.
+         * @return false, if this session was already removed
+         */
+        boolean destroy(HttpServerExchange exchange, SessionDestroyedReason reason) {
+            synchronized (this) {
+                if (!this.manager.remove(this.id, this)) {
+                    return false;
+                }
+                this.expiration = null;
+                this.removed = true;
+                if (this.accessToken != null) {
+                    this.manager.accessQueue.removeToken(this.accessToken);
+                    this.accessToken = null;
+                }
+            }
+            try {
+                this.manager.listeners.sessionDestroyed(this, exchange, reason);
+            } finally {
+                this.invalid = true;
+                if (exchange != null) {
+                    exchange.removeAttachment(NEW_SESSION);
+                    this.config.clearSession(exchange, this.id);
+                }
+            }
+            return true;
+        }
+
+        private void validate() {
+            if (this.invalid) {
+                throw UndertowMessages.MESSAGES.sessionIsInvalid(this.id);
+            }
+        }
+    }
+}
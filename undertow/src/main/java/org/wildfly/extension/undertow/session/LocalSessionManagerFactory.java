@@ -0,0 +1,52 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.undertow.session;
+
+import java.util.concurrent.ScheduledExecutorService;
+
+import io.undertow.server.session.SessionManager;
+import io.undertow.servlet.api.Deployment;
+import io.undertow.servlet.api.DeploymentInfo;
+import io.undertow.servlet.api.SessionManagerFactory;
+
+/**
+ * Factory for creating a {@link LocalSessionManager} for a non-distributable deployment.
+ */
+public class LocalSessionManagerFactory implements SessionManagerFactory {
+
+    private final int maxActiveSessions;
+    private final SessionEvictionPolicy evictionPolicy;
+    private final ScheduledExecutorService executor;
+
+    public LocalSessionManagerFactory(Integer maxActiveSessions, SessionEvictionPolicy evictionPolicy, ScheduledExecutorService executor) {
+        this.maxActiveSessions = (maxActiveSessions != null) ? maxActiveSessions.intValue() : -1;
+        this.evictionPolicy = evictionPolicy;
+        this.executor = executor;
+    }
+
+    @Override
+    public SessionManager createSessionManager(Deployment deployment) {
+        DeploymentInfo info = deployment.getDeploymentInfo();
+        return new LocalSessionManager(info.getDeploymentName(), info.getSessionIdGenerator(), this.maxActiveSessions, this.evictionPolicy, info.getMetricsCollector() != null, this.executor);
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.undertow;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import io.undertow.server.handlers.accesslog.AccessLogReceiver;
+import org.junit.Test;
+import org.xnio.OptionMap;
+import org.xnio.Xnio;
+import org.xnio.XnioWorker;
+
+public class AsyncAccessLogTestCase {
+
+    @Test
+    public void testParsePattern() {
+        List<String> literals = new ArrayList<>();
+        List<String> tokens = new ArrayList<>();
+        AsyncAccessLog.parse("REQ %{i,test-header} %h 100% ${x}", literals, tokens);
+        assertEquals(Arrays.asList("REQ ", " ", " 100% ", ""), literals);
+        assertEquals(Arrays.asList("%{i,test-header}", "%h", "${x}"), tokens);
+    }
+
+    @Test
+    public void testJsonNames() {
+        assertEquals("remote-host", AsyncAccessLog.name("%h"));
+        assertEquals("request-header.User-Agent", AsyncAccessLog.name("%{i,User-Agent}"));
+        assertEquals("response-header.Content-Type", AsyncAccessLog.name("%{o,Content-Type}"));
+        assertEquals("REQUEST_LINE", AsyncAccessLog.name("%{REQUEST_LINE}"));
+    }
+
+    @Test
+    public void testBlockingWritesEveryRecord() throws InterruptedException {
+        List<String> lines = Collections.synchronizedList(new ArrayList<>());
+        AsyncAccessLog log = new AsyncAccessLog("access-log-test", "static", null, getClass().getClassLoader(), lines::add, AsyncAccessLog.Format.TEXT, 16, AsyncAccessLog.OverflowPolicy.BLOCK);
+        log.start();
+        Thread[] threads = new Thread[4];
+        for (int i = 0; i < threads.length; ++i) {
+            threads[i] = new Thread(() -> {
+                for (int j = 0; j < 1000; ++j) {
+                    log.log(null);
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        log.close();
+        assertEquals(4000, lines.size());
+        assertEquals("static", lines.get(0));
+        assertEquals(0, log.getDroppedCount());
+        assertEquals(0, log.getQueuedCount());
+    }
+
+    @Test
+    public void testDropWhenFull() {
+        List<String> lines = new ArrayList<>();
+        AccessLogReceiver receiver = lines::add;
+        AsyncAccessLog log = new AsyncAccessLog("access-log-test", "static", null, getClass().getClassLoader(), receiver, AsyncAccessLog.Format.JSON, 3, AsyncAccessLog.OverflowPolicy.DROP);
+        // the writer is not started, so the buffer of 4 records fills up
+        for (int i = 0; i < 10; ++i) {
+            log.log(null);
+        }
+        assertEquals(6, log.getDroppedCount());
+        assertEquals(4, log.getQueuedCount());
+        log.start();
+        log.close();
+        assertEquals(4, lines.size());
+        assertEquals("{}", lines.get(0));
+    }
+
+    @Test
+    public void testIoThreadDoesNotBlock() throws Exception {
+        List<String> lines = Collections.synchronizedList(new ArrayList<>());
+        AsyncAccessLog log = new AsyncAccessLog("access-log-test", "static", null, getClass().getClassLoader(), lines::add, AsyncAccessLog.Format.TEXT, 1, AsyncAccessLog.OverflowPolicy.BLOCK);
+        // the writer is not started, so the buffer of 1 record fills up
+        log.log(null);
+        XnioWorker worker = Xnio.getInstance().createWorker(OptionMap.EMPTY);
+        try {
+            CompletableFuture<Void> future = new CompletableFuture<>();
+            worker.getIoThread().execute(() -> {
+                log.log(null);
+                future.complete(null);
+            });
+            future.get(10, TimeUnit.SECONDS);
+        } finally {
+            worker.shutdownNow();
+        }
+        assertEquals(1, log.getDroppedCount());
+        log.start();
+        log.close();
+        assertEquals(1, lines.size());
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.undertow;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+/**
+ * Unit test for {@link LatencyHistogram}.
+ */
+public class LatencyHistogramTestCase {
+
+    @Test
+    public void bucketsAreContiguous() {
+        for (int index = 1; index < LatencyHistogram.BUCKETS; ++index) {
+            long lowest = LatencyHistogram.highestValue(index - 1) + 1;
+            assertEquals(index, LatencyHistogram.index(lowest));
+            assertEquals(index, LatencyHistogram.index(LatencyHistogram.highestValue(index)));
+            // a bucket spans at most a 16th of its lowest value
+            assertTrue(LatencyHistogram.highestValue(index) - lowest <= Math.max(lowest / 16, 0));
+        }
+    }
+
+    @Test
+    public void computesPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 1000; ++i) {
+            histogram.record(TimeUnit.MICROSECONDS.toNanos(i));
+        }
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+
+        assertEquals(1000, snapshot.getCount());
+        assertEquals(TimeUnit.MICROSECONDS.toNanos(1000), snapshot.getMax());
+        assertEquals(500500, snapshot.getMean());
+        assertWithin(TimeUnit.MICROSECONDS.toNanos(500), snapshot.getValueAtPercentile(50));
+        assertWithin(TimeUnit.MICROSECONDS.toNanos(990), snapshot.getValueAtPercentile(99));
+        assertWithin(TimeUnit.MICROSECONDS.toNanos(999), snapshot.getValueAtPercentile(99.9));
+        assertEquals(TimeUnit.MICROSECONDS.toNanos(1000), snapshot.getValueAtPercentile(100));
+    }
+
+    @Test
+    public void recordsConcurrently() throws InterruptedException {
+        LatencyHistogram histogram = new LatencyHistogram();
+        Thread[] threads = new Thread[4];
+        for (int i = 0; i < threads.length; ++i) {
+            threads[i] = new Thread(() -> {
+                for (int j = 0; j < 10000; ++j) {
+                    histogram.record(j);
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(40000, histogram.snapshot().getCount());
+
+        histogram.reset();
+        assertEquals(0, histogram.snapshot().getCount());
+        assertEquals(0, histogram.snapshot().getValueAtPercentile(99));
+    }
+
+    @Test
+    public void clampsOutOfRangeValues() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(-1);
+        histogram.record(Long.MAX_VALUE);
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(2, snapshot.getCount());
+        assertEquals(0, snapshot.getValueAtPercentile(50));
+        assertEquals(snapshot.getMax(), snapshot.getValueAtPercentile(100));
+    }
+
+    private static void assertWithin(long expected, long actual) {
+        // percentiles are overestimated by at most a 16th
+        assertTrue(actual + " < " + expected, actual >= expected);
+        assertTrue(actual + " > " + expected, actual <= expected + expected / 16);
+    }
+}
@@ -41,7 +41,9 @@ import org.jboss.as.subsystem.test.KernelServicesBuilder;
 import org.jboss.dmr.ModelNode;
 import org.junit.Assert;
 import org.junit.Test;
+import org.wildfly.extension.undertow.filters.AdaptiveRequestLimitFilter;
 import org.wildfly.extension.undertow.filters.ModClusterDefinition;
+import org.wildfly.extension.undertow.filters.ResponseCacheFilter;
 import org.wildfly.extension.undertow.handlers.ReverseProxyHandler;
 
 /**
@@ -109,9 +111,13 @@ public class UndertowTransformersTestCase extends AbstractSubsystemBaseTest {
                                 HttpsListenerResourceDefinition.SSL_CONTEXT.getName()
                         )
                 )
-                .addFailedAttribute(reverseProxy, new FailedOperationTransformationConfig.NewAttributesConfig(ReverseProxyHandler.MAX_RETRIES))
+                .addFailedAttribute(subsystemAddress.append(UndertowExtension.PATH_SERVLET_CONTAINER), new FailedOperationTransformationConfig.NewAttributesConfig(Constants.SESSION_EVICTION_POLICY, Constants.PRECOMPRESS_STATIC_RESOURCES))
+                .addFailedAttribute(hostAddress.append(UndertowExtension.PATH_ACCESS_LOG), new FailedOperationTransformationConfig.NewAttributesConfig(Constants.ASYNC, Constants.OUTPUT_FORMAT, Constants.QUEUE_SIZE, Constants.OVERFLOW_POLICY))
+                .addFailedAttribute(reverseProxy, new FailedOperationTransformationConfig.NewAttributesConfig(ReverseProxyHandler.MAX_RETRIES, ReverseProxyHandler.LOAD_BALANCING_POLICY, ReverseProxyHandler.HEALTH_CHECK_PATH, ReverseProxyHandler.HEALTH_CHECK_INTERVAL))
                 .addFailedAttribute(reverseProxyServerAddress, new FailedOperationTransformationConfig.NewAttributesConfig(Constants.SSL_CONTEXT))
                 .addFailedAttribute(hostAddress.append(UndertowExtension.PATH_HTTP_INVOKER), FailedOperationTransformationConfig.REJECTED_RESOURCE)
+                .addFailedAttribute(subsystemAddress.append(UndertowExtension.PATH_FILTERS).append(AdaptiveRequestLimitFilter.INSTANCE.getPathElement()), FailedOperationTransformationConfig.REJECTED_RESOURCE)
+                .addFailedAttribute(subsystemAddress.append(UndertowExtension.PATH_FILTERS).append(ResponseCacheFilter.INSTANCE.getPathElement()), FailedOperationTransformationConfig.REJECTED_RESOURCE)
                 .addFailedAttribute(subsystemAddress.append(UndertowExtension.PATH_APPLICATION_SECURITY_DOMAIN), FailedOperationTransformationConfig.DISCARDED_RESOURCE)
                 .addFailedAttribute(modClusterPath, new FailedOperationTransformationConfig.RejectExpressionsConfig(MAX_AJP_PACKET_SIZE))
                 .addFailedAttribute(modClusterPath, FailedOperationTransformationConfig.ChainedConfig.createBuilder(SSL_CONTEXT, ModClusterDefinition.MAX_RETRIES, ModClusterDefinition.FAILOVER_STRATEGY, MAX_AJP_PACKET_SIZE)
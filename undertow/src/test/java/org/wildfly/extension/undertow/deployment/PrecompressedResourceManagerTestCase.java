@@ -0,0 +1,312 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.undertow.deployment;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import io.undertow.io.IoCallback;
+import io.undertow.io.Sender;
+import io.undertow.server.HttpServerExchange;
+import io.undertow.server.handlers.cache.DirectBufferCache;
+import io.undertow.server.handlers.resource.Resource;
+import io.undertow.server.handlers.resource.ResourceManager;
+import io.undertow.util.ETag;
+import io.undertow.util.ETagUtils;
+import io.undertow.util.Headers;
+import io.undertow.util.HttpString;
+import io.undertow.util.Methods;
+import io.undertow.util.MimeMappings;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.ArgumentCaptor;
+
+public class PrecompressedResourceManagerTestCase {
+
+    private static final List<String> AVAILABLE = Arrays.asList(PrecompressedResourceManager.BROTLI, PrecompressedResourceManager.GZIP);
+    private static final String PATH = "/js/app.js";
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    private final ResourceManager delegate = mock(ResourceManager.class);
+    private final Resource resource = mock(Resource.class);
+    private final DirectBufferCache cache = new DirectBufferCache(1024, 16, 1024 * 16 * 4);
+    private byte[] content;
+
+    @Before
+    public void init() throws IOException {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 100; ++i) {
+            builder.append("console.log('line ").append(i).append("');\n");
+        }
+        this.content = builder.toString().getBytes(StandardCharsets.UTF_8);
+        File file = this.folder.newFile("app.js");
+        Files.write(file.toPath(), this.content);
+        when(this.delegate.getResource(PATH)).thenReturn(this.resource);
+        when(this.resource.getPath()).thenReturn(PATH);
+        when(this.resource.getFile()).thenReturn(file);
+        when(this.resource.getContentLength()).thenReturn((long) this.content.length);
+        when(this.resource.getLastModified()).thenReturn(new Date(1000L));
+        when(this.resource.getContentType(any(MimeMappings.class))).thenReturn("application/javascript");
+    }
+
+    @Test
+    public void testSelectPreferredEncoding() {
+        assertEquals("br", select("gzip, deflate, br"));
+        assertEquals("gzip", select("gzip, deflate"));
+        assertEquals("gzip", PrecompressedResourceManager.selectEncoding(Arrays.asList("deflate", "GZIP"), AVAILABLE));
+    }
+
+    @Test
+    public void testSelectEncodingQuality() {
+        assertEquals("gzip", select("br;q=0.5, gzip"));
+        assertEquals("gzip", select("br;q=0, *"));
+        assertNull(select("gzip;q=0, br;q=0"));
+        assertNull(select("*;q=0"));
+    }
+
+    @Test
+    public void testSelectIdentity() {
+        assertNull(PrecompressedResourceManager.selectEncoding(null, AVAILABLE));
+        assertNull(select("identity"));
+        assertNull(select("deflate"));
+        assertNull(PrecompressedResourceManager.selectEncoding(Collections.singletonList("gzip"), Collections.emptyList()));
+    }
+
+    @Test
+    public void testNormalize() {
+        assertEquals("index.html", PrecompressedResourceManager.normalize("/index.html"));
+        assertEquals("js/app.js", PrecompressedResourceManager.normalize("//js/app.js"));
+        assertEquals("js/app.js", PrecompressedResourceManager.normalize("js/app.js"));
+    }
+
+    @Test
+    public void testNegotiatedVariant() throws IOException {
+        PrecompressedResourceManager manager = new PrecompressedResourceManager(this.delegate, this.cache);
+        ETag identity = manager.getResource(PATH, null).getETag();
+
+        HttpServerExchange exchange = exchange(Methods.GET, "gzip, deflate");
+        Resource resource = manager.getResource(PATH, exchange);
+        ETag etag = resource.getETag();
+        assertFalse(etag.isWeak());
+        assertEquals(identity.getTag() + "-gzip", etag.getTag());
+        // a client revalidating the gzip variant gets a 304
+        assertFalse(ETagUtils.handleIfNoneMatch(etag.toString(), resource.getETag(), true));
+        assertTrue(ETagUtils.handleIfNoneMatch(identity.toString(), resource.getETag(), true));
+        long length = resource.getContentLength();
+        assertTrue(length < this.content.length);
+        assertEquals("gzip", exchange.getResponseHeaders().getFirst(Headers.CONTENT_ENCODING));
+        assertEquals(Headers.ACCEPT_ENCODING_STRING, exchange.getResponseHeaders().getFirst(Headers.VARY));
+
+        Sender sender = mock(Sender.class);
+        IoCallback callback = mock(IoCallback.class);
+        resource.serve(sender, exchange, callback);
+        ArgumentCaptor<ByteBuffer[]> captor = ArgumentCaptor.forClass(ByteBuffer[].class);
+        verify(sender).send(captor.capture(), any(IoCallback.class));
+        ByteArrayOutputStream sent = new ByteArrayOutputStream();
+        for (ByteBuffer buffer : captor.getValue()) {
+            byte[] bytes = new byte[buffer.remaining()];
+            buffer.get(bytes);
+            sent.write(bytes);
+        }
+        assertEquals(length, sent.size());
+        assertEquals(String.valueOf(length), exchange.getResponseHeaders().getFirst(Headers.CONTENT_LENGTH));
+        assertEquals(etag.toString(), exchange.getResponseHeaders().getFirst(Headers.ETAG));
+        assertEquals(1, exchange.getResponseHeaders().count(Headers.VARY));
+        assertArrayEquals(this.content, gunzip(sent.toByteArray()));
+    }
+
+    @Test
+    public void testHeadDescribesVariant() throws IOException {
+        PrecompressedResourceManager manager = new PrecompressedResourceManager(this.delegate, this.cache);
+        HttpServerExchange get = exchange(Methods.GET, "gzip");
+        Resource resource = manager.getResource(PATH, get);
+        HttpServerExchange head = exchange(Methods.HEAD, "gzip");
+        Resource described = manager.getResource(PATH, head);
+
+        assertEquals(resource.getETag(), described.getETag());
+        assertEquals(resource.getContentLength(), described.getContentLength());
+        assertEquals("gzip", head.getResponseHeaders().getFirst(Headers.CONTENT_ENCODING));
+    }
+
+    @Test
+    public void testIdentity() throws IOException {
+        PrecompressedResourceManager manager = new PrecompressedResourceManager(this.delegate, this.cache);
+        HttpServerExchange exchange = exchange(Methods.GET, null);
+        Resource resource = manager.getResource(PATH, exchange);
+
+        assertFalse(resource.getETag().getTag().endsWith("-gzip"));
+        assertEquals(Long.valueOf(this.content.length), resource.getContentLength());
+        assertNull(exchange.getResponseHeaders().getFirst(Headers.CONTENT_ENCODING));
+        assertEquals(Headers.ACCEPT_ENCODING_STRING, exchange.getResponseHeaders().getFirst(Headers.VARY));
+
+        Sender sender = mock(Sender.class);
+        IoCallback callback = mock(IoCallback.class);
+        resource.serve(sender, exchange, callback);
+        verify(this.resource).serve(sender, exchange, callback);
+    }
+
+    @Test
+    public void testRangeRequestServesIdentity() throws IOException {
+        PrecompressedResourceManager manager = new PrecompressedResourceManager(this.delegate, this.cache);
+        HttpServerExchange exchange = exchange(Methods.GET, "gzip");
+        exchange.getRequestHeaders().put(Headers.RANGE, "bytes=0-99");
+        Resource resource = manager.getResource(PATH, exchange);
+
+        assertEquals(Long.valueOf(this.content.length), resource.getContentLength());
+        assertEquals(manager.getResource(PATH, null).getETag(), resource.getETag());
+        assertNull(exchange.getResponseHeaders().getFirst(Headers.CONTENT_ENCODING));
+    }
+
+    @Test
+    public void testModifiedResource() throws IOException {
+        PrecompressedResourceManager manager = new PrecompressedResourceManager(this.delegate, this.cache);
+        ETag etag = manager.getResource(PATH, null).getETag();
+        assertEquals(etag, manager.getResource(PATH, null).getETag());
+
+        File file = this.resource.getFile();
+        Files.write(file.toPath(), "// modified\n".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+        long length = file.length();
+        when(this.resource.getContentLength()).thenReturn(length);
+        when(this.resource.getLastModified()).thenReturn(new Date(2000L));
+
+        assertNotEquals(etag, manager.getResource(PATH, null).getETag());
+    }
+
+    @Test
+    public void testResourceWithoutLastModified() throws IOException {
+        when(this.resource.getLastModified()).thenReturn(null);
+        PrecompressedResourceManager manager = new PrecompressedResourceManager(this.delegate, this.cache);
+
+        assertSame(this.resource, manager.getResource(PATH, exchange(Methods.GET, "gzip")));
+    }
+
+    @Test
+    public void testPrepare() throws IOException {
+        Resource root = mock(Resource.class);
+        when(root.getPath()).thenReturn("/");
+        when(root.isDirectory()).thenReturn(true);
+        when(root.list()).thenReturn(Collections.singletonList(this.resource));
+        when(this.delegate.getResource("/")).thenReturn(root);
+        PrecompressedResourceManager manager = new PrecompressedResourceManager(this.delegate, this.cache);
+        manager.prepare();
+
+        // the prepared representations are not created again
+        File file = this.resource.getFile();
+        assertTrue(file.delete());
+        assertEquals("gzip", negotiatedEncoding(manager));
+        manager.close();
+        verify(this.delegate).close();
+    }
+
+    @Test
+    public void testDescribingDoesNotChangeHeaders() throws IOException {
+        PrecompressedResourceManager manager = new PrecompressedResourceManager(this.delegate, this.cache);
+        HttpServerExchange exchange = exchange(Methods.GET, "gzip");
+        Resource resource = manager.getResource(PATH, exchange);
+        assertEquals("gzip", exchange.getResponseHeaders().getFirst(Headers.CONTENT_ENCODING));
+
+        // the headers are only set when the representation is negotiated
+        exchange.getResponseHeaders().clear();
+        assertTrue(resource.getETag().getTag().endsWith("-gzip"));
+        assertTrue(resource.getContentLength() < this.content.length);
+        assertEquals(0, exchange.getResponseHeaders().size());
+    }
+
+    @Test
+    public void testStart() throws IOException {
+        Resource root = mock(Resource.class);
+        when(root.getPath()).thenReturn("/");
+        when(root.isDirectory()).thenReturn(true);
+        when(root.list()).thenReturn(Collections.singletonList(this.resource));
+        when(this.delegate.getResource("/")).thenReturn(root);
+        PrecompressedResourceManager manager = new PrecompressedResourceManager(this.delegate, this.cache);
+        List<Runnable> tasks = new ArrayList<>();
+        manager.start(tasks::add);
+        assertEquals(1, tasks.size());
+        tasks.get(0).run();
+
+        File file = this.resource.getFile();
+        assertTrue(file.delete());
+        assertEquals("gzip", negotiatedEncoding(manager));
+    }
+
+    private String negotiatedEncoding(PrecompressedResourceManager manager) throws IOException {
+        HttpServerExchange exchange = exchange(Methods.GET, "gzip");
+        manager.getResource(PATH, exchange);
+        return exchange.getResponseHeaders().getFirst(Headers.CONTENT_ENCODING);
+    }
+
+    private static HttpServerExchange exchange(HttpString method, String acceptEncoding) {
+        HttpServerExchange exchange = new HttpServerExchange(null);
+        exchange.setRequestMethod(method);
+        if (acceptEncoding != null) {
+            exchange.getRequestHeaders().put(Headers.ACCEPT_ENCODING, acceptEncoding);
+        }
+        return exchange;
+    }
+
+    private static byte[] gunzip(byte[] bytes) throws IOException {
+        try (InputStream input = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            byte[] buffer = new byte[1024];
+            int read;
+            while ((read = input.read(buffer)) != -1) {
+                output.write(buffer, 0, read);
+            }
+            return output.toByteArray();
+        }
+    }
+
+    private static String select(String acceptEncoding) {
+        return PrecompressedResourceManager.selectEncoding(Collections.singletonList(acceptEncoding), AVAILABLE);
+    }
+}
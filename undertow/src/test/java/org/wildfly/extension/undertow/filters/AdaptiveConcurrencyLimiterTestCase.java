@@ -0,0 +1,103 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.undertow.filters;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+/**
+ * Unit test for {@link AdaptiveConcurrencyLimiter}.
+ */
+public class AdaptiveConcurrencyLimiterTestCase {
+
+    private static final long LATENCY = TimeUnit.MILLISECONDS.toNanos(10);
+
+    @Test
+    public void rejectsBeyondLimit() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 10, 2.0, 0);
+
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+        assertEquals(2, limiter.getInFlight());
+        assertEquals(1, limiter.getRejectedCount());
+
+        limiter.release(0, LATENCY);
+
+        assertEquals(1, limiter.getInFlight());
+        assertTrue(limiter.tryAcquire());
+    }
+
+    @Test
+    public void growsWhileLatencyIsStable() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 1, 1000, 2.0, 0);
+        long now = 0;
+        for (int window = 0; window < 20; ++window) {
+            now = this.saturate(limiter, now, LATENCY);
+        }
+        assertTrue(limiter.getLimit() > 10);
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    public void shrinksWhenLatencyGrows() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(100, 5, 1000, 2.0, 0);
+        long now = this.saturate(limiter, 0, LATENCY);
+        int limit = limiter.getLimit();
+        for (int window = 0; window < 20; ++window) {
+            now = this.saturate(limiter, now, LATENCY * 10);
+        }
+        assertTrue(limiter.getLimit() < limit);
+        assertTrue(limiter.getLimit() >= 5);
+    }
+
+    @Test
+    public void doesNotGrowWhenUnused() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(100, 1, 1000, 2.0, 0);
+        long now = 0;
+        for (int window = 0; window < 20; ++window) {
+            now += AdaptiveConcurrencyLimiter.WINDOW;
+            assertTrue(limiter.tryAcquire());
+            limiter.release(now - LATENCY, now);
+        }
+        assertEquals(100, limiter.getLimit());
+    }
+
+    // Admits as many requests as the limit allows, then completes them all after the specified latency, one window later
+    private long saturate(AdaptiveConcurrencyLimiter limiter, long now, long latency) {
+        int admitted = 0;
+        while (limiter.tryAcquire()) {
+            admitted += 1;
+        }
+        long end = now + Math.max(latency, AdaptiveConcurrencyLimiter.WINDOW);
+        for (int i = 0; i < admitted; ++i) {
+            limiter.release(end - latency, end);
+        }
+        return end;
+    }
+}
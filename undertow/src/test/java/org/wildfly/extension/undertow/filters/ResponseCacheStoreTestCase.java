@@ -0,0 +1,192 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.undertow.filters;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import io.undertow.server.handlers.cache.DirectBufferCache;
+import io.undertow.server.handlers.cache.LimitedBufferSlicePool;
+import io.undertow.util.HeaderMap;
+import io.undertow.util.Headers;
+import io.undertow.util.HttpString;
+import org.junit.Test;
+import org.wildfly.extension.undertow.filters.ResponseCacheStore.CachedResponse;
+
+/**
+ * Unit test for {@link ResponseCacheStore} and the cache header handling of {@link ResponseCacheHandler}.
+ */
+public class ResponseCacheStoreTestCase {
+
+    private static final long NOW = System.currentTimeMillis();
+
+    private final DirectBufferCache buffers = new DirectBufferCache(1024, 16, 1024 * 16 * 4);
+
+    @Test
+    public void storesBody() {
+        ResponseCacheStore store = new ResponseCacheStore(this.buffers, 1 << 20, 8192);
+        byte[] body = body(3000, 'a');
+
+        assertTrue(store.store(response("/a", 3000), body));
+        CachedResponse response = store.lookup(key("/a"), new HeaderMap(), NOW);
+        assertNotNull(response);
+        assertEquals(1, store.getEntryCount());
+        assertTrue(store.getMemoryUsed() > 3000);
+
+        DirectBufferCache.CacheEntry entry = store.reference(response);
+        assertNotNull(entry);
+        try {
+            ByteBuffer content = ByteBuffer.allocate(3000);
+            for (LimitedBufferSlicePool.PooledByteBuffer buffer : entry.buffers()) {
+                content.put(buffer.getBuffer().duplicate());
+            }
+            assertEquals(ByteBuffer.wrap(body), content.flip());
+        } finally {
+            entry.dereference();
+        }
+    }
+
+    @Test
+    public void rejectsOversizedAndStaleResponses() {
+        ResponseCacheStore store = new ResponseCacheStore(this.buffers, 1 << 20, 1024);
+
+        assertFalse(store.store(response("/a", 2000), body(2000, 'a')));
+        assertFalse(store.store(response("/a", 0), new byte[0]));
+        assertTrue(store.store(response("/b", 100), body(100, 'b')));
+        assertNull(store.lookup(key("/b"), new HeaderMap(), NOW + 60000));
+        assertEquals(0, store.getEntryCount());
+        assertEquals(0, store.getMemoryUsed());
+    }
+
+    @Test
+    public void selectsVariant() {
+        ResponseCacheStore store = new ResponseCacheStore(this.buffers, 1 << 20, 8192);
+        CachedResponse gzip = response("/a", 10, Headers.ACCEPT_ENCODING, "gzip");
+        CachedResponse identity = response("/a", 20, Headers.ACCEPT_ENCODING, null);
+        store.store(gzip, body(10, 'g'));
+        store.store(identity, body(20, 'i'));
+
+        assertSame(gzip, store.lookup(key("/a"), new HeaderMap().put(Headers.ACCEPT_ENCODING, "gzip"), NOW));
+        assertSame(identity, store.lookup(key("/a"), new HeaderMap(), NOW));
+        assertNull(store.lookup(key("/a"), new HeaderMap().put(Headers.ACCEPT_ENCODING, "br"), NOW));
+
+        // a response of the same variant replaces the cached one
+        CachedResponse replacement = response("/a", 30, Headers.ACCEPT_ENCODING, "gzip");
+        store.store(replacement, body(30, 'r'));
+        assertSame(replacement, store.lookup(key("/a"), new HeaderMap().put(Headers.ACCEPT_ENCODING, "gzip"), NOW));
+        assertEquals(2, store.getEntryCount());
+        assertNull(store.reference(gzip));
+    }
+
+    @Test
+    public void invalidates() {
+        ResponseCacheStore store = new ResponseCacheStore(this.buffers, 1 << 20, 8192);
+        store.store(response("/app/a", 10), body(10, 'a'));
+        store.store(response("/app/b", 10), body(10, 'b'));
+        store.store(response("/other", 10), body(10, 'c'));
+
+        assertEquals(1, store.invalidate("/app/a"));
+        assertNull(store.lookup(key("/app/a"), new HeaderMap(), NOW));
+        assertEquals(0, store.invalidate("/app/a"));
+        assertEquals(1, store.invalidate("/app/*"));
+        assertEquals(1, store.getEntryCount());
+        assertEquals(1, store.invalidate(null));
+        assertEquals(0, store.getEntryCount());
+        assertEquals(0, store.getMemoryUsed());
+    }
+
+    @Test
+    public void evictsLeastRecentlyUsed() {
+        CachedResponse first = response("/1", 1000);
+        long maxSize = first.getSize() * 3L;
+        ResponseCacheStore store = new ResponseCacheStore(this.buffers, maxSize, 8192);
+        store.store(first, body(1000, '1'));
+        store.store(response("/2", 1000), body(1000, '2'));
+        store.store(response("/3", 1000), body(1000, '3'));
+        assertEquals(3, store.getEntryCount());
+
+        // the first response was used since it was stored, so the second is evicted instead
+        assertNotNull(store.lookup(key("/1"), new HeaderMap(), NOW));
+        store.store(response("/4", 1000), body(1000, '4'));
+
+        assertEquals(3, store.getEntryCount());
+        assertTrue(store.getMemoryUsed() <= maxSize);
+        assertNotNull(store.lookup(key("/1"), new HeaderMap(), NOW));
+        assertNull(store.lookup(key("/2"), new HeaderMap(), NOW));
+        assertNotNull(store.lookup(key("/4"), new HeaderMap(), NOW));
+    }
+
+    @Test
+    public void computesHitRatio() {
+        ResponseCacheStore store = new ResponseCacheStore(this.buffers, 1 << 20, 8192);
+        assertEquals(0.0, store.getHitRatio(), 0.0);
+        store.recordHit();
+        store.recordHit();
+        store.recordHit();
+        store.recordMiss();
+        assertEquals(0.75, store.getHitRatio(), 0.0);
+    }
+
+    @Test
+    public void parsesCacheControl() {
+        assertEquals("", ResponseCacheHandler.directive("public, No-Cache", "no-cache"));
+        assertEquals("60", ResponseCacheHandler.directive("public, max-age = \"60\"", "max-age"));
+        assertNull(ResponseCacheHandler.directive("public", "private"));
+        assertNull(ResponseCacheHandler.directive(null, "private"));
+
+        assertEquals(30000, ResponseCacheHandler.freshness("max-age=60, s-maxage=30", null, null, NOW));
+        assertEquals(60000, ResponseCacheHandler.freshness("public, max-age=60", "Thu, 01 Jan 1970 00:00:00 GMT", null, NOW));
+        assertEquals(0, ResponseCacheHandler.freshness("max-age=x", null, null, NOW));
+        assertEquals(0, ResponseCacheHandler.freshness("public", null, null, NOW));
+        assertEquals(120000, ResponseCacheHandler.freshness(null, "Thu, 01 Jan 1970 00:02:00 GMT", "Thu, 01 Jan 1970 00:00:00 GMT", NOW));
+        assertTrue(ResponseCacheHandler.freshness(null, "0", null, NOW) <= 0);
+    }
+
+    private static String key(String path) {
+        return ResponseCacheStore.key("http", "localhost:8080", path, null);
+    }
+
+    private static CachedResponse response(String path, int length) {
+        return response(path, length, null, null);
+    }
+
+    private static CachedResponse response(String path, int length, HttpString vary, String varyValue) {
+        HttpString[] varyNames = (vary != null) ? new HttpString[] { vary } : new HttpString[0];
+        String[] varyValues = (vary != null) ? new String[] { varyValue } : new String[0];
+        return new CachedResponse(key(path), path, 200, new HttpString[] { Headers.CONTENT_TYPE }, new String[] { "text/plain" },
+                varyNames, varyValues, null, NOW, NOW + 60000, length);
+    }
+
+    private static byte[] body(int length, char c) {
+        byte[] body = new byte[length];
+        Arrays.fill(body, (byte) c);
+        return body;
+    }
+}
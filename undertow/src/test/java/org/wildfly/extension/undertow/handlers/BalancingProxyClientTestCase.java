@@ -0,0 +1,156 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.undertow.handlers;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.net.URI;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import io.undertow.server.HttpServerExchange;
+import io.undertow.server.ServerConnection;
+import io.undertow.server.handlers.proxy.LoadBalancingProxyClient;
+import io.undertow.server.handlers.proxy.ProxyCallback;
+import io.undertow.server.handlers.proxy.ProxyClient;
+import io.undertow.util.Headers;
+import org.junit.Test;
+import org.xnio.OptionMap;
+
+public class BalancingProxyClientTestCase {
+
+    private static final URI FIRST = URI.create("http://localhost:8081/");
+    private static final URI SECOND = URI.create("http://localhost:8082/");
+
+    @Test
+    public void testRoundRobin() {
+        BalancingProxyClient client = new BalancingProxyClient(() -> mock(LoadBalancingProxyClient.class), LoadBalancingPolicy.ROUND_ROBIN, Collections.singletonList("JSESSIONID"), 30, null, 10000);
+        assertNull(client.findTarget(exchange()));
+        client.addHost(FIRST, "node1", null, null);
+        client.addHost(SECOND, "node2", null, null);
+        ProxyClient.ProxyTarget target = client.findTarget(exchange());
+        assertNotSame(target, client.findTarget(exchange()));
+        assertSame(target, client.findTarget(exchange()));
+    }
+
+    @Test
+    public void testStickySession() {
+        BalancingProxyClient client = new BalancingProxyClient(() -> mock(LoadBalancingProxyClient.class), LoadBalancingPolicy.PEAK_EWMA, Collections.singletonList("JSESSIONID"), 30, null, 10000);
+        client.addHost(FIRST, "node1", null, null);
+        BalancingProxyClient.Backend second = client.addHost(SECOND, "node2", null, null);
+        for (int i = 0; i < 10; ++i) {
+            HttpServerExchange exchange = exchange();
+            exchange.getRequestHeaders().put(Headers.COOKIE, "JSESSIONID=abcdef.node2");
+            assertSame(second, client.findTarget(exchange));
+        }
+    }
+
+    @Test
+    public void testLeastOutstandingRequests() {
+        BalancingProxyClient client = new BalancingProxyClient(() -> mock(LoadBalancingProxyClient.class), LoadBalancingPolicy.LEAST_OUTSTANDING_REQUESTS, Collections.emptyList(), 30, null, 10000);
+        BalancingProxyClient.Backend first = client.addHost(FIRST, null, null, null);
+        BalancingProxyClient.Backend second = client.addHost(SECOND, null, null, null);
+        // the mocked client never completes the request, so it remains outstanding
+        client.getConnection(first, exchange(), mock(ProxyCallback.class), 10, TimeUnit.SECONDS);
+        assertEquals(1, first.getActiveRequests());
+        assertEquals(1, first.getRequestCount());
+        for (int i = 0; i < 10; ++i) {
+            assertSame(second, client.findTarget(exchange()));
+        }
+    }
+
+    @Test
+    public void testRetry() {
+        BalancingProxyClient client = new BalancingProxyClient(() -> mock(LoadBalancingProxyClient.class), LoadBalancingPolicy.LEAST_OUTSTANDING_REQUESTS, Collections.emptyList(), 30, null, 10000);
+        BalancingProxyClient.Backend first = client.addHost(FIRST, null, null, null);
+        BalancingProxyClient.Backend second = client.addHost(SECOND, null, null, null);
+        HttpServerExchange exchange = exchange();
+        client.getConnection(first, exchange, mock(ProxyCallback.class), 10, TimeUnit.SECONDS);
+        // the proxy handler retries the exchange on another host, which completes the first attempt
+        client.getConnection(second, exchange, mock(ProxyCallback.class), 10, TimeUnit.SECONDS);
+        assertEquals(0, first.getActiveRequests());
+        assertEquals(1, first.getErrorCount());
+        assertEquals(1, second.getActiveRequests());
+        assertEquals(1, second.getRequestCount());
+        client.getConnection(second, exchange, mock(ProxyCallback.class), 10, TimeUnit.SECONDS);
+        assertEquals(1, second.getActiveRequests());
+        assertEquals(2, second.getRequestCount());
+        assertEquals(1, second.getErrorCount());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testProblemServer() {
+        LoadBalancingProxyClient failing = mock(LoadBalancingProxyClient.class);
+        doAnswer(invocation -> {
+            ((ProxyCallback<?>) invocation.getArguments()[2]).failed((HttpServerExchange) invocation.getArguments()[1]);
+            return null;
+        }).when(failing).getConnection(any(), any(), any(), anyLong(), any());
+        LoadBalancingProxyClient[] clients = new LoadBalancingProxyClient[] { failing, mock(LoadBalancingProxyClient.class) };
+        int[] index = new int[1];
+        BalancingProxyClient client = new BalancingProxyClient(() -> clients[index[0]++], LoadBalancingPolicy.PEAK_EWMA, Collections.emptyList(), 30, null, 10000);
+        BalancingProxyClient.Backend first = client.addHost(FIRST, null, null, null);
+        BalancingProxyClient.Backend second = client.addHost(SECOND, null, null, null);
+
+        client.getConnection(first, exchange(), mock(ProxyCallback.class), 10, TimeUnit.SECONDS);
+        assertEquals(0, first.getActiveRequests());
+        assertEquals(1, first.getErrorCount());
+        for (int i = 0; i < 10; ++i) {
+            assertSame(second, client.findTarget(exchange()));
+        }
+
+        client.removeHost(SECOND);
+        // with no other host left, the problem server is used rather than failing every request
+        assertSame(first, client.findTarget(exchange()));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testRoundRobinProblemServer() {
+        LoadBalancingProxyClient failing = mock(LoadBalancingProxyClient.class);
+        doAnswer(invocation -> {
+            ((ProxyCallback<?>) invocation.getArguments()[2]).failed((HttpServerExchange) invocation.getArguments()[1]);
+            return null;
+        }).when(failing).getConnection(any(), any(), any(), anyLong(), any());
+        BalancingProxyClient client = new BalancingProxyClient(() -> failing, LoadBalancingPolicy.ROUND_ROBIN, Collections.emptyList(), 30, null, 10000);
+        BalancingProxyClient.Backend first = client.addHost(FIRST, null, null, null);
+
+        client.getConnection(first, exchange(), mock(ProxyCallback.class), 10, TimeUnit.SECONDS);
+        // the default policy keeps the previous behaviour of finding no target
+        assertNull(client.findTarget(exchange()));
+    }
+
+    private static HttpServerExchange exchange() {
+        ServerConnection connection = mock(ServerConnection.class);
+        when(connection.getUndertowOptions()).thenReturn(OptionMap.EMPTY);
+        return new HttpServerExchange(connection);
+    }
+}
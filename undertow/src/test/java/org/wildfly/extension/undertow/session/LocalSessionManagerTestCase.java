@@ -0,0 +1,225 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.undertow.session;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+
+import io.undertow.server.HttpServerExchange;
+import io.undertow.server.session.SecureRandomSessionIdGenerator;
+import io.undertow.server.session.Session;
+import io.undertow.server.session.SessionConfig;
+import org.junit.Test;
+import org.wildfly.extension.undertow.session.LocalSessionManager.LocalSession;
+
+/**
+ * Unit test for {@link LocalSessionManager}.
+ */
+public class LocalSessionManagerTestCase {
+
+    private final SessionConfig config = mock(SessionConfig.class);
+
+    @Test
+    public void createSession() {
+        LocalSessionManager manager = manager(-1, SessionEvictionPolicy.LRU);
+        Session session = this.createSession(manager);
+
+        assertSame(session, manager.getSession(session.getId()));
+        assertEquals(1, manager.getActiveSessionCount());
+        assertEquals(1, manager.getCreatedSessionCount());
+
+        session.invalidate(null);
+        assertNull(manager.getSession(session.getId()));
+        assertEquals(0, manager.getActiveSessionCount());
+        try {
+            session.invalidate(null);
+            fail();
+        } catch (IllegalStateException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void changeSessionId() {
+        LocalSessionManager manager = manager(-1, SessionEvictionPolicy.LRU);
+        Session session = this.createSession(manager);
+        String oldId = session.getId();
+
+        String id = session.changeSessionId(new HttpServerExchange(null), this.config);
+
+        assertEquals(id, session.getId());
+        assertNull(manager.getSession(oldId));
+        assertSame(session, manager.getSession(id));
+        assertEquals(1, manager.getActiveSessionCount());
+    }
+
+    @Test
+    public void expire() {
+        LocalSessionManager manager = manager(-1, SessionEvictionPolicy.LRU);
+        manager.setDefaultSessionTimeout(1);
+        long now = System.currentTimeMillis();
+        Session expiring = this.createSession(manager);
+        Session accessed = this.createSession(manager);
+        Session immortal = this.createSession(manager);
+        immortal.setMaxInactiveInterval(0);
+        // Simulates a request that arrives after the session was scheduled
+        ((LocalSession) accessed).lastAccessedTime = now + 10 * LocalSessionManager.TICK;
+
+        manager.expire(now + 5 * LocalSessionManager.TICK);
+
+        assertNull(manager.getSession(expiring.getId()));
+        assertNotNull(manager.getSession(accessed.getId()));
+        assertEquals(1, manager.getExpiredSessionCount());
+
+        manager.expire(now + 20 * LocalSessionManager.TICK);
+
+        assertNull(manager.getSession(accessed.getId()));
+        assertNotNull(manager.getSession(immortal.getId()));
+        assertEquals(2, manager.getExpiredSessionCount());
+        assertEquals(1, manager.getActiveSessionCount());
+    }
+
+    @Test
+    public void evictLeastRecentlyUsed() {
+        LocalSessionManager manager = manager(2, SessionEvictionPolicy.LRU);
+        Session recent = this.createSession(manager);
+        Session old = this.createSession(manager);
+        recent.requestDone(null);
+
+        Session session = this.createSession(manager);
+
+        assertNotNull(manager.getSession(recent.getId()));
+        assertNull(manager.getSession(old.getId()));
+        assertNotNull(manager.getSession(session.getId()));
+        assertEquals(1, manager.getEvictedSessionCount());
+        assertEquals(2, manager.getActiveSessionCount());
+    }
+
+    @Test
+    public void evictLeastRecentlyUsedOfMany() {
+        LocalSessionManager manager = manager(100, SessionEvictionPolicy.LRU);
+        Session[] sessions = new Session[100];
+        for (int i = 0; i < sessions.length; ++i) {
+            sessions[i] = this.createSession(manager);
+        }
+        for (int i = 0; i < sessions.length; ++i) {
+            if (i != 42) {
+                sessions[i].requestDone(null);
+            }
+        }
+
+        this.createSession(manager);
+
+        assertNull(manager.getSession(sessions[42].getId()));
+        assertEquals(1, manager.getEvictedSessionCount());
+        assertEquals(100, manager.getActiveSessionCount());
+
+        // an invalidated session is no longer a candidate
+        sessions[0].invalidate(null);
+        this.createSession(manager);
+        this.createSession(manager);
+
+        assertNull(manager.getSession(sessions[1].getId()));
+        assertNotNull(manager.getSession(sessions[2].getId()));
+        assertEquals(2, manager.getEvictedSessionCount());
+    }
+
+    @Test
+    public void expireOnLookup() {
+        LocalSessionManager manager = manager(-1, SessionEvictionPolicy.LRU);
+        manager.setDefaultSessionTimeout(1);
+        Session session = this.createSession(manager);
+        // Simulates a session that timed out since the last sweep
+        ((LocalSession) session).lastAccessedTime -= 2 * LocalSessionManager.TICK;
+
+        assertNull(manager.getSession(session.getId()));
+        assertEquals(1, manager.getExpiredSessionCount());
+        assertEquals(0, manager.getActiveSessionCount());
+    }
+
+    @Test
+    public void evictLeastFrequentlyUsed() {
+        LocalSessionManager manager = manager(2, SessionEvictionPolicy.LFU);
+        Session rare = this.createSession(manager);
+        Session frequent = this.createSession(manager);
+        frequent.requestDone(null);
+        frequent.requestDone(null);
+
+        this.createSession(manager);
+
+        assertNull(manager.getSession(rare.getId()));
+        assertNotNull(manager.getSession(frequent.getId()));
+        assertEquals(1, manager.getEvictedSessionCount());
+    }
+
+    @Test
+    public void reject() {
+        LocalSessionManager manager = manager(1, SessionEvictionPolicy.REJECT);
+        Session session = this.createSession(manager);
+        try {
+            this.createSession(manager);
+            fail();
+        } catch (IllegalStateException e) {
+            // expected
+        }
+        assertNotNull(manager.getSession(session.getId()));
+        assertEquals(1, manager.getRejectedSessions());
+    }
+
+    @Test
+    public void sharedExecutor() {
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1);
+        executor.setRemoveOnCancelPolicy(true);
+        try {
+            LocalSessionManager first = new LocalSessionManager("first", new SecureRandomSessionIdGenerator(), -1, SessionEvictionPolicy.LRU, true, executor);
+            LocalSessionManager second = new LocalSessionManager("second", new SecureRandomSessionIdGenerator(), -1, SessionEvictionPolicy.LRU, true, executor);
+            first.start();
+            second.start();
+            assertEquals(2, executor.getQueue().size());
+            // a shared session manager is only unregistered once every deployment using it stopped
+            first.start();
+            first.stop();
+            assertEquals(2, executor.getQueue().size());
+            first.stop();
+            assertEquals(1, executor.getQueue().size());
+            second.stop();
+            assertEquals(0, executor.getQueue().size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Session createSession(LocalSessionManager manager) {
+        return manager.createSession(new HttpServerExchange(null), this.config);
+    }
+
+    private static LocalSessionManager manager(int maxActiveSessions, SessionEvictionPolicy policy) {
+        return new LocalSessionManager("test", new SecureRandomSessionIdGenerator(), maxActiveSessions, policy, true, null);
+    }
+}
@@ -21,7 +21,10 @@
  */
 package org.jboss.as.web.common;
 
+import java.lang.reflect.AccessibleObject;
 import java.lang.reflect.InvocationTargetException;
+import java.security.AccessController;
+import java.security.PrivilegedAction;
 import java.util.EnumSet;
 import java.util.Map;
 
@@ -33,6 +36,10 @@ import org.jboss.as.naming.ManagedReferenceFactory;
 
 /**
  * The web injection container.
+ * <p/>
+ * The resolved class and instance factory of each class are cached. Instances of classes for which the deployment
+ * describes no injection points or lifecycle callbacks, neither via annotations nor via deployment descriptors, are
+ * created directly and are not tracked.
  *
  * @author Emanuel Muckenhuber
  */
@@ -41,6 +48,11 @@ public class WebInjectionContainer {
     private final ClassLoader classloader;
     private final ComponentRegistry componentRegistry;
     private final Map<Object, ManagedReference> instanceMap;
+    // Classes are weakly referenced, as classes loaded by the JSP class loader are replaced on recompilation
+    private final Map<String, Class<?>> classes = new ConcurrentReferenceHashMap<>(16, ConcurrentReferenceHashMap.ReferenceType.STRONG, ConcurrentReferenceHashMap.ReferenceType.WEAK);
+    // Factories reference their class, so are softly referenced to not prevent their class from being unloaded
+    private final Map<Class<?>, ManagedReferenceFactory> factories = new ConcurrentReferenceHashMap<>(16, ConcurrentReferenceHashMap.ReferenceType.WEAK, ConcurrentReferenceHashMap.ReferenceType.SOFT);
+    private final Map<Class<?>, Boolean> unmanaged = new ConcurrentReferenceHashMap<>();
 
     public WebInjectionContainer(ClassLoader classloader, final ComponentRegistry componentRegistry) {
         this.classloader = classloader;
@@ -60,20 +72,34 @@ public class WebInjectionContainer {
     }
 
     public Object newInstance(String className) throws IllegalAccessException, InvocationTargetException, NamingException, InstantiationException, ClassNotFoundException {
-        return newInstance(classloader.loadClass(className));
+        Class<?> clazz = classes.get(className);
+        if (clazz == null) {
+            clazz = classloader.loadClass(className);
+            classes.putIfAbsent(className, clazz);
+        }
+        return newInstance(clazz);
     }
 
     public Object newInstance(Class<?> clazz) throws IllegalAccessException, InvocationTargetException, NamingException, InstantiationException {
-        final ManagedReferenceFactory factory = componentRegistry.createInstanceFactory(clazz);
-        ManagedReference reference = factory.getReference();
-        if (reference != null) {
-            instanceMap.put(reference.getInstance(), reference);
-            return reference.getInstance();
+        if (!isUnmanaged(clazz)) {
+            ManagedReferenceFactory factory = factories.get(clazz);
+            if (factory == null) {
+                factory = componentRegistry.createInstanceFactory(clazz);
+                factories.putIfAbsent(clazz, factory);
+            }
+            ManagedReference reference = factory.getReference();
+            if (reference != null) {
+                instanceMap.put(reference.getInstance(), reference);
+                return reference.getInstance();
+            }
         }
         return clazz.newInstance();
     }
 
     public void newInstance(Object arg0) throws IllegalAccessException, InvocationTargetException, NamingException {
+        if (isUnmanaged(arg0.getClass())) {
+            return;
+        }
         final ManagedReference reference = componentRegistry.createInstance(arg0);
         if (reference != null) {
             instanceMap.put(arg0, reference);
@@ -87,4 +113,46 @@ public class WebInjectionContainer {
     public ComponentRegistry getComponentRegistry() {
         return componentRegistry;
     }
+
+    /**
+     * Indicates whether instances of the specified class need neither injection nor lifecycle callbacks.
+     */
+    private boolean isUnmanaged(Class<?> clazz) {
+        Boolean result = unmanaged.get(clazz);
+        if (result == null) {
+            result = !componentRegistry.isDescribed(clazz) && !isAnnotated(clazz);
+            unmanaged.putIfAbsent(clazz, result);
+        }
+        return result;
+    }
+
+    private static boolean isAnnotated(final Class<?> clazz) {
+        if (System.getSecurityManager() == null) {
+            return isAnnotatedPrivileged(clazz);
+        }
+        return AccessController.doPrivileged(new PrivilegedAction<Boolean>() {
+            @Override
+            public Boolean run() {
+                return isAnnotatedPrivileged(clazz);
+            }
+        });
+    }
+
+    private static boolean isAnnotatedPrivileged(Class<?> clazz) {
+        for (Class<?> c = clazz; (c != null) && (c != Object.class); c = c.getSuperclass()) {
+            if (c.getDeclaredAnnotations().length > 0 || isAnnotated(c.getDeclaredFields()) || isAnnotated(c.getDeclaredMethods()) || isAnnotated(c.getDeclaredConstructors())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isAnnotated(AccessibleObject[] members) {
+        for (AccessibleObject member : members) {
+            if (member.getDeclaredAnnotations().length > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
 }
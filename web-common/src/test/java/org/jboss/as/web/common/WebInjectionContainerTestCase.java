@@ -0,0 +1,115 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.web.common;
+
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import javax.annotation.PostConstruct;
+
+import org.jboss.as.ee.component.ComponentRegistry;
+import org.jboss.as.naming.ManagedReference;
+import org.jboss.as.naming.ManagedReferenceFactory;
+import org.junit.Test;
+
+/**
+ * Unit test for {@link WebInjectionContainer}.
+ */
+public class WebInjectionContainerTestCase {
+
+    private final ComponentRegistry registry = mock(ComponentRegistry.class);
+    private final WebInjectionContainer container = new WebInjectionContainer(WebInjectionContainerTestCase.class.getClassLoader(), this.registry);
+
+    @Test
+    public void unmanaged() throws Exception {
+        Object first = this.container.newInstance(PlainTag.class.getName());
+        Object second = this.container.newInstance(PlainTag.class.getName());
+
+        assertTrue(first instanceof PlainTag);
+        assertNotSame(first, second);
+        verify(this.registry, never()).createInstanceFactory(any());
+
+        this.container.newInstance(new PlainTag());
+        verify(this.registry, never()).createInstance(any());
+    }
+
+    @Test
+    public void annotated() throws Exception {
+        ManagedReferenceFactory factory = mock(ManagedReferenceFactory.class);
+        ManagedReference reference = mock(ManagedReference.class);
+        AnnotatedTag tag = new AnnotatedTag();
+
+        when(this.registry.createInstanceFactory(AnnotatedTag.class)).thenReturn(factory);
+        when(factory.getReference()).thenReturn(reference);
+        when(reference.getInstance()).thenReturn(tag);
+
+        assertSame(tag, this.container.newInstance(AnnotatedTag.class.getName()));
+        assertSame(tag, this.container.newInstance(AnnotatedTag.class));
+
+        // Factory is resolved once per class
+        verify(this.registry).createInstanceFactory(AnnotatedTag.class);
+        verify(factory, times(2)).getReference();
+
+        this.container.destroyInstance(tag);
+        verify(reference).release();
+    }
+
+    @Test
+    public void described() throws Exception {
+        ManagedReferenceFactory factory = mock(ManagedReferenceFactory.class);
+        ManagedReference reference = mock(ManagedReference.class);
+        PlainTag tag = new PlainTag();
+
+        // e.g. a component, or a class with injection points declared via a deployment descriptor
+        when(this.registry.isDescribed(PlainTag.class)).thenReturn(true);
+        when(this.registry.createInstanceFactory(PlainTag.class)).thenReturn(factory);
+        when(factory.getReference()).thenReturn(reference);
+        when(reference.getInstance()).thenReturn(tag);
+
+        assertSame(tag, this.container.newInstance(PlainTag.class));
+        verify(this.registry).createInstanceFactory(PlainTag.class);
+    }
+
+    public static class PlainTag {
+        @Override
+        public String toString() {
+            return "plain";
+        }
+    }
+
+    public static class AnnotatedTag extends LifecycleTag {
+    }
+
+    public static class LifecycleTag {
+        @PostConstruct
+        void init() {
+        }
+    }
+}